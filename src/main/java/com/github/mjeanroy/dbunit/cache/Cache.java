@@ -42,13 +42,30 @@ public interface Cache<K, V> {
 	 * Get entry in cache.
 	 *
 	 * If entry is not in the cache, the cache value should be computed and
-	 * added to the cache.
+	 * added to the cache. If value cannot be computed, failure is not kept in the
+	 * cache: next call will compute value again.
 	 *
 	 * @param key Value identifier.
 	 * @return The cache value.
 	 */
 	V load(K key);
 
+	/**
+	 * Get entry in cache, without computing it.
+	 *
+	 * @param key Value identifier.
+	 * @return The cache value, {@code null} if entry is not in the cache (or if it could not be computed).
+	 */
+	V get(K key);
+
+	/**
+	 * Remove entry from the cache (do nothing if entry is not in the cache).
+	 *
+	 * @param key Value identifier.
+	 * @return The removed value, {@code null} if entry was not in the cache (or if it could not be computed).
+	 */
+	V remove(K key);
+
 	/**
 	 * Clear cache.
 	 */
@@ -90,6 +90,8 @@ class DefaultCache<K, V> implements Cache<K, V> {
 				interrupted = true;
 				// Do not return anything and retry
 			} catch (ExecutionException ex) {
+				// Do not keep failures: next lookup will compute value again
+				map.remove(key, task);
 				throw launderThrowable(ex.getCause());
 			}
 		}
@@ -102,6 +104,18 @@ class DefaultCache<K, V> implements Cache<K, V> {
 		return value;
 	}
 
+	@Override
+	public V get(K key) {
+		Future<V> task = map.get(key);
+		return task == null ? null : getQuietly(task);
+	}
+
+	@Override
+	public V remove(K key) {
+		Future<V> task = map.remove(key);
+		return task == null ? null : getQuietly(task);
+	}
+
 	@Override
 	public void clear() {
 		map.clear();
@@ -112,6 +126,25 @@ class DefaultCache<K, V> implements Cache<K, V> {
 		return map.size();
 	}
 
+	/**
+	 * Wait for value being computed by given task, without throwing failures.
+	 *
+	 * @param task The task.
+	 * @return The value, {@code null} if value could not be computed.
+	 */
+	private static <V> V getQuietly(Future<V> task) {
+		try {
+			return task.get();
+		} catch (CancellationException ex) {
+			return null;
+		} catch (ExecutionException ex) {
+			return null;
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
 	/**
 	 * Adapter used to translate {@link CacheLoader} to JDK {@link Callable}.
 	 *
@@ -24,8 +24,11 @@
 
 package com.github.mjeanroy.dbunit.cache;
 
+import static com.github.mjeanroy.dbunit.commons.lang.Exceptions.launderThrowable;
+
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 /**
  * {@link Cache} implementation using Guava {@link LoadingCache}.
@@ -51,7 +54,25 @@ class GuavaCache<K, V> implements  Cache<K, V> {
 
 	@Override
 	public V load(K key) {
-		return cache.getUnchecked(key);
+		try {
+			return cache.getUnchecked(key);
+		}
+		catch (UncheckedExecutionException ex) {
+			// Unwrap original exception, as it is done with the default implementation.
+			throw launderThrowable(ex.getCause());
+		}
+	}
+
+	@Override
+	public V get(K key) {
+		return cache.getIfPresent(key);
+	}
+
+	@Override
+	public V remove(K key) {
+		V value = cache.getIfPresent(key);
+		cache.invalidate(key);
+		return value;
 	}
 
 	@Override
@@ -28,7 +28,15 @@ import static com.github.mjeanroy.dbunit.commons.lang.Strings.isEmpty;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.unmodifiableList;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -182,4 +190,121 @@ public final class Files {
 
 		return unmodifiableList(parts);
 	}
+
+	/**
+	 * Copy {@code source} to {@code target}: if {@code source} is a directory, it is copied
+	 * recursively. If {@code target} already exists, it is deleted first.
+	 *
+	 * @param source Source file (or directory).
+	 * @param target Target file (or directory).
+	 * @throws IOException If copy failed.
+	 */
+	public static void copy(File source, File target) throws IOException {
+		delete(target);
+
+		if (source.isDirectory()) {
+			if (!target.mkdirs()) {
+				throw new IOException("Cannot create directory: " + target);
+			}
+
+			File[] children = source.listFiles();
+			if (children != null) {
+				for (File child : children) {
+					copy(child, new File(target, child.getName()));
+				}
+			}
+		}
+		else if (source.exists()) {
+			copyFile(source, target);
+		}
+	}
+
+	/**
+	 * Delete given file: if {@code file} is a directory, it is deleted recursively.
+	 * Do nothing if {@code file} does not exist.
+	 *
+	 * @param file File (or directory) to delete.
+	 * @throws IOException If file cannot be deleted.
+	 */
+	public static void delete(File file) throws IOException {
+		if (!file.exists()) {
+			return;
+		}
+
+		if (file.isDirectory()) {
+			File[] children = file.listFiles();
+			if (children != null) {
+				for (File child : children) {
+					delete(child);
+				}
+			}
+		}
+
+		if (!file.delete()) {
+			throw new IOException("Cannot delete file: " + file);
+		}
+	}
+
+	/**
+	 * Compute SHA-1 hash of file content.
+	 *
+	 * @param file File.
+	 * @return Hexadecimal hash.
+	 * @throws IOException If file cannot be read.
+	 */
+	public static String sha1(File file) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-1");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IOException(ex.getMessage());
+		}
+
+		InputStream stream = new FileInputStream(file);
+		try {
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = stream.read(buffer)) >= 0) {
+				digest.update(buffer, 0, read);
+			}
+		}
+		finally {
+			Io.closeSafely(stream);
+		}
+
+		StringBuilder sb = new StringBuilder();
+		for (byte b : digest.digest()) {
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * Copy content of {@code source} file to {@code target} file.
+	 *
+	 * @param source Source file.
+	 * @param target Target file.
+	 * @throws IOException If copy failed.
+	 */
+	private static void copyFile(File source, File target) throws IOException {
+		InputStream input = null;
+		OutputStream output = null;
+
+		try {
+			input = new FileInputStream(source);
+			output = new FileOutputStream(target);
+
+			byte[] buffer = new byte[8192];
+			int n;
+			while ((n = input.read(buffer)) != -1) {
+				output.write(buffer, 0, n);
+			}
+		}
+		finally {
+			Io.closeSafely(input);
+			Io.closeSafely(output);
+		}
+	}
 }
@@ -0,0 +1,169 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.dbunit.database.DefaultMetadataHandler;
+import org.dbunit.database.IMetadataHandler;
+import org.dbunit.database.statement.IStatementFactory;
+import org.dbunit.dataset.datatype.DefaultDataTypeFactory;
+import org.dbunit.dataset.datatype.IDataTypeFactory;
+
+/**
+ * DbUnit configuration (see {@link org.dbunit.database.DatabaseConfig}) of connections used
+ * to setup and tear down the database: default values are the DbUnit default values.
+ *
+ * <br>
+ *
+ * If defined, this annotation replaces configuration given to the runner (or to the rule).
+ *
+ * This annotation can be used on:
+ * <ul>
+ *   <li>Class (i.e test class).</li>
+ *   <li>Package (i.e package where test classes belongs)</li>
+ * </ul>
+ *
+ * For example:
+ *
+ * <pre><code>
+ *
+ *   &#64;DbUnitConfig(batchedStatements = true, batchSize = 500, datatypeFactory = HsqldbDataTypeFactory.class)
+ *   &#64;DbUnitDataSet("/dataset/xml")
+ *   public class TestClass {
+ *     &#64;Rule
+ *     public DbUnitRule rule = new DbUnitRule(connectionFactory);
+ *
+ *     &#64;Test
+ *     public void test1() {
+ *     }
+ *   }
+ *
+ * </code></pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Target({
+	ElementType.TYPE,
+	ElementType.PACKAGE
+})
+public @interface DbUnitConfig {
+
+	/**
+	 * Enable (or disable) JDBC batches (see {@link org.dbunit.database.DatabaseConfig#FEATURE_BATCHED_STATEMENTS}).
+	 *
+	 * @return Batched statements flag.
+	 */
+	boolean batchedStatements() default false;
+
+	/**
+	 * Get size of JDBC batches (see {@link org.dbunit.database.DatabaseConfig#PROPERTY_BATCH_SIZE}).
+	 *
+	 * @return Batch size.
+	 */
+	int batchSize() default 100;
+
+	/**
+	 * Get fetch size of queries (see {@link org.dbunit.database.DatabaseConfig#PROPERTY_FETCH_SIZE}).
+	 *
+	 * @return Fetch size.
+	 */
+	int fetchSize() default 100;
+
+	/**
+	 * Enable (or disable) case sensitive table names (see {@link org.dbunit.database.DatabaseConfig#FEATURE_CASE_SENSITIVE_TABLE_NAMES}).
+	 *
+	 * @return Case sensitive table names flag.
+	 */
+	boolean caseSensitiveTableNames() default false;
+
+	/**
+	 * Enable (or disable) qualified table names (see {@link org.dbunit.database.DatabaseConfig#FEATURE_QUALIFIED_TABLE_NAMES}).
+	 *
+	 * @return Qualified table names flag.
+	 */
+	boolean qualifiedTableNames() default false;
+
+	/**
+	 * Enable (or disable) warnings on unknown data types (see {@link org.dbunit.database.DatabaseConfig#FEATURE_DATATYPE_WARNING}).
+	 *
+	 * @return Data type warning flag.
+	 */
+	boolean datatypeWarning() default true;
+
+	/**
+	 * Allow (or not) empty strings in data sets (see {@link org.dbunit.database.DatabaseConfig#FEATURE_ALLOW_EMPTY_FIELDS}).
+	 *
+	 * @return Empty fields flag.
+	 */
+	boolean allowEmptyFields() default false;
+
+	/**
+	 * Get escape pattern of table and column names (see {@link org.dbunit.database.DatabaseConfig#PROPERTY_ESCAPE_PATTERN}),
+	 * for example {@code "?"}.
+	 *
+	 * @return Escape pattern, empty string to disable escaping.
+	 */
+	String escapePattern() default "";
+
+	/**
+	 * Get data type factory (see {@link org.dbunit.database.DatabaseConfig#PROPERTY_DATATYPE_FACTORY}): factory
+	 * class must have a public no-arg constructor.
+	 *
+	 * @return Data type factory class.
+	 */
+	Class<? extends IDataTypeFactory> datatypeFactory() default DefaultDataTypeFactory.class;
+
+	/**
+	 * Get metadata handler (see {@link org.dbunit.database.DatabaseConfig#PROPERTY_METADATA_HANDLER}): handler
+	 * class must have a public no-arg constructor.
+	 *
+	 * @return Metadata handler class.
+	 */
+	Class<? extends IMetadataHandler> metadataHandler() default DefaultMetadataHandler.class;
+
+	/**
+	 * Get statement factory (see {@link org.dbunit.database.DatabaseConfig#PROPERTY_STATEMENT_FACTORY}): factory
+	 * class must have a public no-arg constructor.
+	 * Default value ({@link IStatementFactory}) keeps the default factory, which re-uses prepared statements of
+	 * the connection.
+	 *
+	 * @return Statement factory class.
+	 */
+	Class<? extends IStatementFactory> statementFactory() default IStatementFactory.class;
+
+	/**
+	 * Enable (or disable) JVM-wide cache of database metadata (see {@link com.github.mjeanroy.dbunit.core.jdbc.DatabaseMetaDataCache}):
+	 * should only be enabled if database schema is not modified (or database re-created with the same URL) outside
+	 * of SQL initialization scripts and liquibase updates.
+	 *
+	 * @return Shared metadata flag.
+	 */
+	boolean sharedMetaData() default false;
+}
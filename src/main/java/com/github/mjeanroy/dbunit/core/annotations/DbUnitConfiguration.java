@@ -58,4 +58,21 @@ public @interface DbUnitConfiguration {
 	 * @return Password.
 	 */
 	String password();
+
+	/**
+	 * Get isolation flag: if enabled, each thread uses its own database, so that tests
+	 * can be executed in parallel (see {@link com.github.mjeanroy.dbunit.core.jdbc.JdbcIsolatedConnectionFactory}). Only
+	 * supported with in-memory databases.
+	 *
+	 * @return Isolation flag.
+	 */
+	boolean isolated() default false;
+
+	/**
+	 * Get connection pool size: if greater than zero, physical connections are re-used
+	 * (see {@link com.github.mjeanroy.dbunit.core.jdbc.JdbcPoolingConnectionFactory}).
+	 *
+	 * @return Maximum number of idle connections, {@code 0} to disable pooling.
+	 */
+	int poolSize() default 0;
 }
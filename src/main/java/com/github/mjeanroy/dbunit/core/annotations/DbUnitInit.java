@@ -80,4 +80,17 @@ public @interface DbUnitInit {
 	 * @return Delimiter.
 	 */
 	char delimiter() default SqlScriptParserConfiguration.DEFAULT_DELIMITER;
+
+	/**
+	 * Fingerprint mode: if enabled, a fingerprint of each script (computed with script
+	 * content and parser configuration) is stored in a marker table
+	 * ({@code DBUNIT_SCRIPT_FINGERPRINTS}) once script has been executed, and scripts with
+	 * a fingerprint already stored are skipped.
+	 *
+	 * This is useful when database outlives test classes (for example, a shared in-memory database
+	 * or a file database shared between forks), to avoid replaying the same DDL scripts.
+	 *
+	 * @return Fingerprint mode flag.
+	 */
+	boolean fingerprint() default false;
 }
@@ -0,0 +1,76 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * DbUnit rollback mode: setup operation, test method and tear down operation share the same
+ * SQL connection, with auto-commit disabled. Transaction is rolled back after each test, so
+ * data set (and changes made by test) is never committed.
+ *
+ * <br>
+ *
+ * Test methods must use the connection given by the rule (see {@code DbUnitRule#getConnection()}) to
+ * see data set and to have their changes rolled back: this annotation is only supported with {@code DbUnitRule}
+ * (it is rejected by {@code DbUnitJunitRunner} and {@code DbUnitTestExecutionListener}), and cannot be used
+ * with {@link DbUnitSnapshot} (restoring a snapshot would commit the transaction).
+ *
+ * This annotation can be used on:
+ * <ul>
+ *   <li>Class (i.e test class).</li>
+ *   <li>Package (i.e package where test classes belongs)</li>
+ * </ul>
+ *
+ * For example:
+ *
+ * <pre><code>
+ *
+ *   &#64;DbUnitRollback
+ *   &#64;DbUnitDataSet("/dataset/xml")
+ *   public class TestClass {
+ *     &#64;Rule
+ *     public DbUnitRule rule = new DbUnitRule(connectionFactory);
+ *
+ *     &#64;Test
+ *     public void test1() {
+ *       Connection connection = rule.getConnection();
+ *     }
+ *   }
+ *
+ * </code></pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Target({
+	ElementType.TYPE,
+	ElementType.PACKAGE
+})
+public @interface DbUnitRollback {
+}
@@ -0,0 +1,403 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.dataset;
+
+import static com.github.mjeanroy.dbunit.commons.io.Io.closeQuietly;
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import com.github.mjeanroy.dbunit.core.resources.Resource;
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+import org.dbunit.dataset.AbstractDataSet;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.DefaultTableIterator;
+import org.dbunit.dataset.DefaultTableMetaData;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.ITableIterator;
+import org.dbunit.dataset.datatype.DataType;
+import org.dbunit.dataset.datatype.DataTypeException;
+
+/**
+ * Binary dataSet, i.e data set precompiled using {@link BinaryDataSetWriter} (files with {@code .dbub} extension).
+ *
+ * <br>
+ *
+ * Files are memory-mapped (resources that do not reside in the file system are read in memory), and
+ * values are decoded directly into column oriented tables (see {@link ColumnarTable}): nothing has to be parsed.
+ */
+public class BinaryDataSet extends AbstractDataSet implements IDataSet {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(BinaryDataSet.class);
+
+	/**
+	 * Binary File.
+	 */
+	private final Resource resource;
+
+	/**
+	 * Tables in {@code file}.
+	 */
+	private final ITable[] tables;
+
+	/**
+	 * Create binary data set.
+	 *
+	 * @param resource Input resource.
+	 * @param caseSensitiveTableNames Case Insensitivity Flag.
+	 * @throws DataSetException If file cannot be read.
+	 */
+	BinaryDataSet(Resource resource, boolean caseSensitiveTableNames) throws DataSetException {
+		super(caseSensitiveTableNames);
+		this.resource = notNull(resource, "Binary File must not be null");
+		this.tables = read(resource);
+	}
+
+	@Override
+	protected ITableIterator createIterator(boolean reverse) {
+		return new DefaultTableIterator(tables, reverse);
+	}
+
+	/**
+	 * Gets {@link #resource}.
+	 *
+	 * @return {@link #resource}.
+	 */
+	public Resource getResource() {
+		return resource;
+	}
+
+	/**
+	 * Read table names of binary data set file (i.e file header): tables are not read.
+	 *
+	 * @param resource Binary file.
+	 * @return Table names, {@code null} if file cannot be read.
+	 */
+	static String[] readTableNames(Resource resource) {
+		InputStream stream = null;
+		try {
+			stream = resource.openStream();
+			DataInputStream input = new DataInputStream(stream);
+			byte[] magic = new byte[BinaryDataSetFormat.MAGIC.length];
+			input.readFully(magic);
+			if (!Arrays.equals(magic, BinaryDataSetFormat.MAGIC) || input.readInt() != BinaryDataSetFormat.VERSION) {
+				return null;
+			}
+
+			String[] tableNames = new String[input.readInt()];
+			for (int i = 0; i < tableNames.length; i++) {
+				byte[] bytes = new byte[input.readInt()];
+				input.readFully(bytes);
+				tableNames[i] = new String(bytes, BinaryDataSetFormat.UTF_8);
+			}
+
+			return tableNames;
+		}
+		catch (IOException ex) {
+			log.debug("Cannot read table names of {}: {}", resource, ex.getMessage());
+			return null;
+		}
+		finally {
+			closeQuietly(stream);
+		}
+	}
+
+	/**
+	 * Read tables of binary data set file.
+	 *
+	 * @param resource Binary file.
+	 * @return Tables.
+	 * @throws DataSetException If file cannot be read.
+	 */
+	private static ITable[] read(Resource resource) throws DataSetException {
+		log.debug("Reading binary data set: {}", resource);
+
+		ByteBuffer buffer;
+		try {
+			buffer = load(resource);
+		}
+		catch (IOException ex) {
+			log.error(ex.getMessage(), ex);
+			throw new DataSetException(ex);
+		}
+
+		try {
+			return new Decoder(buffer).readTables();
+		}
+		catch (RuntimeException ex) {
+			// Buffer underflow, invalid tag, etc.
+			log.error(ex.getMessage(), ex);
+			throw new DataSetException("Invalid binary data set: " + resource, ex);
+		}
+	}
+
+	/**
+	 * Load file content: file is memory-mapped if it resides in the file system.
+	 *
+	 * @param resource Binary file.
+	 * @return File content.
+	 * @throws IOException If file cannot be read.
+	 */
+	private static ByteBuffer load(Resource resource) throws IOException {
+		File file = toFile(resource);
+		if (file != null && file.isFile()) {
+			FileInputStream stream = new FileInputStream(file);
+			try {
+				FileChannel channel = stream.getChannel();
+				return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			}
+			finally {
+				closeQuietly(stream);
+			}
+		}
+
+		InputStream stream = resource.openStream();
+		try {
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = stream.read(buffer)) >= 0) {
+				output.write(buffer, 0, read);
+			}
+
+			return ByteBuffer.wrap(output.toByteArray());
+		}
+		finally {
+			closeQuietly(stream);
+		}
+	}
+
+	/**
+	 * Get file of given resource.
+	 *
+	 * @param resource Resource.
+	 * @return File, {@code null} if resource does not reside in the file system.
+	 */
+	private static File toFile(Resource resource) {
+		try {
+			return resource.toFile();
+		}
+		catch (RuntimeException ex) {
+			log.trace("Resource {} does not reside in the file system", resource);
+			return null;
+		}
+	}
+
+	/**
+	 * Binary data set decoder.
+	 */
+	private static class Decoder {
+
+		/**
+		 * File content.
+		 */
+		private final ByteBuffer buffer;
+
+		/**
+		 * Create decoder.
+		 *
+		 * @param buffer File content.
+		 */
+		private Decoder(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		/**
+		 * Read all tables.
+		 *
+		 * @return Tables.
+		 * @throws DataSetException If file is not a valid binary data set.
+		 */
+		private ITable[] readTables() throws DataSetException {
+			byte[] magic = new byte[BinaryDataSetFormat.MAGIC.length];
+			buffer.get(magic);
+			if (!Arrays.equals(magic, BinaryDataSetFormat.MAGIC)) {
+				throw new DataSetException("Not a binary data set");
+			}
+
+			int version = buffer.getInt();
+			if (version != BinaryDataSetFormat.VERSION) {
+				throw new DataSetException("Unsupported binary data set version: " + version);
+			}
+
+			// Header: table names.
+			int tableCount = buffer.getInt();
+			List<String> tableNames = new ArrayList<String>(tableCount);
+			for (int i = 0; i < tableCount; i++) {
+				tableNames.add(readString());
+			}
+
+			ITable[] tables = new ITable[tableCount];
+			for (int i = 0; i < tableCount; i++) {
+				tables[i] = readTable(tableNames.get(i));
+			}
+
+			return tables;
+		}
+
+		/**
+		 * Read table.
+		 *
+		 * @param tableName Table name.
+		 * @return The table.
+		 * @throws DataSetException If table is not valid.
+		 */
+		private ITable readTable(String tableName) throws DataSetException {
+			Column[] columns = new Column[buffer.getInt()];
+			for (int j = 0; j < columns.length; j++) {
+				String columnName = readString();
+				int sqlType = buffer.getInt();
+				columns[j] = new Column(columnName, toDataType(sqlType));
+			}
+
+			int rowCount = buffer.getInt();
+			Object[][] values = new Object[columns.length][];
+			for (int j = 0; j < columns.length; j++) {
+				Object[] column = new Object[rowCount];
+				for (int i = 0; i < rowCount; i++) {
+					column[i] = readValue();
+				}
+
+				values[j] = column;
+			}
+
+			return ColumnarTable.fromColumns(new DefaultTableMetaData(tableName, columns), rowCount, values);
+		}
+
+		/**
+		 * Read value.
+		 *
+		 * @return The value.
+		 * @throws DataSetException If value tag is not valid.
+		 */
+		private Object readValue() throws DataSetException {
+			byte tag = buffer.get();
+			switch (tag) {
+				case BinaryDataSetFormat.NULL:
+					return null;
+				case BinaryDataSetFormat.NO_VALUE:
+					return ITable.NO_VALUE;
+				case BinaryDataSetFormat.STRING:
+					return readString();
+				case BinaryDataSetFormat.INTEGER:
+					return buffer.getInt();
+				case BinaryDataSetFormat.LONG:
+					return buffer.getLong();
+				case BinaryDataSetFormat.DOUBLE:
+					return buffer.getDouble();
+				case BinaryDataSetFormat.TRUE:
+					return Boolean.TRUE;
+				case BinaryDataSetFormat.FALSE:
+					return Boolean.FALSE;
+				case BinaryDataSetFormat.BIG_DECIMAL:
+					return new BigDecimal(readString());
+				case BinaryDataSetFormat.BIG_INTEGER:
+					return new BigInteger(readString());
+				case BinaryDataSetFormat.FLOAT:
+					return buffer.getFloat();
+				case BinaryDataSetFormat.SHORT:
+					return buffer.getShort();
+				case BinaryDataSetFormat.BYTE:
+					return buffer.get();
+				case BinaryDataSetFormat.BYTES:
+					byte[] bytes = new byte[buffer.getInt()];
+					buffer.get(bytes);
+					return bytes;
+				case BinaryDataSetFormat.SQL_DATE:
+					return new java.sql.Date(buffer.getLong());
+				case BinaryDataSetFormat.SQL_TIME:
+					return new Time(buffer.getLong());
+				case BinaryDataSetFormat.SQL_TIMESTAMP:
+					Timestamp timestamp = new Timestamp(buffer.getLong());
+					timestamp.setNanos(buffer.getInt());
+					return timestamp;
+				case BinaryDataSetFormat.DATE:
+					return new Date(buffer.getLong());
+				default:
+					throw new DataSetException("Invalid value tag: " + tag);
+			}
+		}
+
+		/**
+		 * Read string.
+		 *
+		 * @return The string.
+		 */
+		private String readString() {
+			int length = buffer.getInt();
+			if (buffer.hasArray()) {
+				int offset = buffer.arrayOffset() + buffer.position();
+				buffer.position(buffer.position() + length);
+				return new String(buffer.array(), offset, length, BinaryDataSetFormat.UTF_8);
+			}
+
+			byte[] bytes = new byte[length];
+			buffer.get(bytes);
+			return new String(bytes, BinaryDataSetFormat.UTF_8);
+		}
+
+		/**
+		 * Get data type of given SQL type.
+		 *
+		 * @param sqlType SQL type.
+		 * @return Data type.
+		 */
+		private static DataType toDataType(int sqlType) {
+			if (sqlType == BinaryDataSetFormat.UNKNOWN_TYPE || sqlType == Types.OTHER) {
+				return DataType.UNKNOWN;
+			}
+
+			try {
+				return DataType.forSqlType(sqlType);
+			}
+			catch (DataTypeException ex) {
+				log.debug("Unknown SQL type {}, use UNKNOWN data type", sqlType);
+				return DataType.UNKNOWN;
+			}
+		}
+	}
+}
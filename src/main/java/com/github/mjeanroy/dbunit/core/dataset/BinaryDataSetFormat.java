@@ -0,0 +1,165 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.dataset;
+
+import java.nio.charset.Charset;
+
+/**
+ * Binary data set format (files with {@code .dbub} extension).
+ *
+ * <br>
+ *
+ * All numbers are big-endian, strings are UTF-8 encoded, prefixed by their length (in bytes) as
+ * an {@code int}:
+ *
+ * <pre><code>
+ *   header:  magic ("DBUB"), version (int), table count (int), table names (string)
+ *   tables:  for each table:
+ *              column count (int), for each column: name (string), sql type (int, {@link #UNKNOWN_TYPE} if unknown)
+ *              row count (int)
+ *              for each column: the value of each row (tag byte, followed by the value)
+ * </code></pre>
+ */
+final class BinaryDataSetFormat {
+
+	/**
+	 * File extension.
+	 */
+	static final String EXTENSION = ".dbub";
+
+	/**
+	 * Magic bytes, at the beginning of each file.
+	 */
+	static final byte[] MAGIC = new byte[]{'D', 'B', 'U', 'B'};
+
+	/**
+	 * Format version.
+	 */
+	static final int VERSION = 1;
+
+	/**
+	 * String encoding.
+	 */
+	static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	/**
+	 * SQL type of columns with an unknown type.
+	 */
+	static final int UNKNOWN_TYPE = Integer.MIN_VALUE;
+
+	/**
+	 * Tag of {@code null} values.
+	 */
+	static final byte NULL = 0;
+
+	/**
+	 * Tag of {@link org.dbunit.dataset.ITable#NO_VALUE} values.
+	 */
+	static final byte NO_VALUE = 1;
+
+	/**
+	 * Tag of {@link String} values.
+	 */
+	static final byte STRING = 2;
+
+	/**
+	 * Tag of {@link Integer} values.
+	 */
+	static final byte INTEGER = 3;
+
+	/**
+	 * Tag of {@link Long} values.
+	 */
+	static final byte LONG = 4;
+
+	/**
+	 * Tag of {@link Double} values.
+	 */
+	static final byte DOUBLE = 5;
+
+	/**
+	 * Tag of {@link Boolean#TRUE} values.
+	 */
+	static final byte TRUE = 6;
+
+	/**
+	 * Tag of {@link Boolean#FALSE} values.
+	 */
+	static final byte FALSE = 7;
+
+	/**
+	 * Tag of {@link java.math.BigDecimal} values (written as string).
+	 */
+	static final byte BIG_DECIMAL = 8;
+
+	/**
+	 * Tag of {@link java.math.BigInteger} values (written as string).
+	 */
+	static final byte BIG_INTEGER = 9;
+
+	/**
+	 * Tag of {@link Float} values.
+	 */
+	static final byte FLOAT = 10;
+
+	/**
+	 * Tag of {@link Short} values.
+	 */
+	static final byte SHORT = 11;
+
+	/**
+	 * Tag of {@link Byte} values.
+	 */
+	static final byte BYTE = 12;
+
+	/**
+	 * Tag of {@code byte[]} values (length, followed by bytes).
+	 */
+	static final byte BYTES = 13;
+
+	/**
+	 * Tag of {@link java.sql.Date} values (written as epoch milliseconds).
+	 */
+	static final byte SQL_DATE = 14;
+
+	/**
+	 * Tag of {@link java.sql.Time} values (written as epoch milliseconds).
+	 */
+	static final byte SQL_TIME = 15;
+
+	/**
+	 * Tag of {@link java.sql.Timestamp} values (written as epoch milliseconds, followed by nanoseconds).
+	 */
+	static final byte SQL_TIMESTAMP = 16;
+
+	/**
+	 * Tag of {@link java.util.Date} values (written as epoch milliseconds).
+	 */
+	static final byte DATE = 17;
+
+	// Ensure non instantiation.
+	private BinaryDataSetFormat() {
+	}
+}
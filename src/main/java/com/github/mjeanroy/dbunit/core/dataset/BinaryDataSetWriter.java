@@ -0,0 +1,278 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.dataset;
+
+import static com.github.mjeanroy.dbunit.commons.io.Io.closeQuietly;
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
+import static com.github.mjeanroy.dbunit.core.dataset.BinaryDataSetFormat.BIG_DECIMAL;
+import static com.github.mjeanroy.dbunit.core.dataset.BinaryDataSetFormat.BIG_INTEGER;
+import static com.github.mjeanroy.dbunit.core.dataset.BinaryDataSetFormat.BYTE;
+import static com.github.mjeanroy.dbunit.core.dataset.BinaryDataSetFormat.BYTES;
+import static com.github.mjeanroy.dbunit.core.dataset.BinaryDataSetFormat.DATE;
+import static com.github.mjeanroy.dbunit.core.dataset.BinaryDataSetFormat.DOUBLE;
+import static com.github.mjeanroy.dbunit.core.dataset.BinaryDataSetFormat.FALSE;
+import static com.github.mjeanroy.dbunit.core.dataset.BinaryDataSetFormat.FLOAT;
+import static com.github.mjeanroy.dbunit.core.dataset.BinaryDataSetFormat.INTEGER;
+import static com.github.mjeanroy.dbunit.core.dataset.BinaryDataSetFormat.LONG;
+import static com.github.mjeanroy.dbunit.core.dataset.BinaryDataSetFormat.MAGIC;
+import static com.github.mjeanroy.dbunit.core.dataset.BinaryDataSetFormat.NO_VALUE;
+import static com.github.mjeanroy.dbunit.core.dataset.BinaryDataSetFormat.NULL;
+import static com.github.mjeanroy.dbunit.core.dataset.BinaryDataSetFormat.SHORT;
+import static com.github.mjeanroy.dbunit.core.dataset.BinaryDataSetFormat.SQL_DATE;
+import static com.github.mjeanroy.dbunit.core.dataset.BinaryDataSetFormat.SQL_TIME;
+import static com.github.mjeanroy.dbunit.core.dataset.BinaryDataSetFormat.SQL_TIMESTAMP;
+import static com.github.mjeanroy.dbunit.core.dataset.BinaryDataSetFormat.STRING;
+import static com.github.mjeanroy.dbunit.core.dataset.BinaryDataSetFormat.TRUE;
+import static com.github.mjeanroy.dbunit.core.dataset.BinaryDataSetFormat.UNKNOWN_TYPE;
+import static com.github.mjeanroy.dbunit.core.dataset.BinaryDataSetFormat.UTF_8;
+import static com.github.mjeanroy.dbunit.core.dataset.BinaryDataSetFormat.VERSION;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.ITableIterator;
+import org.dbunit.dataset.datatype.DataType;
+
+/**
+ * Convert data sets to the binary data set format (see {@link BinaryDataSet}): fixtures can
+ * be converted once, then loaded without being parsed.
+ */
+public final class BinaryDataSetWriter {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(BinaryDataSetWriter.class);
+
+	// Ensure non instantiation.
+	private BinaryDataSetWriter() {
+	}
+
+	/**
+	 * Convert data set file to a binary data set file: source can be any file
+	 * supported by {@link DataSetFactory#createDataSet(String)}.
+	 *
+	 * @param source Source path.
+	 * @param target Target file (should have {@code .dbub} extension).
+	 * @throws DataSetException If source cannot be read, or if target cannot be written.
+	 */
+	public static void convert(String source, File target) throws DataSetException {
+		notNull(source, "Source path must not be null");
+		notNull(target, "Target file must not be null");
+
+		log.debug("Convert data set {} to {}", source, target);
+		IDataSet dataSet = DataSetFactory.createDataSet(source);
+
+		OutputStream output = null;
+		try {
+			output = new FileOutputStream(target);
+			write(dataSet, output);
+		}
+		catch (IOException ex) {
+			log.error(ex.getMessage(), ex);
+			throw new DataSetException(ex);
+		}
+		finally {
+			closeQuietly(output);
+		}
+	}
+
+	/**
+	 * Write data set to given output, using binary data set format.
+	 * Output stream is not closed.
+	 *
+	 * @param dataSet Data set.
+	 * @param output Output stream.
+	 * @throws DataSetException If data set cannot be read, or if output cannot be written.
+	 */
+	public static void write(IDataSet dataSet, OutputStream output) throws DataSetException {
+		notNull(dataSet, "Data set must not be null");
+		notNull(output, "Output must not be null");
+
+		try {
+			List<ITable> tables = new ArrayList<ITable>();
+			ITableIterator it = dataSet.iterator();
+			while (it.next()) {
+				tables.add(it.getTable());
+			}
+
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+			out.write(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(tables.size());
+			for (ITable table : tables) {
+				writeString(out, table.getTableMetaData().getTableName());
+			}
+
+			for (ITable table : tables) {
+				writeTable(out, table);
+			}
+
+			out.flush();
+		}
+		catch (IOException ex) {
+			log.error(ex.getMessage(), ex);
+			throw new DataSetException(ex);
+		}
+	}
+
+	/**
+	 * Write table: columns, row count and values of each column.
+	 *
+	 * @param out Output.
+	 * @param table Table.
+	 * @throws IOException If output cannot be written.
+	 * @throws DataSetException If table cannot be read.
+	 */
+	private static void writeTable(DataOutputStream out, ITable table) throws IOException, DataSetException {
+		Column[] columns = table.getTableMetaData().getColumns();
+		out.writeInt(columns.length);
+		for (Column column : columns) {
+			DataType dataType = column.getDataType();
+			writeString(out, column.getColumnName());
+			out.writeInt(dataType == null || dataType == DataType.UNKNOWN ? UNKNOWN_TYPE : dataType.getSqlType());
+		}
+
+		int rowCount = table.getRowCount();
+		out.writeInt(rowCount);
+		for (Column column : columns) {
+			for (int i = 0; i < rowCount; i++) {
+				writeValue(out, table.getValue(i, column.getColumnName()));
+			}
+		}
+	}
+
+	/**
+	 * Write value, prefixed by its tag.
+	 *
+	 * @param out Output.
+	 * @param value Value.
+	 * @throws IOException If output cannot be written.
+	 * @throws DataSetException If value type is not supported.
+	 */
+	private static void writeValue(DataOutputStream out, Object value) throws IOException, DataSetException {
+		if (value == null) {
+			out.writeByte(NULL);
+		}
+		else if (value == ITable.NO_VALUE) {
+			out.writeByte(NO_VALUE);
+		}
+		else if (value instanceof String) {
+			out.writeByte(STRING);
+			writeString(out, (String) value);
+		}
+		else if (value instanceof Integer) {
+			out.writeByte(INTEGER);
+			out.writeInt((Integer) value);
+		}
+		else if (value instanceof Long) {
+			out.writeByte(LONG);
+			out.writeLong((Long) value);
+		}
+		else if (value instanceof Double) {
+			out.writeByte(DOUBLE);
+			out.writeDouble((Double) value);
+		}
+		else if (value instanceof Boolean) {
+			out.writeByte((Boolean) value ? TRUE : FALSE);
+		}
+		else if (value instanceof BigDecimal) {
+			out.writeByte(BIG_DECIMAL);
+			writeString(out, value.toString());
+		}
+		else if (value instanceof BigInteger) {
+			out.writeByte(BIG_INTEGER);
+			writeString(out, value.toString());
+		}
+		else if (value instanceof Float) {
+			out.writeByte(FLOAT);
+			out.writeFloat((Float) value);
+		}
+		else if (value instanceof Short) {
+			out.writeByte(SHORT);
+			out.writeShort((Short) value);
+		}
+		else if (value instanceof Byte) {
+			out.writeByte(BYTE);
+			out.writeByte((Byte) value);
+		}
+		else if (value instanceof byte[]) {
+			byte[] bytes = (byte[]) value;
+			out.writeByte(BYTES);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+		else if (value instanceof java.sql.Date) {
+			out.writeByte(SQL_DATE);
+			out.writeLong(((Date) value).getTime());
+		}
+		else if (value instanceof Time) {
+			out.writeByte(SQL_TIME);
+			out.writeLong(((Date) value).getTime());
+		}
+		else if (value instanceof Timestamp) {
+			out.writeByte(SQL_TIMESTAMP);
+			out.writeLong(((Date) value).getTime());
+			out.writeInt(((Timestamp) value).getNanos());
+		}
+		else if (value instanceof Date) {
+			out.writeByte(DATE);
+			out.writeLong(((Date) value).getTime());
+		}
+		else {
+			throw new DataSetException("Cannot write value of type " + value.getClass().getName() + " in binary data set");
+		}
+	}
+
+	/**
+	 * Write string: length (in bytes), followed by UTF-8 bytes.
+	 *
+	 * @param out Output.
+	 * @param value String.
+	 * @throws IOException If output cannot be written.
+	 */
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+}
@@ -0,0 +1,712 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.dataset;
+
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.ITableMetaData;
+import org.dbunit.dataset.RowOutOfBoundsException;
+
+/**
+ * Immutable, column oriented, implementation of {@link ITable}.
+ *
+ * <br>
+ *
+ * Values of each column are stored in a single array, specialized with the type of column values:
+ * <ul>
+ *   <li>Integer, long, double and boolean columns are stored in primitive arrays.</li>
+ *   <li>String columns with repeated values are dictionary encoded.</li>
+ *   <li>Other columns are stored in an array of objects.</li>
+ * </ul>
+ *
+ * Instances are created using {@link Builder}, and can be safely shared by several threads.
+ */
+final class ColumnarTable implements ITable {
+
+	/**
+	 * Maximum size of string dictionaries.
+	 */
+	private static final int MAX_DICTIONARY_SIZE = 65536;
+
+	/**
+	 * Table meta data.
+	 */
+	private final ITableMetaData metaData;
+
+	/**
+	 * Number of rows.
+	 */
+	private final int rowCount;
+
+	/**
+	 * Column values, in meta data order.
+	 */
+	private final ColumnValues[] columns;
+
+	/**
+	 * Create table.
+	 *
+	 * @param metaData Table meta data.
+	 * @param rowCount Number of rows.
+	 * @param columns Column values.
+	 */
+	private ColumnarTable(ITableMetaData metaData, int rowCount, ColumnValues[] columns) {
+		this.metaData = metaData;
+		this.rowCount = rowCount;
+		this.columns = columns;
+	}
+
+	@Override
+	public ITableMetaData getTableMetaData() {
+		return metaData;
+	}
+
+	@Override
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	@Override
+	public Object getValue(int row, String column) throws DataSetException {
+		checkRow(row);
+		return columns[metaData.getColumnIndex(column)].get(row);
+	}
+
+	/**
+	 * Get value of given row and column.
+	 *
+	 * @param row Row index.
+	 * @param column Column index (in meta data order).
+	 * @return The value.
+	 * @throws DataSetException If row does not exist.
+	 */
+	Object getValue(int row, int column) throws DataSetException {
+		checkRow(row);
+		return columns[column].get(row);
+	}
+
+	/**
+	 * Check that given row exists.
+	 *
+	 * @param row Row index.
+	 * @throws RowOutOfBoundsException If row does not exist.
+	 */
+	private void checkRow(int row) throws RowOutOfBoundsException {
+		if (row < 0 || row >= rowCount) {
+			throw new RowOutOfBoundsException(row + " > " + rowCount);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("ColumnarTable{tableName=%s, rowCount=%s}", metaData.getTableName(), rowCount);
+	}
+
+	/**
+	 * Create table from given table: all values are read eagerly.
+	 *
+	 * @param table Original table.
+	 * @return Table copy.
+	 * @throws DataSetException If table cannot be read.
+	 */
+	static ColumnarTable copyOf(ITable table) throws DataSetException {
+		if (table instanceof ColumnarTable) {
+			return (ColumnarTable) table;
+		}
+
+		ITableMetaData metaData = table.getTableMetaData();
+		Column[] columns = metaData.getColumns();
+		int rowCount = table.getRowCount();
+
+		Builder builder = new Builder(metaData);
+		for (int i = 0; i < rowCount; i++) {
+			Object[] row = new Object[columns.length];
+			for (int j = 0; j < columns.length; j++) {
+				row[j] = table.getValue(i, columns[j].getColumnName());
+			}
+
+			builder.addRow(row);
+		}
+
+		return builder.build();
+	}
+
+	/**
+	 * Builder for {@link ColumnarTable} instances: rows are added, then values of each
+	 * column are compacted when table is built.
+	 */
+	static class Builder {
+
+		/**
+		 * Table meta data.
+		 */
+		private final ITableMetaData metaData;
+
+		/**
+		 * Number of columns.
+		 */
+		private final int columnCount;
+
+		/**
+		 * Rows, values in meta data order.
+		 */
+		private final List<Object[]> rows;
+
+		/**
+		 * Create builder.
+		 *
+		 * @param metaData Table meta data.
+		 * @throws DataSetException If columns cannot be read.
+		 */
+		Builder(ITableMetaData metaData) throws DataSetException {
+			this.metaData = notNull(metaData, "Table meta data must not be null");
+			this.columnCount = metaData.getColumns().length;
+			this.rows = new ArrayList<Object[]>();
+		}
+
+		/**
+		 * Add row.
+		 *
+		 * @param values Values, in meta data order.
+		 * @return The builder.
+		 */
+		Builder addRow(Object[] values) {
+			if (values.length != columnCount) {
+				throw new IllegalArgumentException("Row must define " + columnCount + " values, found: " + values.length);
+			}
+
+			rows.add(values);
+			return this;
+		}
+
+		/**
+		 * Build table.
+		 *
+		 * @return The table.
+		 * @throws DataSetException If meta data cannot be read.
+		 */
+		ColumnarTable build() throws DataSetException {
+			int rowCount = rows.size();
+			Object[][] columns = new Object[columnCount][];
+			for (int j = 0; j < columnCount; j++) {
+				Object[] values = new Object[rowCount];
+				for (int i = 0; i < rowCount; i++) {
+					values[i] = rows.get(i)[j];
+				}
+
+				columns[j] = values;
+			}
+
+			return fromColumns(metaData, rowCount, columns);
+		}
+	}
+
+	/**
+	 * Create table from values of each column.
+	 *
+	 * @param metaData Table meta data.
+	 * @param rowCount Number of rows.
+	 * @param values Values of each column (in meta data order), each array contains {@code rowCount} values.
+	 * @return The table.
+	 * @throws DataSetException If meta data cannot be read.
+	 */
+	static ColumnarTable fromColumns(ITableMetaData metaData, int rowCount, Object[][] values) throws DataSetException {
+		ColumnValues[] columns = new ColumnValues[values.length];
+		for (int j = 0; j < values.length; j++) {
+			columns[j] = compact(values[j]);
+		}
+
+		// Column index is lazily computed by DbUnit meta data implementations: compute it
+		// now, so that it is never computed concurrently.
+		Column[] metaDataColumns = metaData.getColumns();
+		if (metaDataColumns.length > 0) {
+			metaData.getColumnIndex(metaDataColumns[0].getColumnName());
+		}
+
+		return new ColumnarTable(metaData, rowCount, columns);
+	}
+
+	/**
+	 * Create column storage, according to column values.
+	 *
+	 * @param values Column values.
+	 * @return Column storage.
+	 */
+	private static ColumnValues compact(Object[] values) {
+		Class<?> type = null;
+		BitSet nulls = new BitSet();
+		BitSet noValues = new BitSet();
+
+		for (int i = 0; i < values.length; i++) {
+			Object value = values[i];
+			if (value == null) {
+				nulls.set(i);
+			}
+			else if (value == ITable.NO_VALUE) {
+				noValues.set(i);
+			}
+			else if (type == null) {
+				type = value.getClass();
+			}
+			else if (type != value.getClass()) {
+				return new ObjectValues(values);
+			}
+		}
+
+		Specials specials = Specials.of(nulls, noValues);
+
+		if (type == Integer.class) {
+			int[] ints = new int[values.length];
+			for (int i = 0; i < values.length; i++) {
+				ints[i] = specials.isSpecial(i) ? 0 : (Integer) values[i];
+			}
+
+			return new IntValues(ints, specials);
+		}
+
+		if (type == Long.class) {
+			long[] longs = new long[values.length];
+			for (int i = 0; i < values.length; i++) {
+				longs[i] = specials.isSpecial(i) ? 0L : (Long) values[i];
+			}
+
+			return new LongValues(longs, specials);
+		}
+
+		if (type == Double.class) {
+			double[] doubles = new double[values.length];
+			for (int i = 0; i < values.length; i++) {
+				doubles[i] = specials.isSpecial(i) ? 0D : (Double) values[i];
+			}
+
+			return new DoubleValues(doubles, specials);
+		}
+
+		if (type == Boolean.class) {
+			BitSet booleans = new BitSet(values.length);
+			for (int i = 0; i < values.length; i++) {
+				if (!specials.isSpecial(i) && (Boolean) values[i]) {
+					booleans.set(i);
+				}
+			}
+
+			return new BooleanValues(booleans, specials);
+		}
+
+		if (type == String.class) {
+			ColumnValues dictionary = dictionary(values, specials);
+			if (dictionary != null) {
+				return dictionary;
+			}
+		}
+
+		return new ObjectValues(values);
+	}
+
+	/**
+	 * Create dictionary encoded storage for string values.
+	 *
+	 * @param values String values.
+	 * @param specials Null values and missing values.
+	 * @return Column storage, {@code null} if values are not repeated enough.
+	 */
+	private static ColumnValues dictionary(Object[] values, Specials specials) {
+		Map<String, Integer> codes = new HashMap<String, Integer>();
+		List<String> dictionary = new ArrayList<String>();
+		int[] indexes = new int[values.length];
+
+		for (int i = 0; i < values.length; i++) {
+			if (specials.isSpecial(i)) {
+				continue;
+			}
+
+			String value = (String) values[i];
+			Integer code = codes.get(value);
+			if (code == null) {
+				if (dictionary.size() == MAX_DICTIONARY_SIZE) {
+					return null;
+				}
+
+				code = dictionary.size();
+				codes.put(value, code);
+				dictionary.add(value);
+			}
+
+			indexes[i] = code;
+		}
+
+		// Dictionary is useless if values are not repeated.
+		if (dictionary.size() == values.length - specials.count()) {
+			return null;
+		}
+
+		String[] words = dictionary.toArray(new String[dictionary.size()]);
+		if (words.length <= 256) {
+			byte[] bytes = new byte[indexes.length];
+			for (int i = 0; i < indexes.length; i++) {
+				bytes[i] = (byte) indexes[i];
+			}
+
+			return new ByteDictionaryValues(words, bytes, specials);
+		}
+
+		char[] chars = new char[indexes.length];
+		for (int i = 0; i < indexes.length; i++) {
+			chars[i] = (char) indexes[i];
+		}
+
+		return new CharDictionaryValues(words, chars, specials);
+	}
+
+	/**
+	 * Rows containing {@code null} or {@link ITable#NO_VALUE} in a specialized column.
+	 */
+	private static class Specials {
+
+		/**
+		 * Column without special values.
+		 */
+		private static final Specials NONE = new Specials(null, null);
+
+		/**
+		 * Create specials.
+		 *
+		 * @param nulls Rows containing {@code null}.
+		 * @param noValues Rows containing {@link ITable#NO_VALUE}.
+		 * @return Specials.
+		 */
+		private static Specials of(BitSet nulls, BitSet noValues) {
+			if (nulls.isEmpty() && noValues.isEmpty()) {
+				return NONE;
+			}
+
+			return new Specials(nulls.isEmpty() ? null : nulls, noValues.isEmpty() ? null : noValues);
+		}
+
+		/**
+		 * Rows containing {@code null}, {@code null} if there is none.
+		 */
+		private final BitSet nulls;
+
+		/**
+		 * Rows containing {@link ITable#NO_VALUE}, {@code null} if there is none.
+		 */
+		private final BitSet noValues;
+
+		/**
+		 * Create specials.
+		 *
+		 * @param nulls Rows containing {@code null}.
+		 * @param noValues Rows containing {@link ITable#NO_VALUE}.
+		 */
+		private Specials(BitSet nulls, BitSet noValues) {
+			this.nulls = nulls;
+			this.noValues = noValues;
+		}
+
+		/**
+		 * Check if given row contains a special value.
+		 *
+		 * @param row Row index.
+		 * @return {@code true} if row contains {@code null} or {@link ITable#NO_VALUE}.
+		 */
+		private boolean isSpecial(int row) {
+			return (nulls != null && nulls.get(row)) || (noValues != null && noValues.get(row));
+		}
+
+		/**
+		 * Get special value of given row.
+		 *
+		 * @param row Row index.
+		 * @return {@code null} or {@link ITable#NO_VALUE}.
+		 */
+		private Object get(int row) {
+			return noValues != null && noValues.get(row) ? ITable.NO_VALUE : null;
+		}
+
+		/**
+		 * Get number of rows containing special values.
+		 *
+		 * @return Number of rows.
+		 */
+		private int count() {
+			return (nulls == null ? 0 : nulls.cardinality()) + (noValues == null ? 0 : noValues.cardinality());
+		}
+	}
+
+	/**
+	 * Values of a column.
+	 */
+	private abstract static class ColumnValues {
+
+		/**
+		 * Special values of this column.
+		 */
+		private final Specials specials;
+
+		/**
+		 * Create column.
+		 *
+		 * @param specials Special values.
+		 */
+		private ColumnValues(Specials specials) {
+			this.specials = specials;
+		}
+
+		/**
+		 * Get value of given row.
+		 *
+		 * @param row Row index.
+		 * @return The value.
+		 */
+		Object get(int row) {
+			return specials.isSpecial(row) ? specials.get(row) : doGet(row);
+		}
+
+		/**
+		 * Get (non special) value of given row.
+		 *
+		 * @param row Row index.
+		 * @return The value.
+		 */
+		abstract Object doGet(int row);
+	}
+
+	/**
+	 * Integer values.
+	 */
+	private static class IntValues extends ColumnValues {
+
+		/**
+		 * Values.
+		 */
+		private final int[] values;
+
+		/**
+		 * Create column.
+		 *
+		 * @param values Values.
+		 * @param specials Special values.
+		 */
+		private IntValues(int[] values, Specials specials) {
+			super(specials);
+			this.values = values;
+		}
+
+		@Override
+		Object doGet(int row) {
+			return values[row];
+		}
+	}
+
+	/**
+	 * Long values.
+	 */
+	private static class LongValues extends ColumnValues {
+
+		/**
+		 * Values.
+		 */
+		private final long[] values;
+
+		/**
+		 * Create column.
+		 *
+		 * @param values Values.
+		 * @param specials Special values.
+		 */
+		private LongValues(long[] values, Specials specials) {
+			super(specials);
+			this.values = values;
+		}
+
+		@Override
+		Object doGet(int row) {
+			return values[row];
+		}
+	}
+
+	/**
+	 * Double values.
+	 */
+	private static class DoubleValues extends ColumnValues {
+
+		/**
+		 * Values.
+		 */
+		private final double[] values;
+
+		/**
+		 * Create column.
+		 *
+		 * @param values Values.
+		 * @param specials Special values.
+		 */
+		private DoubleValues(double[] values, Specials specials) {
+			super(specials);
+			this.values = values;
+		}
+
+		@Override
+		Object doGet(int row) {
+			return values[row];
+		}
+	}
+
+	/**
+	 * Boolean values.
+	 */
+	private static class BooleanValues extends ColumnValues {
+
+		/**
+		 * Rows containing {@code true}.
+		 */
+		private final BitSet values;
+
+		/**
+		 * Create column.
+		 *
+		 * @param values Rows containing {@code true}.
+		 * @param specials Special values.
+		 */
+		private BooleanValues(BitSet values, Specials specials) {
+			super(specials);
+			this.values = values;
+		}
+
+		@Override
+		Object doGet(int row) {
+			return values.get(row);
+		}
+	}
+
+	/**
+	 * String values, with dictionary of at most 256 values.
+	 */
+	private static class ByteDictionaryValues extends ColumnValues {
+
+		/**
+		 * Dictionary.
+		 */
+		private final String[] dictionary;
+
+		/**
+		 * Dictionary index of each row.
+		 */
+		private final byte[] codes;
+
+		/**
+		 * Create column.
+		 *
+		 * @param dictionary Dictionary.
+		 * @param codes Dictionary index of each row.
+		 * @param specials Special values.
+		 */
+		private ByteDictionaryValues(String[] dictionary, byte[] codes, Specials specials) {
+			super(specials);
+			this.dictionary = dictionary;
+			this.codes = codes;
+		}
+
+		@Override
+		Object doGet(int row) {
+			return dictionary[codes[row] & 0xFF];
+		}
+	}
+
+	/**
+	 * String values, with dictionary of at most {@link #MAX_DICTIONARY_SIZE} values.
+	 */
+	private static class CharDictionaryValues extends ColumnValues {
+
+		/**
+		 * Dictionary.
+		 */
+		private final String[] dictionary;
+
+		/**
+		 * Dictionary index of each row.
+		 */
+		private final char[] codes;
+
+		/**
+		 * Create column.
+		 *
+		 * @param dictionary Dictionary.
+		 * @param codes Dictionary index of each row.
+		 * @param specials Special values.
+		 */
+		private CharDictionaryValues(String[] dictionary, char[] codes, Specials specials) {
+			super(specials);
+			this.dictionary = dictionary;
+			this.codes = codes;
+		}
+
+		@Override
+		Object doGet(int row) {
+			return dictionary[codes[row]];
+		}
+	}
+
+	/**
+	 * Values of any type.
+	 */
+	private static class ObjectValues extends ColumnValues {
+
+		/**
+		 * Values.
+		 */
+		private final Object[] values;
+
+		/**
+		 * Create column.
+		 *
+		 * @param values Values.
+		 */
+		private ObjectValues(Object[] values) {
+			super(Specials.NONE);
+			this.values = values;
+		}
+
+		@Override
+		Object get(int row) {
+			return values[row];
+		}
+
+		@Override
+		Object doGet(int row) {
+			return values[row];
+		}
+	}
+}
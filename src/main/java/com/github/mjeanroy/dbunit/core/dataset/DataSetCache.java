@@ -0,0 +1,218 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.dataset;
+
+import static com.github.mjeanroy.dbunit.commons.io.Files.ensureRootSeparator;
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
+
+import com.github.mjeanroy.dbunit.cache.Cache;
+import com.github.mjeanroy.dbunit.cache.CacheFactory;
+import com.github.mjeanroy.dbunit.cache.CacheLoader;
+import com.github.mjeanroy.dbunit.commons.lang.Objects;
+import com.github.mjeanroy.dbunit.core.resources.ResourceLoader;
+import com.github.mjeanroy.dbunit.exception.DbUnitException;
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+import org.dbunit.dataset.CompositeDataSet;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.IDataSet;
+
+/**
+ * JVM-wide cache of parsed data sets.
+ *
+ * <br>
+ *
+ * Data sets are parsed once and stored as immutable data sets, so they can be shared
+ * by all test classes (and threads) referencing the same file. Tables are copied lazily,
+ * the first time they are read (see {@link ImmutableDataSet}).
+ *
+ * <br>
+ *
+ * Cache entries are identified by normalized path and case sensitivity of table names:
+ * classpath paths {@code classpath:/dataset/foo.xml}, {@code /dataset/foo.xml} and
+ * {@code dataset/foo.xml} are considered the same.
+ */
+public final class DataSetCache {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(DataSetCache.class);
+
+	/**
+	 * Prefix of classpath resources.
+	 */
+	private static final String CLASSPATH_PREFIX = "classpath:";
+
+	/**
+	 * Cache of parsed data sets.
+	 */
+	private static final Cache<DataSetKey, IDataSet> CACHE = CacheFactory.newCache(DataSetLoader.INSTANCE);
+
+	// Ensure non instantiation.
+	private DataSetCache() {
+	}
+
+	/**
+	 * Get data set from given path, with case insensitive table names.
+	 * See also {@link #load(String, boolean)}.
+	 *
+	 * @param path File path.
+	 * @return Immutable data set.
+	 * @throws NullPointerException If {@code path} is {@code null}.
+	 * @throws DbUnitException If data set cannot be parsed.
+	 */
+	public static IDataSet load(String path) {
+		return load(path, false);
+	}
+
+	/**
+	 * Get data set from given path: data set is parsed the first time, next calls
+	 * return the same immutable data set.
+	 *
+	 * @param path File path.
+	 * @param caseSensitiveTableNames Case sensitivity flag for table names.
+	 * @return Immutable data set.
+	 * @throws NullPointerException If {@code path} is {@code null}.
+	 * @throws DbUnitException If data set cannot be parsed.
+	 */
+	public static IDataSet load(String path, boolean caseSensitiveTableNames) {
+		notNull(path, "Path must not be null to load data set");
+		return CACHE.load(new DataSetKey(normalize(path), caseSensitiveTableNames));
+	}
+
+	/**
+	 * Get data set from collection of file paths: each data set is loaded
+	 * from the cache (see {@link #load(String)}), data sets not already in the cache
+	 * being parsed concurrently, and results are combined.
+	 *
+	 * @param paths List of file paths.
+	 * @return Data set.
+	 * @throws NullPointerException If {@code paths} is {@code null}.
+	 * @throws DataSetException If data sets cannot be combined.
+	 * @throws DbUnitException If a data set cannot be parsed.
+	 */
+	public static IDataSet load(String[] paths) throws DataSetException {
+		return new CompositeDataSet(DataSetParser.load(paths, false));
+	}
+
+	/**
+	 * Remove all cached data sets: next lookups will parse data sets again.
+	 */
+	public static void clear() {
+		log.debug("Clearing data set cache");
+		CACHE.clear();
+	}
+
+	/**
+	 * Normalize given path: classpath resources (i.e paths without prefix, or with
+	 * {@code classpath:} prefix) are returned with {@code classpath:} prefix and root separator.
+	 *
+	 * @param path The path.
+	 * @return Normalized path.
+	 */
+	static String normalize(String path) {
+		ResourceLoader loader = ResourceLoader.find(path);
+		if (loader != null && loader != ResourceLoader.CLASSPATH) {
+			return path;
+		}
+
+		String resourcePath = path.toLowerCase().startsWith(CLASSPATH_PREFIX) ?
+			path.substring(CLASSPATH_PREFIX.length()) :
+			path;
+
+		return CLASSPATH_PREFIX + ensureRootSeparator(resourcePath);
+	}
+
+	/**
+	 * Key identifying a data set in the cache.
+	 */
+	private static class DataSetKey {
+
+		/**
+		 * Normalized path.
+		 */
+		private final String path;
+
+		/**
+		 * Case sensitivity flag for table names.
+		 */
+		private final boolean caseSensitiveTableNames;
+
+		/**
+		 * Create key.
+		 *
+		 * @param path Normalized path.
+		 * @param caseSensitiveTableNames Case sensitivity flag.
+		 */
+		private DataSetKey(String path, boolean caseSensitiveTableNames) {
+			this.path = path;
+			this.caseSensitiveTableNames = caseSensitiveTableNames;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (o == this) {
+				return true;
+			}
+
+			if (o instanceof DataSetKey) {
+				DataSetKey k = (DataSetKey) o;
+				return Objects.equals(path, k.path) && caseSensitiveTableNames == k.caseSensitiveTableNames;
+			}
+
+			return false;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(path, caseSensitiveTableNames);
+		}
+	}
+
+	/**
+	 * Loader parsing data set from given key.
+	 */
+	private static class DataSetLoader implements CacheLoader<DataSetKey, IDataSet> {
+
+		/**
+		 * Singleton Instance.
+		 */
+		private static final DataSetLoader INSTANCE = new DataSetLoader();
+
+		@Override
+		public IDataSet load(DataSetKey key) {
+			log.debug("Parse data set: {}", key.path);
+
+			try {
+				return new ImmutableDataSet(DataSetFactory.createDataSet(key.path), key.caseSensitiveTableNames);
+			}
+			catch (DataSetException ex) {
+				log.error(ex.getMessage(), ex);
+				throw new DbUnitException(ex);
+			}
+		}
+	}
+}
@@ -28,6 +28,9 @@ import static com.github.mjeanroy.dbunit.commons.collections.Collections.find;
 import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
 import static java.util.Arrays.asList;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.github.mjeanroy.dbunit.core.resources.Resource;
 import com.github.mjeanroy.dbunit.core.resources.ResourceLoader;
 import com.github.mjeanroy.dbunit.loggers.Logger;
@@ -60,32 +63,24 @@ public final class DataSetFactory {
 	 * @throws DataSetException If data set cannot be created.
 	 */
 	public static IDataSet createDataSet(String path) throws DataSetException {
-		notNull(path, "Path must not be null to create data set");
-		ResourceLoader loader = ResourceLoader.find(path);
-		if (loader == null) {
-			log.debug("Cannot find resource loader with path: {}, use default (CLASSPATH)", path);
-			loader = ResourceLoader.CLASSPATH;
-		}
-
-		Resource resource = loader.load(path);
-		return createDataSet(resource);
+		return createDataSet(loadResource(path));
 	}
 
 	/**
 	 * Create data set from collection of file path.
+	 * Files are parsed concurrently, and data sets are composed in the order of given paths.
 	 *
 	 * @param paths List of file paths.
 	 * @return Instance of {@link IDataSet}.
 	 * @throws DataSetException If data set cannot be created.
 	 */
 	public static IDataSet createDataSet(String[] paths) throws DataSetException {
-		IDataSet[] dataSets = new IDataSet[paths.length];
-		int i = 0;
+		List<Resource> resources = new ArrayList<Resource>(paths.length);
 		for (String path : paths) {
-			dataSets[i++] = createDataSet(path);
+			resources.add(loadResource(path));
 		}
 
-		return new CompositeDataSet(dataSets);
+		return new CompositeDataSet(DataSetParser.parse(resources));
 	}
 
 	/**
@@ -104,6 +99,10 @@ public final class DataSetFactory {
 	 *     then an instance of {@link org.dbunit.dataset.xml.FlatXmlDataSet} is returned.
 	 *   </li>
 	 *   <li>
+	 *     If {@code file} is a binary data set file (i.e with {@code dbub} extension,
+	 *     then an instance of {@link BinaryDataSet} is returned.
+	 *   </li>
+	 *   <li>
 	 *     If {@code file} is a CSV file (i.e with {@code csv} extension,
 	 *     then an instance of {@link CsvDataSet} is returned.
 	 *   </li>
@@ -125,6 +124,35 @@ public final class DataSetFactory {
 		return type.create(resource);
 	}
 
+	/**
+	 * Get table names of given data set file, without parsing table rows.
+	 *
+	 * @param resource Resource.
+	 * @return Table names, {@code null} if table names cannot be extracted without parsing the resource.
+	 * @throws DataSetException If resource type is not supported.
+	 */
+	public static String[] scanTableNames(Resource resource) throws DataSetException {
+		notNull(resource, "Resource must not be null to scan table names");
+		return extractFileType(resource).scanTableNames(resource);
+	}
+
+	/**
+	 * Load resource from file path: classpath is used if path does not define a resource loader.
+	 *
+	 * @param path File path.
+	 * @return Resource.
+	 */
+	private static Resource loadResource(String path) {
+		notNull(path, "Path must not be null to create data set");
+		ResourceLoader loader = ResourceLoader.find(path);
+		if (loader == null) {
+			log.debug("Cannot find resource loader with path: {}, use default (CLASSPATH)", path);
+			loader = ResourceLoader.CLASSPATH;
+		}
+
+		return loader.load(path);
+	}
+
 	/**
 	 * Extract type from given file.
 	 *
@@ -132,7 +160,7 @@ public final class DataSetFactory {
 	 * @return Type.
 	 * @throws DataSetException If file type cannot be extracted.
 	 */
-	private static DataSetType extractFileType(Resource resource) throws DataSetException {
+	static DataSetType extractFileType(Resource resource) throws DataSetException {
 		DataSetType type = find(asList(DataSetType.values()), new DataSetTypeMatcher(resource));
 
 		// Cannot extract type of file.
@@ -0,0 +1,333 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.dataset;
+
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.mjeanroy.dbunit.core.resources.Resource;
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.IDataSet;
+
+/**
+ * Parse several resources concurrently.
+ *
+ * <br>
+ *
+ * Resources are parsed on a bounded pool of daemon threads (at most one thread per
+ * available processor, and at most {@link #MAX_THREADS} threads), and data sets are returned
+ * in the order of given resources.
+ *
+ * <br>
+ *
+ * Resources parsed by a pool thread (for example, a directory inside a directory) are parsed
+ * sequentially, so that pool threads never wait for each other.
+ */
+final class DataSetParser {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(DataSetParser.class);
+
+	/**
+	 * Maximum number of parser threads.
+	 */
+	private static final int MAX_THREADS = 8;
+
+	/**
+	 * Time (in seconds) before idle parser threads are stopped.
+	 */
+	private static final long KEEP_ALIVE = 30;
+
+	/**
+	 * Executor used to parse resources.
+	 */
+	private static final ThreadPoolExecutor EXECUTOR = createExecutor();
+
+	// Ensure non instantiation.
+	private DataSetParser() {
+	}
+
+	/**
+	 * Parse given resources, and return data sets in the same order.
+	 *
+	 * @param resources Resources.
+	 * @return Data sets.
+	 * @throws DataSetException If a resource cannot be parsed.
+	 */
+	static IDataSet[] parse(List<Resource> resources) throws DataSetException {
+		notNull(resources, "Resources must not be null");
+
+		List<Callable<IDataSet>> tasks = new ArrayList<Callable<IDataSet>>(resources.size());
+		for (Resource resource : resources) {
+			tasks.add(new ParserTask(resource));
+		}
+
+		return execute(tasks);
+	}
+
+	/**
+	 * Load given paths from the data set cache (see {@link DataSetCache#load(String, boolean)}), and
+	 * return data sets in the same order: data sets not already in the cache are parsed concurrently.
+	 *
+	 * @param paths File paths.
+	 * @param caseSensitiveTableNames Case sensitivity flag for table names.
+	 * @return Data sets.
+	 * @throws DataSetException If a data set cannot be parsed.
+	 */
+	static IDataSet[] load(String[] paths, boolean caseSensitiveTableNames) throws DataSetException {
+		notNull(paths, "Paths must not be null");
+
+		List<Callable<IDataSet>> tasks = new ArrayList<Callable<IDataSet>>(paths.length);
+		for (String path : paths) {
+			tasks.add(new CacheTask(path, caseSensitiveTableNames));
+		}
+
+		return execute(tasks);
+	}
+
+	/**
+	 * Execute given tasks, and return data sets in the same order.
+	 *
+	 * @param tasks Tasks.
+	 * @return Data sets.
+	 * @throws DataSetException If a task failed.
+	 */
+	private static IDataSet[] execute(List<Callable<IDataSet>> tasks) throws DataSetException {
+		int size = tasks.size();
+		IDataSet[] dataSets = new IDataSet[size];
+
+		if (size <= 1 || EXECUTOR.getMaximumPoolSize() <= 1 || Thread.currentThread() instanceof ParserThread) {
+			for (int i = 0; i < size; i++) {
+				dataSets[i] = call(tasks.get(i));
+			}
+
+			return dataSets;
+		}
+
+		log.debug("Parse {} resources concurrently", size);
+
+		List<Future<IDataSet>> futures = new ArrayList<Future<IDataSet>>(size);
+		for (Callable<IDataSet> task : tasks) {
+			futures.add(EXECUTOR.submit(task));
+		}
+
+		try {
+			for (int i = 0; i < size; i++) {
+				dataSets[i] = get(futures.get(i));
+			}
+		}
+		finally {
+			for (Future<IDataSet> future : futures) {
+				future.cancel(true);
+			}
+		}
+
+		return dataSets;
+	}
+
+	/**
+	 * Execute given task in the current thread.
+	 *
+	 * @param task Task.
+	 * @return Data set.
+	 * @throws DataSetException If task failed.
+	 */
+	private static IDataSet call(Callable<IDataSet> task) throws DataSetException {
+		try {
+			return task.call();
+		}
+		catch (DataSetException ex) {
+			throw ex;
+		}
+		catch (RuntimeException ex) {
+			throw ex;
+		}
+		catch (Exception ex) {
+			throw new DataSetException(ex);
+		}
+	}
+
+	/**
+	 * Wait for parsing result.
+	 *
+	 * @param future Parsing task.
+	 * @return Data set.
+	 * @throws DataSetException If resource cannot be parsed.
+	 */
+	private static IDataSet get(Future<IDataSet> future) throws DataSetException {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new DataSetException(ex);
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof DataSetException) {
+				throw (DataSetException) cause;
+			}
+
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+
+			throw new DataSetException(cause);
+		}
+	}
+
+	/**
+	 * Create executor: threads are created on demand, and stopped when idle.
+	 *
+	 * @return Executor.
+	 */
+	private static ThreadPoolExecutor createExecutor() {
+		int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), MAX_THREADS));
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(
+			threads,
+			threads,
+			KEEP_ALIVE,
+			TimeUnit.SECONDS,
+			new LinkedBlockingQueue<Runnable>(),
+			ParserThreadFactory.INSTANCE
+		);
+
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * Task parsing a single resource.
+	 */
+	private static class ParserTask implements Callable<IDataSet> {
+
+		/**
+		 * Resource to parse.
+		 */
+		private final Resource resource;
+
+		/**
+		 * Create task.
+		 *
+		 * @param resource Resource to parse.
+		 */
+		private ParserTask(Resource resource) {
+			this.resource = resource;
+		}
+
+		@Override
+		public IDataSet call() throws Exception {
+			return DataSetFactory.createDataSet(resource);
+		}
+	}
+
+	/**
+	 * Task loading a single data set from the data set cache.
+	 */
+	private static class CacheTask implements Callable<IDataSet> {
+
+		/**
+		 * File path.
+		 */
+		private final String path;
+
+		/**
+		 * Case sensitivity flag for table names.
+		 */
+		private final boolean caseSensitiveTableNames;
+
+		/**
+		 * Create task.
+		 *
+		 * @param path File path.
+		 * @param caseSensitiveTableNames Case sensitivity flag for table names.
+		 */
+		private CacheTask(String path, boolean caseSensitiveTableNames) {
+			this.path = path;
+			this.caseSensitiveTableNames = caseSensitiveTableNames;
+		}
+
+		@Override
+		public IDataSet call() {
+			return DataSetCache.load(path, caseSensitiveTableNames);
+		}
+	}
+
+	/**
+	 * Factory creating parser threads.
+	 */
+	private static class ParserThreadFactory implements ThreadFactory {
+
+		/**
+		 * Singleton Instance.
+		 */
+		private static final ParserThreadFactory INSTANCE = new ParserThreadFactory();
+
+		/**
+		 * Index of next thread.
+		 */
+		private final AtomicInteger counter = new AtomicInteger(0);
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			return new ParserThread(runnable, "dbunit-dataset-parser-" + counter.incrementAndGet());
+		}
+	}
+
+	/**
+	 * Parser thread (daemon).
+	 */
+	private static class ParserThread extends Thread {
+
+		/**
+		 * Create thread.
+		 *
+		 * @param runnable Thread task.
+		 * @param name Thread name.
+		 */
+		private ParserThread(Runnable runnable, String name) {
+			super(runnable, name);
+			setDaemon(true);
+		}
+	}
+}
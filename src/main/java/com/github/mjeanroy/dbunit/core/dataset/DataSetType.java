@@ -50,6 +50,11 @@ enum DataSetType {
 		IDataSet doCreate(Resource resource) throws Exception {
 			return new JsonDataSetBuilder(resource).build();
 		}
+
+		@Override
+		String[] doScanTableNames(Resource resource) {
+			return TableNamesScanner.scanJson(resource);
+		}
 	},
 
 	XML {
@@ -64,6 +69,28 @@ enum DataSetType {
 				.setColumnSensing(true)
 				.build(resource.openStream());
 		}
+
+		@Override
+		String[] doScanTableNames(Resource resource) {
+			return TableNamesScanner.scanXml(resource);
+		}
+	},
+
+	BINARY {
+		@Override
+		boolean doMatch(Resource resource) {
+			return resource.getFilename().toLowerCase().endsWith(BinaryDataSetFormat.EXTENSION);
+		}
+
+		@Override
+		IDataSet doCreate(Resource resource) throws Exception {
+			return new BinaryDataSet(resource, false);
+		}
+
+		@Override
+		String[] doScanTableNames(Resource resource) {
+			return BinaryDataSet.readTableNames(resource);
+		}
 	},
 
 	DIRECTORY {
@@ -133,6 +160,17 @@ enum DataSetType {
 		}
 	}
 
+	/**
+	 * Get table names of given resource, without parsing table rows.
+	 *
+	 * @param resource Resource.
+	 * @return Table names, {@code null} if table names cannot be extracted without parsing the resource.
+	 */
+	String[] scanTableNames(Resource resource) {
+		notNull(resource, "File should not be null");
+		return doScanTableNames(resource);
+	}
+
 	/**
 	 * Check if given file match data set type.
 	 *
@@ -148,4 +186,15 @@ enum DataSetType {
 	 * @return {@code true} if type match given file, {@code false} otherwise.
 	 */
 	abstract IDataSet doCreate(Resource resource) throws Exception;
+
+	/**
+	 * Get table names of given resource, without parsing table rows: default implementation
+	 * returns {@code null}.
+	 *
+	 * @param resource Resource.
+	 * @return Table names, {@code null} if table names cannot be extracted without parsing the resource.
+	 */
+	String[] doScanTableNames(Resource resource) {
+		return null;
+	}
 }
@@ -26,38 +26,82 @@ package com.github.mjeanroy.dbunit.core.dataset;
 
 import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.checkArgument;
 import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
-import static com.github.mjeanroy.dbunit.core.dataset.DataSetFactory.createDataSet;
 import static java.util.Collections.sort;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 import com.github.mjeanroy.dbunit.core.resources.Resource;
-import org.dbunit.dataset.CompositeDataSet;
+import com.github.mjeanroy.dbunit.core.resources.ResourceIndex;
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+import org.dbunit.dataset.CompositeTable;
 import org.dbunit.dataset.DataSetException;
 import org.dbunit.dataset.IDataSet;
 import org.dbunit.dataset.ITable;
 import org.dbunit.dataset.ITableIterator;
 import org.dbunit.dataset.ITableMetaData;
+import org.dbunit.dataset.NoSuchTableException;
 
 /**
  * Directory dataSet.
  * This dataSet implementation will scan directory, extract all files
  * and create appropriate dataSet implementation for each files.
+ *
+ * <br>
+ *
+ * Files are parsed lazily:
+ * <ul>
+ *   <li>Table names are read from the classpath index (see {@link ResourceIndex}), or extracted from a first pass that does not parse table rows (JSON and XML files).</li>
+ *   <li>A file is parsed the first time one of its table is requested (using {@link #getTable(String)} or an iterator).</li>
+ *   <li>Tables are memoized: a file is parsed only once.</li>
+ * </ul>
+ *
+ * Other files (CSV files, sub-directories) are parsed (concurrently) when data set is created.
+ * Tables found in several files are combined, as with {@link org.dbunit.dataset.CompositeDataSet}.
+ * This class is thread-safe.
  */
 public class DirectoryDataSet implements IDataSet {
 
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(DirectoryDataSet.class);
+
 	/**
 	 * Directory.
 	 */
 	private final Resource resource;
 
 	/**
-	 * Internal data set.
+	 * Case sensitivity flag.
+	 */
+	private final boolean caseSensitiveTableNames;
+
+	/**
+	 * Data set files, in order.
+	 */
+	private final List<DataSetFile> files;
+
+	/**
+	 * Table names, in order.
 	 */
-	private final CompositeDataSet dataSet;
+	private final String[] tableNames;
+
+	/**
+	 * Files defining each table, identified by table key (see {@link #toKey(String)}).
+	 */
+	private final Map<String, List<DataSetFile>> owners;
+
+	/**
+	 * Tables already materialized, identified by table key (see {@link #toKey(String)}).
+	 */
+	private final Map<String, ITable> tables;
 
 	/**
 	 * Create dataSet.
@@ -78,49 +122,105 @@ public class DirectoryDataSet implements IDataSet {
 		List<Resource> resources = new ArrayList<Resource>(subResources);
 		sort(resources, comparator);
 
-		IDataSet[] dataSets = new IDataSet[resources.size()];
-		int i = 0;
+		this.resource = resource;
+		this.caseSensitiveTableNames = caseSensitiveTableNames;
+		this.files = new ArrayList<DataSetFile>(resources.size());
+		this.owners = new HashMap<String, List<DataSetFile>>();
+		this.tables = new HashMap<String, ITable>();
+
+		// First pass: extract table names, files that cannot be scanned are parsed concurrently.
+		List<DataSetFile> unscanned = new ArrayList<DataSetFile>();
 		for (Resource subResource : resources) {
-			dataSets[i++] = createDataSet(subResource);
+			DataSetFile file = new DataSetFile(subResource);
+			if (file.tableNames == null) {
+				unscanned.add(file);
+			}
+
+			files.add(file);
 		}
 
-		this.resource = resource;
-		this.dataSet = new CompositeDataSet(dataSets, true, caseSensitiveTableNames);
+		parse(unscanned);
+
+		List<String> names = new ArrayList<String>();
+		for (DataSetFile file : files) {
+			for (String tableName : file.tableNames) {
+				String key = toKey(tableName);
+				List<DataSetFile> tableOwners = owners.get(key);
+				if (tableOwners == null) {
+					tableOwners = new ArrayList<DataSetFile>(1);
+					owners.put(key, tableOwners);
+					names.add(tableName);
+				}
+
+				tableOwners.add(file);
+			}
+		}
+
+		this.tableNames = names.toArray(new String[names.size()]);
 	}
 
 	@Override
-	public String[] getTableNames() throws DataSetException {
-		return dataSet.getTableNames();
+	public String[] getTableNames() {
+		return tableNames.clone();
 	}
 
 	@Override
 	public ITableMetaData getTableMetaData(String tableName) throws DataSetException {
-		return dataSet.getTableMetaData(tableName);
+		return getTable(tableName).getTableMetaData();
 	}
 
 	@Override
 	public ITable getTable(String tableName) throws DataSetException {
-		return dataSet.getTable(tableName);
+		String key = toKey(tableName);
+		List<DataSetFile> tableOwners = owners.get(key);
+		if (tableOwners == null) {
+			throw new NoSuchTableException(tableName);
+		}
+
+		synchronized (tables) {
+			ITable table = tables.get(key);
+			if (table == null) {
+				table = createTable(key, tableOwners);
+				tables.put(key, table);
+			}
+
+			return table;
+		}
 	}
 
 	@Override
 	public ITable[] getTables() throws DataSetException {
-		return dataSet.getTables();
+		// All tables are needed: parse remaining files concurrently.
+		List<DataSetFile> unparsed = new ArrayList<DataSetFile>();
+		for (DataSetFile file : files) {
+			if (!file.isParsed()) {
+				unparsed.add(file);
+			}
+		}
+
+		parse(unparsed);
+
+		ITable[] results = new ITable[tableNames.length];
+		for (int i = 0; i < tableNames.length; i++) {
+			results[i] = getTable(tableNames[i]);
+		}
+
+		return results;
 	}
 
 	@Override
-	public ITableIterator iterator() throws DataSetException {
-		return dataSet.iterator();
+	public ITableIterator iterator() {
+		return new LazyTableIterator(false);
 	}
 
 	@Override
-	public ITableIterator reverseIterator() throws DataSetException {
-		return dataSet.reverseIterator();
+	public ITableIterator reverseIterator() {
+		return new LazyTableIterator(true);
 	}
 
 	@Override
 	public boolean isCaseSensitiveTableNames() {
-		return dataSet.isCaseSensitiveTableNames();
+		return caseSensitiveTableNames;
 	}
 
 	/**
@@ -136,4 +236,203 @@ public class DirectoryDataSet implements IDataSet {
 	public String toString() {
 		return String.format("%s{resource=%s}", getClass().getSimpleName(), resource);
 	}
+
+	/**
+	 * Create table from files defining it: rows of each file are combined.
+	 *
+	 * @param key Table key.
+	 * @param tableOwners Files defining table.
+	 * @return The table.
+	 * @throws DataSetException If a file cannot be parsed.
+	 */
+	private ITable createTable(String key, List<DataSetFile> tableOwners) throws DataSetException {
+		ITable[] parts = new ITable[tableOwners.size()];
+		for (int i = 0; i < parts.length; i++) {
+			DataSetFile file = tableOwners.get(i);
+			parts[i] = file.getDataSet().getTable(file.getTableName(key));
+		}
+
+		return parts.length == 1 ? parts[0] : new CompositeTable(parts[0].getTableMetaData(), parts);
+	}
+
+	/**
+	 * Parse given files concurrently.
+	 *
+	 * @param toParse Files to parse.
+	 * @throws DataSetException If a file cannot be parsed.
+	 */
+	private static void parse(List<DataSetFile> toParse) throws DataSetException {
+		if (toParse.isEmpty()) {
+			return;
+		}
+
+		List<Resource> resources = new ArrayList<Resource>(toParse.size());
+		for (DataSetFile file : toParse) {
+			resources.add(file.resource);
+		}
+
+		IDataSet[] dataSets = DataSetParser.parse(resources);
+		for (int i = 0; i < dataSets.length; i++) {
+			toParse.get(i).setDataSet(dataSets[i]);
+		}
+	}
+
+	/**
+	 * Get key identifying given table name, according to case sensitivity flag.
+	 *
+	 * @param tableName Table name.
+	 * @return Table key.
+	 */
+	private String toKey(String tableName) {
+		return caseSensitiveTableNames ? tableName : tableName.toUpperCase(Locale.ENGLISH);
+	}
+
+	/**
+	 * A data set file, parsed lazily.
+	 */
+	private class DataSetFile {
+
+		/**
+		 * File.
+		 */
+		private final Resource resource;
+
+		/**
+		 * Data set type.
+		 */
+		private final DataSetType type;
+
+		/**
+		 * Table names, in order ({@code null} until file is parsed, if table names cannot be
+		 * extracted without parsing).
+		 */
+		private String[] tableNames;
+
+		/**
+		 * Data set, {@code null} until file is parsed.
+		 */
+		private IDataSet dataSet;
+
+		/**
+		 * Create file and extract its table names: table names are read from the classpath
+		 * index (see {@link ResourceIndex}) if file has been indexed.
+		 *
+		 * @param resource File.
+		 * @throws DataSetException If file type is not supported.
+		 */
+		private DataSetFile(Resource resource) throws DataSetException {
+			this.resource = resource;
+			this.type = DataSetFactory.extractFileType(resource);
+
+			ResourceIndex.Entry entry = ResourceIndex.getInstance().find(resource);
+			String[] indexedTableNames = entry == null ? null : entry.getTableNames();
+			this.tableNames = indexedTableNames != null ? indexedTableNames : type.scanTableNames(resource);
+		}
+
+		/**
+		 * Check if file has already been parsed.
+		 *
+		 * @return {@code true} if file has been parsed, {@code false} otherwise.
+		 */
+		private synchronized boolean isParsed() {
+			return dataSet != null;
+		}
+
+		/**
+		 * Set parsed data set, and extract table names if needed.
+		 *
+		 * @param dataSet Data set.
+		 * @throws DataSetException If table names cannot be read.
+		 */
+		private synchronized void setDataSet(IDataSet dataSet) throws DataSetException {
+			if (this.dataSet == null) {
+				this.dataSet = dataSet;
+				if (tableNames == null) {
+					tableNames = dataSet.getTableNames();
+				}
+			}
+		}
+
+		/**
+		 * Get data set: file is parsed the first time.
+		 *
+		 * @return Data set.
+		 * @throws DataSetException If file cannot be parsed.
+		 */
+		private synchronized IDataSet getDataSet() throws DataSetException {
+			if (dataSet == null) {
+				log.debug("Parse data set file: {}", resource);
+				dataSet = type.create(resource);
+			}
+
+			return dataSet;
+		}
+
+		/**
+		 * Get name of table, as defined in this file.
+		 *
+		 * @param key Table key.
+		 * @return Table name.
+		 */
+		private synchronized String getTableName(String key) {
+			for (String tableName : tableNames) {
+				if (toKey(tableName).equals(key)) {
+					return tableName;
+				}
+			}
+
+			return key;
+		}
+	}
+
+	/**
+	 * Table iterator: tables are materialized when iterator reaches them.
+	 */
+	private class LazyTableIterator implements ITableIterator {
+
+		/**
+		 * Iteration order flag.
+		 */
+		private final boolean reversed;
+
+		/**
+		 * Number of tables already visited.
+		 */
+		private int visited;
+
+		/**
+		 * Create iterator.
+		 *
+		 * @param reversed Iteration order flag.
+		 */
+		private LazyTableIterator(boolean reversed) {
+			this.reversed = reversed;
+			this.visited = 0;
+		}
+
+		@Override
+		public boolean next() {
+			if (visited > tableNames.length) {
+				return false;
+			}
+
+			visited++;
+			return visited <= tableNames.length;
+		}
+
+		@Override
+		public ITableMetaData getTableMetaData() throws DataSetException {
+			return getTable().getTableMetaData();
+		}
+
+		@Override
+		public ITable getTable() throws DataSetException {
+			if (visited == 0 || visited > tableNames.length) {
+				throw new IndexOutOfBoundsException("No current table");
+			}
+
+			int index = reversed ? tableNames.length - visited : visited - 1;
+			return DirectoryDataSet.this.getTable(tableNames[index]);
+		}
+	}
 }
@@ -0,0 +1,267 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.dataset;
+
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.dbunit.database.AmbiguousTableNameException;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.ITableIterator;
+import org.dbunit.dataset.ITableMetaData;
+import org.dbunit.dataset.NoSuchTableException;
+
+/**
+ * Immutable view of a {@link IDataSet}.
+ *
+ * <br>
+ *
+ * Only table names are read when this data set is created: each table of the original data set
+ * is read (and copied) the first time it is requested, and the copy is then returned by next calls. Once
+ * all tables have been copied, the original data set is released. Instances can be safely shared
+ * and iterated by several threads.
+ */
+final class ImmutableDataSet implements IDataSet {
+
+	/**
+	 * Original data set, {@code null} once all tables have been copied.
+	 */
+	private volatile IDataSet dataSet;
+
+	/**
+	 * Table names, in original data set order.
+	 */
+	private final String[] tableNames;
+
+	/**
+	 * Table copies, in original data set order: a copy is {@code null} until table is requested.
+	 */
+	private final AtomicReferenceArray<ITable> tables;
+
+	/**
+	 * Index of tables, identified by (normalized) table name.
+	 */
+	private final Map<String, Integer> index;
+
+	/**
+	 * Number of tables not copied yet.
+	 */
+	private int remaining;
+
+	/**
+	 * Case sensitivity flag for table names.
+	 */
+	private final boolean caseSensitiveTableNames;
+
+	/**
+	 * Create immutable view of given data set.
+	 *
+	 * @param dataSet Original data set.
+	 * @param caseSensitiveTableNames Case sensitivity flag for table names.
+	 * @throws DataSetException If table names of original data set cannot be read.
+	 * @throws NullPointerException If {@code dataSet} is {@code null}.
+	 */
+	ImmutableDataSet(IDataSet dataSet, boolean caseSensitiveTableNames) throws DataSetException {
+		notNull(dataSet, "Data set must not be null");
+
+		String[] tableNames = dataSet.getTableNames();
+		Map<String, Integer> index = new HashMap<String, Integer>();
+		for (int i = 0; i < tableNames.length; i++) {
+			String key = normalize(tableNames[i], caseSensitiveTableNames);
+			if (index.containsKey(key)) {
+				throw new AmbiguousTableNameException(tableNames[i]);
+			}
+
+			index.put(key, i);
+		}
+
+		this.dataSet = tableNames.length == 0 ? null : dataSet;
+		this.tableNames = tableNames;
+		this.tables = new AtomicReferenceArray<ITable>(tableNames.length);
+		this.index = index;
+		this.remaining = tableNames.length;
+		this.caseSensitiveTableNames = caseSensitiveTableNames;
+	}
+
+	@Override
+	public String[] getTableNames() {
+		return tableNames.clone();
+	}
+
+	@Override
+	public ITableMetaData getTableMetaData(String tableName) throws DataSetException {
+		return getTable(tableName).getTableMetaData();
+	}
+
+	@Override
+	public ITable getTable(String tableName) throws DataSetException {
+		Integer i = index.get(normalize(tableName, caseSensitiveTableNames));
+		if (i == null) {
+			throw new NoSuchTableException(tableName);
+		}
+
+		return getTable(i);
+	}
+
+	@Override
+	@Deprecated
+	public ITable[] getTables() throws DataSetException {
+		ITable[] results = new ITable[tableNames.length];
+		for (int i = 0; i < tableNames.length; i++) {
+			results[i] = getTable(i);
+		}
+
+		return results;
+	}
+
+	@Override
+	public ITableIterator iterator() {
+		return new MemoizedTableIterator(false);
+	}
+
+	@Override
+	public ITableIterator reverseIterator() {
+		return new MemoizedTableIterator(true);
+	}
+
+	@Override
+	public boolean isCaseSensitiveTableNames() {
+		return caseSensitiveTableNames;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("ImmutableDataSet{tables=%s, caseSensitiveTableNames=%s}", index.keySet(), caseSensitiveTableNames);
+	}
+
+	/**
+	 * Get table at given index: table is copied the first time it is requested.
+	 *
+	 * @param i Table index.
+	 * @return Table copy.
+	 * @throws DataSetException If table cannot be read.
+	 */
+	private ITable getTable(int i) throws DataSetException {
+		ITable table = tables.get(i);
+		if (table != null) {
+			return table;
+		}
+
+		synchronized (tables) {
+			table = tables.get(i);
+			if (table == null) {
+				table = copy(dataSet.getTable(tableNames[i]));
+				tables.set(i, table);
+
+				remaining--;
+				if (remaining == 0) {
+					// All tables have been copied, original data set is not needed anymore.
+					dataSet = null;
+				}
+			}
+
+			return table;
+		}
+	}
+
+	/**
+	 * Copy given table: all values are read eagerly and stored in a compact, column
+	 * oriented, table (see {@link ColumnarTable}).
+	 *
+	 * @param table Original table.
+	 * @return Table copy.
+	 * @throws DataSetException If table cannot be read.
+	 */
+	private static ITable copy(ITable table) throws DataSetException {
+		return ColumnarTable.copyOf(table);
+	}
+
+	/**
+	 * Normalize table name, used as key for table lookup.
+	 *
+	 * @param tableName Table name.
+	 * @param caseSensitiveTableNames Case sensitivity flag.
+	 * @return Normalized table name.
+	 */
+	private static String normalize(String tableName, boolean caseSensitiveTableNames) {
+		return caseSensitiveTableNames ? tableName : tableName.toUpperCase();
+	}
+
+	/**
+	 * Table iterator, tables being copied when they are visited.
+	 */
+	private class MemoizedTableIterator implements ITableIterator {
+
+		/**
+		 * Iteration order flag.
+		 */
+		private final boolean reversed;
+
+		/**
+		 * Number of tables already visited.
+		 */
+		private int visited;
+
+		/**
+		 * Create iterator.
+		 *
+		 * @param reversed Iteration order flag.
+		 */
+		private MemoizedTableIterator(boolean reversed) {
+			this.reversed = reversed;
+			this.visited = 0;
+		}
+
+		@Override
+		public boolean next() {
+			if (visited > tableNames.length) {
+				return false;
+			}
+
+			visited++;
+			return visited <= tableNames.length;
+		}
+
+		@Override
+		public ITableMetaData getTableMetaData() throws DataSetException {
+			return getTable().getTableMetaData();
+		}
+
+		@Override
+		public ITable getTable() throws DataSetException {
+			if (visited == 0 || visited > tableNames.length) {
+				throw new IndexOutOfBoundsException("No current table");
+			}
+
+			int i = reversed ? tableNames.length - visited : visited - 1;
+			return ImmutableDataSet.this.getTable(i);
+		}
+	}
+}
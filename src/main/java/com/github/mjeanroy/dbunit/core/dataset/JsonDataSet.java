@@ -41,8 +41,8 @@ import com.github.mjeanroy.dbunit.loggers.Loggers;
 import org.dbunit.dataset.AbstractDataSet;
 import org.dbunit.dataset.Column;
 import org.dbunit.dataset.DataSetException;
-import org.dbunit.dataset.DefaultTable;
 import org.dbunit.dataset.DefaultTableIterator;
+import org.dbunit.dataset.DefaultTableMetaData;
 import org.dbunit.dataset.IDataSet;
 import org.dbunit.dataset.ITable;
 import org.dbunit.dataset.ITableIterator;
@@ -156,24 +156,22 @@ public class JsonDataSet extends AbstractDataSet implements IDataSet {
 			// Create table.
 			log.trace("Extract columns");
 			Set<Column> columns = map(keys(rows), ColumnMapper.getInstance());
-			DefaultTable dbUnitTable = new DefaultTable(tableName, columns.toArray(new Column[columns.size()]));
+			Column[] tableColumns = columns.toArray(new Column[columns.size()]);
+			ColumnarTable.Builder builder = new ColumnarTable.Builder(new DefaultTableMetaData(tableName, tableColumns));
 			log.trace("Table created, found columns: {}", columns);
 
 			// Fill Row.
 			log.trace("Fill rows");
-			int i = 0;
 			for (Map<String, Object> row : rows) {
-				dbUnitTable.addRow();
-				for (Map.Entry<String, Object> values : row.entrySet()) {
-					String columnName = values.getKey();
-					Object columnValue = values.getValue();
-
-					log.trace(" - Row #{}, set value: {} -> {}", i, columnName, columnValue);
-					dbUnitTable.setValue(i, columnName, columnValue);
+				Object[] values = new Object[tableColumns.length];
+				for (int j = 0; j < tableColumns.length; j++) {
+					values[j] = row.get(tableColumns[j].getColumnName());
 				}
-				i++;
+
+				builder.addRow(values);
 			}
 
+			ITable dbUnitTable = builder.build();
 			results.add(dbUnitTable);
 		}
 
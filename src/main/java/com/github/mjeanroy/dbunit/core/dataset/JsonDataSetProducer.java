@@ -0,0 +1,256 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.dataset;
+
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.github.mjeanroy.dbunit.core.resources.Resource;
+import com.github.mjeanroy.dbunit.exception.JsonException;
+import com.github.mjeanroy.dbunit.json.JsonParserFactory;
+import com.github.mjeanroy.dbunit.json.JsonStreamHandler;
+import com.github.mjeanroy.dbunit.json.JsonStreamParser;
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.DefaultTableMetaData;
+import org.dbunit.dataset.ITableMetaData;
+import org.dbunit.dataset.stream.DefaultConsumer;
+import org.dbunit.dataset.stream.IDataSetConsumer;
+import org.dbunit.dataset.stream.IDataSetProducer;
+
+/**
+ * Producer reading JSON data set (see {@link JsonDataSet} for the expected format) without
+ * materializing it: rows are read one by one and given to the consumer, so that big files can
+ * be loaded with a constant heap (for example, using {@link org.dbunit.dataset.stream.StreamingDataSet}).
+ *
+ * <br>
+ *
+ * Since rows of a table may define different columns, JSON file is read twice: the first pass
+ * computes columns of each table, the second one produces rows.
+ */
+public class JsonDataSetProducer implements IDataSetProducer {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(JsonDataSetProducer.class);
+
+	/**
+	 * JSON File.
+	 */
+	private final Resource resource;
+
+	/**
+	 * JSON Parser.
+	 */
+	private final JsonStreamParser parser;
+
+	/**
+	 * Data set consumer.
+	 */
+	private IDataSetConsumer consumer;
+
+	/**
+	 * Create producer using default JSON parser (see {@link JsonParserFactory#createDefaultStreamParser()}).
+	 *
+	 * @param resource JSON File.
+	 * @throws NullPointerException If {@code resource} is {@code null}.
+	 */
+	public JsonDataSetProducer(Resource resource) {
+		this(resource, JsonParserFactory.createDefaultStreamParser());
+	}
+
+	/**
+	 * Create producer.
+	 *
+	 * @param resource JSON File.
+	 * @param parser JSON Parser.
+	 * @throws NullPointerException If {@code resource} or {@code parser} is {@code null}.
+	 */
+	public JsonDataSetProducer(Resource resource, JsonStreamParser parser) {
+		this.resource = notNull(resource, "JSON File must not be null");
+		this.parser = notNull(parser, "JSON Parser must not be null");
+		this.consumer = new DefaultConsumer();
+	}
+
+	@Override
+	public void setConsumer(IDataSetConsumer consumer) {
+		this.consumer = notNull(consumer, "Consumer must not be null");
+	}
+
+	@Override
+	public void produce() throws DataSetException {
+		log.debug("Produce data set from: {}", resource);
+
+		// First pass: compute columns of each table.
+		ColumnsHandler columnsHandler = new ColumnsHandler();
+		stream(columnsHandler);
+
+		// Second pass: produce rows.
+		consumer.startDataSet();
+		stream(new RowsHandler(consumer, columnsHandler.columns));
+		consumer.endDataSet();
+	}
+
+	/**
+	 * Read JSON file with given handler.
+	 *
+	 * @param handler Handler.
+	 * @throws DataSetException If JSON file cannot be read, or if consumer failed.
+	 */
+	private void stream(JsonStreamHandler handler) throws DataSetException {
+		try {
+			parser.stream(resource, handler);
+		}
+		catch (JsonException ex) {
+			if (ex.getCause() instanceof DataSetException) {
+				throw (DataSetException) ex.getCause();
+			}
+
+			throw new DataSetException(ex);
+		}
+	}
+
+	/**
+	 * Gets {@link #resource}.
+	 *
+	 * @return {@link #resource}.
+	 */
+	public Resource getResource() {
+		return resource;
+	}
+
+	/**
+	 * Handler computing columns of each table.
+	 */
+	private static class ColumnsHandler implements JsonStreamHandler {
+
+		/**
+		 * Column names of each table.
+		 */
+		private final Map<String, Set<String>> columns;
+
+		/**
+		 * Columns of current table.
+		 */
+		private Set<String> current;
+
+		/**
+		 * Create handler.
+		 */
+		private ColumnsHandler() {
+			this.columns = new LinkedHashMap<String, Set<String>>();
+		}
+
+		@Override
+		public void startTable(String tableName) {
+			current = columns.get(tableName);
+			if (current == null) {
+				current = new LinkedHashSet<String>();
+				columns.put(tableName, current);
+			}
+		}
+
+		@Override
+		public void row(Map<String, Object> row) {
+			current.addAll(row.keySet());
+		}
+
+		@Override
+		public void endTable() {
+			current = null;
+		}
+	}
+
+	/**
+	 * Handler giving rows to the consumer.
+	 */
+	private static class RowsHandler implements JsonStreamHandler {
+
+		/**
+		 * Data set consumer.
+		 */
+		private final IDataSetConsumer consumer;
+
+		/**
+		 * Column names of each table.
+		 */
+		private final Map<String, Set<String>> columns;
+
+		/**
+		 * Column names of current table.
+		 */
+		private List<String> current;
+
+		/**
+		 * Create handler.
+		 *
+		 * @param consumer Data set consumer.
+		 * @param columns Column names of each table.
+		 */
+		private RowsHandler(IDataSetConsumer consumer, Map<String, Set<String>> columns) {
+			this.consumer = consumer;
+			this.columns = columns;
+		}
+
+		@Override
+		public void startTable(String tableName) throws DataSetException {
+			log.debug("Produce table '{}'", tableName);
+			current = new ArrayList<String>(columns.get(tableName));
+
+			Column[] tableColumns = new Column[current.size()];
+			for (int i = 0; i < tableColumns.length; i++) {
+				tableColumns[i] = ColumnMapper.getInstance().apply(current.get(i));
+			}
+
+			ITableMetaData metaData = new DefaultTableMetaData(tableName, tableColumns);
+			consumer.startTable(metaData);
+		}
+
+		@Override
+		public void row(Map<String, Object> row) throws DataSetException {
+			Object[] values = new Object[current.size()];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = row.get(current.get(i));
+			}
+
+			consumer.row(values);
+		}
+
+		@Override
+		public void endTable() throws DataSetException {
+			consumer.endTable();
+			current = null;
+		}
+	}
+}
@@ -0,0 +1,178 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.dataset;
+
+import static com.github.mjeanroy.dbunit.commons.io.Io.closeQuietly;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.github.mjeanroy.dbunit.core.resources.Resource;
+import com.github.mjeanroy.dbunit.exception.JsonException;
+import com.github.mjeanroy.dbunit.json.JsonParserFactory;
+import com.github.mjeanroy.dbunit.json.JsonStreamHandler;
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+
+/**
+ * Extract table names of a data set file without parsing table rows.
+ *
+ * <br>
+ *
+ * Scanners return {@code null} if table names cannot be extracted: in this case, the
+ * file should be parsed to get its tables.
+ */
+final class TableNamesScanner {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(TableNamesScanner.class);
+
+	// Ensure non instantiation.
+	private TableNamesScanner() {
+	}
+
+	/**
+	 * Get table names of a JSON data set, i.e keys of the root object: file is read with the default
+	 * streaming parser (see {@link JsonParserFactory#createDefaultStreamParser()}), rows are not kept.
+	 *
+	 * @param resource JSON file.
+	 * @return Table names, {@code null} if file is not a valid JSON data set.
+	 */
+	static String[] scanJson(Resource resource) {
+		TableNamesHandler handler = new TableNamesHandler();
+		try {
+			JsonParserFactory.createDefaultStreamParser().stream(resource, handler);
+		}
+		catch (JsonException ex) {
+			log.debug("Cannot scan table names of {}: {}", resource, ex.getMessage());
+			return null;
+		}
+		catch (UnsupportedOperationException ex) {
+			log.debug("Cannot scan table names of {}: {}", resource, ex.getMessage());
+			return null;
+		}
+
+		return handler.tableNames.toArray(new String[handler.tableNames.size()]);
+	}
+
+	/**
+	 * Get table names of a flat XML data set, i.e names of children of the root element.
+	 *
+	 * @param resource XML file.
+	 * @return Table names, {@code null} if file is not a valid XML file.
+	 */
+	static String[] scanXml(Resource resource) {
+		InputStream stream = null;
+		XMLStreamReader reader = null;
+		try {
+			XMLInputFactory factory = XMLInputFactory.newInstance();
+			factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+			factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+			stream = resource.openStream();
+			reader = factory.createXMLStreamReader(stream);
+
+			Set<String> tableNames = new LinkedHashSet<String>();
+			int depth = 0;
+			while (reader.hasNext()) {
+				int event = reader.next();
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					depth++;
+					if (depth == 2) {
+						String prefix = reader.getPrefix();
+						String name = reader.getLocalName();
+						tableNames.add(prefix == null || prefix.isEmpty() ? name : prefix + ":" + name);
+					}
+				}
+				else if (event == XMLStreamConstants.END_ELEMENT) {
+					depth--;
+				}
+			}
+
+			return tableNames.toArray(new String[tableNames.size()]);
+		}
+		catch (IOException ex) {
+			log.debug("Cannot scan table names of {}: {}", resource, ex.getMessage());
+			return null;
+		}
+		catch (XMLStreamException ex) {
+			log.debug("Cannot scan table names of {}: {}", resource, ex.getMessage());
+			return null;
+		}
+		finally {
+			close(reader);
+			closeQuietly(stream);
+		}
+	}
+
+	/**
+	 * Close XML reader, and ignore errors.
+	 *
+	 * @param reader XML reader.
+	 */
+	private static void close(XMLStreamReader reader) {
+		if (reader != null) {
+			try {
+				reader.close();
+			}
+			catch (XMLStreamException ex) {
+				log.debug(ex.getMessage(), ex);
+			}
+		}
+	}
+
+	/**
+	 * Handler collecting table names of a JSON data set, rows are ignored.
+	 */
+	private static class TableNamesHandler implements JsonStreamHandler {
+
+		/**
+		 * Table names, in file order.
+		 */
+		private final Set<String> tableNames = new LinkedHashSet<String>();
+
+		@Override
+		public void startTable(String tableName) {
+			tableNames.add(tableName);
+		}
+
+		@Override
+		public void row(Map<String, Object> row) {
+		}
+
+		@Override
+		public void endTable() {
+		}
+	}
+}
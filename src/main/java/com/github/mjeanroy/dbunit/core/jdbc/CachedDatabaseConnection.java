@@ -0,0 +1,283 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.jdbc;
+
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+import org.dbunit.DatabaseUnitException;
+import org.dbunit.database.DatabaseConfig;
+import org.dbunit.database.DatabaseConnection;
+import org.dbunit.database.DatabaseDataSet;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.filter.ITableFilterSimple;
+
+/**
+ * DbUnit connection using a metadata cache (see {@link DatabaseMetaDataCache}): columns and primary keys
+ * of tables, and foreign keys, are read once. Unless shared metadata cache is enabled, each connection uses its
+ * own cache: the JVM-wide cache of the database (shared with all connections to the database) should only be used
+ * if database schema is not modified (or re-created with the same URL) outside of SQL initialization scripts and
+ * liquibase updates.
+ *
+ * <br>
+ *
+ * Prepared statements are also cached by this connection (see {@link #prepareStatement(String)}), and
+ * are re-used by DbUnit operations executed with this connection: since SQL statements of an operation
+ * only depend on the table shape (table, inserted columns), statements are prepared once per shape as long
+ * as connection is kept open (for example, connections pinned by the runner).
+ * Cached statements are closed when connection is closed, or when the metadata cache is invalidated.
+ */
+public class CachedDatabaseConnection extends DatabaseConnection {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(CachedDatabaseConnection.class);
+
+	/**
+	 * Maximum number of cached statements.
+	 */
+	static final int MAX_STATEMENTS = 100;
+
+	/**
+	 * Metadata cache of the database.
+	 */
+	private final DatabaseMetaDataCache cache;
+
+	/**
+	 * Cached statements, identified by SQL.
+	 */
+	private final StatementCache statements;
+
+	/**
+	 * Generation of the metadata cache when statements have been prepared.
+	 */
+	private long generation;
+
+	/**
+	 * Data set of the database, created on first use.
+	 */
+	private IDataSet dataSet;
+
+	/**
+	 * Create connection, with its own metadata cache.
+	 *
+	 * @param connection JDBC Connection.
+	 * @throws DatabaseUnitException If connection cannot be created.
+	 * @throws SQLException If database metadata cannot be read.
+	 */
+	public CachedDatabaseConnection(Connection connection) throws DatabaseUnitException, SQLException {
+		this(connection, false);
+	}
+
+	/**
+	 * Create connection.
+	 *
+	 * @param connection JDBC Connection.
+	 * @param sharedMetaData If {@code true}, the JVM-wide metadata cache of the database is used, otherwise connection uses its own cache.
+	 * @throws DatabaseUnitException If connection cannot be created.
+	 * @throws SQLException If database metadata cannot be read.
+	 */
+	public CachedDatabaseConnection(Connection connection, boolean sharedMetaData) throws DatabaseUnitException, SQLException {
+		this(connection, null, sharedMetaData ? DatabaseMetaDataCache.getInstance(connection) : new DatabaseMetaDataCache());
+	}
+
+	/**
+	 * Create connection, using given metadata cache (for example, the cache of another connection to the same database).
+	 *
+	 * @param connection JDBC Connection.
+	 * @param schema Database schema, may be {@code null}.
+	 * @param cache Metadata cache.
+	 * @throws DatabaseUnitException If connection cannot be created.
+	 * @throws SQLException If database metadata cannot be read.
+	 */
+	public CachedDatabaseConnection(Connection connection, String schema, DatabaseMetaDataCache cache) throws DatabaseUnitException, SQLException {
+		super(connection, schema);
+		this.cache = notNull(cache, "Metadata cache must not be null");
+		this.statements = new StatementCache();
+		this.generation = cache.getGeneration();
+		getConfig().setProperty(DatabaseConfig.PROPERTY_STATEMENT_FACTORY, CachedStatementFactory.INSTANCE);
+	}
+
+	/**
+	 * Get metadata cache used by this connection.
+	 *
+	 * @return Metadata cache.
+	 */
+	public DatabaseMetaDataCache getMetaDataCache() {
+		return cache;
+	}
+
+	/**
+	 * Get foreign key graph of the schema of this connection.
+	 *
+	 * @return The graph.
+	 */
+	public ForeignKeyGraph getForeignKeyGraph() {
+		return cache.getForeignKeyGraph(getSchema());
+	}
+
+	/**
+	 * Create data set of the database: internal tables (see {@link InternalTables}) are excluded.
+	 *
+	 * @return Database data set.
+	 * @throws SQLException If database metadata cannot be read.
+	 */
+	@Override
+	public IDataSet createDataSet() throws SQLException {
+		if (dataSet == null) {
+			boolean caseSensitive = Boolean.TRUE.equals(getConfig().getProperty(DatabaseConfig.FEATURE_CASE_SENSITIVE_TABLE_NAMES));
+			dataSet = new CachedMetaDataDataSet(new DatabaseDataSet(this, caseSensitive, UserTablesFilter.INSTANCE), cache, this);
+		}
+
+		return dataSet;
+	}
+
+	/**
+	 * Get prepared statement: statement is prepared once, and re-used by next calls with the same SQL.
+	 *
+	 * <br>
+	 *
+	 * Returned statement is owned by this connection, and must not be closed by the caller (parameters
+	 * and pending batches should be cleared instead).
+	 *
+	 * @param sql SQL statement.
+	 * @return Prepared statement.
+	 * @throws SQLException If statement cannot be prepared.
+	 */
+	public synchronized PreparedStatement prepareStatement(String sql) throws SQLException {
+		long currentGeneration = cache.getGeneration();
+		if (generation != currentGeneration) {
+			log.debug("Database schema has been modified, close cached statements");
+			closeStatements();
+			generation = currentGeneration;
+		}
+
+		PreparedStatement statement = statements.get(sql);
+		if (statement == null || statement.isClosed()) {
+			log.trace("Prepare statement: {}", sql);
+			statement = getConnection().prepareStatement(sql);
+			statements.put(sql, statement);
+		}
+
+		return statement;
+	}
+
+	/**
+	 * Get number of cached statements.
+	 *
+	 * @return Number of cached statements.
+	 */
+	synchronized int getStatementCount() {
+		return statements.size();
+	}
+
+	@Override
+	public void close() throws SQLException {
+		synchronized (this) {
+			closeStatements();
+		}
+
+		super.close();
+	}
+
+	/**
+	 * Close and remove all cached statements.
+	 */
+	private void closeStatements() {
+		List<PreparedStatement> cached = new ArrayList<PreparedStatement>(statements.values());
+		statements.clear();
+		for (PreparedStatement statement : cached) {
+			closeStatement(statement);
+		}
+	}
+
+	/**
+	 * Close statement, errors are logged.
+	 *
+	 * @param statement Statement.
+	 */
+	private static void closeStatement(PreparedStatement statement) {
+		try {
+			statement.close();
+		}
+		catch (SQLException ex) {
+			log.debug(ex.getMessage(), ex);
+		}
+	}
+
+	/**
+	 * Statements cache, closing least recently used statements when cache is full.
+	 */
+	private static class StatementCache extends LinkedHashMap<String, PreparedStatement> {
+
+		/**
+		 * Serial Version UID.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Create cache.
+		 */
+		private StatementCache() {
+			super(16, 0.75f, true);
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+			if (size() > MAX_STATEMENTS) {
+				closeStatement(eldest.getValue());
+				return true;
+			}
+
+			return false;
+		}
+	}
+
+	/**
+	 * Filter excluding internal tables from database data set.
+	 */
+	private static class UserTablesFilter implements ITableFilterSimple {
+
+		/**
+		 * Singleton Instance.
+		 */
+		private static final UserTablesFilter INSTANCE = new UserTablesFilter();
+
+		@Override
+		public boolean accept(String tableName) {
+			return !InternalTables.isInternal(tableName);
+		}
+	}
+}
@@ -0,0 +1,124 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.jdbc;
+
+import java.util.Locale;
+
+import org.dbunit.database.DatabaseConfig;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.DefaultTableMetaData;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.ITableIterator;
+import org.dbunit.dataset.ITableMetaData;
+
+/**
+ * Data set of a database, reading table metadata from the metadata cache of the database.
+ * Other methods are delegated to the original data set.
+ */
+class CachedMetaDataDataSet implements IDataSet {
+
+	/**
+	 * Original database data set.
+	 */
+	private final IDataSet dataSet;
+
+	/**
+	 * Metadata cache of the database.
+	 */
+	private final DatabaseMetaDataCache cache;
+
+	/**
+	 * Prefix of cache keys, identifying schema and data type factory of the connection.
+	 */
+	private final String prefix;
+
+	/**
+	 * Create data set.
+	 *
+	 * @param dataSet Original database data set.
+	 * @param cache Metadata cache of the database.
+	 * @param connection DbUnit connection.
+	 */
+	CachedMetaDataDataSet(IDataSet dataSet, DatabaseMetaDataCache cache, IDatabaseConnection connection) {
+		this.dataSet = dataSet;
+		this.cache = cache;
+
+		Object dataTypeFactory = connection.getConfig().getProperty(DatabaseConfig.PROPERTY_DATATYPE_FACTORY);
+		String schema = connection.getSchema();
+		this.prefix = (schema == null ? "" : schema) + "#" + (dataTypeFactory == null ? "" : dataTypeFactory.getClass().getName()) + "#";
+	}
+
+	@Override
+	public ITableMetaData getTableMetaData(String tableName) throws DataSetException {
+		String key = prefix + (dataSet.isCaseSensitiveTableNames() ? tableName : tableName.toUpperCase(Locale.ROOT));
+		ITableMetaData metaData = cache.getTableMetaData(key);
+		if (metaData == null) {
+			// Copy metadata, so that cached metadata does not reference the connection.
+			ITableMetaData databaseMetaData = dataSet.getTableMetaData(tableName);
+			metaData = new DefaultTableMetaData(databaseMetaData.getTableName(), databaseMetaData.getColumns(), databaseMetaData.getPrimaryKeys());
+			cache.putTableMetaData(key, metaData);
+		}
+
+		return metaData;
+	}
+
+	@Override
+	public String[] getTableNames() throws DataSetException {
+		return dataSet.getTableNames();
+	}
+
+	@Override
+	public ITable getTable(String tableName) throws DataSetException {
+		return dataSet.getTable(tableName);
+	}
+
+	@Override
+	@SuppressWarnings("deprecation")
+	public ITable[] getTables() throws DataSetException {
+		return dataSet.getTables();
+	}
+
+	@Override
+	public ITableIterator iterator() throws DataSetException {
+		return dataSet.iterator();
+	}
+
+	@Override
+	public ITableIterator reverseIterator() throws DataSetException {
+		return dataSet.reverseIterator();
+	}
+
+	@Override
+	public boolean isCaseSensitiveTableNames() {
+		return dataSet.isCaseSensitiveTableNames();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s{dataSet=%s}", getClass().getSimpleName(), dataSet);
+	}
+}
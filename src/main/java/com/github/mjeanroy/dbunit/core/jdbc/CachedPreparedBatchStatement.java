@@ -0,0 +1,133 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.dbunit.database.statement.IPreparedBatchStatement;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.datatype.DataType;
+import org.dbunit.dataset.datatype.TypeCastException;
+
+/**
+ * DbUnit statement using a statement cached by {@link CachedDatabaseConnection}: statement
+ * is not closed once operation is done, only its parameters and pending batch are cleared.
+ *
+ * <br>
+ *
+ * If JDBC batches are supported, rows are sent on {@link #executeBatch()}, otherwise rows are
+ * executed on {@link #addBatch()} (as DbUnit statements do).
+ */
+class CachedPreparedBatchStatement implements IPreparedBatchStatement {
+
+	/**
+	 * Cached statement.
+	 */
+	private final PreparedStatement statement;
+
+	/**
+	 * JDBC batches support flag.
+	 */
+	private final boolean batch;
+
+	/**
+	 * Index of last bound parameter.
+	 */
+	private int index;
+
+	/**
+	 * Number of updated rows, when rows are executed on {@link #addBatch()}.
+	 */
+	private int result;
+
+	/**
+	 * Create statement.
+	 *
+	 * @param statement Cached statement.
+	 * @param batch JDBC batches support flag.
+	 */
+	CachedPreparedBatchStatement(PreparedStatement statement, boolean batch) {
+		this.statement = statement;
+		this.batch = batch;
+		this.index = 0;
+		this.result = 0;
+	}
+
+	@Override
+	public void addValue(Object value, DataType dataType) throws TypeCastException, SQLException {
+		index++;
+		if (value == null || value == ITable.NO_VALUE) {
+			statement.setNull(index, dataType.getSqlType(), dataType.getSqlTypeName());
+		}
+		else {
+			dataType.setSqlValue(value, index, statement);
+		}
+	}
+
+	@Override
+	public void addBatch() throws SQLException {
+		if (batch) {
+			statement.addBatch();
+		}
+		else if (!statement.execute()) {
+			result += statement.getUpdateCount();
+		}
+
+		index = 0;
+	}
+
+	@Override
+	public int executeBatch() throws SQLException {
+		if (!batch) {
+			int count = result;
+			clearBatch();
+			return count;
+		}
+
+		int count = 0;
+		for (int rows : statement.executeBatch()) {
+			count += rows;
+		}
+
+		return count;
+	}
+
+	@Override
+	public void clearBatch() throws SQLException {
+		if (batch) {
+			statement.clearBatch();
+		}
+
+		index = 0;
+		result = 0;
+	}
+
+	@Override
+	public void close() throws SQLException {
+		clearBatch();
+		statement.clearParameters();
+	}
+}
@@ -0,0 +1,65 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.jdbc;
+
+import java.sql.SQLException;
+
+import org.dbunit.database.DatabaseConfig;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.database.statement.AutomaticPreparedBatchStatement;
+import org.dbunit.database.statement.IPreparedBatchStatement;
+import org.dbunit.database.statement.PreparedStatementFactory;
+
+/**
+ * DbUnit statement factory using statements cached by {@link CachedDatabaseConnection}: statements
+ * of DbUnit operations (insert, update, delete) are prepared once per connection.
+ *
+ * <br>
+ *
+ * Statements of other connections are created by the default DbUnit factory.
+ */
+class CachedStatementFactory extends PreparedStatementFactory {
+
+	/**
+	 * Singleton Instance.
+	 */
+	static final CachedStatementFactory INSTANCE = new CachedStatementFactory();
+
+	// Ensure non instantiation.
+	private CachedStatementFactory() {
+	}
+
+	@Override
+	public IPreparedBatchStatement createPreparedBatchStatement(String sql, IDatabaseConnection connection) throws SQLException {
+		if (!(connection instanceof CachedDatabaseConnection)) {
+			return super.createPreparedBatchStatement(sql, connection);
+		}
+
+		CachedDatabaseConnection cachedConnection = (CachedDatabaseConnection) connection;
+		IPreparedBatchStatement statement = new CachedPreparedBatchStatement(cachedConnection.prepareStatement(sql), supportBatchStatement(connection));
+		Integer batchSize = (Integer) connection.getConfig().getProperty(DatabaseConfig.PROPERTY_BATCH_SIZE);
+		return new AutomaticPreparedBatchStatement(statement, batchSize);
+	}
+}
@@ -0,0 +1,429 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.jdbc;
+
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.checkArgument;
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notBlank;
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
+import static java.util.Collections.unmodifiableMap;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.github.mjeanroy.dbunit.commons.lang.Objects;
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitConfig;
+import com.github.mjeanroy.dbunit.exception.DbUnitException;
+import org.dbunit.database.DatabaseConfig;
+import org.dbunit.database.IMetadataHandler;
+import org.dbunit.database.statement.IStatementFactory;
+import org.dbunit.dataset.datatype.IDataTypeFactory;
+
+/**
+ * DbUnit configuration (see {@link DatabaseConfig}) applied to connections used to setup
+ * and tear down the database: only properties defined in this configuration are applied, other
+ * properties keep their default values.
+ *
+ * This class is immutable, and so thread-safe (as long as property values are).
+ *
+ * <br>
+ *
+ * Factories and handlers (data type factory, metadata handler and statement factory) are
+ * compared by class: two configurations using different instances of the same factory class are
+ * equal (DbUnit factories are stateless).
+ */
+public class DatabaseConfiguration {
+
+	/**
+	 * Default configuration (i.e DbUnit default values).
+	 */
+	private static final DatabaseConfiguration DEFAULT = new Builder().build();
+
+	/**
+	 * Get new builder instance.
+	 *
+	 * @return Builder.
+	 */
+	public static DatabaseConfiguration.Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Get default configuration, i.e configuration keeping DbUnit default values.
+	 *
+	 * @return Default configuration.
+	 */
+	public static DatabaseConfiguration defaultConfiguration() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Create configuration from given annotation.
+	 *
+	 * @param annotation Annotation.
+	 * @return Configuration.
+	 * @throws NullPointerException If {@code annotation} is {@code null}.
+	 * @throws DbUnitException If a factory class cannot be instantiated.
+	 */
+	public static DatabaseConfiguration of(DbUnitConfig annotation) {
+		notNull(annotation, "Annotation must not be null");
+
+		Builder builder = new Builder()
+			.setBatchedStatements(annotation.batchedStatements())
+			.setBatchSize(annotation.batchSize())
+			.setFetchSize(annotation.fetchSize())
+			.setCaseSensitiveTableNames(annotation.caseSensitiveTableNames())
+			.setQualifiedTableNames(annotation.qualifiedTableNames())
+			.setDatatypeWarning(annotation.datatypeWarning())
+			.setAllowEmptyFields(annotation.allowEmptyFields())
+			.setDatatypeFactory(newInstance(annotation.datatypeFactory()))
+			.setMetadataHandler(newInstance(annotation.metadataHandler()))
+			.setSharedMetaData(annotation.sharedMetaData());
+
+		if (!annotation.escapePattern().isEmpty()) {
+			builder.setEscapePattern(annotation.escapePattern());
+		}
+
+		if (annotation.statementFactory() != IStatementFactory.class) {
+			builder.setStatementFactory(newInstance(annotation.statementFactory()));
+		}
+
+		return builder.build();
+	}
+
+	/**
+	 * Instantiate given class, using its public no-arg constructor.
+	 *
+	 * @param klass Class.
+	 * @param <T> Type of instance.
+	 * @return The new instance.
+	 * @throws DbUnitException If class cannot be instantiated.
+	 */
+	private static <T> T newInstance(Class<T> klass) {
+		String message = "Cannot instantiate class " + klass.getName() + ", it must have a public no-arg constructor";
+		try {
+			return klass.getDeclaredConstructor().newInstance();
+		}
+		catch (NoSuchMethodException ex) {
+			throw new DbUnitException(message, ex);
+		}
+		catch (InstantiationException ex) {
+			throw new DbUnitException(message, ex);
+		}
+		catch (IllegalAccessException ex) {
+			throw new DbUnitException(message, ex);
+		}
+		catch (InvocationTargetException ex) {
+			throw new DbUnitException("Cannot instantiate class " + klass.getName(), ex);
+		}
+	}
+
+	/**
+	 * DbUnit properties, identified by name (see {@link DatabaseConfig}).
+	 */
+	private final Map<String, Object> properties;
+
+	/**
+	 * Shared metadata flag: if enabled, metadata of the database (columns, primary keys and
+	 * foreign keys of tables) are cached JVM-wide (see {@link DatabaseMetaDataCache}).
+	 */
+	private final boolean sharedMetaData;
+
+	/**
+	 * Properties used to compare configurations: factories and handlers are replaced by their class.
+	 */
+	private final Map<String, Object> identity;
+
+	/**
+	 * Create configuration.
+	 *
+	 * @param properties DbUnit properties.
+	 * @param sharedMetaData Shared metadata flag.
+	 */
+	private DatabaseConfiguration(Map<String, Object> properties, boolean sharedMetaData) {
+		this.properties = unmodifiableMap(new LinkedHashMap<String, Object>(properties));
+		this.sharedMetaData = sharedMetaData;
+		this.identity = identity(this.properties);
+	}
+
+	/**
+	 * Get properties used to compare configurations.
+	 *
+	 * @param properties DbUnit properties.
+	 * @return Properties, where factories and handlers are replaced by their class.
+	 */
+	private static Map<String, Object> identity(Map<String, Object> properties) {
+		Map<String, Object> identity = new LinkedHashMap<String, Object>(properties.size());
+		for (Map.Entry<String, Object> property : properties.entrySet()) {
+			Object value = property.getValue();
+			boolean factory = value instanceof IDataTypeFactory || value instanceof IMetadataHandler || value instanceof IStatementFactory;
+			identity.put(property.getKey(), factory ? value.getClass() : value);
+		}
+
+		return identity;
+	}
+
+	/**
+	 * Gets {@link #properties}.
+	 *
+	 * @return {@link #properties}
+	 */
+	public Map<String, Object> getProperties() {
+		return properties;
+	}
+
+	/**
+	 * Gets {@link #sharedMetaData}.
+	 *
+	 * @return {@link #sharedMetaData}
+	 */
+	public boolean isSharedMetaData() {
+		return sharedMetaData;
+	}
+
+	/**
+	 * Apply properties to given DbUnit configuration.
+	 *
+	 * @param config DbUnit configuration.
+	 * @throws NullPointerException If {@code config} is {@code null}.
+	 */
+	public void apply(DatabaseConfig config) {
+		notNull(config, "DbUnit configuration must not be null");
+		for (Map.Entry<String, Object> property : properties.entrySet()) {
+			config.setProperty(property.getKey(), property.getValue());
+		}
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof DatabaseConfiguration) {
+			DatabaseConfiguration c = (DatabaseConfiguration) o;
+			return Objects.equals(identity, c.identity) && sharedMetaData == c.sharedMetaData;
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(identity, sharedMetaData);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("DatabaseConfiguration{properties=%s, sharedMetaData=%s}", properties, sharedMetaData);
+	}
+
+	/**
+	 * Builder for {@link DatabaseConfiguration}.
+	 */
+	public static class Builder {
+
+		/**
+		 * DbUnit properties, identified by name.
+		 */
+		private final Map<String, Object> properties;
+
+		/**
+		 * Shared metadata flag.
+		 */
+		private boolean sharedMetaData;
+
+		/**
+		 * Create builder.
+		 */
+		private Builder() {
+			this.properties = new LinkedHashMap<String, Object>();
+			this.sharedMetaData = false;
+		}
+
+		/**
+		 * Enable (or disable) JVM-wide cache of database metadata (see {@link DatabaseMetaDataCache}): should only
+		 * be enabled if database schema is not modified (or database re-created with the same URL) outside of SQL
+		 * initialization scripts and liquibase updates. Disabled by default.
+		 *
+		 * @param sharedMetaData Shared metadata flag.
+		 * @return Builder.
+		 */
+		public Builder setSharedMetaData(boolean sharedMetaData) {
+			this.sharedMetaData = sharedMetaData;
+			return this;
+		}
+
+		/**
+		 * Enable (or disable) JDBC batches (see {@link DatabaseConfig#FEATURE_BATCHED_STATEMENTS}).
+		 *
+		 * @param batchedStatements Batched statements flag.
+		 * @return Builder.
+		 */
+		public Builder setBatchedStatements(boolean batchedStatements) {
+			return setProperty(DatabaseConfig.FEATURE_BATCHED_STATEMENTS, batchedStatements);
+		}
+
+		/**
+		 * Override size of JDBC batches (see {@link DatabaseConfig#PROPERTY_BATCH_SIZE}).
+		 *
+		 * @param batchSize Batch size.
+		 * @return Builder.
+		 * @throws IllegalArgumentException If {@code batchSize} is not strictly positive.
+		 */
+		public Builder setBatchSize(int batchSize) {
+			checkArgument(batchSize > 0, "Batch size must be strictly positive");
+			return setProperty(DatabaseConfig.PROPERTY_BATCH_SIZE, batchSize);
+		}
+
+		/**
+		 * Override fetch size of queries (see {@link DatabaseConfig#PROPERTY_FETCH_SIZE}).
+		 *
+		 * @param fetchSize Fetch size.
+		 * @return Builder.
+		 * @throws IllegalArgumentException If {@code fetchSize} is negative.
+		 */
+		public Builder setFetchSize(int fetchSize) {
+			checkArgument(fetchSize >= 0, "Fetch size must be positive");
+			return setProperty(DatabaseConfig.PROPERTY_FETCH_SIZE, fetchSize);
+		}
+
+		/**
+		 * Enable (or disable) case sensitive table names (see {@link DatabaseConfig#FEATURE_CASE_SENSITIVE_TABLE_NAMES}).
+		 *
+		 * @param caseSensitiveTableNames Case sensitive table names flag.
+		 * @return Builder.
+		 */
+		public Builder setCaseSensitiveTableNames(boolean caseSensitiveTableNames) {
+			return setProperty(DatabaseConfig.FEATURE_CASE_SENSITIVE_TABLE_NAMES, caseSensitiveTableNames);
+		}
+
+		/**
+		 * Enable (or disable) qualified table names (see {@link DatabaseConfig#FEATURE_QUALIFIED_TABLE_NAMES}).
+		 *
+		 * @param qualifiedTableNames Qualified table names flag.
+		 * @return Builder.
+		 */
+		public Builder setQualifiedTableNames(boolean qualifiedTableNames) {
+			return setProperty(DatabaseConfig.FEATURE_QUALIFIED_TABLE_NAMES, qualifiedTableNames);
+		}
+
+		/**
+		 * Enable (or disable) warnings on unknown data types (see {@link DatabaseConfig#FEATURE_DATATYPE_WARNING}).
+		 *
+		 * @param datatypeWarning Data type warning flag.
+		 * @return Builder.
+		 */
+		public Builder setDatatypeWarning(boolean datatypeWarning) {
+			return setProperty(DatabaseConfig.FEATURE_DATATYPE_WARNING, datatypeWarning);
+		}
+
+		/**
+		 * Allow (or not) empty strings in data sets (see {@link DatabaseConfig#FEATURE_ALLOW_EMPTY_FIELDS}).
+		 *
+		 * @param allowEmptyFields Empty fields flag.
+		 * @return Builder.
+		 */
+		public Builder setAllowEmptyFields(boolean allowEmptyFields) {
+			return setProperty(DatabaseConfig.FEATURE_ALLOW_EMPTY_FIELDS, allowEmptyFields);
+		}
+
+		/**
+		 * Override escape pattern of table and column names (see {@link DatabaseConfig#PROPERTY_ESCAPE_PATTERN}).
+		 *
+		 * @param escapePattern Escape pattern, for example {@code "?"}.
+		 * @return Builder.
+		 * @throws NullPointerException If {@code escapePattern} is {@code null}.
+		 * @throws IllegalArgumentException If {@code escapePattern} is blank.
+		 */
+		public Builder setEscapePattern(String escapePattern) {
+			return setProperty(DatabaseConfig.PROPERTY_ESCAPE_PATTERN, notBlank(escapePattern, "Escape pattern must not be blank"));
+		}
+
+		/**
+		 * Override data type factory (see {@link DatabaseConfig#PROPERTY_DATATYPE_FACTORY}), for example
+		 * the factory of the database dialect.
+		 *
+		 * @param datatypeFactory Data type factory.
+		 * @return Builder.
+		 * @throws NullPointerException If {@code datatypeFactory} is {@code null}.
+		 */
+		public Builder setDatatypeFactory(IDataTypeFactory datatypeFactory) {
+			return setProperty(DatabaseConfig.PROPERTY_DATATYPE_FACTORY, notNull(datatypeFactory, "Data type factory must not be null"));
+		}
+
+		/**
+		 * Override metadata handler (see {@link DatabaseConfig#PROPERTY_METADATA_HANDLER}).
+		 *
+		 * @param metadataHandler Metadata handler.
+		 * @return Builder.
+		 * @throws NullPointerException If {@code metadataHandler} is {@code null}.
+		 */
+		public Builder setMetadataHandler(IMetadataHandler metadataHandler) {
+			return setProperty(DatabaseConfig.PROPERTY_METADATA_HANDLER, notNull(metadataHandler, "Metadata handler must not be null"));
+		}
+
+		/**
+		 * Override statement factory (see {@link DatabaseConfig#PROPERTY_STATEMENT_FACTORY}): note that
+		 * default factory re-uses prepared statements of the connection (see {@link CachedDatabaseConnection}).
+		 *
+		 * @param statementFactory Statement factory.
+		 * @return Builder.
+		 * @throws NullPointerException If {@code statementFactory} is {@code null}.
+		 */
+		public Builder setStatementFactory(IStatementFactory statementFactory) {
+			return setProperty(DatabaseConfig.PROPERTY_STATEMENT_FACTORY, notNull(statementFactory, "Statement factory must not be null"));
+		}
+
+		/**
+		 * Set DbUnit property (see {@link DatabaseConfig}).
+		 *
+		 * @param name Property name.
+		 * @param value Property value.
+		 * @return Builder.
+		 * @throws NullPointerException If {@code name} or {@code value} is {@code null}.
+		 * @throws IllegalArgumentException If value does not have the expected type.
+		 */
+		public Builder setProperty(String name, Object value) {
+			notNull(name, "Property name must not be null");
+			notNull(value, "Property value must not be null");
+
+			// Fail fast: DbUnit checks that property exists, and that value has the expected type.
+			new DatabaseConfig().setProperty(name, value);
+
+			properties.put(name, value);
+			return this;
+		}
+
+		/**
+		 * Create configuration.
+		 *
+		 * @return Configuration.
+		 */
+		public DatabaseConfiguration build() {
+			return new DatabaseConfiguration(properties, sharedMetaData);
+		}
+	}
+}
@@ -0,0 +1,199 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.jdbc;
+
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.mjeanroy.dbunit.cache.Cache;
+import com.github.mjeanroy.dbunit.cache.CacheFactory;
+import com.github.mjeanroy.dbunit.cache.CacheLoader;
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+import org.dbunit.dataset.ITableMetaData;
+
+/**
+ * Metadata of a database (table metadata and foreign key graphs), read once and re-used.
+ *
+ * <br>
+ *
+ * A cache may be private to a connection, or JVM-wide (see {@link #getInstance(Connection)}): JVM-wide
+ * caches are shared by all connections to the same database, and are only used if enabled in
+ * configuration (see {@link DatabaseConfiguration#isSharedMetaData()}).
+ *
+ * <br>
+ *
+ * Databases are identified by connection URL, table metadata are identified by schema, data type
+ * factory and table name.
+ * Cache must be invalidated when database schema is modified, or when database is re-created with the
+ * same URL (this is done automatically after SQL initialization scripts and liquibase updates, and when
+ * embedded databases are shut down).
+ *
+ * <br>
+ *
+ * This class is thread-safe.
+ */
+public final class DatabaseMetaDataCache {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(DatabaseMetaDataCache.class);
+
+	/**
+	 * Caches, identified by connection URL.
+	 */
+	private static final Cache<String, DatabaseMetaDataCache> CACHES = CacheFactory.newCache(MetaDataCacheLoader.INSTANCE);
+
+	/**
+	 * Get metadata cache of the database of given connection.
+	 *
+	 * @param connection JDBC Connection.
+	 * @return The cache.
+	 * @throws SQLException If database metadata cannot be read.
+	 */
+	public static DatabaseMetaDataCache getInstance(Connection connection) throws SQLException {
+		String url = notNull(connection, "Connection must not be null").getMetaData().getURL();
+		return CACHES.load(url == null ? "" : url);
+	}
+
+	/**
+	 * Invalidate metadata cache of the database of given connection (should be called when
+	 * database schema has been modified).
+	 *
+	 * @param connection JDBC Connection.
+	 * @throws SQLException If database metadata cannot be read.
+	 */
+	public static void invalidate(Connection connection) throws SQLException {
+		getInstance(connection).invalidate();
+	}
+
+	/**
+	 * Table metadata.
+	 */
+	private final ConcurrentMap<String, ITableMetaData> tables;
+
+	/**
+	 * Foreign key graphs, identified by schema.
+	 */
+	private final ConcurrentMap<String, ForeignKeyGraph> graphs;
+
+	/**
+	 * Number of invalidations of this cache, used to detect schema modifications.
+	 */
+	private final AtomicLong generation;
+
+	/**
+	 * Create cache, not shared with other connections to the database (see {@link #getInstance(Connection)}
+	 * to get the JVM-wide cache of a database).
+	 */
+	public DatabaseMetaDataCache() {
+		this.tables = new ConcurrentHashMap<String, ITableMetaData>();
+		this.graphs = new ConcurrentHashMap<String, ForeignKeyGraph>();
+		this.generation = new AtomicLong();
+	}
+
+	/**
+	 * Get table metadata.
+	 *
+	 * @param key Table identifier.
+	 * @return Table metadata, {@code null} if metadata is not in the cache.
+	 */
+	ITableMetaData getTableMetaData(String key) {
+		return tables.get(key);
+	}
+
+	/**
+	 * Add table metadata to the cache.
+	 *
+	 * @param key Table identifier.
+	 * @param metaData Table metadata.
+	 */
+	void putTableMetaData(String key, ITableMetaData metaData) {
+		tables.put(key, metaData);
+	}
+
+	/**
+	 * Get foreign key graph of given schema.
+	 *
+	 * @param schema Database schema, may be {@code null}.
+	 * @return The graph.
+	 */
+	public ForeignKeyGraph getForeignKeyGraph(String schema) {
+		String key = schema == null ? "" : schema;
+		ForeignKeyGraph graph = graphs.get(key);
+		if (graph == null) {
+			ForeignKeyGraph newGraph = new ForeignKeyGraph(schema);
+			graph = graphs.putIfAbsent(key, newGraph);
+			if (graph == null) {
+				graph = newGraph;
+			}
+		}
+
+		return graph;
+	}
+
+	/**
+	 * Get current generation of this cache: generation changes each time cache is invalidated.
+	 *
+	 * @return Generation.
+	 */
+	long getGeneration() {
+		return generation.get();
+	}
+
+	/**
+	 * Invalidate cache: metadata will be read again from the database.
+	 */
+	public void invalidate() {
+		log.debug("Invalidate database metadata cache");
+		generation.incrementAndGet();
+		tables.clear();
+		for (ForeignKeyGraph graph : graphs.values()) {
+			graph.invalidate();
+		}
+	}
+
+	/**
+	 * Loader creating (empty) cache for given database.
+	 */
+	private static class MetaDataCacheLoader implements CacheLoader<String, DatabaseMetaDataCache> {
+
+		/**
+		 * Singleton Instance.
+		 */
+		private static final MetaDataCacheLoader INSTANCE = new MetaDataCacheLoader();
+
+		@Override
+		public DatabaseMetaDataCache load(String key) {
+			return new DatabaseMetaDataCache();
+		}
+	}
+}
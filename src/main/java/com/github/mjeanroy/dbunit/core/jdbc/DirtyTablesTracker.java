@@ -0,0 +1,396 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.jdbc;
+
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+
+/**
+ * Track tables modified since database has been seeded.
+ *
+ * <br>
+ *
+ * SQL connections wrapped by this tracker (see {@link #wrap(Connection)}) record tables
+ * targeted by {@code INSERT}, {@code UPDATE}, {@code DELETE}, {@code MERGE} and {@code TRUNCATE}
+ * statements. Any other statement that may write (DDL, procedure calls, updatable result sets, etc.)
+ * marks the whole database as dirty.
+ *
+ * <br>
+ *
+ * Table names are normalized: quotes and schema are removed, and names are upper-cased.
+ * This class is thread-safe.
+ */
+public final class DirtyTablesTracker {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(DirtyTablesTracker.class);
+
+	/**
+	 * Leading SQL comments.
+	 */
+	private static final Pattern COMMENTS = Pattern.compile("^(\\s*(--[^\\n]*(\\n|$)|/\\*.*?\\*/))*\\s*", Pattern.DOTALL);
+
+	/**
+	 * Statements modifying a single table: second group is the table name.
+	 */
+	private static final Pattern WRITE = Pattern.compile(
+		"^(INSERT\\s+INTO|MERGE\\s+INTO|REPLACE\\s+INTO|UPDATE|DELETE\\s+FROM|DELETE|TRUNCATE\\s+TABLE|TRUNCATE)\\s+([\\w.\"`$\\[\\]]+)",
+		Pattern.CASE_INSENSITIVE
+	);
+
+	/**
+	 * Read only statements.
+	 */
+	private static final Pattern READ = Pattern.compile(
+		"^(SELECT|VALUES|SHOW|EXPLAIN|DESCRIBE|COMMIT|ROLLBACK|SAVEPOINT|RELEASE)\\b",
+		Pattern.CASE_INSENSITIVE
+	);
+
+	/**
+	 * Modified tables, since last call to {@link #seeded(Object)}.
+	 */
+	private final Set<String> tables;
+
+	/**
+	 * Flag set when modified tables cannot be computed.
+	 */
+	private boolean allDirty;
+
+	/**
+	 * Identifier of data set currently loaded in database, {@code null} if database
+	 * has never been seeded.
+	 */
+	private Object seed;
+
+	/**
+	 * Create tracker.
+	 */
+	public DirtyTablesTracker() {
+		this.tables = new HashSet<String>();
+		this.allDirty = true;
+	}
+
+	/**
+	 * Mark database as seeded with given data set: dirty tables are cleared.
+	 *
+	 * @param seed Data set identifier.
+	 */
+	public synchronized void seeded(Object seed) {
+		this.seed = seed;
+		this.allDirty = false;
+		this.tables.clear();
+	}
+
+	/**
+	 * Check if database has been seeded with given data set.
+	 *
+	 * @param seed Data set identifier.
+	 * @return {@code true} if database has been seeded with given data set, {@code false} otherwise.
+	 */
+	public synchronized boolean isSeeded(Object seed) {
+		return this.seed != null && this.seed.equals(seed);
+	}
+
+	/**
+	 * Mark table as dirty.
+	 *
+	 * @param table Table name.
+	 */
+	public synchronized void markDirty(String table) {
+		tables.add(normalize(table));
+	}
+
+	/**
+	 * Mark the whole database as dirty: next setup cannot be incremental.
+	 */
+	public synchronized void markAllDirty() {
+		allDirty = true;
+	}
+
+	/**
+	 * Check if the whole database has been marked as dirty.
+	 *
+	 * @return {@code true} if the whole database is dirty, {@code false} otherwise.
+	 */
+	public synchronized boolean isAllDirty() {
+		return allDirty;
+	}
+
+	/**
+	 * Get tables modified since last seed (normalized names).
+	 *
+	 * @return Dirty tables.
+	 */
+	public synchronized Set<String> getDirtyTables() {
+		return new HashSet<String>(tables);
+	}
+
+	/**
+	 * Check if given table has been modified since last seed.
+	 *
+	 * @param table Table name.
+	 * @return {@code true} if table is dirty, {@code false} otherwise.
+	 */
+	public synchronized boolean isDirty(String table) {
+		return allDirty || tables.contains(normalize(table));
+	}
+
+	/**
+	 * Record tables modified by given SQL query.
+	 *
+	 * @param sql SQL query.
+	 */
+	public void track(String sql) {
+		if (sql == null) {
+			return;
+		}
+
+		String query = COMMENTS.matcher(sql).replaceFirst("").trim();
+		if (query.endsWith(";")) {
+			query = query.substring(0, query.length() - 1);
+		}
+
+		// Several statements: do not try to parse them.
+		if (query.indexOf(';') >= 0) {
+			log.trace("Multiple statements, mark database as dirty: {}", sql);
+			markAllDirty();
+			return;
+		}
+
+		if (query.isEmpty() || READ.matcher(query).find()) {
+			return;
+		}
+
+		Matcher matcher = WRITE.matcher(query);
+		if (matcher.find()) {
+			markDirty(matcher.group(2));
+			return;
+		}
+
+		log.trace("Unknown statement, mark database as dirty: {}", sql);
+		markAllDirty();
+	}
+
+	/**
+	 * Wrap given connection: tables modified using this connection (or statements
+	 * created by this connection) are recorded by this tracker.
+	 *
+	 * @param connection SQL Connection.
+	 * @return Proxy.
+	 * @throws NullPointerException If {@code connection} is {@code null}.
+	 */
+	public Connection wrap(Connection connection) {
+		notNull(connection, "Connection must not be null");
+		return (Connection) Proxy.newProxyInstance(
+			DirtyTablesTracker.class.getClassLoader(),
+			new Class<?>[]{Connection.class},
+			new ConnectionInvocationHandler(this, connection)
+		);
+	}
+
+	/**
+	 * Normalize table name: remove quotes and schema, and get upper-cased name.
+	 *
+	 * @param table Table name.
+	 * @return Normalized name.
+	 */
+	static String normalize(String table) {
+		String name = table.replace("\"", "").replace("`", "").replace("[", "").replace("]", "");
+		int index = name.lastIndexOf('.');
+		return (index >= 0 ? name.substring(index + 1) : name).toUpperCase();
+	}
+
+	/**
+	 * Invoke method on target object and unwrap reflection exceptions.
+	 *
+	 * @param target Target.
+	 * @param method Method.
+	 * @param args Arguments.
+	 * @return Method result.
+	 * @throws Throwable If method failed.
+	 */
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		}
+		catch (InvocationTargetException ex) {
+			throw ex.getCause();
+		}
+	}
+
+	/**
+	 * Connection proxy handler.
+	 */
+	private static class ConnectionInvocationHandler implements InvocationHandler {
+
+		/**
+		 * Tracker.
+		 */
+		private final DirtyTablesTracker tracker;
+
+		/**
+		 * Target connection.
+		 */
+		private final Connection connection;
+
+		/**
+		 * Create handler.
+		 *
+		 * @param tracker Tracker.
+		 * @param connection Target connection.
+		 */
+		private ConnectionInvocationHandler(DirtyTablesTracker tracker, Connection connection) {
+			this.tracker = tracker;
+			this.connection = connection;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+
+			if ("equals".equals(name)) {
+				return proxy == args[0];
+			}
+
+			if ("hashCode".equals(name)) {
+				return System.identityHashCode(proxy);
+			}
+
+			if ("createStatement".equals(name)) {
+				checkConcurrency(args, 1);
+				Statement statement = (Statement) DirtyTablesTracker.invoke(connection, method, args);
+				return Proxy.newProxyInstance(
+					DirtyTablesTracker.class.getClassLoader(),
+					new Class<?>[]{Statement.class},
+					new StatementInvocationHandler(tracker, statement, (Connection) proxy)
+				);
+			}
+
+			if ("prepareStatement".equals(name) || "prepareCall".equals(name)) {
+				// Statement may be executed several times, track it once.
+				tracker.track((String) args[0]);
+				checkConcurrency(args, 2);
+				Statement statement = (Statement) DirtyTablesTracker.invoke(connection, method, args);
+				Class<?> type = "prepareCall".equals(name) ? CallableStatement.class : PreparedStatement.class;
+				return Proxy.newProxyInstance(
+					DirtyTablesTracker.class.getClassLoader(),
+					new Class<?>[]{type},
+					new StatementInvocationHandler(tracker, statement, (Connection) proxy)
+				);
+			}
+
+			return DirtyTablesTracker.invoke(connection, method, args);
+		}
+
+		/**
+		 * Mark database as dirty if statement creates updatable result sets.
+		 *
+		 * @param args Statement creation arguments.
+		 * @param index Index of result set concurrency argument.
+		 */
+		private void checkConcurrency(Object[] args, int index) {
+			if (args != null && args.length > index && args[index] instanceof Integer && args[index - 1] instanceof Integer) {
+				if ((Integer) args[index] == ResultSet.CONCUR_UPDATABLE) {
+					tracker.markAllDirty();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Statement proxy handler.
+	 */
+	private static class StatementInvocationHandler implements InvocationHandler {
+
+		/**
+		 * Tracker.
+		 */
+		private final DirtyTablesTracker tracker;
+
+		/**
+		 * Target statement.
+		 */
+		private final Statement statement;
+
+		/**
+		 * Connection proxy, returned by {@link Statement#getConnection()}.
+		 */
+		private final Connection connection;
+
+		/**
+		 * Create handler.
+		 *
+		 * @param tracker Tracker.
+		 * @param statement Target statement.
+		 * @param connection Connection proxy.
+		 */
+		private StatementInvocationHandler(DirtyTablesTracker tracker, Statement statement, Connection connection) {
+			this.tracker = tracker;
+			this.statement = statement;
+			this.connection = connection;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+
+			if ("equals".equals(name)) {
+				return proxy == args[0];
+			}
+
+			if ("hashCode".equals(name)) {
+				return System.identityHashCode(proxy);
+			}
+
+			if ("getConnection".equals(name)) {
+				return connection;
+			}
+
+			if ((name.startsWith("execute") || "addBatch".equals(name)) && args != null && args.length > 0 && args[0] instanceof String) {
+				tracker.track((String) args[0]);
+			}
+
+			return DirtyTablesTracker.invoke(statement, method, args);
+		}
+	}
+}
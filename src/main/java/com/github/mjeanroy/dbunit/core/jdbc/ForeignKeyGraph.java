@@ -0,0 +1,348 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.jdbc;
+
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
+import static com.github.mjeanroy.dbunit.core.jdbc.DirtyTablesTracker.normalize;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+import org.dbunit.database.IDatabaseConnection;
+
+/**
+ * Graph of foreign keys between tables of a database schema, used to order tables
+ * so that referenced tables come first (i.e insertion order, reversed for deletion).
+ *
+ * <br>
+ *
+ * Graphs are shared by connections to the same database (see {@link DatabaseMetaDataCache}), and
+ * foreign keys are read from database metadata once: graph is only reloaded if it does not know a table
+ * to sort (for example, if the table has been created after the graph has been loaded) or if it
+ * has been invalidated (see {@link #invalidate()}).
+ *
+ * <br>
+ *
+ * Table names are normalized: quotes and schema are removed, and names are upper-cased.
+ * This class is thread-safe.
+ */
+public final class ForeignKeyGraph {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(ForeignKeyGraph.class);
+
+	/**
+	 * Get graph of the schema of given connection: graph of the metadata cache of the connection if
+	 * it is an instance of {@link CachedDatabaseConnection}, otherwise a new graph is created.
+	 *
+	 * @param connection DbUnit connection.
+	 * @return The graph.
+	 */
+	public static ForeignKeyGraph getInstance(IDatabaseConnection connection) {
+		notNull(connection, "Connection must not be null");
+		if (connection instanceof CachedDatabaseConnection) {
+			return ((CachedDatabaseConnection) connection).getForeignKeyGraph();
+		}
+
+		return new ForeignKeyGraph(connection.getSchema());
+	}
+
+	/**
+	 * Get graph of the JVM-wide metadata cache of the database of given connection (see {@link DatabaseMetaDataCache}).
+	 *
+	 * @param connection JDBC Connection.
+	 * @param schema Database schema, may be {@code null}.
+	 * @return The graph.
+	 * @throws SQLException If database metadata cannot be read.
+	 */
+	public static ForeignKeyGraph getInstance(Connection connection, String schema) throws SQLException {
+		return DatabaseMetaDataCache.getInstance(connection).getForeignKeyGraph(schema);
+	}
+
+	/**
+	 * Referenced tables, identified by table (normalized names), {@code null} until graph is loaded.
+	 */
+	private Map<String, Set<String>> dependencies;
+
+	/**
+	 * Database schema, may be {@code null}.
+	 */
+	private final String schema;
+
+	/**
+	 * Create graph.
+	 *
+	 * @param schema Database schema, may be {@code null}.
+	 */
+	ForeignKeyGraph(String schema) {
+		this.schema = schema;
+	}
+
+	/**
+	 * Sort tables so that a table always comes after the tables it references.
+	 *
+	 * <br>
+	 *
+	 * Sort is stable: original order is kept when tables do not depend on each other, and tables
+	 * that are part of a cycle (or that are unknown) keep their original order.
+	 *
+	 * @param connection JDBC Connection, used to load graph if needed.
+	 * @param tableNames Table names.
+	 * @return Sorted table names.
+	 * @throws SQLException If database metadata cannot be read.
+	 */
+	public synchronized List<String> sort(Connection connection, List<String> tableNames) throws SQLException {
+		notNull(connection, "Connection must not be null");
+		notNull(tableNames, "Table names must not be null");
+
+		loadIfNeeded(connection, tableNames);
+
+		List<String> remaining = new LinkedList<String>(tableNames);
+		List<String> sorted = new ArrayList<String>(tableNames.size());
+		while (!remaining.isEmpty()) {
+			String next = remaining.get(0);
+			for (String table : remaining) {
+				if (!dependsOn(table, remaining)) {
+					next = table;
+					break;
+				}
+			}
+
+			remaining.remove(next);
+			sorted.add(next);
+		}
+
+		return sorted;
+	}
+
+	/**
+	 * Group tables by dependency level: tables of a group only reference tables of previous groups, so
+	 * that tables of the same group can be inserted concurrently.
+	 *
+	 * <br>
+	 *
+	 * Groups keep original order of tables, and tables that are part of a cycle (which cannot be
+	 * inserted concurrently) are put in their own group.
+	 *
+	 * @param connection JDBC Connection, used to load graph if needed.
+	 * @param tableNames Table names.
+	 * @return Groups of table names.
+	 * @throws SQLException If database metadata cannot be read.
+	 */
+	public synchronized List<List<String>> group(Connection connection, List<String> tableNames) throws SQLException {
+		notNull(connection, "Connection must not be null");
+		notNull(tableNames, "Table names must not be null");
+
+		loadIfNeeded(connection, tableNames);
+
+		List<String> remaining = new LinkedList<String>(tableNames);
+		List<List<String>> groups = new ArrayList<List<String>>();
+		while (!remaining.isEmpty()) {
+			List<String> group = new ArrayList<String>();
+			for (String table : remaining) {
+				if (!dependsOn(table, remaining)) {
+					group.add(table);
+				}
+			}
+
+			if (group.isEmpty()) {
+				group.add(remaining.get(0));
+			}
+
+			remaining.removeAll(group);
+			groups.add(group);
+		}
+
+		return groups;
+	}
+
+	/**
+	 * Check if table references itself (rows of such tables must be inserted in order).
+	 *
+	 * @param tableName Table name.
+	 * @return {@code true} if table references itself, or if table is unknown, {@code false} otherwise.
+	 */
+	public synchronized boolean isSelfReferencing(String tableName) {
+		String name = normalize(tableName);
+		Set<String> referenced = dependencies == null ? null : dependencies.get(name);
+		return referenced == null || referenced.contains(name);
+	}
+
+	/**
+	 * Check if table is referenced by a foreign key of another table, or by itself.
+	 *
+	 * @param connection JDBC Connection, used to load graph if needed.
+	 * @param tableName Table name.
+	 * @return {@code true} if table is referenced, {@code false} otherwise.
+	 * @throws SQLException If database metadata cannot be read.
+	 */
+	public synchronized boolean isReferenced(Connection connection, String tableName) throws SQLException {
+		notNull(connection, "Connection must not be null");
+		notNull(tableName, "Table name must not be null");
+
+		loadIfNeeded(connection, Collections.singletonList(tableName));
+
+		String name = normalize(tableName);
+		for (Set<String> referenced : dependencies.values()) {
+			if (referenced.contains(name)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Invalidate graph: foreign keys will be read again from database metadata (should be called
+	 * when database schema has been modified).
+	 */
+	public synchronized void invalidate() {
+		dependencies = null;
+	}
+
+	/**
+	 * Load graph, unless it is already loaded and contains all given tables.
+	 *
+	 * @param connection JDBC Connection.
+	 * @param tableNames Table names.
+	 * @throws SQLException If database metadata cannot be read.
+	 */
+	private void loadIfNeeded(Connection connection, List<String> tableNames) throws SQLException {
+		if (dependencies == null || !containsAll(tableNames)) {
+			dependencies = load(connection.getMetaData(), schema);
+		}
+	}
+
+	/**
+	 * Check if graph contains all given tables.
+	 *
+	 * @param tableNames Table names.
+	 * @return {@code true} if all tables are known, {@code false} otherwise.
+	 */
+	private boolean containsAll(List<String> tableNames) {
+		for (String tableName : tableNames) {
+			if (!dependencies.containsKey(normalize(tableName))) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Check if table references one of the given tables (self references are ignored).
+	 *
+	 * @param table Table name.
+	 * @param tableNames Table names.
+	 * @return {@code true} if table references one of the given tables, {@code false} otherwise.
+	 */
+	private boolean dependsOn(String table, List<String> tableNames) {
+		String name = normalize(table);
+		Set<String> referenced = dependencies.get(name);
+		if (referenced == null || referenced.isEmpty()) {
+			return false;
+		}
+
+		for (String tableName : tableNames) {
+			String other = normalize(tableName);
+			if (!other.equals(name) && referenced.contains(other)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Read foreign keys of all tables of given schema.
+	 *
+	 * @param metaData Database metadata.
+	 * @param schema Database schema, may be {@code null}.
+	 * @return Referenced tables, identified by table.
+	 * @throws SQLException If database metadata cannot be read.
+	 */
+	private static Map<String, Set<String>> load(DatabaseMetaData metaData, String schema) throws SQLException {
+		log.debug("Read foreign keys of schema: {}", schema);
+
+		List<String> tables = new ArrayList<String>();
+		ResultSet rs = metaData.getTables(null, schema, "%", new String[]{"TABLE"});
+		try {
+			while (rs.next()) {
+				String table = rs.getString("TABLE_NAME");
+				if (!InternalTables.isInternal(table)) {
+					tables.add(table);
+				}
+			}
+		}
+		finally {
+			rs.close();
+		}
+
+		Map<String, Set<String>> dependencies = new HashMap<String, Set<String>>();
+		for (String table : tables) {
+			dependencies.put(normalize(table), readImportedTables(metaData, schema, table));
+		}
+
+		return Collections.unmodifiableMap(dependencies);
+	}
+
+	/**
+	 * Read tables referenced by given table.
+	 *
+	 * @param metaData Database metadata.
+	 * @param schema Database schema, may be {@code null}.
+	 * @param table Table name.
+	 * @return Referenced tables (normalized names).
+	 * @throws SQLException If database metadata cannot be read.
+	 */
+	private static Set<String> readImportedTables(DatabaseMetaData metaData, String schema, String table) throws SQLException {
+		Set<String> referenced = new HashSet<String>();
+		ResultSet rs = metaData.getImportedKeys(null, schema, table);
+		try {
+			while (rs.next()) {
+				referenced.add(normalize(rs.getString("PKTABLE_NAME")));
+			}
+		}
+		finally {
+			rs.close();
+		}
+
+		return referenced;
+	}
+}
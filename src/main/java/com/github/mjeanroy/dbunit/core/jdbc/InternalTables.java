@@ -0,0 +1,54 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.jdbc;
+
+import static com.github.mjeanroy.dbunit.core.jdbc.DirtyTablesTracker.normalize;
+
+/**
+ * Tables created by dbunit-plus in the test database: these tables are not part of
+ * the user schema, and are excluded when tables of the database are listed (see
+ * {@link CachedDatabaseConnection#createDataSet()} and {@link ForeignKeyGraph}).
+ */
+public final class InternalTables {
+
+	/**
+	 * Name of the table storing fingerprints of applied SQL scripts.
+	 */
+	public static final String SCRIPT_FINGERPRINTS = "DBUNIT_SCRIPT_FINGERPRINTS";
+
+	// Ensure non instantiation.
+	private InternalTables() {
+	}
+
+	/**
+	 * Check if given table is an internal table.
+	 *
+	 * @param tableName Table name (may be quoted, or qualified with a schema).
+	 * @return {@code true} if table is an internal table, {@code false} otherwise.
+	 */
+	public static boolean isInternal(String tableName) {
+		return tableName != null && SCRIPT_FINGERPRINTS.equals(normalize(tableName));
+	}
+}
@@ -51,7 +51,23 @@ public class JdbcConfiguration {
 	 * @throws IllegalArgumentException If {@code url} or {@code user} are blank.
 	 */
 	public static JdbcConfiguration newJdbcConfiguration(String url, String user, String password) {
-		return new JdbcConfiguration(url, user, password);
+		return new JdbcConfiguration(url, user, password, 0);
+	}
+
+	/**
+	 * Create JDBC Configuration object, with connection pooling: physical connections
+	 * are re-used (see {@link JdbcPoolingConnectionFactory}).
+	 *
+	 * @param url JDBC Connection URL.
+	 * @param user JDBC Connection User.
+	 * @param password JDBC Connection Password.
+	 * @param poolSize Maximum number of idle connections kept in the pool, {@code 0} to disable pooling.
+	 * @return JDBC Connection Configuration.
+	 * @throws NullPointerException If {@code url}, {@code user} or {@code password} are null.
+	 * @throws IllegalArgumentException If {@code url} or {@code user} are blank, or if {@code poolSize} is negative.
+	 */
+	public static JdbcConfiguration newJdbcConfiguration(String url, String user, String password, int poolSize) {
+		return new JdbcConfiguration(url, user, password, poolSize);
 	}
 
 	/**
@@ -70,19 +86,31 @@ public class JdbcConfiguration {
 	 */
 	private final String password;
 
+	/**
+	 * Maximum number of idle connections kept in the pool, {@code 0} if pooling is disabled.
+	 */
+	private final int poolSize;
+
 	/**
 	 * Create new configuration.
 	 *
 	 * @param url JDBC Connection URL.
 	 * @param user JDBC Connection User.
 	 * @param password JDBC Connection Password.
+	 * @param poolSize Maximum number of idle connections kept in the pool.
 	 * @throws NullPointerException If {@code url}, {@code user} or {@code password} are null.
-	 * @throws IllegalArgumentException If {@code url} or {@code user} are blank.
+	 * @throws IllegalArgumentException If {@code url} or {@code user} are blank, or if {@code poolSize} is negative.
 	 */
-	private JdbcConfiguration(String url, String user, String password) {
+	private JdbcConfiguration(String url, String user, String password, int poolSize) {
 		this.url = startsWith(url, "jdbc:", "Jdbc URL should be defined");
 		this.user = notBlank(user, "Jdbc user should be defined");
 		this.password = notNull(password, "Jdbc password should be set");
+
+		if (poolSize < 0) {
+			throw new IllegalArgumentException("Jdbc pool size must be positive");
+		}
+
+		this.poolSize = poolSize;
 	}
 
 	/**
@@ -112,6 +140,24 @@ public class JdbcConfiguration {
 		return password;
 	}
 
+	/**
+	 * Gets {@link #poolSize}.
+	 *
+	 * @return {@link #poolSize}
+	 */
+	public int getPoolSize() {
+		return poolSize;
+	}
+
+	/**
+	 * Check if connection pooling is enabled.
+	 *
+	 * @return {@code true} if connection pooling is enabled, {@code false} otherwise.
+	 */
+	public boolean isPooled() {
+		return poolSize > 0;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (o == this) {
@@ -122,7 +168,8 @@ public class JdbcConfiguration {
 			JdbcConfiguration c = (JdbcConfiguration) o;
 			return Objects.equals(url, c.url) &&
 				Objects.equals(user, c.user) &&
-				Objects.equals(password, c.password);
+				Objects.equals(password, c.password) &&
+				poolSize == c.poolSize;
 		}
 
 		return false;
@@ -130,7 +177,7 @@ public class JdbcConfiguration {
 
 	@Override
 	public int hashCode() {
-		return Objects.hashCode(url, user, password);
+		return Objects.hashCode(url, user, password, poolSize);
 	}
 
 	@Override
@@ -27,6 +27,8 @@ package com.github.mjeanroy.dbunit.core.jdbc;
 import javax.sql.DataSource;
 import java.sql.Connection;
 
+import com.github.mjeanroy.dbunit.commons.lang.Objects;
+
 /**
  * Implementation of {@link JdbcConnectionFactory} to produce instance
  * of {@link Connection} from  given {@link DataSource}.
@@ -52,4 +54,23 @@ public class JdbcDataSourceConnectionFactory extends AbstractJdbcConnectionFacto
 	protected Connection createConnection() throws Exception {
 		return dataSource.getConnection();
 	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof JdbcDataSourceConnectionFactory) {
+			JdbcDataSourceConnectionFactory f = (JdbcDataSourceConnectionFactory) o;
+			return Objects.equals(dataSource, f.dataSource);
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(dataSource);
+	}
 }
@@ -27,7 +27,7 @@ package com.github.mjeanroy.dbunit.core.jdbc;
 import java.sql.Connection;
 import java.sql.DriverManager;
 
-import com.github.mjeanroy.dbunit.exception.JdbcException;
+import com.github.mjeanroy.dbunit.commons.lang.Objects;
 
 /**
  * Implementation of {@link JdbcConnectionFactory} to produce instance
@@ -40,6 +40,11 @@ public class JdbcDefaultConnectionFactory extends AbstractJdbcConnectionFactory
 	 */
 	private final JdbcConfiguration configuration;
 
+	/**
+	 * Flag set once JDBC driver has been loaded.
+	 */
+	private volatile boolean driverLoaded;
+
 	/**
 	 * Create new factory.
 	 *
@@ -52,18 +57,36 @@ public class JdbcDefaultConnectionFactory extends AbstractJdbcConnectionFactory
 
 	@Override
 	protected Connection createConnection() throws Exception {
-		loadDriver(configuration.getUrl());
+		loadDriver();
 		return DriverManager.getConnection(configuration.getUrl(), configuration.getUser(), configuration.getPassword());
 	}
 
-	private void loadDriver(String url) {
-		for (JdbcDriver driver : JdbcDriver.values()) {
-			if (driver.match(url)) {
-				driver.loadDriver();
-				return;
-			}
+	/**
+	 * Load JDBC driver, the first time a connection is created.
+	 */
+	private void loadDriver() {
+		if (!driverLoaded) {
+			JdbcDriver.loadDriver(configuration.getUrl());
+			driverLoaded = true;
+		}
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof JdbcDefaultConnectionFactory) {
+			JdbcDefaultConnectionFactory f = (JdbcDefaultConnectionFactory) o;
+			return Objects.equals(configuration, f.configuration);
 		}
 
-		throw new JdbcException("Cannot load JDBC driver for: " + url);
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(configuration);
 	}
 }
@@ -46,6 +46,23 @@ enum JdbcDriver {
 	 */
 	private static final Logger log = Loggers.getLogger(JdbcDriver.class);
 
+	/**
+	 * Load JDBC Driver matching given JDBC url.
+	 *
+	 * @param url JDBC Connection.
+	 * @throws JdbcException If driver cannot be found or loaded.
+	 */
+	static void loadDriver(String url) {
+		for (JdbcDriver driver : values()) {
+			if (driver.match(url)) {
+				driver.loadDriver();
+				return;
+			}
+		}
+
+		throw new JdbcException("Cannot load JDBC driver for: " + url);
+	}
+
 	/**
 	 * JDBC id (visible in JDBC Connection: jdbc:[id]:[connection).
 	 */
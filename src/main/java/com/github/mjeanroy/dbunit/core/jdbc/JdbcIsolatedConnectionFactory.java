@@ -0,0 +1,220 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.jdbc;
+
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.checkArgument;
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
+import static com.github.mjeanroy.dbunit.core.jdbc.JdbcConfiguration.newJdbcConfiguration;
+
+import java.lang.ref.WeakReference;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.mjeanroy.dbunit.commons.lang.Objects;
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+
+/**
+ * Implementation of {@link JdbcConnectionFactory} giving each thread its own database: this
+ * factory should be used to run tests in parallel (for example with JUnit {@code ParallelComputer}).
+ *
+ * <br>
+ *
+ * Databases are identified by the URL of the given configuration, rewritten with an index: the index is
+ * appended to the database name, i.e before connection properties starting with {@code ;} or {@code ?} (for
+ * example, {@code jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1} becomes {@code jdbc:h2:mem:testdb_1;DB_CLOSE_DELAY=-1}).
+ * The thread with index {@code 0} uses the URL of the given configuration, and a given thread always uses the
+ * same database.
+ *
+ * <br>
+ *
+ * Since each rewritten URL must denote a new database created on the first connection, only in-memory
+ * databases are supported (URL containing {@code :mem:} or {@code :memory:}, such as H2, HSQLDB or Derby
+ * in-memory databases).
+ *
+ * <br>
+ *
+ * Indexes of terminated threads are re-used by new threads, so the number of databases is bounded by the
+ * maximum number of threads running tests at the same time (a database is not dropped when its thread
+ * terminates: next thread using the index re-uses it).
+ *
+ * <br>
+ *
+ * Each database is initialized by runners the first time it is used (see
+ * {@link com.github.mjeanroy.dbunit.core.annotations.DbUnitInit} and
+ * {@link com.github.mjeanroy.dbunit.core.annotations.DbUnitLiquibase}).
+ */
+public class JdbcIsolatedConnectionFactory extends AbstractJdbcConnectionFactory implements JdbcConnectionFactory {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(JdbcIsolatedConnectionFactory.class);
+
+	/**
+	 * Owner of each index: index of a terminated thread can be re-used.
+	 */
+	private static final List<WeakReference<Thread>> OWNERS = new ArrayList<WeakReference<Thread>>();
+
+	/**
+	 * Index of each thread: a given thread always uses the same database, whatever
+	 * the factory instance.
+	 */
+	private static final ThreadLocal<Integer> THREAD_INDEX = new ThreadLocal<Integer>() {
+		@Override
+		protected Integer initialValue() {
+			return acquireIndex(Thread.currentThread());
+		}
+	};
+
+	/**
+	 * JDBC Configuration (i.e configuration of the first database).
+	 */
+	private final JdbcConfiguration configuration;
+
+	/**
+	 * Connection factory of each thread.
+	 */
+	private final ThreadLocal<AbstractJdbcConnectionFactory> factories;
+
+	/**
+	 * Create new factory.
+	 *
+	 * @param configuration JDBC Configuration.
+	 * @throws NullPointerException If {@code configuration} is {@code null}.
+	 * @throws IllegalArgumentException If {@code configuration} is not the configuration of an in-memory database.
+	 */
+	public JdbcIsolatedConnectionFactory(JdbcConfiguration configuration) {
+		super();
+		this.configuration = notNull(configuration, "JDBC Configuration must not be null");
+		checkArgument(isInMemory(configuration.getUrl()), "Isolated databases must be in-memory databases: " + configuration.getUrl());
+		this.factories = new ThreadLocal<AbstractJdbcConnectionFactory>() {
+			@Override
+			protected AbstractJdbcConnectionFactory initialValue() {
+				return createFactory();
+			}
+		};
+	}
+
+	/**
+	 * Get configuration of the database used by current thread.
+	 *
+	 * @return JDBC Configuration.
+	 */
+	public JdbcConfiguration getCurrentConfiguration() {
+		String url = isolatedUrl(configuration.getUrl(), THREAD_INDEX.get());
+		return newJdbcConfiguration(url, configuration.getUser(), configuration.getPassword(), configuration.getPoolSize());
+	}
+
+	@Override
+	protected Connection createConnection() throws Exception {
+		return factories.get().createConnection();
+	}
+
+	/**
+	 * Create connection factory for a new thread: connections are pooled if configuration
+	 * defines a pool size (pools are shared, see {@link JdbcPoolRegistry}).
+	 *
+	 * @return Connection factory.
+	 */
+	private AbstractJdbcConnectionFactory createFactory() {
+		JdbcConfiguration current = getCurrentConfiguration();
+		log.debug("Thread {} uses database: {}", Thread.currentThread().getName(), current.getUrl());
+		return current.isPooled() ?
+			JdbcPoolRegistry.getPool(current) :
+			new JdbcDefaultConnectionFactory(current);
+	}
+
+	/**
+	 * Get index of the database of given thread: lowest index that is not used by a running thread.
+	 *
+	 * @param thread The thread.
+	 * @return Index.
+	 */
+	static int acquireIndex(Thread thread) {
+		synchronized (OWNERS) {
+			for (int i = 0; i < OWNERS.size(); i++) {
+				Thread owner = OWNERS.get(i).get();
+				if (owner == null || !owner.isAlive()) {
+					OWNERS.set(i, new WeakReference<Thread>(thread));
+					return i;
+				}
+			}
+
+			OWNERS.add(new WeakReference<Thread>(thread));
+			return OWNERS.size() - 1;
+		}
+	}
+
+	/**
+	 * Check if given URL is the URL of an in-memory database.
+	 *
+	 * @param url Database URL.
+	 * @return {@code true} if database is an in-memory database, {@code false} otherwise.
+	 */
+	static boolean isInMemory(String url) {
+		return url.contains(":mem:") || url.contains(":memory:");
+	}
+
+	/**
+	 * Get URL of in-memory database with given index: index is appended to database name, before
+	 * connection properties (if any).
+	 *
+	 * @param url Original URL.
+	 * @param index Database index.
+	 * @return Database URL.
+	 */
+	static String isolatedUrl(String url, int index) {
+		if (index == 0) {
+			return url;
+		}
+
+		String suffix = "_" + index;
+		int semicolon = url.indexOf(';');
+		int question = url.indexOf('?');
+		int end = semicolon < 0 ? question : (question < 0 ? semicolon : Math.min(semicolon, question));
+		return end < 0 ? url + suffix : url.substring(0, end) + suffix + url.substring(end);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof JdbcIsolatedConnectionFactory) {
+			JdbcIsolatedConnectionFactory f = (JdbcIsolatedConnectionFactory) o;
+			return Objects.equals(configuration, f.configuration);
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(configuration);
+	}
+}
@@ -0,0 +1,126 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.jdbc;
+
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+
+/**
+ * JVM-wide registry of connection pools (see {@link JdbcPoolingConnectionFactory}).
+ *
+ * <br>
+ *
+ * Pools are identified by JDBC configuration: all rules, runners (and threads) using the same configuration
+ * share the same pool, instead of opening their own physical connections.
+ *
+ * <br>
+ *
+ * Idle connections of all pools are closed when the JVM shuts down, or when {@link #close(JdbcConfiguration)}
+ * (or {@link #closeAll()}) is called.
+ */
+public final class JdbcPoolRegistry {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(JdbcPoolRegistry.class);
+
+	/**
+	 * Pools, identified by JDBC configuration.
+	 */
+	private static final ConcurrentMap<JdbcConfiguration, JdbcPoolingConnectionFactory> POOLS = new ConcurrentHashMap<JdbcConfiguration, JdbcPoolingConnectionFactory>();
+
+	static {
+		Runtime.getRuntime().addShutdownHook(new Thread(new ShutdownHook(), "dbunit-pool-shutdown"));
+	}
+
+	// Ensure non instantiation.
+	private JdbcPoolRegistry() {
+	}
+
+	/**
+	 * Get pool associated to given configuration: pool is created the first time, next
+	 * calls return the same pool.
+	 *
+	 * @param configuration JDBC Configuration.
+	 * @return The pool.
+	 * @throws NullPointerException If {@code configuration} is {@code null}.
+	 */
+	public static JdbcPoolingConnectionFactory getPool(JdbcConfiguration configuration) {
+		notNull(configuration, "JDBC Configuration must not be null");
+
+		JdbcPoolingConnectionFactory pool = POOLS.get(configuration);
+		if (pool != null) {
+			return pool;
+		}
+
+		log.debug("Create connection pool for: {}", configuration.getUrl());
+		JdbcPoolingConnectionFactory newPool = new JdbcPoolingConnectionFactory(configuration);
+		pool = POOLS.putIfAbsent(configuration, newPool);
+		return pool == null ? newPool : pool;
+	}
+
+	/**
+	 * Remove pool associated to given configuration, and shut it down: idle connections are closed, connections
+	 * currently in use are closed when they are given back to the pool. Do nothing if pool does not exist.
+	 *
+	 * @param configuration JDBC Configuration.
+	 * @throws NullPointerException If {@code configuration} is {@code null}.
+	 */
+	public static void close(JdbcConfiguration configuration) {
+		notNull(configuration, "JDBC Configuration must not be null");
+
+		JdbcPoolingConnectionFactory pool = POOLS.remove(configuration);
+		if (pool != null) {
+			log.debug("Close connection pool for: {}", configuration.getUrl());
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Remove all pools, and shut them down (see {@link #close(JdbcConfiguration)}).
+	 */
+	public static void closeAll() {
+		log.debug("Closing all connection pools");
+		for (JdbcConfiguration configuration : POOLS.keySet()) {
+			close(configuration);
+		}
+	}
+
+	/**
+	 * Shutdown hook, closing all pools when the JVM shuts down.
+	 */
+	private static class ShutdownHook implements Runnable {
+		@Override
+		public void run() {
+			closeAll();
+		}
+	}
+}
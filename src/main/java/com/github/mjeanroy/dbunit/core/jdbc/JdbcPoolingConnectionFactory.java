@@ -0,0 +1,440 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.jdbc;
+
+import static com.github.mjeanroy.dbunit.commons.io.Io.closeQuietly;
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.LinkedBlockingDeque;
+
+import com.github.mjeanroy.dbunit.commons.lang.Objects;
+import com.github.mjeanroy.dbunit.exception.JdbcException;
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+
+/**
+ * Implementation of {@link JdbcConnectionFactory} re-using physical connections.
+ *
+ * <br>
+ *
+ * JDBC driver is resolved once, then:
+ * <ul>
+ *   <li>Returned connections are proxies: calling {@link Connection#close()} gives the physical connection back to the pool.</li>
+ *   <li>When a connection is given back, pending transaction is rolled back, and auto-commit, transaction isolation and read-only states are reset.</li>
+ *   <li>Idle connections are validated before being re-used.</li>
+ *   <li>At most {@link JdbcConfiguration#getPoolSize()} idle connections are kept, others are closed.</li>
+ * </ul>
+ *
+ * This class is thread-safe.
+ */
+public class JdbcPoolingConnectionFactory extends AbstractJdbcConnectionFactory implements JdbcConnectionFactory {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(JdbcPoolingConnectionFactory.class);
+
+	/**
+	 * Pool size used if configuration does not define one.
+	 */
+	public static final int DEFAULT_POOL_SIZE = 4;
+
+	/**
+	 * Timeout (in seconds) used to check that idle connection is still valid.
+	 */
+	private static final int VALIDATION_TIMEOUT = 1;
+
+	/**
+	 * JDBC Configuration.
+	 */
+	private final JdbcConfiguration configuration;
+
+	/**
+	 * Connection properties (user and password).
+	 */
+	private final Properties properties;
+
+	/**
+	 * Idle connections, last released connection first.
+	 */
+	private final LinkedBlockingDeque<PooledConnection> idle;
+
+	/**
+	 * JDBC Driver, resolved the first time a connection is created.
+	 */
+	private volatile Driver driver;
+
+	/**
+	 * Shutdown flag: once pool has been shut down, connections given back to the pool are closed.
+	 */
+	private volatile boolean shutdown;
+
+	/**
+	 * Create new factory.
+	 *
+	 * @param configuration JDBC Configuration.
+	 * @throws NullPointerException If {@code configuration} is {@code null}.
+	 */
+	public JdbcPoolingConnectionFactory(JdbcConfiguration configuration) {
+		super();
+		this.configuration = notNull(configuration, "JDBC Configuration must not be null");
+		this.idle = new LinkedBlockingDeque<PooledConnection>(configuration.isPooled() ? configuration.getPoolSize() : DEFAULT_POOL_SIZE);
+		this.properties = new Properties();
+		this.properties.setProperty("user", configuration.getUser());
+		this.properties.setProperty("password", configuration.getPassword());
+	}
+
+	/**
+	 * Open physical connections and add them to the pool, so that first tests do not pay
+	 * for connection opening.
+	 *
+	 * @param size Number of connections to open (bounded by pool size).
+	 * @throws JdbcException If a connection cannot be opened.
+	 */
+	public void prewarm(int size) {
+		log.debug("Pre-warm connection pool with {} connection(s)", size);
+		for (int i = 0; i < size && idle.remainingCapacity() > 0 && !shutdown; i++) {
+			PooledConnection connection = open();
+			if (!idle.offerFirst(connection)) {
+				closeQuietly(connection.connection);
+			}
+		}
+	}
+
+	/**
+	 * Close idle connections.
+	 * Connections currently in use are given back to the pool, and pool can still be used.
+	 */
+	public void close() {
+		log.debug("Closing idle connections");
+		PooledConnection connection;
+		while ((connection = idle.pollFirst()) != null) {
+			closeQuietly(connection.connection);
+		}
+	}
+
+	/**
+	 * Shut down the pool: idle connections are closed, and connections currently in use are closed when
+	 * they are given back to the pool. Pool can still be used, but connections are not pooled anymore.
+	 */
+	void shutdown() {
+		shutdown = true;
+		close();
+	}
+
+	/**
+	 * Get number of idle connections.
+	 *
+	 * @return Number of idle connections.
+	 */
+	public int getIdleCount() {
+		return idle.size();
+	}
+
+	@Override
+	protected Connection createConnection() throws Exception {
+		PooledConnection connection;
+		while ((connection = idle.pollFirst()) != null) {
+			if (isValid(connection.connection)) {
+				log.trace("Re-use pooled connection");
+				return connection.proxy(this);
+			}
+
+			log.debug("Pooled connection is not valid anymore, close it");
+			closeQuietly(connection.connection);
+		}
+
+		return open().proxy(this);
+	}
+
+	/**
+	 * Open new physical connection.
+	 *
+	 * @return Physical connection.
+	 * @throws JdbcException If connection cannot be opened.
+	 */
+	private PooledConnection open() {
+		try {
+			log.trace("Open new physical connection");
+			Connection connection = getDriver().connect(configuration.getUrl(), properties);
+			if (connection == null) {
+				throw new JdbcException("Cannot open connection using JDBC driver for: " + configuration.getUrl());
+			}
+
+			return new PooledConnection(connection);
+		}
+		catch (SQLException ex) {
+			log.error(ex.getMessage(), ex);
+			throw new JdbcException(ex);
+		}
+	}
+
+	/**
+	 * Give connection back to the pool, or close it if pool is full or if connection
+	 * cannot be reset.
+	 *
+	 * @param connection Pooled connection.
+	 */
+	private void release(PooledConnection connection) {
+		try {
+			if (connection.connection.isClosed()) {
+				return;
+			}
+
+			connection.reset();
+		}
+		catch (SQLException ex) {
+			log.debug("Cannot reset pooled connection, close it: {}", ex.getMessage());
+			closeQuietly(connection.connection);
+			return;
+		}
+
+		if (shutdown) {
+			log.trace("Pool has been shut down, close physical connection");
+			closeQuietly(connection.connection);
+			return;
+		}
+
+		if (!idle.offerFirst(connection)) {
+			log.trace("Pool is full, close physical connection");
+			closeQuietly(connection.connection);
+			return;
+		}
+
+		// Pool may have been shut down concurrently.
+		if (shutdown && idle.remove(connection)) {
+			closeQuietly(connection.connection);
+		}
+	}
+
+	/**
+	 * Get JDBC driver: driver is loaded and resolved only the first time.
+	 *
+	 * @return JDBC Driver.
+	 * @throws SQLException If driver cannot be resolved.
+	 */
+	private Driver getDriver() throws SQLException {
+		Driver current = driver;
+		if (current == null) {
+			JdbcDriver.loadDriver(configuration.getUrl());
+			current = DriverManager.getDriver(configuration.getUrl());
+			driver = current;
+		}
+
+		return current;
+	}
+
+	/**
+	 * Check that idle connection can be re-used.
+	 *
+	 * @param connection Physical connection.
+	 * @return {@code true} if connection is still valid, {@code false} otherwise.
+	 */
+	private static boolean isValid(Connection connection) {
+		try {
+			return !connection.isClosed() && connection.isValid(VALIDATION_TIMEOUT);
+		}
+		catch (SQLException ex) {
+			log.debug(ex.getMessage(), ex);
+			return false;
+		}
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (o instanceof JdbcPoolingConnectionFactory) {
+			JdbcPoolingConnectionFactory f = (JdbcPoolingConnectionFactory) o;
+			return Objects.equals(configuration, f.configuration);
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(configuration);
+	}
+
+	/**
+	 * Physical connection, with its initial state.
+	 */
+	private static class PooledConnection {
+
+		/**
+		 * Physical connection.
+		 */
+		private final Connection connection;
+
+		/**
+		 * Initial auto-commit state.
+		 */
+		private final boolean autoCommit;
+
+		/**
+		 * Initial transaction isolation.
+		 */
+		private final int transactionIsolation;
+
+		/**
+		 * Initial read-only state.
+		 */
+		private final boolean readOnly;
+
+		/**
+		 * Create pooled connection, and save initial state of the physical connection.
+		 *
+		 * @param connection Physical connection.
+		 * @throws SQLException If state cannot be read.
+		 */
+		private PooledConnection(Connection connection) throws SQLException {
+			this.connection = connection;
+			this.autoCommit = connection.getAutoCommit();
+			this.transactionIsolation = connection.getTransactionIsolation();
+			this.readOnly = connection.isReadOnly();
+		}
+
+		/**
+		 * Rollback pending transaction and restore initial state.
+		 *
+		 * @throws SQLException If connection cannot be reset.
+		 */
+		private void reset() throws SQLException {
+			if (!connection.getAutoCommit()) {
+				connection.rollback();
+			}
+
+			if (connection.getAutoCommit() != autoCommit) {
+				connection.setAutoCommit(autoCommit);
+			}
+
+			if (connection.getTransactionIsolation() != transactionIsolation) {
+				connection.setTransactionIsolation(transactionIsolation);
+			}
+
+			if (connection.isReadOnly() != readOnly) {
+				connection.setReadOnly(readOnly);
+			}
+
+			connection.clearWarnings();
+		}
+
+		/**
+		 * Create proxy given to the caller: closing the proxy gives the physical
+		 * connection back to the pool.
+		 *
+		 * @param pool The pool.
+		 * @return Proxy.
+		 */
+		private Connection proxy(JdbcPoolingConnectionFactory pool) {
+			return (Connection) Proxy.newProxyInstance(
+				JdbcPoolingConnectionFactory.class.getClassLoader(),
+				new Class<?>[]{Connection.class},
+				new PooledInvocationHandler(pool, this)
+			);
+		}
+	}
+
+	/**
+	 * Proxy handler.
+	 */
+	private static class PooledInvocationHandler implements InvocationHandler {
+
+		/**
+		 * The pool.
+		 */
+		private final JdbcPoolingConnectionFactory pool;
+
+		/**
+		 * Pooled connection.
+		 */
+		private final PooledConnection connection;
+
+		/**
+		 * Flag set when proxy has been closed.
+		 */
+		private boolean closed;
+
+		/**
+		 * Create handler.
+		 *
+		 * @param pool The pool.
+		 * @param connection Pooled connection.
+		 */
+		private PooledInvocationHandler(JdbcPoolingConnectionFactory pool, PooledConnection connection) {
+			this.pool = pool;
+			this.connection = connection;
+		}
+
+		@Override
+		public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+
+			if ("equals".equals(name)) {
+				return proxy == args[0];
+			}
+
+			if ("hashCode".equals(name)) {
+				return System.identityHashCode(proxy);
+			}
+
+			if ("close".equals(name)) {
+				if (!closed) {
+					closed = true;
+					pool.release(connection);
+				}
+
+				return null;
+			}
+
+			if ("isClosed".equals(name) && closed) {
+				return true;
+			}
+
+			if (closed) {
+				throw new SQLException("Connection has been closed");
+			}
+
+			try {
+				return method.invoke(connection.connection, args);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getCause();
+			}
+		}
+	}
+}
@@ -0,0 +1,105 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.jdbc;
+
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+
+/**
+ * Factory of {@link Connection} proxies ignoring calls to {@link Connection#close()}: used to give
+ * access to a connection whose lifecycle is managed elsewhere (for example, a connection rolled back
+ * and closed after test execution).
+ */
+public final class UncloseableConnection {
+
+	// Ensure non instantiation.
+	private UncloseableConnection() {
+	}
+
+	/**
+	 * Wrap given connection: calls to {@link Connection#close()} are ignored, other calls
+	 * are delegated to given connection.
+	 *
+	 * @param connection SQL Connection.
+	 * @return Proxy.
+	 * @throws NullPointerException If {@code connection} is {@code null}.
+	 */
+	public static Connection wrap(Connection connection) {
+		notNull(connection, "Connection must not be null");
+		return (Connection) Proxy.newProxyInstance(
+			UncloseableConnection.class.getClassLoader(),
+			new Class<?>[]{Connection.class},
+			new UncloseableInvocationHandler(connection)
+		);
+	}
+
+	/**
+	 * Proxy handler.
+	 */
+	private static class UncloseableInvocationHandler implements InvocationHandler {
+
+		/**
+		 * Target connection.
+		 */
+		private final Connection connection;
+
+		/**
+		 * Create handler.
+		 *
+		 * @param connection Target connection.
+		 */
+		private UncloseableInvocationHandler(Connection connection) {
+			this.connection = connection;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if ("close".equals(name)) {
+				return null;
+			}
+
+			if ("equals".equals(name)) {
+				return proxy == args[0];
+			}
+
+			if ("hashCode".equals(name)) {
+				return System.identityHashCode(proxy);
+			}
+
+			try {
+				return method.invoke(connection, args);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getCause();
+			}
+		}
+	}
+}
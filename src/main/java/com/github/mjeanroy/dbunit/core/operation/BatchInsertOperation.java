@@ -0,0 +1,578 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.operation;
+
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.checkArgument;
+import static com.github.mjeanroy.dbunit.core.operation.SqlNames.escape;
+import static com.github.mjeanroy.dbunit.core.operation.SqlNames.getEscapePattern;
+import static com.github.mjeanroy.dbunit.core.operation.SqlNames.getQualifiedName;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.github.mjeanroy.dbunit.core.jdbc.CachedDatabaseConnection;
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+import org.dbunit.DatabaseUnitException;
+import org.dbunit.database.DatabaseConfig;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.ITableIterator;
+import org.dbunit.dataset.ITableMetaData;
+import org.dbunit.dataset.NoSuchColumnException;
+import org.dbunit.dataset.SortedTable;
+import org.dbunit.dataset.datatype.DataType;
+import org.dbunit.operation.DatabaseOperation;
+
+/**
+ * Insert operation sending rows by batches, instead of executing one statement per row:
+ * <ul>
+ *   <li>If database supports it, rows are inserted using multi-row statements (i.e {@code INSERT INTO t (...) VALUES (...), (...)}).</li>
+ *   <li>Otherwise, rows are inserted using JDBC batches.</li>
+ *   <li>Rows are inserted in primary key order (if data set defines all primary key columns).</li>
+ *   <li>Rows of a table are committed once (unless connection is already in a transaction, that is left to the caller).</li>
+ *   <li>With a {@link CachedDatabaseConnection}, statements are prepared once and re-used by next inserts with the same columns.</li>
+ * </ul>
+ *
+ * Batch size is the one given to the constructor, or the DbUnit {@link DatabaseConfig#PROPERTY_BATCH_SIZE} property
+ * of the connection.
+ */
+public class BatchInsertOperation extends DatabaseOperation {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(BatchInsertOperation.class);
+
+	/**
+	 * Batch size used if connection configuration does not define one.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 100;
+
+	/**
+	 * Maximum number of parameters of a multi-row statement (some drivers, such as SQL Server, limit
+	 * the number of parameters of a statement).
+	 */
+	private static final int MAX_PARAMETERS = 2000;
+
+	/**
+	 * Name of databases supporting multi-row statements (see {@link java.sql.DatabaseMetaData#getDatabaseProductName()}).
+	 */
+	private static final Set<String> MULTI_ROW_DATABASES = new HashSet<String>(Arrays.asList(
+		"H2",
+		"HSQL Database Engine",
+		"MySQL",
+		"MariaDB",
+		"PostgreSQL",
+		"Apache Derby",
+		"SQLite"
+	));
+
+	/**
+	 * Batch size, {@code 0} to use connection configuration.
+	 */
+	private final int batchSize;
+
+	/**
+	 * Create operation, using batch size of the connection configuration.
+	 */
+	public BatchInsertOperation() {
+		this.batchSize = 0;
+	}
+
+	/**
+	 * Create operation.
+	 *
+	 * @param batchSize Maximum number of rows sent in a single batch.
+	 * @throws IllegalArgumentException If {@code batchSize} is not strictly positive.
+	 */
+	public BatchInsertOperation(int batchSize) {
+		checkArgument(batchSize > 0, "Batch size must be strictly positive");
+		this.batchSize = batchSize;
+	}
+
+	@Override
+	public void execute(IDatabaseConnection connection, IDataSet dataSet) throws DatabaseUnitException, SQLException {
+		int size = getBatchSize(connection);
+		boolean multiRow = isMultiRowSupported(connection.getConnection());
+		log.debug("Batch insert (batch size: {}, multi-row statements: {})", size, multiRow);
+
+		IDataSet databaseDataSet = connection.createDataSet();
+		ITableIterator iterator = dataSet.iterator();
+		while (iterator.next()) {
+			ITable table = iterator.getTable();
+			if (table.getRowCount() > 0) {
+				insert(connection, databaseDataSet, table, size, multiRow);
+			}
+		}
+	}
+
+	/**
+	 * Insert rows of given table, and commit them.
+	 *
+	 * @param connection Database connection.
+	 * @param databaseDataSet Database data set, used to get table metadata.
+	 * @param table Table to insert.
+	 * @param size Batch size.
+	 * @param multiRow Multi-row statements support flag.
+	 * @throws DatabaseUnitException If table does not exist, or if a column cannot be found.
+	 * @throws SQLException If an insert failed.
+	 */
+	private void insert(IDatabaseConnection connection, IDataSet databaseDataSet, ITable table, int size, boolean multiRow) throws DatabaseUnitException, SQLException {
+		String tableName = table.getTableMetaData().getTableName();
+		ITableMetaData metaData = databaseDataSet.getTableMetaData(tableName);
+		log.debug("Batch insert {} rows in table {}", table.getRowCount(), tableName);
+
+		Column[] tableColumns = table.getTableMetaData().getColumns();
+		Column[] columns = new Column[tableColumns.length];
+		for (int i = 0; i < tableColumns.length; i++) {
+			columns[i] = metaData.getColumns()[metaData.getColumnIndex(tableColumns[i].getColumnName())];
+		}
+
+		ITable rows = sortByPrimaryKey(table, metaData);
+		String escapePattern = getEscapePattern(connection);
+		String qualifiedName = getQualifiedName(connection, metaData.getTableName());
+
+		Connection jdbcConnection = connection.getConnection();
+		boolean autoCommit = jdbcConnection.getAutoCommit();
+		if (autoCommit) {
+			jdbcConnection.setAutoCommit(false);
+		}
+
+		Batch batch = null;
+		try {
+			int rowCount = rows.getRowCount();
+			for (int i = 0; i < rowCount; i++) {
+				Object[] values = new Object[columns.length];
+				BitSet ignored = new BitSet(columns.length);
+				for (int j = 0; j < columns.length; j++) {
+					values[j] = rows.getValue(i, tableColumns[j].getColumnName());
+					if (values[j] == ITable.NO_VALUE) {
+						ignored.set(j);
+					}
+				}
+
+				// Columns without value are not inserted: statement changes when these columns change.
+				if (batch == null || !batch.ignored.equals(ignored)) {
+					if (batch != null) {
+						batch.flush();
+						batch.close();
+					}
+
+					batch = new Batch(connection, qualifiedName, escapePattern, columns, ignored, size, multiRow);
+				}
+
+				batch.add(values);
+			}
+
+			if (batch != null) {
+				batch.flush();
+			}
+
+			if (autoCommit) {
+				jdbcConnection.commit();
+			}
+		}
+		catch (SQLException ex) {
+			rollback(jdbcConnection, autoCommit);
+			throw ex;
+		}
+		catch (DatabaseUnitException ex) {
+			rollback(jdbcConnection, autoCommit);
+			throw ex;
+		}
+		finally {
+			if (batch != null) {
+				batch.close();
+			}
+
+			if (autoCommit) {
+				jdbcConnection.setAutoCommit(true);
+			}
+		}
+	}
+
+	/**
+	 * Get batch size.
+	 *
+	 * @param connection Database connection.
+	 * @return Batch size.
+	 */
+	private int getBatchSize(IDatabaseConnection connection) {
+		if (batchSize > 0) {
+			return batchSize;
+		}
+
+		Object size = connection.getConfig().getProperty(DatabaseConfig.PROPERTY_BATCH_SIZE);
+		return size instanceof Integer && (Integer) size > 0 ? (Integer) size : DEFAULT_BATCH_SIZE;
+	}
+
+	/**
+	 * Check if database supports multi-row statements.
+	 *
+	 * @param connection JDBC Connection.
+	 * @return {@code true} if database supports multi-row statements, {@code false} otherwise.
+	 * @throws SQLException If database metadata cannot be read.
+	 */
+	private static boolean isMultiRowSupported(Connection connection) throws SQLException {
+		return MULTI_ROW_DATABASES.contains(connection.getMetaData().getDatabaseProductName());
+	}
+
+	/**
+	 * Sort table rows by primary key, if all primary key columns are defined.
+	 *
+	 * @param table Table.
+	 * @param metaData Database table metadata.
+	 * @return Sorted table (or given table if it cannot be sorted).
+	 * @throws DatabaseUnitException If primary keys cannot be read.
+	 */
+	static ITable sortByPrimaryKey(ITable table, ITableMetaData metaData) throws DatabaseUnitException {
+		Column[] primaryKeys = metaData.getPrimaryKeys();
+		if (primaryKeys.length == 0) {
+			return table;
+		}
+
+		try {
+			for (Column primaryKey : primaryKeys) {
+				table.getTableMetaData().getColumnIndex(primaryKey.getColumnName());
+			}
+		}
+		catch (NoSuchColumnException ex) {
+			log.debug("Primary key is not defined in data set, keep rows order: {}", ex.getMessage());
+			return table;
+		}
+
+		return new SortedTable(table, primaryKeys);
+	}
+
+	/**
+	 * Rollback current transaction, if it has been started by this operation.
+	 *
+	 * @param connection JDBC Connection.
+	 * @param autoCommit Initial auto-commit state.
+	 */
+	private static void rollback(Connection connection, boolean autoCommit) {
+		if (autoCommit) {
+			try {
+				connection.rollback();
+			}
+			catch (SQLException ex) {
+				log.warn("Cannot rollback batch insert: {}", ex.getMessage());
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s{batchSize=%s}", getClass().getSimpleName(), batchSize);
+	}
+
+	/**
+	 * Pending rows, inserted with the same columns.
+	 */
+	private static class Batch {
+
+		/**
+		 * JDBC Connection.
+		 */
+		private final Connection connection;
+
+		/**
+		 * Connection caching prepared statements, {@code null} if statements are not cached.
+		 */
+		private final CachedDatabaseConnection cachedConnection;
+
+		/**
+		 * Inserted columns.
+		 */
+		private final List<Column> columns;
+
+		/**
+		 * Index of columns without value.
+		 */
+		private final BitSet ignored;
+
+		/**
+		 * Statement prefix, i.e {@code INSERT INTO t (c1, c2) VALUES}.
+		 */
+		private final String prefix;
+
+		/**
+		 * Row values placeholder, i.e {@code (?, ?)}.
+		 */
+		private final String placeholder;
+
+		/**
+		 * Multi-row statements support flag.
+		 */
+		private final boolean multiRow;
+
+		/**
+		 * Maximum number of pending rows.
+		 */
+		private final int limit;
+
+		/**
+		 * Pending rows.
+		 */
+		private final List<Object[]> rows;
+
+		/**
+		 * Statement inserting a full batch (or a single row, without multi-row statements), created on demand.
+		 */
+		private PreparedStatement statement;
+
+		/**
+		 * Create batch.
+		 *
+		 * @param connection Database connection.
+		 * @param tableName Qualified table name.
+		 * @param escapePattern Escape pattern of column names.
+		 * @param tableColumns Table columns.
+		 * @param ignored Index of columns without value.
+		 * @param size Batch size.
+		 * @param multiRow Multi-row statements support flag.
+		 * @throws SQLException If JDBC connection cannot be retrieved.
+		 */
+		private Batch(IDatabaseConnection connection, String tableName, String escapePattern, Column[] tableColumns, BitSet ignored, int size, boolean multiRow) throws SQLException {
+			this.connection = connection.getConnection();
+			this.cachedConnection = connection instanceof CachedDatabaseConnection ? (CachedDatabaseConnection) connection : null;
+			this.ignored = ignored;
+			this.multiRow = multiRow;
+			this.columns = new ArrayList<Column>(tableColumns.length);
+			this.rows = new ArrayList<Object[]>();
+
+			StringBuilder names = new StringBuilder();
+			StringBuilder values = new StringBuilder();
+			for (int i = 0; i < tableColumns.length; i++) {
+				if (!ignored.get(i)) {
+					if (!columns.isEmpty()) {
+						names.append(", ");
+						values.append(", ");
+					}
+
+					columns.add(tableColumns[i]);
+					names.append(escape(tableColumns[i].getColumnName(), escapePattern));
+					values.append("?");
+				}
+			}
+
+			this.prefix = "INSERT INTO " + tableName + " (" + names + ") VALUES ";
+			this.placeholder = "(" + values + ")";
+			this.limit = multiRow ? Math.max(1, Math.min(size, MAX_PARAMETERS / Math.max(1, columns.size()))) : size;
+		}
+
+		/**
+		 * Add row, and send pending rows if batch is full.
+		 *
+		 * @param values Row values (including ignored columns).
+		 * @throws SQLException If rows cannot be inserted.
+		 * @throws DatabaseUnitException If a value cannot be converted.
+		 */
+		private void add(Object[] values) throws SQLException, DatabaseUnitException {
+			rows.add(values);
+			if (rows.size() >= limit) {
+				flush();
+			}
+		}
+
+		/**
+		 * Send pending rows.
+		 *
+		 * @throws SQLException If rows cannot be inserted.
+		 * @throws DatabaseUnitException If a value cannot be converted.
+		 */
+		private void flush() throws SQLException, DatabaseUnitException {
+			int size = rows.size();
+			if (size == 0) {
+				return;
+			}
+
+			boolean multiRowStatement = multiRow && limit > 1;
+			if (size == limit || !multiRowStatement) {
+				send(getStatement(), multiRowStatement);
+			}
+			else {
+				// Remaining rows: use a dedicated statement.
+				PreparedStatement remaining = prepare(sql(size));
+				try {
+					send(remaining, true);
+				}
+				finally {
+					release(remaining, false);
+				}
+			}
+
+			rows.clear();
+		}
+
+		/**
+		 * Send pending rows with given statement.
+		 *
+		 * @param statement Statement.
+		 * @param multiRowStatement {@code true} if statement inserts all pending rows, {@code false} if statement inserts a single row.
+		 * @throws SQLException If rows cannot be inserted.
+		 * @throws DatabaseUnitException If a value cannot be converted.
+		 */
+		private void send(PreparedStatement statement, boolean multiRowStatement) throws SQLException, DatabaseUnitException {
+			if (multiRowStatement) {
+				int offset = 0;
+				for (Object[] row : rows) {
+					bind(statement, row, offset);
+					offset += columns.size();
+				}
+
+				statement.executeUpdate();
+			}
+			else {
+				for (Object[] row : rows) {
+					bind(statement, row, 0);
+					statement.addBatch();
+				}
+
+				statement.executeBatch();
+			}
+		}
+
+		/**
+		 * Bind row values: {@code null} values are bound with {@link PreparedStatement#setNull(int, int)}, since
+		 * typed DbUnit data types cannot convert them.
+		 *
+		 * @param statement Statement.
+		 * @param row Row values (including ignored columns).
+		 * @param offset Index of first parameter (zero-based).
+		 * @throws SQLException If a value cannot be bound.
+		 * @throws DatabaseUnitException If a value cannot be converted.
+		 */
+		private void bind(PreparedStatement statement, Object[] row, int offset) throws SQLException, DatabaseUnitException {
+			int index = offset + 1;
+			int column = 0;
+			for (int i = 0; i < row.length; i++) {
+				if (!ignored.get(i)) {
+					DataType dataType = columns.get(column).getDataType();
+					if (row[i] == null) {
+						statement.setNull(index, dataType.getSqlType());
+					}
+					else {
+						dataType.setSqlValue(row[i], index, statement);
+					}
+					column++;
+					index++;
+				}
+			}
+		}
+
+		/**
+		 * Get statement inserting a full batch (or a single row, without multi-row statements): statement is created only once.
+		 *
+		 * @return Statement.
+		 * @throws SQLException If statement cannot be created.
+		 */
+		private PreparedStatement getStatement() throws SQLException {
+			if (statement == null) {
+				statement = prepare(sql(multiRow ? limit : 1));
+			}
+
+			return statement;
+		}
+
+		/**
+		 * Prepare statement, or get it from the connection cache.
+		 *
+		 * @param sql SQL statement.
+		 * @return Statement.
+		 * @throws SQLException If statement cannot be prepared.
+		 */
+		private PreparedStatement prepare(String sql) throws SQLException {
+			return cachedConnection == null ? connection.prepareStatement(sql) : cachedConnection.prepareStatement(sql);
+		}
+
+		/**
+		 * Release statement: statement is closed, unless it is cached by the connection (in this case,
+		 * parameters and pending batch are cleared).
+		 *
+		 * @param statement Statement.
+		 * @param batched {@code true} if statement is used with JDBC batches, {@code false} otherwise.
+		 * @throws SQLException If statement cannot be released.
+		 */
+		private void release(PreparedStatement statement, boolean batched) throws SQLException {
+			if (cachedConnection == null) {
+				statement.close();
+				return;
+			}
+
+			if (batched) {
+				statement.clearBatch();
+			}
+
+			statement.clearParameters();
+		}
+
+		/**
+		 * Build statement inserting given number of rows.
+		 *
+		 * @param size Number of rows.
+		 * @return SQL statement.
+		 */
+		private String sql(int size) {
+			StringBuilder sb = new StringBuilder(prefix.length() + size * (placeholder.length() + 2));
+			sb.append(prefix);
+			for (int i = 0; i < size; i++) {
+				if (i > 0) {
+					sb.append(", ");
+				}
+
+				sb.append(placeholder);
+			}
+
+			return sb.toString();
+		}
+
+		/**
+		 * Close statement (or release it, if it is cached by the connection).
+		 */
+		private void close() {
+			if (statement != null) {
+				try {
+					release(statement, !multiRow || limit == 1);
+				}
+				catch (SQLException ex) {
+					log.debug(ex.getMessage(), ex);
+				}
+
+				statement = null;
+			}
+		}
+	}
+}
@@ -0,0 +1,270 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.operation;
+
+import static com.github.mjeanroy.dbunit.commons.io.Io.closeQuietly;
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
+import static com.github.mjeanroy.dbunit.core.operation.SqlNames.escape;
+import static com.github.mjeanroy.dbunit.core.operation.SqlNames.getEscapePattern;
+import static com.github.mjeanroy.dbunit.core.operation.SqlNames.getQualifiedName;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+import org.dbunit.DatabaseUnitException;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DefaultDataSet;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.ITableIterator;
+import org.dbunit.dataset.ITableMetaData;
+import org.dbunit.operation.DatabaseOperation;
+
+/**
+ * Insert operation using native loaders of the database: each table is written to a temporary
+ * CSV file, then loaded with a single statement:
+ * <ul>
+ *   <li>With H2 (embedded), using {@code INSERT INTO t SELECT * FROM CSVREAD(...)}.</li>
+ *   <li>With HSQLDB (file databases), using a temporary {@code TEXT} table.</li>
+ * </ul>
+ *
+ * Other databases (and tables that cannot be written to CSV, such as tables with binary columns,
+ * multi-line strings or missing values) are inserted with a fallback operation, {@link BatchInsertOperation}
+ * by default.
+ */
+public class BulkInsertOperation extends DatabaseOperation {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(BulkInsertOperation.class);
+
+	/**
+	 * UTF-8 charset name.
+	 */
+	private static final String UTF_8 = "UTF-8";
+
+	/**
+	 * Operation used when native loader cannot be used.
+	 */
+	private final DatabaseOperation fallback;
+
+	/**
+	 * Create operation, using {@link BatchInsertOperation} as fallback.
+	 */
+	public BulkInsertOperation() {
+		this(new BatchInsertOperation());
+	}
+
+	/**
+	 * Create operation.
+	 *
+	 * @param fallback Operation used when native loader cannot be used.
+	 * @throws NullPointerException If {@code fallback} is {@code null}.
+	 */
+	public BulkInsertOperation(DatabaseOperation fallback) {
+		this.fallback = notNull(fallback, "Fallback operation must not be null");
+	}
+
+	@Override
+	public void execute(IDatabaseConnection connection, IDataSet dataSet) throws DatabaseUnitException, SQLException {
+		BulkLoader loader = BulkLoader.find(connection.getConnection());
+		if (loader == null) {
+			log.debug("Database does not support bulk load, use fallback operation");
+			fallback.execute(connection, dataSet);
+			return;
+		}
+
+		IDataSet databaseDataSet = connection.createDataSet();
+		ITableIterator iterator = dataSet.iterator();
+		while (iterator.next()) {
+			ITable table = iterator.getTable();
+			if (table.getRowCount() > 0 && !load(loader, connection, databaseDataSet, table)) {
+				log.debug("Table {} cannot be bulk loaded, use fallback operation", table.getTableMetaData().getTableName());
+				fallback.execute(connection, new DefaultDataSet(table));
+			}
+		}
+	}
+
+	/**
+	 * Load table using native loader.
+	 *
+	 * @param loader Native loader.
+	 * @param connection Database connection.
+	 * @param databaseDataSet Database data set, used to get table metadata.
+	 * @param table Table to load.
+	 * @return {@code true} if table has been loaded, {@code false} if table cannot be written to CSV.
+	 * @throws DatabaseUnitException If table does not exist, or if a value cannot be converted.
+	 * @throws SQLException If table cannot be loaded.
+	 */
+	private static boolean load(BulkLoader loader, IDatabaseConnection connection, IDataSet databaseDataSet, ITable table) throws DatabaseUnitException, SQLException {
+		String tableName = table.getTableMetaData().getTableName();
+		ITableMetaData metaData = databaseDataSet.getTableMetaData(tableName);
+
+		Column[] tableColumns = table.getTableMetaData().getColumns();
+		Column[] columns = new Column[tableColumns.length];
+		List<String> columnNames = new ArrayList<String>(tableColumns.length);
+		String escapePattern = getEscapePattern(connection);
+		for (int i = 0; i < tableColumns.length; i++) {
+			columns[i] = metaData.getColumns()[metaData.getColumnIndex(tableColumns[i].getColumnName())];
+			columnNames.add(escape(columns[i].getColumnName(), escapePattern));
+			if (!isSupported(columns[i])) {
+				return false;
+			}
+		}
+
+		File file = null;
+		try {
+			file = loader.createFile(connection.getConnection());
+			if (!writeCsv(table, tableColumns, columns, file)) {
+				return false;
+			}
+
+			log.debug("Bulk load {} rows in table {}", table.getRowCount(), tableName);
+			loader.load(connection.getConnection(), getQualifiedName(connection, metaData.getTableName()), columnNames, file);
+			return true;
+		}
+		catch (IOException ex) {
+			log.warn("Cannot write CSV file of table {}: {}", tableName, ex.getMessage());
+			return false;
+		}
+		finally {
+			if (file != null && !file.delete()) {
+				file.deleteOnExit();
+			}
+		}
+	}
+
+	/**
+	 * Write table rows to CSV file.
+	 *
+	 * @param table Table.
+	 * @param tableColumns Data set columns.
+	 * @param columns Database columns, in the same order.
+	 * @param file CSV file.
+	 * @return {@code true} if table has been written, {@code false} if a value cannot be written to CSV.
+	 * @throws IOException If file cannot be written.
+	 * @throws DatabaseUnitException If a value cannot be converted.
+	 */
+	private static boolean writeCsv(ITable table, Column[] tableColumns, Column[] columns, File file) throws IOException, DatabaseUnitException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), UTF_8));
+		try {
+			int rowCount = table.getRowCount();
+			for (int i = 0; i < rowCount; i++) {
+				for (int j = 0; j < columns.length; j++) {
+					if (j > 0) {
+						writer.write(',');
+					}
+
+					Object value = table.getValue(i, tableColumns[j].getColumnName());
+					if (value == ITable.NO_VALUE) {
+						return false;
+					}
+
+					String csvValue = toCsv(columns[j].getDataType().typeCast(value));
+					if (csvValue == null) {
+						return false;
+					}
+
+					writer.write(csvValue);
+				}
+
+				writer.write('\n');
+			}
+
+			return true;
+		}
+		finally {
+			closeQuietly(writer);
+		}
+	}
+
+	/**
+	 * Serialize value to CSV.
+	 *
+	 * @param value Value, already converted to the column type.
+	 * @return CSV value, {@code null} if value cannot be written to CSV.
+	 */
+	private static String toCsv(Object value) {
+		if (value == null) {
+			return "";
+		}
+
+		if (value instanceof Number || value instanceof Boolean) {
+			return value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString();
+		}
+
+		if (value instanceof byte[]) {
+			return null;
+		}
+
+		String text = value.toString();
+		if (text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+			return null;
+		}
+
+		return "\"" + text.replace("\"", "\"\"") + "\"";
+	}
+
+	/**
+	 * Check if column can be loaded from a CSV file.
+	 *
+	 * @param column Database column.
+	 * @return {@code true} if column type is supported, {@code false} otherwise.
+	 */
+	private static boolean isSupported(Column column) {
+		switch (column.getDataType().getSqlType()) {
+			case Types.BINARY:
+			case Types.VARBINARY:
+			case Types.LONGVARBINARY:
+			case Types.BLOB:
+			case Types.ARRAY:
+			case Types.STRUCT:
+			case Types.JAVA_OBJECT:
+			case Types.OTHER:
+				return false;
+
+			default:
+				return true;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s{fallback=%s}", getClass().getSimpleName(), fallback);
+	}
+}
@@ -0,0 +1,243 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.operation;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+
+/**
+ * Native loaders of CSV files, supported out of the box.
+ *
+ * <br>
+ *
+ * CSV files must be encoded in UTF-8, without header: values are separated by a comma, strings are quoted
+ * (with quotes doubled), and {@code NULL} is an empty unquoted value.
+ */
+enum BulkLoader {
+
+	/**
+	 * H2 loader, using {@code CSVREAD} function (embedded databases only, since file is read by the database).
+	 */
+	H2 {
+		@Override
+		boolean doSupport(String productName, String url, boolean autoCommit) {
+			return "H2".equals(productName) && !url.startsWith("jdbc:h2:tcp:") && !url.startsWith("jdbc:h2:ssl:");
+		}
+
+		@Override
+		File createFile(Connection connection) throws IOException {
+			return File.createTempFile(PREFIX, ".csv");
+		}
+
+		@Override
+		void load(Connection connection, String tableName, List<String> columns, File file) throws SQLException {
+			StringBuilder names = new StringBuilder();
+			for (int i = 1; i <= columns.size(); i++) {
+				if (i > 1) {
+					names.append(",");
+				}
+
+				names.append("C").append(i);
+			}
+
+			execute(connection, "INSERT INTO " + tableName + " (" + join(columns) + ") " +
+				"SELECT * FROM CSVREAD(" + quote(file.getAbsolutePath()) + ", " + quote(names.toString()) + ", 'charset=UTF-8')");
+		}
+	},
+
+	/**
+	 * HSQLDB loader, using a temporary {@code TEXT} table (file databases only, since
+	 * {@code TEXT} tables cannot be created in memory databases, and outside of transactions).
+	 */
+	HSQLDB {
+		@Override
+		boolean doSupport(String productName, String url, boolean autoCommit) {
+			// TEXT table creation is a DDL statement, that would commit current transaction.
+			return "HSQL Database Engine".equals(productName) && url.startsWith(HSQLDB_FILE_PREFIX) && autoCommit;
+		}
+
+		@Override
+		File createFile(Connection connection) throws IOException, SQLException {
+			// Source of TEXT tables must be stored in the database directory.
+			String url = connection.getMetaData().getURL();
+			String path = url.substring(HSQLDB_FILE_PREFIX.length());
+			int index = path.indexOf(';');
+			if (index >= 0) {
+				path = path.substring(0, index);
+			}
+
+			return File.createTempFile(PREFIX, ".csv", new File(path).getAbsoluteFile().getParentFile());
+		}
+
+		@Override
+		void load(Connection connection, String tableName, List<String> columns, File file) throws SQLException {
+			String textTable = TABLE_PREFIX + COUNTER.incrementAndGet();
+			String columnNames = join(columns);
+
+			execute(connection, "CREATE TEXT TABLE " + textTable + " AS (SELECT " + columnNames + " FROM " + tableName + ") WITH NO DATA");
+			try {
+				execute(connection, "SET TABLE " + textTable + " SOURCE " + quote(file.getName() + ";fs=,;encoding=UTF-8;quoted=true"));
+				execute(connection, "INSERT INTO " + tableName + " (" + columnNames + ") SELECT * FROM " + textTable);
+			}
+			finally {
+				execute(connection, "DROP TABLE " + textTable);
+			}
+		}
+	};
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(BulkLoader.class);
+
+	/**
+	 * Prefix of CSV files.
+	 */
+	private static final String PREFIX = "dbunit_bulk_";
+
+	/**
+	 * Prefix of temporary tables.
+	 */
+	private static final String TABLE_PREFIX = "DBUNIT_BULK_";
+
+	/**
+	 * Prefix of HSQLDB file databases URL.
+	 */
+	private static final String HSQLDB_FILE_PREFIX = "jdbc:hsqldb:file:";
+
+	/**
+	 * Counter used to create unique temporary tables.
+	 */
+	private static final AtomicInteger COUNTER = new AtomicInteger(0);
+
+	/**
+	 * Find loader supported by given connection.
+	 *
+	 * @param connection JDBC Connection.
+	 * @return The loader, {@code null} if database is not supported.
+	 * @throws SQLException If database metadata cannot be read.
+	 */
+	static BulkLoader find(Connection connection) throws SQLException {
+		DatabaseMetaData metaData = connection.getMetaData();
+		String productName = metaData.getDatabaseProductName();
+		String url = metaData.getURL();
+		boolean autoCommit = connection.getAutoCommit();
+		for (BulkLoader loader : values()) {
+			if (url != null && loader.doSupport(productName, url, autoCommit)) {
+				log.debug("Use bulk loader: {}", loader);
+				return loader;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Check if loader can be used with given database.
+	 *
+	 * @param productName Database product name.
+	 * @param url Database URL.
+	 * @param autoCommit Auto-commit state of the connection.
+	 * @return {@code true} if loader can be used, {@code false} otherwise.
+	 */
+	abstract boolean doSupport(String productName, String url, boolean autoCommit);
+
+	/**
+	 * Create CSV file, readable by the database.
+	 *
+	 * @param connection JDBC Connection.
+	 * @return The file.
+	 * @throws IOException If file cannot be created.
+	 * @throws SQLException If database metadata cannot be read.
+	 */
+	abstract File createFile(Connection connection) throws IOException, SQLException;
+
+	/**
+	 * Load CSV file into given table.
+	 *
+	 * @param connection JDBC Connection.
+	 * @param tableName Qualified table name.
+	 * @param columns Escaped column names, in CSV order.
+	 * @param file CSV file.
+	 * @throws SQLException If file cannot be loaded.
+	 */
+	abstract void load(Connection connection, String tableName, List<String> columns, File file) throws SQLException;
+
+	/**
+	 * Execute SQL statement.
+	 *
+	 * @param connection JDBC Connection.
+	 * @param sql SQL statement.
+	 * @throws SQLException If statement failed.
+	 */
+	private static void execute(Connection connection, String sql) throws SQLException {
+		log.trace("Execute: {}", sql);
+		Statement statement = connection.createStatement();
+		try {
+			statement.execute(sql);
+		}
+		finally {
+			statement.close();
+		}
+	}
+
+	/**
+	 * Join column names.
+	 *
+	 * @param columns Column names.
+	 * @return Comma separated names.
+	 */
+	private static String join(List<String> columns) {
+		StringBuilder sb = new StringBuilder();
+		for (String column : columns) {
+			if (sb.length() > 0) {
+				sb.append(", ");
+			}
+
+			sb.append(column);
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * Create SQL string literal.
+	 *
+	 * @param value Value.
+	 * @return SQL literal.
+	 */
+	private static String quote(String value) {
+		return "'" + value.replace("'", "''") + "'";
+	}
+}
@@ -24,6 +24,8 @@
 
 package com.github.mjeanroy.dbunit.core.operation;
 
+import com.github.mjeanroy.dbunit.core.jdbc.JdbcConnectionFactory;
+import org.dbunit.operation.CompositeOperation;
 import org.dbunit.operation.DatabaseOperation;
 
 /**
@@ -38,20 +40,91 @@ public enum DbUnitOperation {
 	INSERT(DatabaseOperation.INSERT),
 	TRUNCATE_TABLE(DatabaseOperation.TRUNCATE_TABLE),
 	REFRESH(DatabaseOperation.REFRESH),
-	UPDATE(DatabaseOperation.UPDATE);
+	UPDATE(DatabaseOperation.UPDATE),
+
+	/**
+	 * Insert rows by batches (see {@link BatchInsertOperation}).
+	 */
+	BATCH_INSERT(new BatchInsertOperation()),
+
+	/**
+	 * Delete all rows of data set tables, then insert rows by batches (see {@link BatchInsertOperation}).
+	 */
+	BATCH_CLEAN_INSERT(new CompositeOperation(DatabaseOperation.DELETE_ALL, new BatchInsertOperation())),
+
+	/**
+	 * Insert rows using native loader of the database, or by batches if database is not supported (see {@link BulkInsertOperation}).
+	 */
+	BULK_INSERT(new BulkInsertOperation()),
+
+	/**
+	 * Delete all rows of data set tables, then insert rows using native loader of the database (see {@link BulkInsertOperation}).
+	 */
+	BULK_CLEAN_INSERT(new CompositeOperation(DatabaseOperation.DELETE_ALL, new BulkInsertOperation())),
+
+	/**
+	 * Delete all rows of data set tables, using {@code TRUNCATE} when possible (see {@link FastCleanOperation}).
+	 * Tables are cleaned concurrently, using several connections of the runner, if connection factory is available.
+	 */
+	FAST_CLEAN(new FastCleanOperation(), true),
+
+	/**
+	 * Delete all rows of data set tables (see {@link FastCleanOperation}), then insert rows.
+	 */
+	FAST_CLEAN_INSERT(new CompositeOperation(new FastCleanOperation(), DatabaseOperation.INSERT), true),
+
+	/**
+	 * Insert tables concurrently, using several connections of the runner (see {@link ParallelInsertOperation}).
+	 * Rows are inserted by batches if connection factory is not available.
+	 */
+	PARALLEL_INSERT(new BatchInsertOperation(), true),
+
+	/**
+	 * Delete all rows of data set tables, then insert tables concurrently (see {@link ParallelInsertOperation}).
+	 * Rows are inserted by batches if connection factory is not available.
+	 */
+	PARALLEL_CLEAN_INSERT(new CompositeOperation(DatabaseOperation.DELETE_ALL, new BatchInsertOperation()), true),
+
+	/**
+	 * Insert large data sets: secondary indexes are dropped, rows are inserted using native loader of the database
+	 * (see {@link BulkInsertOperation}), then indexes are re-created and statistics refreshed (see {@link DeferredIndexOperation}).
+	 */
+	LARGE_INSERT(new DeferredIndexOperation(new BulkInsertOperation())),
+
+	/**
+	 * Delete all rows of data set tables (see {@link FastCleanOperation}), then insert large data sets
+	 * (see {@link #LARGE_INSERT}).
+	 */
+	LARGE_CLEAN_INSERT(new DeferredIndexOperation(new CompositeOperation(new FastCleanOperation(), new BulkInsertOperation())), true);
 
 	/**
 	 * Internal DBUnit {@link DatabaseOperation}.
 	 */
 	private final DatabaseOperation operation;
 
+	/**
+	 * Parallel flag: if {@code true}, operation inserts (or cleans) tables using several connections.
+	 */
+	private final boolean parallel;
+
 	/**
 	 * Create instance.
 	 *
 	 * @param operation Database Operation.
 	 */
 	DbUnitOperation(DatabaseOperation operation) {
+		this(operation, false);
+	}
+
+	/**
+	 * Create instance.
+	 *
+	 * @param operation Database Operation, used if connection factory is not available.
+	 * @param parallel Parallel flag.
+	 */
+	DbUnitOperation(DatabaseOperation operation, boolean parallel) {
 		this.operation = operation;
+		this.parallel = parallel;
 	}
 
 	/**
@@ -62,4 +135,42 @@ public enum DbUnitOperation {
 	public DatabaseOperation getOperation() {
 		return operation;
 	}
+
+	/**
+	 * Get DBUnit {@link DatabaseOperation} to execute, using given connection factory to
+	 * open connections if operation needs several connections.
+	 *
+	 * @param factory Connection factory, may be {@code null}.
+	 * @return Operation to execute.
+	 */
+	public DatabaseOperation getOperation(JdbcConnectionFactory factory) {
+		if (!parallel || factory == null) {
+			return operation;
+		}
+
+		switch (this) {
+			case FAST_CLEAN:
+				return fastClean(factory);
+
+			case FAST_CLEAN_INSERT:
+				return new CompositeOperation(fastClean(factory), DatabaseOperation.INSERT);
+
+			case LARGE_CLEAN_INSERT:
+				return new DeferredIndexOperation(new CompositeOperation(fastClean(factory), new BulkInsertOperation()));
+
+			default:
+				DatabaseOperation insert = new ParallelInsertOperation(factory, ParallelInsertOperation.DEFAULT_PARALLELISM, ParallelInsertOperation.DEFAULT_SPLIT_SIZE);
+				return this == PARALLEL_CLEAN_INSERT ? new CompositeOperation(DatabaseOperation.DELETE_ALL, insert) : insert;
+		}
+	}
+
+	/**
+	 * Create operation cleaning tables using connections of given factory.
+	 *
+	 * @param factory Connection factory.
+	 * @return Clean operation.
+	 */
+	private static DatabaseOperation fastClean(JdbcConnectionFactory factory) {
+		return new FastCleanOperation(factory, FastCleanOperation.DEFAULT_PARALLELISM);
+	}
 }
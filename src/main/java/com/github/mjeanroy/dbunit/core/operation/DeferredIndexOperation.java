@@ -0,0 +1,418 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.operation;
+
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
+import static com.github.mjeanroy.dbunit.core.operation.SqlNames.escape;
+import static com.github.mjeanroy.dbunit.core.operation.SqlNames.getEscapePattern;
+import static com.github.mjeanroy.dbunit.core.operation.SqlNames.getQualifiedName;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+import org.dbunit.DatabaseUnitException;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.operation.DatabaseOperation;
+
+/**
+ * Operation loading large data sets: secondary indexes of data set tables are dropped before
+ * executing the load operation, and re-created once all rows are loaded (each index is built in a single
+ * pass, instead of being maintained for each inserted row).
+ *
+ * <ul>
+ *   <li>Indexes are read from database metadata: only non-unique indexes on plain columns are deferred.</li>
+ *   <li>Indexes that cannot be dropped (for example, indexes used by a foreign key constraint) are kept.</li>
+ *   <li>Indexes are re-created even if load operation failed.</li>
+ *   <li>
+ *     Optionally, statistics are refreshed once indexes are re-created (H2 {@code ANALYZE}, HSQLDB {@code CHECKPOINT},
+ *     PostgreSQL and MySQL {@code ANALYZE} of each table).
+ *   </li>
+ * </ul>
+ *
+ * Since index statements are committed by most databases, indexes are not deferred when the connection is
+ * in a transaction (for example, in rollback mode): load operation is executed as is.
+ */
+public class DeferredIndexOperation extends DatabaseOperation {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(DeferredIndexOperation.class);
+
+	/**
+	 * Operation loading rows.
+	 */
+	private final DatabaseOperation operation;
+
+	/**
+	 * Statistics flag: if {@code true}, statistics are refreshed after load.
+	 */
+	private final boolean analyze;
+
+	/**
+	 * Create operation, refreshing statistics after load.
+	 *
+	 * @param operation Operation loading rows.
+	 * @throws NullPointerException If {@code operation} is {@code null}.
+	 */
+	public DeferredIndexOperation(DatabaseOperation operation) {
+		this(operation, true);
+	}
+
+	/**
+	 * Create operation.
+	 *
+	 * @param operation Operation loading rows.
+	 * @param analyze Statistics flag: if {@code true}, statistics are refreshed after load.
+	 * @throws NullPointerException If {@code operation} is {@code null}.
+	 */
+	public DeferredIndexOperation(DatabaseOperation operation, boolean analyze) {
+		this.operation = notNull(operation, "Load operation must not be null");
+		this.analyze = analyze;
+	}
+
+	@Override
+	public void execute(IDatabaseConnection connection, IDataSet dataSet) throws DatabaseUnitException, SQLException {
+		Connection jdbcConnection = connection.getConnection();
+		if (!jdbcConnection.getAutoCommit()) {
+			log.debug("Connection is in a transaction, indexes are not deferred");
+			operation.execute(connection, dataSet);
+			return;
+		}
+
+		List<String> tables = getTableNames(connection, dataSet);
+		List<Index> indexes = readIndexes(jdbcConnection.getMetaData(), connection.getSchema(), tables);
+		List<Index> dropped = drop(connection, indexes);
+
+		List<SQLException> failures;
+		try {
+			operation.execute(connection, dataSet);
+		}
+		finally {
+			// Never throw here: it would hide the load failure, if any.
+			failures = create(connection, dropped);
+		}
+
+		if (!failures.isEmpty()) {
+			throw failures.get(0);
+		}
+
+		if (analyze) {
+			analyze(connection, tables);
+		}
+	}
+
+	/**
+	 * Get (database) names of data set tables.
+	 *
+	 * @param connection Database connection.
+	 * @param dataSet Data set.
+	 * @return Table names.
+	 * @throws DatabaseUnitException If a table does not exist.
+	 * @throws SQLException If database metadata cannot be read.
+	 */
+	private static List<String> getTableNames(IDatabaseConnection connection, IDataSet dataSet) throws DatabaseUnitException, SQLException {
+		IDataSet databaseDataSet = connection.createDataSet();
+		Set<String> tables = new LinkedHashSet<String>();
+		for (String tableName : dataSet.getTableNames()) {
+			tables.add(databaseDataSet.getTableMetaData(tableName).getTableName());
+		}
+
+		return new ArrayList<String>(tables);
+	}
+
+	/**
+	 * Read non-unique indexes of given tables.
+	 *
+	 * @param metaData Database metadata.
+	 * @param schema Schema, may be {@code null}.
+	 * @param tables Table names.
+	 * @return Indexes.
+	 * @throws SQLException If database metadata cannot be read.
+	 */
+	private static List<Index> readIndexes(DatabaseMetaData metaData, String schema, List<String> tables) throws SQLException {
+		List<Index> indexes = new ArrayList<Index>();
+		for (String table : tables) {
+			Map<String, Index> tableIndexes = new LinkedHashMap<String, Index>();
+			Set<String> ignored = new LinkedHashSet<String>();
+
+			ResultSet rs = metaData.getIndexInfo(null, schema, table, false, false);
+			try {
+				while (rs.next()) {
+					String name = rs.getString("INDEX_NAME");
+					if (name == null || !rs.getBoolean("NON_UNIQUE") || rs.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) {
+						continue;
+					}
+
+					String column = rs.getString("COLUMN_NAME");
+					if (column == null || rs.getString("FILTER_CONDITION") != null) {
+						// Expression (or partial) index: it cannot be re-created from metadata.
+						ignored.add(name);
+						continue;
+					}
+
+					Index index = tableIndexes.get(name);
+					if (index == null) {
+						index = new Index(name, table);
+						tableIndexes.put(name, index);
+					}
+
+					index.columns.add(column);
+					index.descending.add("D".equals(rs.getString("ASC_OR_DESC")));
+				}
+			}
+			finally {
+				rs.close();
+			}
+
+			for (String name : ignored) {
+				tableIndexes.remove(name);
+			}
+
+			indexes.addAll(tableIndexes.values());
+		}
+
+		return indexes;
+	}
+
+	/**
+	 * Drop given indexes: indexes that cannot be dropped are kept.
+	 *
+	 * @param connection Database connection.
+	 * @param indexes Indexes.
+	 * @return Dropped indexes.
+	 * @throws SQLException If statement cannot be created.
+	 */
+	private static List<Index> drop(IDatabaseConnection connection, List<Index> indexes) throws SQLException {
+		if (indexes.isEmpty()) {
+			return indexes;
+		}
+
+		boolean mysql = isMySql(connection.getConnection());
+		String escapePattern = getEscapePattern(connection);
+		List<Index> dropped = new ArrayList<Index>(indexes.size());
+		Statement statement = connection.getConnection().createStatement();
+		try {
+			for (Index index : indexes) {
+				String sql = mysql ?
+					"DROP INDEX " + escape(index.name, escapePattern) + " ON " + getQualifiedName(connection, index.table) :
+					"DROP INDEX " + getQualifiedName(connection, index.name);
+
+				try {
+					log.trace("Execute: {}", sql);
+					statement.execute(sql);
+					dropped.add(index);
+				}
+				catch (SQLException ex) {
+					log.debug("Index {} cannot be dropped, keep it: {}", index.name, ex.getMessage());
+				}
+			}
+		}
+		finally {
+			statement.close();
+		}
+
+		log.debug("Deferred {} indexes", dropped.size());
+		return dropped;
+	}
+
+	/**
+	 * Create given indexes: each index is created, even if a previous one failed, and
+	 * failures are logged and returned.
+	 *
+	 * @param connection Database connection.
+	 * @param indexes Indexes.
+	 * @return Failures, empty if all indexes have been created.
+	 */
+	private static List<SQLException> create(IDatabaseConnection connection, List<Index> indexes) {
+		List<SQLException> failures = new ArrayList<SQLException>();
+		if (indexes.isEmpty()) {
+			return failures;
+		}
+
+		String escapePattern = getEscapePattern(connection);
+		Statement statement;
+		try {
+			statement = connection.getConnection().createStatement();
+		}
+		catch (SQLException ex) {
+			log.error("{} indexes cannot be re-created: {}", indexes.size(), ex.getMessage());
+			failures.add(ex);
+			return failures;
+		}
+
+		try {
+			for (Index index : indexes) {
+				StringBuilder sql = new StringBuilder("CREATE INDEX ")
+					.append(escape(index.name, escapePattern))
+					.append(" ON ")
+					.append(getQualifiedName(connection, index.table))
+					.append(" (");
+
+				for (int i = 0; i < index.columns.size(); i++) {
+					if (i > 0) {
+						sql.append(", ");
+					}
+
+					sql.append(escape(index.columns.get(i), escapePattern));
+					if (index.descending.get(i)) {
+						sql.append(" DESC");
+					}
+				}
+
+				sql.append(")");
+				log.trace("Execute: {}", sql);
+
+				try {
+					statement.execute(sql.toString());
+				}
+				catch (SQLException ex) {
+					log.error("Index {} cannot be re-created: {}", index.name, ex.getMessage());
+					failures.add(ex);
+				}
+			}
+		}
+		finally {
+			try {
+				statement.close();
+			}
+			catch (SQLException ex) {
+				log.warn("Cannot close statement: {}", ex.getMessage());
+			}
+		}
+
+		return failures;
+	}
+
+	/**
+	 * Refresh statistics of given tables, if database supports it.
+	 *
+	 * @param connection Database connection.
+	 * @param tables Table names.
+	 * @throws SQLException If statistics cannot be refreshed.
+	 */
+	private static void analyze(IDatabaseConnection connection, List<String> tables) throws SQLException {
+		Connection jdbcConnection = connection.getConnection();
+		String productName = jdbcConnection.getMetaData().getDatabaseProductName();
+
+		List<String> statements = new ArrayList<String>();
+		if ("H2".equals(productName)) {
+			statements.add("ANALYZE");
+		}
+		else if ("HSQL Database Engine".equals(productName)) {
+			statements.add("CHECKPOINT");
+		}
+		else if ("PostgreSQL".equals(productName) || isMySql(jdbcConnection)) {
+			String prefix = "PostgreSQL".equals(productName) ? "ANALYZE " : "ANALYZE TABLE ";
+			for (String table : tables) {
+				statements.add(prefix + getQualifiedName(connection, table));
+			}
+		}
+
+		if (statements.isEmpty()) {
+			log.debug("Database {} does not support statistics refresh, skip", productName);
+			return;
+		}
+
+		Statement statement = jdbcConnection.createStatement();
+		try {
+			for (String sql : statements) {
+				log.trace("Execute: {}", sql);
+				statement.execute(sql);
+			}
+		}
+		finally {
+			statement.close();
+		}
+	}
+
+	/**
+	 * Check if database is MySQL (or MariaDB), where indexes are dropped with {@code DROP INDEX i ON t}.
+	 *
+	 * @param connection JDBC Connection.
+	 * @return {@code true} if database is MySQL or MariaDB, {@code false} otherwise.
+	 * @throws SQLException If database metadata cannot be read.
+	 */
+	private static boolean isMySql(Connection connection) throws SQLException {
+		String productName = connection.getMetaData().getDatabaseProductName();
+		return "MySQL".equals(productName) || "MariaDB".equals(productName);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s{operation=%s, analyze=%s}", getClass().getSimpleName(), operation, analyze);
+	}
+
+	/**
+	 * Definition of a non-unique index.
+	 */
+	private static class Index {
+
+		/**
+		 * Index name.
+		 */
+		private final String name;
+
+		/**
+		 * Table name.
+		 */
+		private final String table;
+
+		/**
+		 * Index columns, in order.
+		 */
+		private final List<String> columns;
+
+		/**
+		 * Descending flag of each column.
+		 */
+		private final List<Boolean> descending;
+
+		/**
+		 * Create index.
+		 *
+		 * @param name Index name.
+		 * @param table Table name.
+		 */
+		private Index(String name, String table) {
+			this.name = name;
+			this.table = table;
+			this.columns = new ArrayList<String>();
+			this.descending = new ArrayList<Boolean>();
+		}
+	}
+}
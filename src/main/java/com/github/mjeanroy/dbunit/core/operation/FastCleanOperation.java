@@ -0,0 +1,332 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.operation;
+
+import static com.github.mjeanroy.dbunit.commons.io.Io.closeQuietly;
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.checkArgument;
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
+import static com.github.mjeanroy.dbunit.core.operation.SqlNames.getQualifiedName;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.github.mjeanroy.dbunit.core.jdbc.ForeignKeyGraph;
+import com.github.mjeanroy.dbunit.core.jdbc.JdbcConnectionFactory;
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+import org.dbunit.DatabaseUnitException;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.operation.DatabaseOperation;
+
+/**
+ * Operation removing all rows of data set tables, faster than {@code DELETE_ALL}
+ * or {@code TRUNCATE_TABLE} on schemas with foreign keys:
+ * <ul>
+ *   <li>
+ *     Tables that are not referenced by a foreign key are truncated, other tables are cleaned with {@code DELETE}
+ *     (foreign keys are read from the cached {@link ForeignKeyGraph}).
+ *   </li>
+ *   <li>
+ *     With H2 and HSQLDB, referential integrity is suspended while tables are cleaned (so that order does not matter), and
+ *     tables can be cleaned in parallel using several connections (see {@link #FastCleanOperation(JdbcConnectionFactory, int)}).
+ *   </li>
+ *   <li>With other databases, tables are cleaned in reverse order of foreign keys, as with {@code DELETE_ALL}.</li>
+ * </ul>
+ *
+ * <strong>Referential integrity is suspended for the whole database</strong>, not only for the operation
+ * connection (H2 and HSQLDB do not support per-session suspension): while tables are cleaned, other connections
+ * to the same database may insert rows violating foreign keys. This operation must not be used while other tests
+ * use the same database, unless each test thread has its own database (see
+ * {@link com.github.mjeanroy.dbunit.core.jdbc.JdbcIsolatedConnectionFactory}).
+ *
+ * <br>
+ *
+ * If the operation connection is in a transaction (for example, in rollback mode), tables are cleaned with
+ * {@code DELETE} in reverse order of foreign keys, without suspending referential integrity: {@code TRUNCATE} and
+ * integrity statements would commit the transaction.
+ */
+public class FastCleanOperation extends DatabaseOperation {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(FastCleanOperation.class);
+
+	/**
+	 * Default number of connections.
+	 */
+	public static final int DEFAULT_PARALLELISM = 4;
+
+	/**
+	 * Factory creating connections used to clean tables in parallel, may be {@code null}.
+	 */
+	private final JdbcConnectionFactory factory;
+
+	/**
+	 * Maximum number of connections used to clean tables.
+	 */
+	private final int parallelism;
+
+	/**
+	 * Create operation, cleaning tables using the operation connection.
+	 */
+	public FastCleanOperation() {
+		this.factory = null;
+		this.parallelism = 1;
+	}
+
+	/**
+	 * Create operation, cleaning tables in parallel (when referential integrity can be suspended).
+	 * Connection factory must return connections to the database of the operation connection.
+	 *
+	 * @param factory Factory creating connections used to clean tables.
+	 * @param parallelism Maximum number of connections used to clean tables.
+	 * @throws NullPointerException If {@code factory} is {@code null}.
+	 * @throws IllegalArgumentException If {@code parallelism} is not strictly positive.
+	 */
+	public FastCleanOperation(JdbcConnectionFactory factory, int parallelism) {
+		checkArgument(parallelism > 0, "Parallelism must be strictly positive");
+		this.factory = notNull(factory, "Connection factory must not be null");
+		this.parallelism = parallelism;
+	}
+
+	@Override
+	public void execute(IDatabaseConnection connection, IDataSet dataSet) throws DatabaseUnitException, SQLException {
+		Connection jdbcConnection = connection.getConnection();
+		boolean transaction = !jdbcConnection.getAutoCommit();
+		List<String> statements = getStatements(connection, dataSet, transaction);
+		if (statements.isEmpty()) {
+			return;
+		}
+
+		ReferentialIntegrity integrity = transaction ? null : ReferentialIntegrity.find(jdbcConnection);
+		if (integrity == null) {
+			execute(jdbcConnection, statements);
+			return;
+		}
+
+		integrity.disable(jdbcConnection);
+		try {
+			if (factory != null && parallelism > 1 && statements.size() > 1) {
+				executeInParallel(statements);
+			}
+			else {
+				execute(jdbcConnection, statements);
+			}
+		}
+		finally {
+			integrity.enable(jdbcConnection);
+		}
+	}
+
+	/**
+	 * Get statements cleaning data set tables, in reverse order of foreign keys.
+	 *
+	 * @param connection Database connection.
+	 * @param dataSet Data set.
+	 * @param transaction Transaction flag: if {@code true}, tables are never truncated.
+	 * @return Statements.
+	 * @throws DatabaseUnitException If a table does not exist.
+	 * @throws SQLException If database metadata cannot be read.
+	 */
+	private static List<String> getStatements(IDatabaseConnection connection, IDataSet dataSet, boolean transaction) throws DatabaseUnitException, SQLException {
+		IDataSet databaseDataSet = connection.createDataSet();
+		Set<String> tables = new LinkedHashSet<String>();
+		for (String tableName : dataSet.getTableNames()) {
+			tables.add(databaseDataSet.getTableMetaData(tableName).getTableName());
+		}
+
+		Connection jdbcConnection = connection.getConnection();
+		ForeignKeyGraph graph = ForeignKeyGraph.getInstance(connection);
+		List<String> sorted = graph.sort(jdbcConnection, new ArrayList<String>(tables));
+
+		List<String> statements = new ArrayList<String>(sorted.size());
+		for (int i = sorted.size() - 1; i >= 0; i--) {
+			String table = sorted.get(i);
+			String qualifiedName = getQualifiedName(connection, table);
+			boolean truncate = !transaction && !graph.isReferenced(jdbcConnection, table);
+			statements.add(truncate ? "TRUNCATE TABLE " + qualifiedName : "DELETE FROM " + qualifiedName);
+		}
+
+		return statements;
+	}
+
+	/**
+	 * Execute statements in parallel, using connections created by {@link #factory}.
+	 * Connections are opened on the calling thread (some factories, such as
+	 * {@link com.github.mjeanroy.dbunit.core.jdbc.JdbcIsolatedConnectionFactory}, return
+	 * a database bound to the current thread), then given to cleaning tasks.
+	 *
+	 * @param statements Statements.
+	 * @throws DatabaseUnitException If a connection cannot be created.
+	 * @throws SQLException If a statement failed.
+	 */
+	private void executeInParallel(List<String> statements) throws DatabaseUnitException, SQLException {
+		int threads = Math.min(parallelism, statements.size());
+		log.debug("Clean {} tables using {} connections", statements.size(), threads);
+
+		List<List<String>> partitions = new ArrayList<List<String>>(threads);
+		for (int i = 0; i < threads; i++) {
+			partitions.add(new ArrayList<String>());
+		}
+
+		for (int i = 0; i < statements.size(); i++) {
+			partitions.get(i % threads).add(statements.get(i));
+		}
+
+		List<Connection> connections = new ArrayList<Connection>(threads);
+		try {
+			for (int i = 0; i < threads; i++) {
+				connections.add(factory.getConnection());
+			}
+
+			ExecutorService executor = Executors.newFixedThreadPool(threads);
+			try {
+				List<Future<Void>> futures = new ArrayList<Future<Void>>(threads);
+				for (int i = 0; i < threads; i++) {
+					futures.add(executor.submit(new CleanTask(connections.get(i), partitions.get(i))));
+				}
+
+				for (Future<Void> future : futures) {
+					get(future);
+				}
+			}
+			finally {
+				executor.shutdownNow();
+			}
+		}
+		finally {
+			for (Connection connection : connections) {
+				closeQuietly(connection);
+			}
+		}
+	}
+
+	/**
+	 * Wait for cleaning task.
+	 *
+	 * @param future Cleaning task.
+	 * @throws DatabaseUnitException If task failed.
+	 * @throws SQLException If a statement failed.
+	 */
+	private static void get(Future<Void> future) throws DatabaseUnitException, SQLException {
+		try {
+			future.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new DatabaseUnitException(ex);
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof SQLException) {
+				throw (SQLException) cause;
+			}
+
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+
+			throw new DatabaseUnitException(cause);
+		}
+	}
+
+	/**
+	 * Execute statements, in order.
+	 *
+	 * @param connection JDBC Connection.
+	 * @param statements Statements.
+	 * @throws SQLException If a statement failed.
+	 */
+	private static void execute(Connection connection, List<String> statements) throws SQLException {
+		Statement statement = connection.createStatement();
+		try {
+			for (String sql : statements) {
+				log.trace("Execute: {}", sql);
+				statement.execute(sql);
+			}
+		}
+		finally {
+			statement.close();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s{parallelism=%s}", getClass().getSimpleName(), parallelism);
+	}
+
+	/**
+	 * Task cleaning tables with a dedicated connection.
+	 */
+	private static class CleanTask implements Callable<Void> {
+
+		/**
+		 * Connection, opened (and closed) by the operation.
+		 */
+		private final Connection connection;
+
+		/**
+		 * Statements to execute.
+		 */
+		private final List<String> statements;
+
+		/**
+		 * Create task.
+		 *
+		 * @param connection Connection.
+		 * @param statements Statements to execute.
+		 */
+		private CleanTask(Connection connection, List<String> statements) {
+			this.connection = connection;
+			this.statements = statements;
+		}
+
+		@Override
+		public Void call() throws Exception {
+			execute(connection, statements);
+			if (!connection.getAutoCommit()) {
+				connection.commit();
+			}
+
+			return null;
+		}
+	}
+}
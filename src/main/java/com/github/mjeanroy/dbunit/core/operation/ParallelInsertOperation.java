@@ -0,0 +1,547 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.operation;
+
+import static com.github.mjeanroy.dbunit.commons.io.Io.closeQuietly;
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.checkArgument;
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.github.mjeanroy.dbunit.core.jdbc.CachedDatabaseConnection;
+import com.github.mjeanroy.dbunit.core.jdbc.DatabaseMetaDataCache;
+import com.github.mjeanroy.dbunit.core.jdbc.ForeignKeyGraph;
+import com.github.mjeanroy.dbunit.core.jdbc.JdbcConnectionFactory;
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+import org.dbunit.DatabaseUnitException;
+import org.dbunit.database.DatabaseConfig;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.DefaultDataSet;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.ITableIterator;
+import org.dbunit.dataset.ITableMetaData;
+import org.dbunit.dataset.RowOutOfBoundsException;
+import org.dbunit.operation.DatabaseOperation;
+
+/**
+ * Insert operation using several connections to insert tables concurrently:
+ * <ul>
+ *   <li>
+ *     Tables are grouped using foreign keys (see {@link ForeignKeyGraph}): tables of a group do not depend on each other
+ *     and are inserted concurrently, then all connections are committed together before next group is inserted.
+ *   </li>
+ *   <li>
+ *     Large tables (i.e tables with more rows than the split size) are split into ranges of primary keys, inserted concurrently
+ *     once other tables of the group have been committed. Since concurrent inserts in a table may be blocked by
+ *     databases using table locks (such as HSQLDB by default), each range is committed as soon as it is inserted.
+ *     Tables referencing themselves are never split.
+ *   </li>
+ * </ul>
+ *
+ * Rows are inserted with {@link BatchInsertOperation}, using connections created by the connection factory: the
+ * factory must return connections to the database of the operation connection.
+ * If the operation connection is already in a transaction (that could not be seen by other connections), tables are
+ * inserted with this connection.
+ *
+ * <br>
+ *
+ * If an insert failed, uncommitted rows are rolled back, but groups already committed are kept.
+ */
+public class ParallelInsertOperation extends DatabaseOperation {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(ParallelInsertOperation.class);
+
+	/**
+	 * Default number of connections.
+	 */
+	public static final int DEFAULT_PARALLELISM = 4;
+
+	/**
+	 * Default split size.
+	 */
+	public static final int DEFAULT_SPLIT_SIZE = 10000;
+
+	/**
+	 * Factory creating connections used to insert tables.
+	 */
+	private final JdbcConnectionFactory factory;
+
+	/**
+	 * Maximum number of connections used to insert tables.
+	 */
+	private final int parallelism;
+
+	/**
+	 * Number of rows above which a table is split, {@code 0} to never split tables.
+	 */
+	private final int splitSize;
+
+	/**
+	 * Operation used to insert rows.
+	 */
+	private final DatabaseOperation insert;
+
+	/**
+	 * Create operation, tables are never split.
+	 *
+	 * @param factory Factory creating connections used to insert tables.
+	 * @param parallelism Maximum number of connections used to insert tables.
+	 * @throws NullPointerException If {@code factory} is {@code null}.
+	 * @throws IllegalArgumentException If {@code parallelism} is not strictly positive.
+	 */
+	public ParallelInsertOperation(JdbcConnectionFactory factory, int parallelism) {
+		this(factory, parallelism, 0);
+	}
+
+	/**
+	 * Create operation.
+	 *
+	 * @param factory Factory creating connections used to insert tables.
+	 * @param parallelism Maximum number of connections used to insert tables.
+	 * @param splitSize Number of rows above which a table is split, {@code 0} to never split tables.
+	 * @throws NullPointerException If {@code factory} is {@code null}.
+	 * @throws IllegalArgumentException If {@code parallelism} is not strictly positive, or if {@code splitSize} is negative.
+	 */
+	public ParallelInsertOperation(JdbcConnectionFactory factory, int parallelism, int splitSize) {
+		checkArgument(parallelism > 0, "Parallelism must be strictly positive");
+		checkArgument(splitSize >= 0, "Split size must be positive");
+		this.factory = notNull(factory, "Connection factory must not be null");
+		this.parallelism = parallelism;
+		this.splitSize = splitSize;
+		this.insert = new BatchInsertOperation();
+	}
+
+	@Override
+	public void execute(IDatabaseConnection connection, IDataSet dataSet) throws DatabaseUnitException, SQLException {
+		Map<String, ITable> tables = getTables(dataSet);
+		Connection jdbcConnection = connection.getConnection();
+		if (tables == null || parallelism == 1 || !jdbcConnection.getAutoCommit()) {
+			log.debug("Tables cannot be inserted concurrently, use operation connection");
+			insert.execute(connection, dataSet);
+			return;
+		}
+
+		if (tables.isEmpty()) {
+			return;
+		}
+
+		ForeignKeyGraph graph = ForeignKeyGraph.getInstance(connection);
+		List<List<String>> groups = graph.group(jdbcConnection, new ArrayList<String>(tables.keySet()));
+		IDataSet databaseDataSet = connection.createDataSet();
+
+		// Prepare tasks of each group: tables inserted in a single transaction, then ranges of large tables.
+		List<List<ITable>> transactions = new ArrayList<List<ITable>>(groups.size());
+		List<List<ITable>> ranges = new ArrayList<List<ITable>>(groups.size());
+		int maxTasks = 0;
+		for (List<String> group : groups) {
+			List<ITable> transaction = new ArrayList<ITable>(group.size());
+			List<ITable> range = new ArrayList<ITable>();
+			for (String tableName : group) {
+				ITable table = tables.get(tableName);
+				if (splitSize > 0 && table.getRowCount() > splitSize && !graph.isSelfReferencing(tableName)) {
+					range.addAll(split(table, databaseDataSet.getTableMetaData(tableName)));
+				}
+				else {
+					transaction.add(table);
+				}
+			}
+
+			transactions.add(transaction);
+			ranges.add(range);
+			maxTasks = Math.max(maxTasks, Math.max(transaction.size(), range.size()));
+		}
+
+		int threads = Math.min(parallelism, maxTasks);
+		if (threads <= 1) {
+			log.debug("Tables cannot be inserted concurrently, use operation connection");
+			insert.execute(connection, dataSet);
+			return;
+		}
+
+		log.debug("Insert {} tables using {} connections", tables.size(), threads);
+		execute(connection, threads, transactions, ranges);
+	}
+
+	/**
+	 * Insert tables concurrently.
+	 *
+	 * @param connection Operation connection, used to configure other connections.
+	 * @param threads Number of connections.
+	 * @param transactions Tables of each group, inserted in a single transaction.
+	 * @param ranges Ranges of large tables of each group, each range is committed once inserted.
+	 * @throws DatabaseUnitException If an insert failed.
+	 * @throws SQLException If an insert failed.
+	 */
+	private void execute(IDatabaseConnection connection, int threads, List<List<ITable>> transactions, List<List<ITable>> ranges) throws DatabaseUnitException, SQLException {
+		// Connections are opened by current thread, since connection factory may depend on it.
+		BlockingQueue<IDatabaseConnection> connections = new ArrayBlockingQueue<IDatabaseConnection>(threads);
+		List<IDatabaseConnection> opened = new ArrayList<IDatabaseConnection>(threads);
+		ExecutorService executor = null;
+
+		try {
+			for (int i = 0; i < threads; i++) {
+				IDatabaseConnection dbConnection = openConnection(connection);
+				opened.add(dbConnection);
+				connections.add(dbConnection);
+			}
+
+			executor = Executors.newFixedThreadPool(threads);
+			for (int i = 0; i < transactions.size(); i++) {
+				run(executor, connections, opened, transactions.get(i), false);
+				for (IDatabaseConnection dbConnection : opened) {
+					dbConnection.getConnection().commit();
+				}
+
+				run(executor, connections, opened, ranges.get(i), true);
+			}
+		}
+		finally {
+			if (executor != null) {
+				executor.shutdownNow();
+			}
+
+			for (IDatabaseConnection dbConnection : opened) {
+				closeConnection(dbConnection);
+			}
+		}
+	}
+
+	/**
+	 * Insert tables concurrently, and wait for all inserts: if an insert failed, all connections are rolled back.
+	 *
+	 * @param executor Executor.
+	 * @param connections Available connections.
+	 * @param opened All connections.
+	 * @param tables Tables to insert.
+	 * @param commit Commit flag: if {@code true}, each table is committed once inserted.
+	 * @throws DatabaseUnitException If an insert failed.
+	 * @throws SQLException If an insert failed.
+	 */
+	private void run(ExecutorService executor, BlockingQueue<IDatabaseConnection> connections, List<IDatabaseConnection> opened, List<ITable> tables, boolean commit) throws DatabaseUnitException, SQLException {
+		List<Future<Void>> futures = new ArrayList<Future<Void>>(tables.size());
+		for (ITable table : tables) {
+			futures.add(executor.submit(new InsertTask(insert, connections, table, commit)));
+		}
+
+		// Wait for all tasks before rolling back, so that connections are not used anymore.
+		Throwable error = null;
+		for (Future<Void> future : futures) {
+			Throwable ex = get(future);
+			if (error == null) {
+				error = ex;
+			}
+		}
+
+		if (error == null) {
+			return;
+		}
+
+		for (IDatabaseConnection dbConnection : opened) {
+			rollback(dbConnection);
+		}
+
+		if (error instanceof SQLException) {
+			throw (SQLException) error;
+		}
+
+		if (error instanceof DatabaseUnitException) {
+			throw (DatabaseUnitException) error;
+		}
+
+		if (error instanceof RuntimeException) {
+			throw (RuntimeException) error;
+		}
+
+		if (error instanceof Error) {
+			throw (Error) error;
+		}
+
+		throw new DatabaseUnitException(error);
+	}
+
+	/**
+	 * Get tables of data set, identified by name.
+	 *
+	 * @param dataSet Data set.
+	 * @return Tables with at least one row, {@code null} if data set contains the same table twice.
+	 * @throws DataSetException If data set cannot be read.
+	 */
+	private static Map<String, ITable> getTables(IDataSet dataSet) throws DataSetException {
+		Map<String, ITable> tables = new LinkedHashMap<String, ITable>();
+		ITableIterator iterator = dataSet.iterator();
+		while (iterator.next()) {
+			ITable table = iterator.getTable();
+			String tableName = table.getTableMetaData().getTableName();
+			if (tables.containsKey(tableName)) {
+				return null;
+			}
+
+			if (table.getRowCount() > 0) {
+				tables.put(tableName, table);
+			}
+		}
+
+		return tables;
+	}
+
+	/**
+	 * Split table into ranges of primary keys.
+	 *
+	 * @param table Table.
+	 * @param metaData Database table metadata.
+	 * @return Ranges.
+	 * @throws DatabaseUnitException If primary keys cannot be read.
+	 */
+	private List<ITable> split(ITable table, ITableMetaData metaData) throws DatabaseUnitException {
+		ITable rows = BatchInsertOperation.sortByPrimaryKey(table, metaData);
+		int rowCount = rows.getRowCount();
+		List<ITable> ranges = new ArrayList<ITable>();
+		for (int from = 0; from < rowCount; from += splitSize) {
+			ranges.add(new TableRange(rows, from, Math.min(rowCount, from + splitSize)));
+		}
+
+		log.debug("Split table {} into {} ranges", metaData.getTableName(), ranges.size());
+		return ranges;
+	}
+
+	/**
+	 * Open connection, with the same configuration as the operation connection.
+	 *
+	 * @param connection Operation connection.
+	 * @return The new connection.
+	 * @throws DatabaseUnitException If connection cannot be created.
+	 * @throws SQLException If connection cannot be configured.
+	 */
+	private IDatabaseConnection openConnection(IDatabaseConnection connection) throws DatabaseUnitException, SQLException {
+		Connection jdbcConnection = factory.getConnection();
+		try {
+			jdbcConnection.setAutoCommit(false);
+			DatabaseMetaDataCache cache = connection instanceof CachedDatabaseConnection ?
+				((CachedDatabaseConnection) connection).getMetaDataCache() :
+				new DatabaseMetaDataCache();
+
+			IDatabaseConnection dbConnection = new CachedDatabaseConnection(jdbcConnection, connection.getSchema(), cache);
+			DatabaseConfig config = dbConnection.getConfig();
+			for (DatabaseConfig.ConfigProperty property : DatabaseConfig.ALL_PROPERTIES) {
+				Object value = connection.getConfig().getProperty(property.getProperty());
+				if (value != null) {
+					config.setProperty(property.getProperty(), value);
+				}
+			}
+
+			return dbConnection;
+		}
+		catch (SQLException ex) {
+			closeQuietly(jdbcConnection);
+			throw ex;
+		}
+		catch (DatabaseUnitException ex) {
+			closeQuietly(jdbcConnection);
+			throw ex;
+		}
+	}
+
+	/**
+	 * Rollback connection, errors are logged.
+	 *
+	 * @param dbConnection Connection.
+	 */
+	private static void rollback(IDatabaseConnection dbConnection) {
+		try {
+			dbConnection.getConnection().rollback();
+		}
+		catch (SQLException ex) {
+			log.warn("Cannot rollback parallel insert: {}", ex.getMessage());
+		}
+	}
+
+	/**
+	 * Restore auto-commit mode and close connection, errors are logged.
+	 *
+	 * @param dbConnection Connection.
+	 */
+	private static void closeConnection(IDatabaseConnection dbConnection) {
+		try {
+			dbConnection.getConnection().setAutoCommit(true);
+			dbConnection.close();
+		}
+		catch (SQLException ex) {
+			log.warn("Cannot close connection: {}", ex.getMessage());
+		}
+	}
+
+	/**
+	 * Wait for insert task.
+	 *
+	 * @param future Insert task.
+	 * @return Error of the task, {@code null} if task succeeded.
+	 */
+	private static Throwable get(Future<Void> future) {
+		try {
+			future.get();
+			return null;
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return ex;
+		}
+		catch (ExecutionException ex) {
+			return ex.getCause();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s{parallelism=%s, splitSize=%s}", getClass().getSimpleName(), parallelism, splitSize);
+	}
+
+	/**
+	 * Task inserting a table with one of the available connections.
+	 */
+	private static class InsertTask implements Callable<Void> {
+
+		/**
+		 * Operation used to insert rows.
+		 */
+		private final DatabaseOperation insert;
+
+		/**
+		 * Available connections.
+		 */
+		private final BlockingQueue<IDatabaseConnection> connections;
+
+		/**
+		 * Table to insert.
+		 */
+		private final ITable table;
+
+		/**
+		 * Commit flag.
+		 */
+		private final boolean commit;
+
+		/**
+		 * Create task.
+		 *
+		 * @param insert Operation used to insert rows.
+		 * @param connections Available connections.
+		 * @param table Table to insert.
+		 * @param commit Commit flag: if {@code true}, table is committed once inserted.
+		 */
+		private InsertTask(DatabaseOperation insert, BlockingQueue<IDatabaseConnection> connections, ITable table, boolean commit) {
+			this.insert = insert;
+			this.connections = connections;
+			this.table = table;
+			this.commit = commit;
+		}
+
+		@Override
+		public Void call() throws Exception {
+			IDatabaseConnection dbConnection = connections.take();
+			try {
+				insert.execute(dbConnection, new DefaultDataSet(table));
+				if (commit) {
+					dbConnection.getConnection().commit();
+				}
+
+				return null;
+			}
+			finally {
+				connections.add(dbConnection);
+			}
+		}
+	}
+
+	/**
+	 * Range of rows of a table.
+	 */
+	private static class TableRange implements ITable {
+
+		/**
+		 * Table.
+		 */
+		private final ITable table;
+
+		/**
+		 * Index of the first row (inclusive).
+		 */
+		private final int from;
+
+		/**
+		 * Index of the last row (exclusive).
+		 */
+		private final int to;
+
+		/**
+		 * Create range.
+		 *
+		 * @param table Table.
+		 * @param from Index of the first row (inclusive).
+		 * @param to Index of the last row (exclusive).
+		 */
+		private TableRange(ITable table, int from, int to) {
+			this.table = table;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public ITableMetaData getTableMetaData() {
+			return table.getTableMetaData();
+		}
+
+		@Override
+		public int getRowCount() {
+			return to - from;
+		}
+
+		@Override
+		public Object getValue(int row, String column) throws DataSetException {
+			if (row < 0 || row >= getRowCount()) {
+				throw new RowOutOfBoundsException(row + " > " + getRowCount());
+			}
+
+			return table.getValue(from + row, column);
+		}
+	}
+}
@@ -0,0 +1,144 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.operation;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+
+/**
+ * Statements suspending (and restoring) referential integrity checks, supported out of the box.
+ *
+ * <br>
+ *
+ * Note that these statements apply to the whole database, not only to the current session: while integrity
+ * is suspended, rows inserted by any connection are not checked. They also commit the current transaction, so
+ * they must only be executed with connections in auto-commit mode.
+ */
+enum ReferentialIntegrity {
+
+	/**
+	 * H2 statements.
+	 */
+	H2("H2", "SET REFERENTIAL_INTEGRITY FALSE", "SET REFERENTIAL_INTEGRITY TRUE"),
+
+	/**
+	 * HSQLDB statements.
+	 */
+	HSQLDB("HSQL Database Engine", "SET DATABASE REFERENTIAL INTEGRITY FALSE", "SET DATABASE REFERENTIAL INTEGRITY TRUE");
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(ReferentialIntegrity.class);
+
+	/**
+	 * Database product name (see {@link java.sql.DatabaseMetaData#getDatabaseProductName()}).
+	 */
+	private final String productName;
+
+	/**
+	 * Statement suspending referential integrity checks.
+	 */
+	private final String disable;
+
+	/**
+	 * Statement restoring referential integrity checks.
+	 */
+	private final String enable;
+
+	/**
+	 * Create statements.
+	 *
+	 * @param productName Database product name.
+	 * @param disable Statement suspending referential integrity checks.
+	 * @param enable Statement restoring referential integrity checks.
+	 */
+	ReferentialIntegrity(String productName, String disable, String enable) {
+		this.productName = productName;
+		this.disable = disable;
+		this.enable = enable;
+	}
+
+	/**
+	 * Find statements supported by given connection.
+	 *
+	 * @param connection JDBC Connection.
+	 * @return Statements, {@code null} if database is not supported.
+	 * @throws SQLException If database metadata cannot be read.
+	 */
+	static ReferentialIntegrity find(Connection connection) throws SQLException {
+		String name = connection.getMetaData().getDatabaseProductName();
+		for (ReferentialIntegrity integrity : values()) {
+			if (integrity.productName.equals(name)) {
+				return integrity;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Suspend referential integrity checks.
+	 *
+	 * @param connection JDBC Connection.
+	 * @throws SQLException If statement failed.
+	 */
+	void disable(Connection connection) throws SQLException {
+		log.debug("Suspend referential integrity");
+		execute(connection, disable);
+	}
+
+	/**
+	 * Restore referential integrity checks.
+	 *
+	 * @param connection JDBC Connection.
+	 * @throws SQLException If statement failed.
+	 */
+	void enable(Connection connection) throws SQLException {
+		log.debug("Restore referential integrity");
+		execute(connection, enable);
+	}
+
+	/**
+	 * Execute SQL statement.
+	 *
+	 * @param connection JDBC Connection.
+	 * @param sql SQL statement.
+	 * @throws SQLException If statement failed.
+	 */
+	private static void execute(Connection connection, String sql) throws SQLException {
+		Statement statement = connection.createStatement();
+		try {
+			statement.execute(sql);
+		}
+		finally {
+			statement.close();
+		}
+	}
+}
@@ -0,0 +1,72 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.operation;
+
+import org.dbunit.database.DatabaseConfig;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.util.QualifiedTableName;
+
+/**
+ * Static Utilities building (qualified and escaped) names of SQL statements, using the
+ * configuration of a DbUnit connection.
+ */
+final class SqlNames {
+
+	// Ensure non instantiation.
+	private SqlNames() {
+	}
+
+	/**
+	 * Get escape pattern of table and column names.
+	 *
+	 * @param connection Database connection.
+	 * @return Escape pattern, {@code null} if names are not escaped.
+	 */
+	static String getEscapePattern(IDatabaseConnection connection) {
+		return (String) connection.getConfig().getProperty(DatabaseConfig.PROPERTY_ESCAPE_PATTERN);
+	}
+
+	/**
+	 * Get qualified (and escaped) table name.
+	 *
+	 * @param connection Database connection.
+	 * @param tableName Table name.
+	 * @return Qualified name.
+	 */
+	static String getQualifiedName(IDatabaseConnection connection, String tableName) {
+		return new QualifiedTableName(tableName, connection.getSchema(), getEscapePattern(connection)).getQualifiedNameIfEnabled(connection.getConfig());
+	}
+
+	/**
+	 * Escape column name.
+	 *
+	 * @param name Column name.
+	 * @param escapePattern Escape pattern, may be {@code null}.
+	 * @return Escaped name.
+	 */
+	static String escape(String name, String escapePattern) {
+		return escapePattern == null ? name : new QualifiedTableName(name, null, escapePattern).getQualifiedName();
+	}
+}
@@ -59,6 +59,9 @@ import com.github.mjeanroy.dbunit.loggers.Loggers;
  *
  * Note that the method {@link Resource#getPath()} must return a resource that resides in a JAR file.
  *
+ * If the directory has been indexed at compile time (see {@link ResourceIndex}), sub-resources
+ * are read from the index and JAR entries are not scanned.
+ *
  * For example:
  * <ul>
  *   <li>{@code file:/tmp/foo.jar!/dataset/foo.xml} is a valid path.</li>
@@ -124,6 +127,21 @@ class JarResourceScanner extends AbstractResourceScanner implements ResourceScan
 		log.debug("  -> Jar path: {}", jarPath);
 		log.debug("  -> Directory path: {}", dirPath);
 
+		// Use classpath index if directory has been indexed at compile time.
+		List<ResourceIndex.Entry> indexed = ResourceIndex.getInstance().list(dirPath);
+		if (indexed != null) {
+			log.debug("Directory found in classpath index, do not scan JAR entries");
+			List<Resource> resources = new ArrayList<Resource>(indexed.size());
+			for (ResourceIndex.Entry entry : indexed) {
+				URL url = getClass().getResource(entry.getPath());
+				if (url != null) {
+					resources.add(new ClasspathResource(url));
+				}
+			}
+
+			return resources;
+		}
+
 		log.debug("Loading JAR entries from: {}", jarPath);
 		String jarUrl = URLDecoder.decode(jarPath, DEFAULT_CHARSET);
 		Set<String> entries = cache.load(jarUrl);
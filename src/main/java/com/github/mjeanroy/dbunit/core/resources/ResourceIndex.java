@@ -0,0 +1,542 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.resources;
+
+import static com.github.mjeanroy.dbunit.commons.io.Files.ensureRootSeparator;
+import static com.github.mjeanroy.dbunit.commons.io.Files.ensureTrailingSeparator;
+import static com.github.mjeanroy.dbunit.commons.io.Files.sha1;
+import static com.github.mjeanroy.dbunit.commons.io.Io.closeQuietly;
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
+import static java.util.Collections.unmodifiableList;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.github.mjeanroy.dbunit.exception.ResourceNotFoundException;
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+
+/**
+ * Classpath index of data sets and scripts, generated at compile time by
+ * {@link com.github.mjeanroy.dbunit.processor.DbUnitIndexProcessor}.
+ *
+ * <br>
+ *
+ * Index files are stored in {@link #LOCATION}, each line describes an indexed file:
+ *
+ * <pre><code>
+ *   TYPE\tSIZE\tHASH\tPATH\tTABLE_1,TABLE_2
+ * </code></pre>
+ *
+ * Where:
+ * <ul>
+ *   <li>{@code TYPE} is the kind of file (see {@link Entry#DIRECTORY}, {@link Entry#DATASET}, {@link Entry#SQL} and {@link Entry#LIQUIBASE}).</li>
+ *   <li>{@code SIZE} is the file size (in bytes, {@code -1} for directories).</li>
+ *   <li>{@code HASH} is the SHA-1 hash of file content ({@code -} for directories).</li>
+ *   <li>{@code PATH} is the classpath path of the file.</li>
+ *   <li>{@code TABLE_1,TABLE_2} are the table names of a data set file (optional).</li>
+ * </ul>
+ *
+ * The index is used to list directories stored inside a JAR file without scanning all JAR entries, and
+ * to get table names of data set files without reading them.
+ */
+public final class ResourceIndex {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(ResourceIndex.class);
+
+	/**
+	 * Location of index files in the classpath.
+	 */
+	public static final String LOCATION = "META-INF/dbunit-plus/index";
+
+	/**
+	 * Charset of index files.
+	 */
+	static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	/**
+	 * Separator of entry fields.
+	 */
+	private static final String FIELD_SEPARATOR = "\t";
+
+	/**
+	 * Separator of table names.
+	 */
+	private static final String TABLE_SEPARATOR = ",";
+
+	/**
+	 * Indexed files, identified by their path.
+	 */
+	private final Map<String, Entry> entries;
+
+	/**
+	 * Children of indexed directories, identified by directory path (with a trailing separator).
+	 */
+	private final Map<String, List<Entry>> children;
+
+	/**
+	 * Modification date of files already checked against their index entry, identified by absolute path.
+	 */
+	private final ConcurrentMap<String, Long> verified;
+
+	/**
+	 * Create index.
+	 *
+	 * @param entries Indexed files.
+	 */
+	ResourceIndex(Collection<Entry> entries) {
+		this.entries = new LinkedHashMap<String, Entry>();
+		this.children = new HashMap<String, List<Entry>>();
+		this.verified = new ConcurrentHashMap<String, Long>();
+
+		for (Entry entry : entries) {
+			this.entries.put(entry.getPath(), entry);
+			if (entry.isDirectory()) {
+				this.children.put(ensureTrailingSeparator(entry.getPath()), new ArrayList<Entry>());
+			}
+		}
+
+		for (Entry entry : this.entries.values()) {
+			String path = entry.getPath();
+			int index = path.lastIndexOf('/', path.length() - 2);
+			if (index >= 0) {
+				List<Entry> siblings = children.get(path.substring(0, index + 1));
+				if (siblings != null) {
+					siblings.add(entry);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Get the index of the classpath: index files are read the first time.
+	 *
+	 * @return The index.
+	 */
+	public static ResourceIndex getInstance() {
+		return Holder.INSTANCE;
+	}
+
+	/**
+	 * Get indexed file.
+	 *
+	 * @param path Classpath path of the file.
+	 * @return Indexed file, {@code null} if file is not indexed.
+	 */
+	public Entry get(String path) {
+		return entries.get(normalize(path));
+	}
+
+	/**
+	 * Get indexed file matching given resource: resource path must end with the indexed path (for example,
+	 * {@code /tmp/test-classes/dataset/foo.xml} matches {@code /dataset/foo.xml}).
+	 *
+	 * <br>
+	 *
+	 * To avoid returning stale data, when resource is stored on the file system, the entry is
+	 * returned only if file size and SHA-1 hash of file content are the indexed ones (hash is computed
+	 * once per file modification).
+	 *
+	 * @param resource The resource.
+	 * @return Indexed file, {@code null} if resource is not indexed (or if index is stale).
+	 */
+	public Entry find(Resource resource) {
+		if (entries.isEmpty()) {
+			return null;
+		}
+
+		String path = resource.getPath().replace(File.separatorChar, '/');
+		Entry entry = null;
+		for (int index = path.indexOf('/'); index >= 0 && entry == null; index = path.indexOf('/', index + 1)) {
+			entry = entries.get(path.substring(index));
+		}
+
+		if (entry == null || !resource.exists()) {
+			return null;
+		}
+
+		File file = toFile(resource);
+		if (file != null && !entry.isDirectory() && !isUpToDate(entry, file)) {
+			log.debug("Index entry {} is stale, ignore it", entry.getPath());
+			return null;
+		}
+
+		return entry;
+	}
+
+	/**
+	 * Check if indexed file is up to date with given file: file size and content hash
+	 * must be the indexed ones.
+	 *
+	 * @param entry Indexed file.
+	 * @param file File.
+	 * @return {@code true} if entry is up to date, {@code false} otherwise.
+	 */
+	private boolean isUpToDate(Entry entry, File file) {
+		if (file.length() != entry.getSize()) {
+			return false;
+		}
+
+		if (entry.getHash() == null) {
+			return true;
+		}
+
+		String key = file.getAbsolutePath();
+		long lastModified = file.lastModified();
+		Long verifiedAt = verified.get(key);
+		if (verifiedAt != null && verifiedAt == lastModified) {
+			return true;
+		}
+
+		String hash;
+		try {
+			hash = sha1(file);
+		}
+		catch (IOException ex) {
+			log.warn("Cannot compute hash of file {}: {}", file, ex.getMessage());
+			return false;
+		}
+
+		if (!hash.equals(entry.getHash())) {
+			return false;
+		}
+
+		verified.put(key, lastModified);
+		return true;
+	}
+
+	/**
+	 * Get children of an indexed directory.
+	 *
+	 * @param directory Classpath path of the directory.
+	 * @return Children, {@code null} if directory is not indexed.
+	 */
+	public List<Entry> list(String directory) {
+		List<Entry> results = children.get(ensureTrailingSeparator(normalize(directory)));
+		return results == null ? null : unmodifiableList(results);
+	}
+
+	/**
+	 * Check if index is empty (i.e no index file has been found).
+	 *
+	 * @return {@code true} if index is empty, {@code false} otherwise.
+	 */
+	public boolean isEmpty() {
+		return entries.isEmpty();
+	}
+
+	/**
+	 * Read index files available in the classpath.
+	 *
+	 * @param classLoader Class loader.
+	 * @return The index.
+	 */
+	static ResourceIndex load(ClassLoader classLoader) {
+		List<Entry> entries = new ArrayList<Entry>();
+		try {
+			Enumeration<URL> urls = classLoader.getResources(LOCATION);
+			while (urls.hasMoreElements()) {
+				URL url = urls.nextElement();
+				log.debug("Reading index file: {}", url);
+				entries.addAll(read(url.openStream()));
+			}
+		}
+		catch (IOException ex) {
+			log.warn("Cannot read index files, ignore them: {}", ex.getMessage());
+			return new ResourceIndex(new ArrayList<Entry>(0));
+		}
+
+		return new ResourceIndex(entries);
+	}
+
+	/**
+	 * Read index entries: given stream is closed once read.
+	 *
+	 * @param stream Index file.
+	 * @return Entries.
+	 * @throws IOException If index cannot be read.
+	 */
+	static List<Entry> read(InputStream stream) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(stream, UTF_8));
+		try {
+			List<Entry> entries = new ArrayList<Entry>();
+			String line;
+			while ((line = reader.readLine()) != null) {
+				Entry entry = Entry.parse(line);
+				if (entry != null) {
+					entries.add(entry);
+				}
+			}
+
+			return entries;
+		}
+		finally {
+			closeQuietly(reader);
+		}
+	}
+
+	/**
+	 * Get file of given resource.
+	 *
+	 * @param resource The resource.
+	 * @return The file, {@code null} if resource is not stored on the file system.
+	 */
+	private static File toFile(Resource resource) {
+		try {
+			return resource.toFile();
+		}
+		catch (ResourceNotFoundException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Normalize classpath path: path always starts with a root separator.
+	 *
+	 * @param path Path.
+	 * @return Normalized path.
+	 */
+	private static String normalize(String path) {
+		return ensureRootSeparator(notNull(path, "Path must not be null"));
+	}
+
+	/**
+	 * Lazy holder of the classpath index.
+	 */
+	private static class Holder {
+
+		/**
+		 * The index.
+		 */
+		private static final ResourceIndex INSTANCE = load(ResourceIndex.class.getClassLoader());
+	}
+
+	/**
+	 * An indexed file.
+	 */
+	public static final class Entry {
+
+		/**
+		 * Type of directories.
+		 */
+		public static final String DIRECTORY = "DIRECTORY";
+
+		/**
+		 * Type of data set files.
+		 */
+		public static final String DATASET = "DATASET";
+
+		/**
+		 * Type of SQL scripts.
+		 */
+		public static final String SQL = "SQL";
+
+		/**
+		 * Type of liquibase changelogs.
+		 */
+		public static final String LIQUIBASE = "LIQUIBASE";
+
+		/**
+		 * Type of file.
+		 */
+		private final String type;
+
+		/**
+		 * File size, {@code -1} for directories.
+		 */
+		private final long size;
+
+		/**
+		 * Content hash, {@code null} for directories.
+		 */
+		private final String hash;
+
+		/**
+		 * Classpath path.
+		 */
+		private final String path;
+
+		/**
+		 * Table names, {@code null} if they are unknown.
+		 */
+		private final String[] tableNames;
+
+		/**
+		 * Create entry.
+		 *
+		 * @param type Type of file.
+		 * @param size File size, {@code -1} for directories.
+		 * @param hash Content hash, {@code null} for directories.
+		 * @param path Classpath path.
+		 * @param tableNames Table names, {@code null} if they are unknown.
+		 * @throws NullPointerException If {@code type} or {@code path} is {@code null}.
+		 */
+		public Entry(String type, long size, String hash, String path, String[] tableNames) {
+			this.type = notNull(type, "Type must not be null");
+			this.size = size;
+			this.hash = hash;
+			this.path = normalize(path);
+			this.tableNames = tableNames == null ? null : tableNames.clone();
+		}
+
+		/**
+		 * Parse index line.
+		 *
+		 * @param line Line.
+		 * @return Entry, {@code null} if line is empty, a comment, or is not valid.
+		 */
+		static Entry parse(String line) {
+			String value = line.trim();
+			if (value.isEmpty() || value.startsWith("#")) {
+				return null;
+			}
+
+			String[] fields = line.split(FIELD_SEPARATOR);
+			if (fields.length < 4) {
+				log.warn("Ignore invalid index line: {}", line);
+				return null;
+			}
+
+			long size;
+			try {
+				size = Long.parseLong(fields[1]);
+			}
+			catch (NumberFormatException ex) {
+				log.warn("Ignore invalid index line: {}", line);
+				return null;
+			}
+
+			String hash = "-".equals(fields[2]) ? null : fields[2];
+			String[] tableNames = null;
+			if (fields.length > 4) {
+				tableNames = fields[4].isEmpty() ? new String[0] : fields[4].split(TABLE_SEPARATOR);
+			}
+
+			return new Entry(fields[0], size, hash, fields[3], tableNames);
+		}
+
+		/**
+		 * Serialize entry as an index line.
+		 *
+		 * @return Index line.
+		 */
+		public String toLine() {
+			StringBuilder sb = new StringBuilder();
+			sb.append(type).append(FIELD_SEPARATOR)
+				.append(size).append(FIELD_SEPARATOR)
+				.append(hash == null ? "-" : hash).append(FIELD_SEPARATOR)
+				.append(path);
+
+			if (tableNames != null) {
+				sb.append(FIELD_SEPARATOR);
+				for (int i = 0; i < tableNames.length; i++) {
+					if (i > 0) {
+						sb.append(TABLE_SEPARATOR);
+					}
+
+					sb.append(tableNames[i]);
+				}
+			}
+
+			return sb.toString();
+		}
+
+		/**
+		 * Check if entry is a directory.
+		 *
+		 * @return {@code true} if entry is a directory, {@code false} otherwise.
+		 */
+		public boolean isDirectory() {
+			return DIRECTORY.equals(type);
+		}
+
+		/**
+		 * Get {@link #type}.
+		 *
+		 * @return {@link #type}
+		 */
+		public String getType() {
+			return type;
+		}
+
+		/**
+		 * Get {@link #size}.
+		 *
+		 * @return {@link #size}
+		 */
+		public long getSize() {
+			return size;
+		}
+
+		/**
+		 * Get {@link #hash}.
+		 *
+		 * @return {@link #hash}
+		 */
+		public String getHash() {
+			return hash;
+		}
+
+		/**
+		 * Get {@link #path}.
+		 *
+		 * @return {@link #path}
+		 */
+		public String getPath() {
+			return path;
+		}
+
+		/**
+		 * Get {@link #tableNames}.
+		 *
+		 * @return {@link #tableNames}
+		 */
+		public String[] getTableNames() {
+			return tableNames == null ? null : tableNames.clone();
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s{type=%s, path=%s}", getClass().getSimpleName(), type, path);
+		}
+	}
+}
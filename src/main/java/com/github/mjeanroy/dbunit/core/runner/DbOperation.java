@@ -36,10 +36,10 @@ interface DbOperation {
 	/**
 	 * Apply database operation.
 	 *
-	 * @param testClass Test Class.
+	 * @param metadata Test class metadata.
 	 * @param method Executed method.
 	 * @param dbTester DbUnit database.
 	 * @throws Exception If an error occurred.
 	 */
-	void apply(Class<?> testClass, Method method, IDatabaseTester dbTester) throws Exception;
+	void apply(TestClassMetadata metadata, Method method, IDatabaseTester dbTester) throws Exception;
 }
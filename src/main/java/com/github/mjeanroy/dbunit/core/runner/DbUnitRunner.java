@@ -27,26 +27,39 @@ package com.github.mjeanroy.dbunit.core.runner;
 import static com.github.mjeanroy.dbunit.commons.collections.Collections.forEach;
 import static com.github.mjeanroy.dbunit.commons.io.Io.closeQuietly;
 import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
-import static com.github.mjeanroy.dbunit.commons.reflection.Annotations.findAnnotation;
-import static com.github.mjeanroy.dbunit.commons.reflection.Annotations.findStaticFieldAnnotatedWith;
-import static com.github.mjeanroy.dbunit.commons.reflection.Annotations.findStaticMethodAnnotatedWith;
-import static com.github.mjeanroy.dbunit.core.dataset.DataSetFactory.createDataSet;
+import static com.github.mjeanroy.dbunit.core.dataset.DataSetCache.load;
 import static com.github.mjeanroy.dbunit.core.sql.SqlScriptParserConfiguration.builder;
 import static java.util.Arrays.asList;
+import static java.util.Collections.newSetFromMap;
 
 import javax.sql.DataSource;
-import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitConfig;
 import com.github.mjeanroy.dbunit.core.annotations.DbUnitDataSet;
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitIncremental;
 import com.github.mjeanroy.dbunit.core.annotations.DbUnitInit;
 import com.github.mjeanroy.dbunit.core.annotations.DbUnitLiquibase;
-import com.github.mjeanroy.dbunit.core.annotations.DbUnitReplacement;
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitReInit;
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitRollback;
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitSnapshot;
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitTearDown;
+import com.github.mjeanroy.dbunit.core.jdbc.CachedDatabaseConnection;
+import com.github.mjeanroy.dbunit.core.jdbc.DatabaseConfiguration;
+import com.github.mjeanroy.dbunit.core.jdbc.DirtyTablesTracker;
+import com.github.mjeanroy.dbunit.core.jdbc.ForeignKeyGraph;
 import com.github.mjeanroy.dbunit.core.jdbc.JdbcConnectionFactory;
 import com.github.mjeanroy.dbunit.core.jdbc.JdbcDataSourceConnectionFactory;
+import com.github.mjeanroy.dbunit.core.jdbc.JdbcIsolatedConnectionFactory;
+import com.github.mjeanroy.dbunit.core.jdbc.UncloseableConnection;
+import com.github.mjeanroy.dbunit.core.operation.DbUnitOperation;
 import com.github.mjeanroy.dbunit.core.sql.SqlScriptParserConfiguration;
 import com.github.mjeanroy.dbunit.exception.DbUnitException;
 import com.github.mjeanroy.dbunit.exception.JdbcException;
@@ -54,9 +67,10 @@ import com.github.mjeanroy.dbunit.loggers.Logger;
 import com.github.mjeanroy.dbunit.loggers.Loggers;
 import org.dbunit.DefaultDatabaseTester;
 import org.dbunit.IDatabaseTester;
-import org.dbunit.database.DatabaseConnection;
+import org.dbunit.IOperationListener;
 import org.dbunit.database.IDatabaseConnection;
 import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.FilteredDataSet;
 import org.dbunit.dataset.IDataSet;
 import org.dbunit.dataset.ReplacementDataSet;
 
@@ -70,6 +84,11 @@ public class DbUnitRunner {
 	 */
 	private static final Logger log = Loggers.getLogger(DbUnitRunner.class);
 
+	/**
+	 * Timeout (in seconds) used to check that pinned SQL connection is still valid.
+	 */
+	private static final int VALIDATION_TIMEOUT = 1;
+
 	/**
 	 * Test Class.
 	 */
@@ -81,11 +100,79 @@ public class DbUnitRunner {
 	 */
 	private final JdbcConnectionFactory factory;
 
+	/**
+	 * Test class metadata (annotations and replacements).
+	 */
+	private final TestClassMetadata metadata;
+
+	/**
+	 * DbUnit configuration of SQL connections: configuration defined with {@link DbUnitConfig}, or
+	 * configuration given to the constructor.
+	 */
+	private final DatabaseConfiguration configuration;
+
 	/**
 	 * DbUnit data set to load before test method execution.
 	 */
 	private final IDataSet dataSet;
 
+	/**
+	 * Tracker of modified tables, {@code null} unless test class is annotated
+	 * with {@link DbUnitIncremental}.
+	 */
+	private final DirtyTablesTracker tracker;
+
+	/**
+	 * Operation executed before each test: default setup operation, snapshot
+	 * operation if test class is annotated with {@link DbUnitSnapshot}, or incremental
+	 * operation if test class is annotated with {@link DbUnitIncremental}.
+	 */
+	private final DbOperation setupOperation;
+
+	/**
+	 * Operation executed after each test.
+	 */
+	private final DbOperation tearDownOperation;
+
+	/**
+	 * Rollback mode flag: if enabled, transaction is rolled back after each test.
+	 */
+	private final boolean rollback;
+
+	/**
+	 * SQL connections of running tests, used in rollback mode.
+	 */
+	private final ThreadLocal<IDatabaseConnection> transactions;
+
+	/**
+	 * Pinning flag: if enabled, a SQL connection may be opened once per thread and re-used by
+	 * setup and tear down operations (disabled for short-lived runners, see {@link DbUnitReInit}).
+	 */
+	private final boolean pin;
+
+	/**
+	 * Pinning session flag: connections are only pinned between {@link #open()} and {@link #close()}, so
+	 * that pinned connections are always closed by the caller.
+	 */
+	private volatile boolean pinning;
+
+	/**
+	 * Pinned connections of each thread.
+	 */
+	private final ThreadLocal<IDatabaseConnection> connections;
+
+	/**
+	 * All pinned connections, closed by {@link #close()}.
+	 */
+	private final Set<IDatabaseConnection> pinned;
+
+	/**
+	 * Databases already initialized by this runner (see {@link DbUnitInit} and {@link DbUnitLiquibase}).
+	 * There is only one database, unless connection factory is an instance of
+	 * {@link JdbcIsolatedConnectionFactory}.
+	 */
+	private final Set<String> databases;
+
 	/**
 	 * Create runner.
 	 *
@@ -102,13 +189,38 @@ public class DbUnitRunner {
 	 * @throws DbUnitException If dataSet parsing failed.
 	 */
 	public DbUnitRunner(Class<?> testClass, JdbcConnectionFactory factory) {
+		this(testClass, factory, DatabaseConfiguration.defaultConfiguration());
+	}
+
+	/**
+	 * Create runner, using given DbUnit configuration (unless test class, or its package, is annotated
+	 * with {@link DbUnitConfig}).
+	 * See also {@link #DbUnitRunner(Class, JdbcConnectionFactory)}.
+	 *
+	 * @param testClass Class to test.
+	 * @param factory Factory to get new SQL connection before and after test methods.
+	 * @param configuration DbUnit configuration of SQL connections.
+	 * @throws DbUnitException If dataSet parsing failed.
+	 */
+	public DbUnitRunner(Class<?> testClass, JdbcConnectionFactory factory, DatabaseConfiguration configuration) {
 		this.testClass = notNull(testClass, "Test Class must not be null");
 		this.factory = notNull(factory, "JDBC Connection Factory must not be null");
+		this.metadata = TestClassMetadata.of(testClass);
+		this.configuration = readConfiguration(metadata, notNull(configuration, "DbUnit configuration must not be null"));
 		this.dataSet = readDataSet();
+		this.tracker = metadata.getIncremental() == null ? null : IncrementalDbOperation.getTracker(factory);
+		this.setupOperation = createSetupOperation();
+		this.tearDownOperation = new TearDownDbOperation(factory);
+		this.rollback = metadata.getRollback() != null;
+		this.transactions = new ThreadLocal<IDatabaseConnection>();
+		this.pin = metadata.getReInit() == null;
+		this.pinning = false;
+		this.connections = new ThreadLocal<IDatabaseConnection>();
+		this.pinned = newSetFromMap(new ConcurrentHashMap<IDatabaseConnection, Boolean>());
+		this.databases = newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 
 		// Then, run SQL and/or liquibase initialization
-		runSqlScript();
-		runLiquibase();
+		initialize();
 	}
 
 	/**
@@ -126,29 +238,184 @@ public class DbUnitRunner {
 	/**
 	 * Load data set before test execution:
 	 * <ol>
-	 *   <li>Get new SQL connection.</li>
-	 *   <li>Load DataSet and execute setup operation.</li>
-	 *   <li>Close SQL connection.</li>
+	 *   <li>Get SQL connection (pinned connection of current thread is re-used if it is still valid).</li>
+	 *   <li>Load DataSet and execute setup operation (or restore snapshot, see {@link DbUnitSnapshot}).</li>
+	 *   <li>Release SQL connection (connection is kept open until {@link #close()} is called if runner has been opened).</li>
 	 * </ol>
 	 *
+	 * In rollback mode (see {@link DbUnitRollback}), a transaction is started and will be rolled back
+	 * after test execution.
+	 *
 	 * @param testMethod Method to execute.
 	 */
 	public void beforeTest(Method testMethod) {
-		setupOrTearDown(testMethod, SetupDbOperation.getInstance());
+		// Database of current thread may not be initialized yet.
+		initialize();
+
+		if (!rollback) {
+			setupOrTearDown(testMethod, setupOperation);
+			return;
+		}
+
+		IDatabaseConnection dbConnection = getDatabaseConnection();
+
+		try {
+			log.trace(" 0- Start transaction");
+			dbConnection.getConnection().setAutoCommit(false);
+			transactions.set(dbConnection);
+			apply(dbConnection, testMethod, readDataSet(testMethod), setupOperation);
+		}
+		catch (SQLException ex) {
+			log.error(ex.getMessage(), ex);
+			rollback(dbConnection);
+			throw new JdbcException(ex);
+		}
+		catch (RuntimeException ex) {
+			rollback(dbConnection);
+			throw ex;
+		}
 	}
 
 	/**
 	 * Unload data set after test execution:
 	 * <ol>
-	 *   <li>Get new SQL connection.</li>
+	 *   <li>Get SQL connection (pinned connection of current thread is re-used if it is still valid).</li>
 	 *   <li>Remove DataSet and execute tear down operation.</li>
-	 *   <li>Close SQL connection.</li>
+	 *   <li>Release SQL connection (connection is kept open until {@link #close()} is called if runner has been opened).</li>
 	 * </ol>
 	 *
+	 * In rollback mode (see {@link DbUnitRollback}), tear down operation is executed with the SQL connection
+	 * used before test execution, then transaction is rolled back.
+	 *
 	 * @param testMethod Executed method.
 	 */
 	public void afterTest(Method testMethod) {
-		setupOrTearDown(testMethod, TearDownDbOperation.getInstance());
+		if (!rollback) {
+			setupOrTearDown(testMethod, tearDownOperation);
+			trackTearDown(testMethod);
+			return;
+		}
+
+		IDatabaseConnection dbConnection = transactions.get();
+		if (dbConnection == null) {
+			log.warn("Cannot find transaction for current test, skip tear down");
+			return;
+		}
+
+		try {
+			apply(dbConnection, testMethod, readDataSet(testMethod), tearDownOperation);
+		}
+		finally {
+			rollback(dbConnection);
+		}
+	}
+
+	/**
+	 * Get SQL connection used by current test in rollback mode (see {@link DbUnitRollback}): every
+	 * changes made with this connection will be rolled back after test execution.
+	 *
+	 * <br>
+	 *
+	 * This method must be called by the thread that executed {@link #beforeTest(Method)}. Returned
+	 * connection cannot be closed: it is managed by the runner.
+	 *
+	 * @return SQL Connection, {@code null} if runner is not in rollback mode or if no test is running.
+	 */
+	public Connection getCurrentConnection() {
+		IDatabaseConnection dbConnection = transactions.get();
+		return dbConnection == null ? null : UncloseableConnection.wrap(getConnection(dbConnection));
+	}
+
+	/**
+	 * Start pinning SQL connections: until {@link #close()} is called, a SQL connection is opened once per
+	 * thread and re-used by setup and tear down operations. Otherwise, a new SQL connection is opened (and closed)
+	 * for each operation.
+	 *
+	 * <br>
+	 *
+	 * This method should only be called by integrations that are notified once all tests of the test class have
+	 * been executed, and that call {@link #close()} at that time. Do nothing for short-lived runners (see {@link DbUnitReInit}).
+	 */
+	public void open() {
+		if (pin) {
+			log.debug("Pinning SQL connections");
+			pinning = true;
+		}
+	}
+
+	/**
+	 * Close SQL connections pinned by this runner and release database snapshots (see {@link DbUnitSnapshot}):
+	 * should be called once all tests of the test class have been executed. Runner can still be used after, new SQL
+	 * connections will be opened (and new snapshots will be taken) when needed, and connections are not pinned
+	 * anymore until {@link #open()} is called again.
+	 */
+	public void close() {
+		pinning = false;
+
+		if (setupOperation instanceof SnapshotDbOperation && ((SnapshotDbOperation) setupOperation).hasSnapshots()) {
+			releaseSnapshots((SnapshotDbOperation) setupOperation);
+		}
+
+		log.debug("Closing pinned SQL connections");
+		connections.remove();
+
+		for (IDatabaseConnection dbConnection : pinned) {
+			pinned.remove(dbConnection);
+			close(dbConnection);
+		}
+	}
+
+	/**
+	 * Release database snapshots taken by given operation.
+	 *
+	 * @param operation Snapshot operation.
+	 */
+	private void releaseSnapshots(SnapshotDbOperation operation) {
+		log.debug("Releasing database snapshots");
+
+		Connection connection;
+		try {
+			connection = factory.getConnection();
+		}
+		catch (Exception ex) {
+			log.warn("Cannot release database snapshots: {}", ex.getMessage());
+			return;
+		}
+
+		try {
+			operation.release(connection);
+		}
+		finally {
+			closeQuietly(connection);
+		}
+	}
+
+	/**
+	 * Wrap given SQL connection so that tables modified by the running test are tracked, in
+	 * incremental mode (see {@link DbUnitIncremental}): next setup will only re-seed these tables.
+	 *
+	 * @param connection SQL Connection.
+	 * @return Tracked SQL connection, or given connection if runner is not in incremental mode.
+	 */
+	public Connection track(Connection connection) {
+		return tracker == null ? connection : tracker.wrap(connection);
+	}
+
+	/**
+	 * In incremental mode, mark database as dirty if a tear down operation has been executed.
+	 *
+	 * @param testMethod Executed method.
+	 */
+	private void trackTearDown(Method testMethod) {
+		if (tracker == null || readDataSet(testMethod) == null) {
+			return;
+		}
+
+		DbUnitTearDown annotation = metadata.getTearDown(testMethod);
+		if (annotation != null && annotation.value() != DbUnitOperation.NONE) {
+			log.trace(" 6- Tear down operation executed, mark database as dirty");
+			tracker.markAllDirty();
+		}
 	}
 
 	private void setupOrTearDown(Method testMethod, DbOperation op) {
@@ -158,40 +425,219 @@ public class DbUnitRunner {
 			return;
 		}
 
+		IDatabaseConnection dbConnection = getDatabaseConnection();
+
+		try {
+			apply(dbConnection, testMethod, dataSet, op);
+		}
+		catch (RuntimeException ex) {
+			// Connection may be in an unknown state, do not re-use it.
+			discard(dbConnection);
+			throw ex;
+		}
+
+		release(dbConnection);
+	}
+
+	/**
+	 * Get SQL connection to use in current thread: pinned connection is returned if it is
+	 * still valid, otherwise a new connection is opened (and pinned, if runner has been opened).
+	 *
+	 * @return DbUnit connection.
+	 */
+	private IDatabaseConnection getDatabaseConnection() {
+		boolean pinConnection = pin && pinning;
+		IDatabaseConnection dbConnection = pinConnection ? connections.get() : null;
+		if (dbConnection != null) {
+			if (isValid(getConnection(dbConnection))) {
+				log.trace(" 1- Re-use pinned SQL connection");
+				return dbConnection;
+			}
+
+			log.debug(" 1- Pinned SQL connection is not valid anymore, open a new one");
+			discard(dbConnection);
+		}
+
+		log.trace(" 1- Get SQL connection");
 		Connection connection = factory.getConnection();
-		IDatabaseConnection dbConnection = null;
 
 		try {
-			log.trace(" 1- Get SQL connection");
-			dbConnection = new DatabaseConnection(connection);
-			IDatabaseTester dbTester = new DefaultDatabaseTester(dbConnection);
+			dbConnection = new CachedDatabaseConnection(connection, configuration.isSharedMetaData());
+			configuration.apply(dbConnection.getConfig());
+		}
+		catch (Exception ex) {
+			log.error(ex.getMessage(), ex);
+			closeQuietly(connection);
+			throw new JdbcException(ex);
+		}
 
-			log.trace(" 2- Load data set");
-			dbTester.setDataSet(runReplacements(testClass, dataSet));
+		if (pinConnection) {
+			connections.set(dbConnection);
+			pinned.add(dbConnection);
+		}
 
-			// Apply operation (setup or tear down).
-			op.apply(testClass, testMethod, dbTester);
+		return dbConnection;
+	}
 
+	/**
+	 * Release SQL connection once operation has been executed: connection is closed,
+	 * unless it is pinned.
+	 *
+	 * @param dbConnection DbUnit connection.
+	 */
+	private void release(IDatabaseConnection dbConnection) {
+		if (!pinned.contains(dbConnection)) {
 			log.trace(" 5- Closing SQL connection");
+			close(dbConnection);
+		}
+	}
+
+	/**
+	 * Close SQL connection and remove it from pinned connections.
+	 *
+	 * @param dbConnection DbUnit connection.
+	 */
+	private void discard(IDatabaseConnection dbConnection) {
+		if (connections.get() == dbConnection) {
+			connections.remove();
+		}
+
+		pinned.remove(dbConnection);
+		close(dbConnection);
+	}
+
+	/**
+	 * Close DbUnit connection (and its cached statements) and wrapped SQL connection, errors are logged.
+	 *
+	 * @param dbConnection DbUnit connection.
+	 */
+	private static void close(IDatabaseConnection dbConnection) {
+		try {
 			dbConnection.close();
 		}
+		catch (SQLException ex) {
+			log.warn(ex.getMessage());
+		}
+	}
+
+	/**
+	 * Get DbUnit configuration to use: configuration defined with {@link DbUnitConfig}, or
+	 * given configuration if annotation is not defined.
+	 *
+	 * @param metadata Test class metadata.
+	 * @param configuration Default configuration.
+	 * @return DbUnit configuration.
+	 */
+	private static DatabaseConfiguration readConfiguration(TestClassMetadata metadata, DatabaseConfiguration configuration) {
+		DbUnitConfig annotation = metadata.getConfig();
+		return annotation == null ? configuration : DatabaseConfiguration.of(annotation);
+	}
+
+	/**
+	 * Get SQL connection wrapped by given DbUnit connection.
+	 *
+	 * @param dbConnection DbUnit connection.
+	 * @return SQL Connection.
+	 */
+	private static Connection getConnection(IDatabaseConnection dbConnection) {
+		try {
+			return dbConnection.getConnection();
+		}
+		catch (SQLException ex) {
+			log.error(ex.getMessage(), ex);
+			throw new JdbcException(ex);
+		}
+	}
+
+	/**
+	 * Check that SQL connection can be re-used.
+	 *
+	 * @param connection SQL Connection.
+	 * @return {@code true} if connection is still valid, {@code false} otherwise.
+	 */
+	private static boolean isValid(Connection connection) {
+		try {
+			return !connection.isClosed() && connection.isValid(VALIDATION_TIMEOUT);
+		}
+		catch (SQLException ex) {
+			log.debug(ex.getMessage(), ex);
+			return false;
+		}
+	}
+
+	/**
+	 * Apply setup or tear down operation using given SQL connection.
+	 * Connection is not closed.
+	 *
+	 * @param dbConnection DbUnit connection.
+	 * @param testMethod Test method.
+	 * @param dataSet Data set, operation is skipped if it is {@code null}.
+	 * @param op Operation.
+	 */
+	private void apply(IDatabaseConnection dbConnection, Method testMethod, IDataSet dataSet, DbOperation op) {
+		if (dataSet == null) {
+			return;
+		}
+
+		try {
+			IDatabaseTester dbTester = new DefaultDatabaseTester(dbConnection);
+
+			// Connection is closed by runner, do not let DbUnit close it.
+			dbTester.setOperationListener(IOperationListener.NO_OP_OPERATION_LISTENER);
+
+			log.trace(" 2- Load data set");
+			dbTester.setDataSet(sortTables(dbConnection, runReplacements(dataSet)));
+
+			// Apply operation (setup or tear down).
+			op.apply(metadata, testMethod, dbTester);
+		}
 		catch (Exception ex) {
 			log.error(ex.getMessage(), ex);
 			throw new JdbcException(ex);
 		}
-		finally {
-			if (dbConnection != null) {
-				try {
-					dbConnection.close();
-				}
-				catch (SQLException ex) {
-					// No Worries.
-					log.warn(ex.getMessage());
-				}
-			}
+	}
 
-			closeQuietly(connection);
+	/**
+	 * Rollback transaction started before test execution and release SQL connection.
+	 *
+	 * @param dbConnection DbUnit connection.
+	 */
+	private void rollback(IDatabaseConnection dbConnection) {
+		transactions.remove();
+
+		try {
+			log.trace(" 6- Rollback transaction");
+			Connection connection = dbConnection.getConnection();
+			connection.rollback();
+			connection.setAutoCommit(true);
+		}
+		catch (SQLException ex) {
+			log.error(ex.getMessage(), ex);
+			discard(dbConnection);
+			throw new JdbcException(ex);
 		}
+
+		release(dbConnection);
+	}
+
+	/**
+	 * Create operation to execute before each test.
+	 *
+	 * @return Setup operation.
+	 */
+	private DbOperation createSetupOperation() {
+		DbUnitSnapshot annotation = metadata.getSnapshot();
+		if (annotation != null) {
+			log.debug("Found @DbUnitSnapshot annotation, use snapshot mode: {}", annotation.value());
+			return new SnapshotDbOperation(annotation.value().getStrategy(annotation.files()), factory);
+		}
+
+		if (tracker != null) {
+			log.debug("Found @DbUnitIncremental annotation, use incremental mode");
+			return new IncrementalDbOperation(tracker, factory);
+		}
+
+		return new SetupDbOperation(factory);
 	}
 
 	/**
@@ -201,7 +647,7 @@ public class DbUnitRunner {
 	 * @throws DbUnitException If dataSet parsing failed.
 	 */
 	private IDataSet readDataSet() {
-		DbUnitDataSet annotation = findAnnotation(testClass, null, DbUnitDataSet.class);
+		DbUnitDataSet annotation = metadata.getDataSet();
 		if (annotation != null && annotation.value().length > 0) {
 			return readAnnotationDataSet(annotation);
 		}
@@ -219,34 +665,70 @@ public class DbUnitRunner {
 	 * @return DataSet.
 	 */
 	private IDataSet readDataSet(Method method) {
-		return method != null && method.isAnnotationPresent(DbUnitDataSet.class) ?
-			readAnnotationDataSet(method.getAnnotation(DbUnitDataSet.class)) :
-			dataSet;
+		DbUnitDataSet annotation = metadata.getDataSet(method);
+		return annotation == metadata.getDataSet() ?
+			dataSet :
+			readAnnotationDataSet(annotation);
 	}
 
 	/**
 	 * Find replacements objects and decorate original data set if some are found.
 	 *
-	 * @param testClass Test class.
 	 * @param dataSet Original data set.
 	 * @return New data set.
 	 */
-	private IDataSet runReplacements(Class<?> testClass, IDataSet dataSet) {
-		List<Field> fields = findStaticFieldAnnotatedWith(testClass, DbUnitReplacement.class);
-		List<Method> methods = findStaticMethodAnnotatedWith(testClass, DbUnitReplacement.class);
-		if (fields.isEmpty() && methods.isEmpty()) {
+	private IDataSet runReplacements(IDataSet dataSet) {
+		List<ReplacementsAccessor> accessors = metadata.getReplacements();
+		if (accessors.isEmpty()) {
 			return dataSet;
 		}
 
 		ReplacementDataSet replacementDataSet = new ReplacementDataSet(dataSet);
 
 		// Apply replacements.
-		forEach(fields, new MemberReplacementFunction<Field>(replacementDataSet));
-		forEach(methods, new MemberReplacementFunction<Method>(replacementDataSet));
+		for (ReplacementsAccessor accessor : accessors) {
+			for (Map.Entry<String, Object> entry : accessor.read().getReplacements().entrySet()) {
+				replacementDataSet.addReplacementObject(entry.getKey(), entry.getValue());
+			}
+		}
 
 		return replacementDataSet;
 	}
 
+	/**
+	 * Sort data set tables using foreign keys, so that referenced tables are inserted first (and deleted last).
+	 * Foreign keys are read once per database (see {@link ForeignKeyGraph}): if they cannot be read, data set
+	 * order is kept.
+	 *
+	 * @param dbConnection DbUnit connection.
+	 * @param dataSet Data set.
+	 * @return Sorted data set.
+	 * @throws DataSetException If data set tables cannot be read.
+	 */
+	private static IDataSet sortTables(IDatabaseConnection dbConnection, IDataSet dataSet) throws DataSetException {
+		List<String> tableNames = asList(dataSet.getTableNames());
+		if (tableNames.size() < 2 || new HashSet<String>(tableNames).size() < tableNames.size()) {
+			return dataSet;
+		}
+
+		List<String> sortedNames;
+		try {
+			Connection connection = dbConnection.getConnection();
+			sortedNames = ForeignKeyGraph.getInstance(dbConnection).sort(connection, tableNames);
+		}
+		catch (SQLException ex) {
+			log.warn("Cannot read foreign keys, keep data set order: {}", ex.getMessage());
+			return dataSet;
+		}
+
+		if (sortedNames.equals(tableNames)) {
+			return dataSet;
+		}
+
+		log.debug(" 2- Sort data set tables: {}", sortedNames);
+		return new FilteredDataSet(sortedNames.toArray(new String[sortedNames.size()]), dataSet);
+	}
+
 	/**
 	 * Create dataSet from annotation parameter.
 	 *
@@ -260,7 +742,7 @@ public class DbUnitRunner {
 
 		try {
 			log.debug("Fond @DbUnitDataSet annotation, parse annotation value: {}", (Object[]) annotation.value());
-			return createDataSet(annotation.value());
+			return load(annotation.value());
 		}
 		catch (DataSetException ex) {
 			log.error(ex.getMessage(), ex);
@@ -268,20 +750,43 @@ public class DbUnitRunner {
 		}
 	}
 
+	/**
+	 * Run SQL and/or liquibase initialization on the database of the current thread,
+	 * if it has not been initialized yet.
+	 */
+	private void initialize() {
+		String database = factory instanceof JdbcIsolatedConnectionFactory ?
+			((JdbcIsolatedConnectionFactory) factory).getCurrentConfiguration().getUrl() :
+			"";
+
+		if (!databases.add(database)) {
+			return;
+		}
+
+		try {
+			runSqlScript();
+			runLiquibase();
+		}
+		catch (RuntimeException ex) {
+			databases.remove(database);
+			throw ex;
+		}
+	}
+
 	/**
 	 * Run SQL initialization script when runner is initialized.
 	 * If a script failed, then entire process is stopped and an instance
 	 * of {@link DbUnitException} if thrown.
 	 */
 	private void runSqlScript() {
-		DbUnitInit annotation = findAnnotation(testClass, null, DbUnitInit.class);
+		DbUnitInit annotation = metadata.getInit();
 		if (annotation != null) {
 			List<String> scripts = asList(annotation.sql());
 			SqlScriptParserConfiguration configuration = builder()
 				.setDelimiter(annotation.delimiter())
 				.build();
 
-			forEach(scripts, new SqlScriptFunction(factory, configuration));
+			forEach(scripts, new SqlScriptFunction(factory, configuration, annotation.fingerprint()));
 		}
 	}
 
@@ -291,7 +796,7 @@ public class DbUnitRunner {
 	 * of {@link DbUnitException} if thrown.
 	 */
 	private void runLiquibase() {
-		DbUnitLiquibase annotation = findAnnotation(testClass, null, DbUnitLiquibase.class);
+		DbUnitLiquibase annotation = metadata.getLiquibase();
 		if (annotation != null) {
 			List<String> changeLogs = asList(annotation.value());
 			forEach(changeLogs, new LiquibaseFunction(factory));
@@ -0,0 +1,341 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.runner;
+
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
+import static com.github.mjeanroy.dbunit.commons.reflection.Annotations.findAnnotation;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+
+import com.github.mjeanroy.dbunit.cache.Cache;
+import com.github.mjeanroy.dbunit.cache.CacheFactory;
+import com.github.mjeanroy.dbunit.cache.CacheLoader;
+import com.github.mjeanroy.dbunit.commons.lang.Objects;
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitReInit;
+import com.github.mjeanroy.dbunit.core.jdbc.DatabaseConfiguration;
+import com.github.mjeanroy.dbunit.core.jdbc.JdbcConnectionFactory;
+import com.github.mjeanroy.dbunit.core.jdbc.JdbcDataSourceConnectionFactory;
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+
+/**
+ * Registry of {@link DbUnitRunner} instances.
+ *
+ * <br>
+ *
+ * Runners are identified by test class, connection factory and DbUnit configuration: the first lookup creates the
+ * runner (i.e data set is parsed, SQL scripts and liquibase change logs are executed), next
+ * lookups return the same runner instance.
+ *
+ * <br>
+ *
+ * If test class is annotated with {@link DbUnitReInit}, a new runner is returned each time.
+ *
+ * <br>
+ *
+ * Runners that failed to initialize are not kept: next lookup will try again. Runners should be removed
+ * once all tests of their test class have been executed (see {@link #remove(Class, JdbcConnectionFactory)}).
+ * Runners that are never removed (for example, runners used by a {@code DbUnitRule} declared as a simple
+ * {@code @Rule}) are not kept forever: at most {@link #MAX_RUNNERS} runners are kept, least recently used
+ * runners are removed (and closed) first.
+ */
+public final class DbUnitRunnerRegistry {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(DbUnitRunnerRegistry.class);
+
+	/**
+	 * Cache of runners.
+	 */
+	private static final Cache<RunnerKey, DbUnitRunner> CACHE = CacheFactory.newCache(RunnerLoader.INSTANCE);
+
+	/**
+	 * Maximum number of runners kept in the registry.
+	 */
+	static final int MAX_RUNNERS = 32;
+
+	/**
+	 * Keys of runners in the registry, least recently used first.
+	 * All accesses must be synchronized on this map.
+	 */
+	private static final Map<RunnerKey, Boolean> KEYS = new LinkedHashMap<RunnerKey, Boolean>(16, 0.75f, true);
+
+	// Ensure non instantiation.
+	private DbUnitRunnerRegistry() {
+	}
+
+	/**
+	 * Get runner associated to given test class and connection factory.
+	 *
+	 * @param testClass Test class.
+	 * @param factory Connection factory.
+	 * @return The runner.
+	 * @throws NullPointerException If {@code testClass} or {@code factory} is {@code null}.
+	 * @throws com.github.mjeanroy.dbunit.exception.DbUnitException If runner initialization failed.
+	 */
+	public static DbUnitRunner getRunner(Class<?> testClass, JdbcConnectionFactory factory) {
+		return getRunner(testClass, factory, DatabaseConfiguration.defaultConfiguration());
+	}
+
+	/**
+	 * Get runner associated to given test class, connection factory and DbUnit configuration.
+	 *
+	 * @param testClass Test class.
+	 * @param factory Connection factory.
+	 * @param configuration DbUnit configuration (see {@link DbUnitRunner#DbUnitRunner(Class, JdbcConnectionFactory, DatabaseConfiguration)}).
+	 * @return The runner.
+	 * @throws NullPointerException If {@code testClass}, {@code factory} or {@code configuration} is {@code null}.
+	 * @throws com.github.mjeanroy.dbunit.exception.DbUnitException If runner initialization failed.
+	 */
+	public static DbUnitRunner getRunner(Class<?> testClass, JdbcConnectionFactory factory, DatabaseConfiguration configuration) {
+		notNull(testClass, "Test Class must not be null");
+		notNull(factory, "JDBC Connection Factory must not be null");
+		notNull(configuration, "DbUnit configuration must not be null");
+
+		if (findAnnotation(testClass, null, DbUnitReInit.class) != null) {
+			log.debug("Found @DbUnitReInit annotation on {}, create new runner", testClass);
+			return new DbUnitRunner(testClass, factory, configuration);
+		}
+
+		RunnerKey key = new RunnerKey(testClass, factory, configuration);
+		DbUnitRunner runner = CACHE.load(key);
+		for (RunnerKey evicted : touch(key)) {
+			log.debug("Too many runners in registry, remove runner of: {}", evicted.testClass);
+			remove(evicted);
+		}
+
+		return runner;
+	}
+
+	/**
+	 * Mark given key as the most recently used one.
+	 *
+	 * @param key Runner key.
+	 * @return Keys of runners that must be removed, since registry is full.
+	 */
+	private static List<RunnerKey> touch(RunnerKey key) {
+		List<RunnerKey> evicted = new ArrayList<RunnerKey>(1);
+		synchronized (KEYS) {
+			KEYS.put(key, Boolean.TRUE);
+
+			Iterator<RunnerKey> it = KEYS.keySet().iterator();
+			while (KEYS.size() > MAX_RUNNERS && it.hasNext()) {
+				evicted.add(it.next());
+				it.remove();
+			}
+		}
+
+		return evicted;
+	}
+
+	/**
+	 * Get runner associated to given test class and data source.
+	 * See also {@link #getRunner(Class, JdbcConnectionFactory)}.
+	 *
+	 * @param testClass Test class.
+	 * @param dataSource DataSource.
+	 * @return The runner.
+	 * @throws NullPointerException If {@code testClass} or {@code dataSource} is {@code null}.
+	 */
+	public static DbUnitRunner getRunner(Class<?> testClass, DataSource dataSource) {
+		return getRunner(testClass, new JdbcDataSourceConnectionFactory(notNull(dataSource, "DataSource must not be null")));
+	}
+
+	/**
+	 * Remove runner associated to given test class and data source.
+	 * See also {@link #remove(Class, JdbcConnectionFactory)}.
+	 *
+	 * @param testClass Test class.
+	 * @param dataSource DataSource.
+	 */
+	public static void remove(Class<?> testClass, DataSource dataSource) {
+		remove(testClass, new JdbcDataSourceConnectionFactory(notNull(dataSource, "DataSource must not be null")));
+	}
+
+	/**
+	 * Remove runner associated to given test class and connection factory (and close its
+	 * pinned SQL connections): next lookup will create (and initialize) a new runner.
+	 *
+	 * @param testClass Test class.
+	 * @param factory Connection factory.
+	 */
+	public static void remove(Class<?> testClass, JdbcConnectionFactory factory) {
+		remove(testClass, factory, DatabaseConfiguration.defaultConfiguration());
+	}
+
+	/**
+	 * Remove runner associated to given test class, connection factory and DbUnit configuration
+	 * (see {@link #remove(Class, JdbcConnectionFactory)}).
+	 *
+	 * @param testClass Test class.
+	 * @param factory Connection factory.
+	 * @param configuration DbUnit configuration.
+	 */
+	public static void remove(Class<?> testClass, JdbcConnectionFactory factory, DatabaseConfiguration configuration) {
+		notNull(testClass, "Test Class must not be null");
+		notNull(factory, "JDBC Connection Factory must not be null");
+		notNull(configuration, "DbUnit configuration must not be null");
+
+		remove(new RunnerKey(testClass, factory, configuration));
+	}
+
+	/**
+	 * Remove runner identified by given key, and close it.
+	 *
+	 * @param key Runner key.
+	 */
+	private static void remove(RunnerKey key) {
+		synchronized (KEYS) {
+			KEYS.remove(key);
+		}
+
+		DbUnitRunner runner = CACHE.remove(key);
+		if (runner != null) {
+			runner.close();
+		}
+	}
+
+	/**
+	 * Close SQL connections pinned by the runner associated to given test class and connection
+	 * factory (see {@link DbUnitRunner#close()}): should be called once all tests of the test class have
+	 * been executed. Do nothing if runner does not exist.
+	 *
+	 * @param testClass Test class.
+	 * @param factory Connection factory.
+	 */
+	public static void close(Class<?> testClass, JdbcConnectionFactory factory) {
+		close(testClass, factory, DatabaseConfiguration.defaultConfiguration());
+	}
+
+	/**
+	 * Close SQL connections pinned by the runner associated to given test class, connection
+	 * factory and DbUnit configuration (see {@link #close(Class, JdbcConnectionFactory)}).
+	 *
+	 * @param testClass Test class.
+	 * @param factory Connection factory.
+	 * @param configuration DbUnit configuration.
+	 */
+	public static void close(Class<?> testClass, JdbcConnectionFactory factory, DatabaseConfiguration configuration) {
+		notNull(testClass, "Test Class must not be null");
+		notNull(factory, "JDBC Connection Factory must not be null");
+		notNull(configuration, "DbUnit configuration must not be null");
+
+		DbUnitRunner runner = CACHE.get(new RunnerKey(testClass, factory, configuration));
+		if (runner != null) {
+			runner.close();
+		}
+	}
+
+	/**
+	 * Remove all registered runners: next lookups will create (and initialize) new runners.
+	 */
+	public static void clear() {
+		log.debug("Clearing runner registry");
+		synchronized (KEYS) {
+			KEYS.clear();
+		}
+
+		CACHE.clear();
+	}
+
+	/**
+	 * Key identifying a runner in the registry.
+	 */
+	private static class RunnerKey {
+
+		/**
+		 * Test Class.
+		 */
+		private final Class<?> testClass;
+
+		/**
+		 * Connection factory.
+		 */
+		private final JdbcConnectionFactory factory;
+
+		/**
+		 * DbUnit configuration.
+		 */
+		private final DatabaseConfiguration configuration;
+
+		/**
+		 * Create key.
+		 *
+		 * @param testClass Test class.
+		 * @param factory Connection factory.
+		 * @param configuration DbUnit configuration.
+		 */
+		private RunnerKey(Class<?> testClass, JdbcConnectionFactory factory, DatabaseConfiguration configuration) {
+			this.testClass = testClass;
+			this.factory = factory;
+			this.configuration = configuration;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (o == this) {
+				return true;
+			}
+
+			if (o instanceof RunnerKey) {
+				RunnerKey k = (RunnerKey) o;
+				return Objects.equals(testClass, k.testClass) &&
+					Objects.equals(factory, k.factory) &&
+					Objects.equals(configuration, k.configuration);
+			}
+
+			return false;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(testClass, factory, configuration);
+		}
+	}
+
+	/**
+	 * Loader creating runner from given key.
+	 */
+	private static class RunnerLoader implements CacheLoader<RunnerKey, DbUnitRunner> {
+
+		/**
+		 * Singleton Instance.
+		 */
+		private static final RunnerLoader INSTANCE = new RunnerLoader();
+
+		@Override
+		public DbUnitRunner load(RunnerKey key) {
+			log.debug("Create runner for: {}", key.testClass);
+			return new DbUnitRunner(key.testClass, key.factory, key.configuration);
+		}
+	}
+}
@@ -0,0 +1,194 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.runner;
+
+import static java.util.Arrays.asList;
+import static java.util.Arrays.copyOfRange;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Set;
+
+import com.github.mjeanroy.dbunit.cache.Cache;
+import com.github.mjeanroy.dbunit.cache.CacheFactory;
+import com.github.mjeanroy.dbunit.cache.CacheLoader;
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitSetup;
+import com.github.mjeanroy.dbunit.core.jdbc.DirtyTablesTracker;
+import com.github.mjeanroy.dbunit.core.jdbc.JdbcConnectionFactory;
+import com.github.mjeanroy.dbunit.core.operation.DbUnitOperation;
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+import org.dbunit.IDatabaseTester;
+import org.dbunit.dataset.FilteredDataSet;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.operation.DatabaseOperation;
+
+/**
+ * Apply setup operations to the test database, incrementally:
+ * <ul>
+ *   <li>The first time, setup operation is executed.</li>
+ *   <li>Next times, only tables modified since previous setup are re-seeded.</li>
+ *   <li>If no table has been modified, setup is skipped.</li>
+ * </ul>
+ *
+ * Only clean insert setup operations ({@code CLEAN_INSERT}, {@code BATCH_CLEAN_INSERT}, {@code FAST_CLEAN_INSERT},
+ * {@code PARALLEL_CLEAN_INSERT} and {@code LARGE_CLEAN_INSERT}) are applied incrementally: tables are inserted with the runner connection.
+ * Data set tables are ordered for insertion by the runner (see {@link com.github.mjeanroy.dbunit.core.jdbc.ForeignKeyGraph}): to
+ * keep foreign keys valid, the first dirty table and all the tables following it are re-seeded.
+ *
+ * <br>
+ *
+ * Trackers are shared by runners using the same connection factory, so that a setup executed by
+ * a runner invalidates the state known by other runners.
+ * This class is thread-safe.
+ */
+class IncrementalDbOperation implements DbOperation {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(IncrementalDbOperation.class);
+
+	/**
+	 * Trackers, identified by connection factory.
+	 */
+	private static final Cache<JdbcConnectionFactory, DirtyTablesTracker> TRACKERS = CacheFactory.newCache(TrackerLoader.INSTANCE);
+
+	/**
+	 * Get tracker associated to given connection factory.
+	 *
+	 * @param factory Connection factory.
+	 * @return The tracker.
+	 */
+	static DirtyTablesTracker getTracker(JdbcConnectionFactory factory) {
+		return TRACKERS.load(factory);
+	}
+
+	/**
+	 * Tracker of modified tables.
+	 */
+	private final DirtyTablesTracker tracker;
+
+	/**
+	 * Operation executing setup when tables cannot be re-seeded incrementally.
+	 */
+	private final SetupDbOperation setupOperation;
+
+	/**
+	 * Connection factory of the runner, may be {@code null}.
+	 */
+	private final JdbcConnectionFactory factory;
+
+	/**
+	 * Create operation.
+	 *
+	 * @param tracker Tracker of modified tables.
+	 * @param factory Connection factory of the runner, used by operations needing several connections, may be {@code null}.
+	 */
+	IncrementalDbOperation(DirtyTablesTracker tracker, JdbcConnectionFactory factory) {
+		this.tracker = tracker;
+		this.factory = factory;
+		this.setupOperation = new SetupDbOperation(factory);
+	}
+
+	@Override
+	public void apply(TestClassMetadata metadata, Method method, IDatabaseTester dbTester) throws Exception {
+		DbUnitSetup setup = metadata.getSetup(method);
+		if (setup != null && !isCleanInsert(setup.value())) {
+			log.debug(" 3- Setup operation is not incremental: {}", setup.value());
+			setupOperation.apply(metadata, method, dbTester);
+			tracker.markAllDirty();
+			return;
+		}
+
+		List<Object> seed = asList(metadata.getTestClass(), metadata.getDataSet(method), setup);
+
+		synchronized (tracker) {
+			if (!tracker.isSeeded(seed) || tracker.isAllDirty()) {
+				setupOperation.apply(metadata, method, dbTester);
+				tracker.seeded(seed);
+				return;
+			}
+
+			Set<String> dirtyTables = tracker.getDirtyTables();
+			if (dirtyTables.isEmpty()) {
+				log.debug(" 3- No table modified since previous setup, skip setup");
+				return;
+			}
+
+			IDataSet dataSet = dbTester.getDataSet();
+			String[] tableNames = dataSet.getTableNames();
+
+			int first = -1;
+			for (int i = 0; i < tableNames.length && first < 0; i++) {
+				if (tracker.isDirty(tableNames[i])) {
+					first = i;
+				}
+			}
+
+			if (first >= 0) {
+				String[] tables = copyOfRange(tableNames, first, tableNames.length);
+				log.debug(" 3- Re-seed modified tables: {}", (Object[]) tables);
+				DatabaseOperation operation = setup == null ? DatabaseOperation.CLEAN_INSERT : setup.value().getOperation(factory);
+				operation.execute(dbTester.getConnection(), new FilteredDataSet(tables, dataSet));
+			}
+			else {
+				log.debug(" 3- Modified tables do not belong to data set, skip setup");
+			}
+
+			tracker.seeded(seed);
+		}
+	}
+
+	/**
+	 * Check if setup operation cleans tables before inserting rows (i.e it can be applied to a subset of tables).
+	 *
+	 * @param operation Setup operation.
+	 * @return {@code true} if operation is a clean insert operation, {@code false} otherwise.
+	 */
+	private static boolean isCleanInsert(DbUnitOperation operation) {
+		return operation == DbUnitOperation.CLEAN_INSERT
+			|| operation == DbUnitOperation.BATCH_CLEAN_INSERT
+			|| operation == DbUnitOperation.FAST_CLEAN_INSERT
+			|| operation == DbUnitOperation.PARALLEL_CLEAN_INSERT
+			|| operation == DbUnitOperation.LARGE_CLEAN_INSERT;
+	}
+
+	/**
+	 * Loader creating tracker for given connection factory.
+	 */
+	private static class TrackerLoader implements CacheLoader<JdbcConnectionFactory, DirtyTablesTracker> {
+
+		/**
+		 * Singleton Instance.
+		 */
+		private static final TrackerLoader INSTANCE = new TrackerLoader();
+
+		@Override
+		public DirtyTablesTracker load(JdbcConnectionFactory key) {
+			return new DirtyTablesTracker();
+		}
+	}
+}
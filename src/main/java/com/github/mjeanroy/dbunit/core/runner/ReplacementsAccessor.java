@@ -0,0 +1,164 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.runner;
+
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import com.github.mjeanroy.dbunit.core.replacement.Replacements;
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+
+/**
+ * Accessor reading {@link Replacements} from a static field or a static method.
+ *
+ * <br>
+ *
+ * Member is resolved (and made accessible) once, when accessor is created: replacements
+ * values are read each time {@link #read()} is called.
+ */
+abstract class ReplacementsAccessor {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(ReplacementsAccessor.class);
+
+	/**
+	 * Create accessor reading given static field.
+	 *
+	 * @param field Static field.
+	 * @return The accessor.
+	 * @throws NullPointerException If {@code field} is {@code null}.
+	 */
+	static ReplacementsAccessor of(Field field) {
+		return new FieldReplacementsAccessor(makeAccessible(notNull(field, "Field must not be null")));
+	}
+
+	/**
+	 * Create accessor invoking given static method.
+	 *
+	 * @param method Static method.
+	 * @return The accessor.
+	 * @throws NullPointerException If {@code method} is {@code null}.
+	 */
+	static ReplacementsAccessor of(Method method) {
+		return new MethodReplacementsAccessor(makeAccessible(notNull(method, "Method must not be null")));
+	}
+
+	/**
+	 * Read replacements.
+	 *
+	 * @return Replacements.
+	 */
+	Replacements read() {
+		try {
+			return doRead();
+		}
+		catch (InvocationTargetException ex) {
+			log.error(ex.getMessage(), ex);
+			throw new RuntimeException(ex);
+		}
+		catch (IllegalAccessException ex) {
+			log.error(ex.getMessage(), ex);
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 * Read replacements from underlying member.
+	 *
+	 * @return Replacements.
+	 * @throws InvocationTargetException If method invocation failed.
+	 * @throws IllegalAccessException If member cannot be accessed.
+	 */
+	abstract Replacements doRead() throws InvocationTargetException, IllegalAccessException;
+
+	/**
+	 * Make given member accessible.
+	 *
+	 * @param member The member.
+	 * @param <T> Type of member.
+	 * @return The member.
+	 */
+	private static <T extends AccessibleObject> T makeAccessible(T member) {
+		member.setAccessible(true);
+		return member;
+	}
+
+	/**
+	 * Accessor reading static field.
+	 */
+	private static class FieldReplacementsAccessor extends ReplacementsAccessor {
+
+		/**
+		 * The field.
+		 */
+		private final Field field;
+
+		/**
+		 * Create accessor.
+		 *
+		 * @param field The field.
+		 */
+		private FieldReplacementsAccessor(Field field) {
+			this.field = field;
+		}
+
+		@Override
+		Replacements doRead() throws IllegalAccessException {
+			return (Replacements) field.get(null);
+		}
+	}
+
+	/**
+	 * Accessor invoking static method.
+	 */
+	private static class MethodReplacementsAccessor extends ReplacementsAccessor {
+
+		/**
+		 * The method.
+		 */
+		private final Method method;
+
+		/**
+		 * Create accessor.
+		 *
+		 * @param method The method.
+		 */
+		private MethodReplacementsAccessor(Method method) {
+			this.method = method;
+		}
+
+		@Override
+		Replacements doRead() throws InvocationTargetException, IllegalAccessException {
+			return (Replacements) method.invoke(null);
+		}
+	}
+}
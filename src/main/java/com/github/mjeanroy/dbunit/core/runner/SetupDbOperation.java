@@ -24,18 +24,17 @@
 
 package com.github.mjeanroy.dbunit.core.runner;
 
-import static com.github.mjeanroy.dbunit.commons.reflection.Annotations.findAnnotation;
-
 import java.lang.reflect.Method;
 
 import com.github.mjeanroy.dbunit.core.annotations.DbUnitSetup;
+import com.github.mjeanroy.dbunit.core.jdbc.JdbcConnectionFactory;
 import com.github.mjeanroy.dbunit.loggers.Logger;
 import com.github.mjeanroy.dbunit.loggers.Loggers;
 import org.dbunit.IDatabaseTester;
 
 /**
  * Apply setup operations to the test database.
- * This class is stateless and thread-safe.
+ * This class is immutable and thread-safe.
  */
 class SetupDbOperation implements DbOperation {
 
@@ -47,7 +46,7 @@ class SetupDbOperation implements DbOperation {
 	/**
 	 * Singleton Instance.
 	 */
-	private static final SetupDbOperation INSTANCE = new SetupDbOperation();
+	private static final SetupDbOperation INSTANCE = new SetupDbOperation(null);
 
 	/**
 	 * Get singleton instance.
@@ -58,17 +57,29 @@ class SetupDbOperation implements DbOperation {
 		return INSTANCE;
 	}
 
-	// Ensure non instantiation.
-	private SetupDbOperation() {
+	/**
+	 * Connection factory of the runner, used by operations inserting tables with several
+	 * connections (see {@link com.github.mjeanroy.dbunit.core.operation.DbUnitOperation#PARALLEL_INSERT}),
+	 * may be {@code null}.
+	 */
+	private final JdbcConnectionFactory factory;
+
+	/**
+	 * Create operation.
+	 *
+	 * @param factory Connection factory of the runner, may be {@code null}.
+	 */
+	SetupDbOperation(JdbcConnectionFactory factory) {
+		this.factory = factory;
 	}
 
 	@Override
-	public void apply(Class<?> testClass, Method method, IDatabaseTester dbTester) throws Exception {
-		DbUnitSetup annotation = findAnnotation(testClass, method, DbUnitSetup.class);
+	public void apply(TestClassMetadata metadata, Method method, IDatabaseTester dbTester) throws Exception {
+		DbUnitSetup annotation = metadata.getSetup(method);
 
 		if (annotation != null) {
 			log.debug(" 3- Initialize setup operation");
-			dbTester.setSetUpOperation(annotation.value().getOperation());
+			dbTester.setSetUpOperation(annotation.value().getOperation(factory));
 		}
 		else {
 			log.trace(" 3- No setup operation defined, use default");
@@ -0,0 +1,135 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.runner;
+
+import static java.util.Arrays.asList;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.github.mjeanroy.dbunit.core.jdbc.JdbcConnectionFactory;
+import com.github.mjeanroy.dbunit.core.snapshot.Snapshot;
+import com.github.mjeanroy.dbunit.core.snapshot.SnapshotStrategy;
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+import org.dbunit.IDatabaseTester;
+
+/**
+ * Apply setup operations to the test database, using snapshots:
+ * <ul>
+ *   <li>The first time, setup operation is executed and a snapshot is taken.</li>
+ *   <li>Next times, snapshot is restored.</li>
+ * </ul>
+ *
+ * Snapshots are identified by data set and setup operation of the executed method, and are
+ * kept until {@link #release(Connection)} is called.
+ * This class is thread-safe.
+ */
+class SnapshotDbOperation implements DbOperation {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(SnapshotDbOperation.class);
+
+	/**
+	 * Snapshot strategy.
+	 */
+	private final SnapshotStrategy strategy;
+
+	/**
+	 * Setup operation, executed before snapshot is taken.
+	 */
+	private final SetupDbOperation setup;
+
+	/**
+	 * Snapshots, identified by data set and setup annotations.
+	 */
+	private final ConcurrentMap<List<Object>, Snapshot> snapshots;
+
+	/**
+	 * Create operation.
+	 *
+	 * @param strategy Snapshot strategy.
+	 * @param factory Connection factory of the runner, may be {@code null}.
+	 */
+	SnapshotDbOperation(SnapshotStrategy strategy, JdbcConnectionFactory factory) {
+		this.strategy = strategy;
+		this.setup = new SetupDbOperation(factory);
+		this.snapshots = new ConcurrentHashMap<List<Object>, Snapshot>();
+	}
+
+	@Override
+	public void apply(TestClassMetadata metadata, Method method, IDatabaseTester dbTester) throws Exception {
+		List<Object> key = asList((Object) metadata.getDataSet(method), metadata.getSetup(method));
+		Connection connection = dbTester.getConnection().getConnection();
+
+		Snapshot snapshot = snapshots.get(key);
+		if (snapshot != null) {
+			log.debug(" 3- Restore database snapshot");
+			snapshot.restore(connection);
+			return;
+		}
+
+		setup.apply(metadata, method, dbTester);
+
+		log.debug(" -> Take database snapshot");
+		snapshots.put(key, strategy.take(connection));
+	}
+
+	/**
+	 * Check if this operation holds snapshots that should be released.
+	 *
+	 * @return {@code true} if at least one snapshot has been taken, {@code false} otherwise.
+	 */
+	boolean hasSnapshots() {
+		return !snapshots.isEmpty();
+	}
+
+	/**
+	 * Release all snapshots taken by this operation: snapshots will be taken again
+	 * the next time operation is applied.
+	 *
+	 * @param connection SQL Connection.
+	 */
+	void release(Connection connection) {
+		for (List<Object> key : snapshots.keySet()) {
+			Snapshot snapshot = snapshots.remove(key);
+			if (snapshot == null) {
+				continue;
+			}
+
+			try {
+				snapshot.release(connection);
+			}
+			catch (Exception ex) {
+				log.warn("Failed to release database snapshot: {}", ex.getMessage());
+			}
+		}
+	}
+}
@@ -0,0 +1,326 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.runner;
+
+import static com.github.mjeanroy.dbunit.commons.io.Io.closeSafely;
+import static com.github.mjeanroy.dbunit.commons.lang.Objects.firstNonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+
+import com.github.mjeanroy.dbunit.core.jdbc.InternalTables;
+import com.github.mjeanroy.dbunit.core.resources.ResourceLoader;
+import com.github.mjeanroy.dbunit.core.sql.SqlScriptParserConfiguration;
+import com.github.mjeanroy.dbunit.exception.SqlParserException;
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+
+/**
+ * Static utilities to compute fingerprints of SQL scripts and store fingerprints
+ * of applied scripts in a marker table.
+ */
+final class SqlScriptFingerprints {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(SqlScriptFingerprints.class);
+
+	/**
+	 * Name of the marker table (excluded from database data sets, see {@link InternalTables}).
+	 */
+	static final String TABLE_NAME = InternalTables.SCRIPT_FINGERPRINTS;
+
+	/**
+	 * Charset used to hash parser configuration.
+	 */
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	/**
+	 * Hexadecimal digits.
+	 */
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	/**
+	 * Maximum length of script path stored in marker table.
+	 */
+	private static final int MAX_SCRIPT_LENGTH = 1000;
+
+	// Ensure non instantiation.
+	private SqlScriptFingerprints() {
+	}
+
+	/**
+	 * Read content of given script.
+	 *
+	 * @param script Script path.
+	 * @return Script content.
+	 * @throws SqlParserException If script cannot be read.
+	 */
+	static byte[] read(String script) {
+		ResourceLoader loader = firstNonNull(ResourceLoader.find(script), ResourceLoader.CLASSPATH);
+		InputStream stream = null;
+
+		try {
+			stream = loader.load(script).openStream();
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int n;
+			while ((n = stream.read(buffer)) != -1) {
+				output.write(buffer, 0, n);
+			}
+
+			return output.toByteArray();
+		}
+		catch (IOException ex) {
+			log.error(ex.getMessage(), ex);
+			throw new SqlParserException(ex);
+		}
+		finally {
+			closeSafely(stream);
+		}
+	}
+
+	/**
+	 * Compute fingerprint of given script, parsed with given configuration: fingerprint depends
+	 * on script path and script content, so that scripts with the same content stored at different
+	 * paths are both applied.
+	 *
+	 * @param script Script path.
+	 * @param content Script content.
+	 * @param configuration Parser configuration.
+	 * @return Fingerprint (hexadecimal MD5 digest).
+	 */
+	static String fingerprint(String script, byte[] content, SqlScriptParserConfiguration configuration) {
+		MessageDigest digest = md5();
+		digest.update(toBytes(script));
+		digest.update(content);
+		digest.update(toBytes(String.valueOf(configuration.getDelimiter())));
+		digest.update(toBytes(configuration.getLineComment()));
+		digest.update(toBytes(configuration.getStartBlockComment()));
+		digest.update(toBytes(configuration.getEndBlockComment()));
+		return toHex(digest.digest());
+	}
+
+	/**
+	 * Check if given fingerprint is already stored in marker table.
+	 * Marker table is created if it does not exist.
+	 *
+	 * @param connection SQL Connection.
+	 * @param fingerprint Script fingerprint.
+	 * @return {@code true} if script has already been applied, {@code false} otherwise.
+	 * @throws SQLException If an SQL error occurred.
+	 */
+	static boolean isApplied(Connection connection, String fingerprint) throws SQLException {
+		createTableIfNotExists(connection);
+
+		PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM " + TABLE_NAME + " WHERE FINGERPRINT = ?");
+		try {
+			statement.setString(1, fingerprint);
+			ResultSet rs = statement.executeQuery();
+			return rs.next() && rs.getInt(1) > 0;
+		}
+		finally {
+			statement.close();
+		}
+	}
+
+	/**
+	 * Claim given fingerprint, by storing it in marker table (marker table must exist, see
+	 * {@link #isApplied(Connection, String)}): transaction is not committed, so that concurrent
+	 * claims of the same fingerprint wait until the script is executed (and committed) or rolled back.
+	 *
+	 * @param connection SQL Connection.
+	 * @param fingerprint Script fingerprint.
+	 * @param script Script path.
+	 * @return {@code true} if fingerprint has been claimed, {@code false} if it is already stored (i.e script is already applied).
+	 * @throws SQLException If an SQL error occurred.
+	 */
+	static boolean claim(Connection connection, String fingerprint, String script) throws SQLException {
+		PreparedStatement statement = connection.prepareStatement("INSERT INTO " + TABLE_NAME + " (FINGERPRINT, SCRIPT) VALUES (?, ?)");
+		try {
+			statement.setString(1, fingerprint);
+			statement.setString(2, script.length() > MAX_SCRIPT_LENGTH ? script.substring(0, MAX_SCRIPT_LENGTH) : script);
+			statement.executeUpdate();
+			return true;
+		}
+		catch (SQLException ex) {
+			if (isConstraintViolation(ex)) {
+				log.debug("SQL script fingerprint {} already stored: {}", fingerprint, ex.getMessage());
+				return false;
+			}
+
+			throw ex;
+		}
+		finally {
+			statement.close();
+		}
+	}
+
+	/**
+	 * Remove given fingerprint from marker table, and commit transaction if connection is not in
+	 * auto-commit mode: used when script failed, but marker row has already been committed (some
+	 * databases commit the transaction when a DDL statement is executed).
+	 *
+	 * @param connection SQL Connection.
+	 * @param fingerprint Script fingerprint.
+	 * @throws SQLException If an SQL error occurred.
+	 */
+	static void release(Connection connection, String fingerprint) throws SQLException {
+		PreparedStatement statement = connection.prepareStatement("DELETE FROM " + TABLE_NAME + " WHERE FINGERPRINT = ?");
+		try {
+			statement.setString(1, fingerprint);
+			statement.executeUpdate();
+		}
+		finally {
+			statement.close();
+		}
+
+		if (!connection.getAutoCommit()) {
+			connection.commit();
+		}
+	}
+
+	/**
+	 * Check if given exception is an integrity constraint violation (such as a primary key violation).
+	 *
+	 * @param ex SQL Exception.
+	 * @return {@code true} if exception is an integrity constraint violation, {@code false} otherwise.
+	 */
+	private static boolean isConstraintViolation(SQLException ex) {
+		String sqlState = ex.getSQLState();
+		return ex instanceof SQLIntegrityConstraintViolationException || (sqlState != null && sqlState.startsWith("23"));
+	}
+
+	/**
+	 * Create marker table, if it does not already exist.
+	 *
+	 * @param connection SQL Connection.
+	 * @throws SQLException If an SQL error occurred.
+	 */
+	private static void createTableIfNotExists(Connection connection) throws SQLException {
+		if (tableExists(connection)) {
+			return;
+		}
+
+		log.debug("Create SQL script fingerprints table: {}", TABLE_NAME);
+
+		Statement statement = connection.createStatement();
+		try {
+			statement.execute("CREATE TABLE " + TABLE_NAME + " (FINGERPRINT VARCHAR(32) NOT NULL PRIMARY KEY, SCRIPT VARCHAR(" + MAX_SCRIPT_LENGTH + "))");
+		}
+		catch (SQLException ex) {
+			// Table may have been created concurrently (by another JVM).
+			if (!tableExists(connection)) {
+				throw ex;
+			}
+		}
+		finally {
+			statement.close();
+		}
+	}
+
+	/**
+	 * Check if marker table exists.
+	 *
+	 * @param connection SQL Connection.
+	 * @return {@code true} if table exists, {@code false} otherwise.
+	 * @throws SQLException If an SQL error occurred.
+	 */
+	private static boolean tableExists(Connection connection) throws SQLException {
+		DatabaseMetaData metaData = connection.getMetaData();
+		return tableExists(metaData, TABLE_NAME) || tableExists(metaData, TABLE_NAME.toLowerCase());
+	}
+
+	/**
+	 * Check if given table exists.
+	 *
+	 * @param metaData Database meta data.
+	 * @param tableName Table name.
+	 * @return {@code true} if table exists, {@code false} otherwise.
+	 * @throws SQLException If an SQL error occurred.
+	 */
+	private static boolean tableExists(DatabaseMetaData metaData, String tableName) throws SQLException {
+		ResultSet rs = metaData.getTables(null, null, tableName, new String[]{"TABLE"});
+		try {
+			return rs.next();
+		}
+		finally {
+			rs.close();
+		}
+	}
+
+	/**
+	 * Create MD5 digest.
+	 *
+	 * @return Digest.
+	 */
+	private static MessageDigest md5() {
+		try {
+			return MessageDigest.getInstance("MD5");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			// Should not happen, MD5 must be supported by every JVM.
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * Get bytes of given (nullable) string.
+	 *
+	 * @param value String value.
+	 * @return Bytes.
+	 */
+	private static byte[] toBytes(String value) {
+		return (value == null ? "\0" : value + "\0").getBytes(UTF_8);
+	}
+
+	/**
+	 * Format bytes as hexadecimal string.
+	 *
+	 * @param bytes Bytes.
+	 * @return Hexadecimal string.
+	 */
+	private static String toHex(byte[] bytes) {
+		char[] chars = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+			chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+		}
+
+		return new String(chars);
+	}
+}
@@ -27,10 +27,12 @@ package com.github.mjeanroy.dbunit.core.runner;
 import static com.github.mjeanroy.dbunit.commons.io.Io.closeQuietly;
 import static com.github.mjeanroy.dbunit.core.sql.SqlScriptParser.executeScript;
 
+import java.io.ByteArrayInputStream;
 import java.sql.Connection;
 import java.sql.SQLException;
 
 import com.github.mjeanroy.dbunit.commons.collections.Function;
+import com.github.mjeanroy.dbunit.core.jdbc.DatabaseMetaDataCache;
 import com.github.mjeanroy.dbunit.core.jdbc.JdbcConnectionFactory;
 import com.github.mjeanroy.dbunit.core.sql.SqlScriptParserConfiguration;
 import com.github.mjeanroy.dbunit.exception.DbUnitException;
@@ -44,6 +46,18 @@ import com.github.mjeanroy.dbunit.loggers.Loggers;
  *
  * If an {@link SQLException} occurs, it will be wrapped into an instance
  * of {@link DbUnitException} exception.
+ *
+ * <p />
+ *
+ * If fingerprint mode is enabled, a fingerprint of each script (computed with script content and
+ * parser configuration) is stored in a marker table before script is executed, in the same transaction:
+ * scripts with a fingerprint already stored are skipped, and concurrent executions of the same script
+ * wait until the first one is committed (or rolled back).
+ *
+ * <p />
+ *
+ * Once a script has been executed, metadata cache of the database is invalidated, since script
+ * may have modified database schema.
  */
 class SqlScriptFunction implements Function<String> {
 
@@ -62,6 +76,11 @@ class SqlScriptFunction implements Function<String> {
 	 */
 	private final SqlScriptParserConfiguration configuration;
 
+	/**
+	 * Fingerprint mode flag.
+	 */
+	private final boolean fingerprint;
+
 	/**
 	 * Create function.
 	 *
@@ -69,15 +88,33 @@ class SqlScriptFunction implements Function<String> {
 	 * @param configuration Parser configuration.
 	 */
 	SqlScriptFunction(JdbcConnectionFactory factory, SqlScriptParserConfiguration configuration) {
+		this(factory, configuration, false);
+	}
+
+	/**
+	 * Create function.
+	 *
+	 * @param factory Connection factory.
+	 * @param configuration Parser configuration.
+	 * @param fingerprint Fingerprint mode flag: if {@code true}, scripts already applied are skipped.
+	 */
+	SqlScriptFunction(JdbcConnectionFactory factory, SqlScriptParserConfiguration configuration, boolean fingerprint) {
 		this.factory = factory;
 		this.configuration = configuration;
+		this.fingerprint = fingerprint;
 	}
 
 	@Override
 	public void apply(String script) {
 		Connection connection = factory.getConnection();
 		try {
-			executeScript(connection, script, configuration);
+			if (fingerprint) {
+				executeScriptOnce(connection, script);
+			}
+			else {
+				executeScript(connection, script, configuration);
+				DatabaseMetaDataCache.invalidate(connection);
+			}
 		}
 		catch (SQLException ex) {
 			log.error(ex.getMessage(), ex);
@@ -87,4 +124,69 @@ class SqlScriptFunction implements Function<String> {
 			closeQuietly(connection);
 		}
 	}
+
+	/**
+	 * Execute given script, unless its fingerprint is already stored in
+	 * marker table: fingerprint is claimed first, then script is executed and
+	 * both are committed.
+	 *
+	 * @param connection SQL Connection.
+	 * @param script Script path.
+	 * @throws SQLException If an SQL error occurred.
+	 */
+	private void executeScriptOnce(Connection connection, String script) throws SQLException {
+		byte[] content = SqlScriptFingerprints.read(script);
+		String hash = SqlScriptFingerprints.fingerprint(script, content, configuration);
+		if (SqlScriptFingerprints.isApplied(connection, hash)) {
+			log.debug("SQL script {} already applied (fingerprint: {}), skip", script, hash);
+			return;
+		}
+
+		boolean autoCommit = connection.getAutoCommit();
+		connection.setAutoCommit(false);
+
+		try {
+			if (!SqlScriptFingerprints.claim(connection, hash, script)) {
+				log.debug("SQL script {} applied concurrently (fingerprint: {}), skip", script, hash);
+				connection.rollback();
+				return;
+			}
+
+			try {
+				executeScript(connection, new ByteArrayInputStream(content), configuration);
+				connection.commit();
+			}
+			catch (SQLException ex) {
+				abort(connection, hash);
+				throw ex;
+			}
+			catch (RuntimeException ex) {
+				abort(connection, hash);
+				throw ex;
+			}
+		}
+		finally {
+			connection.setAutoCommit(autoCommit);
+		}
+
+		DatabaseMetaDataCache.invalidate(connection);
+	}
+
+	/**
+	 * Rollback script execution, and remove its fingerprint from marker table (it may have been committed
+	 * by a DDL statement), so that script is executed again next time.
+	 *
+	 * @param connection SQL Connection.
+	 * @param hash Script fingerprint.
+	 */
+	private static void abort(Connection connection, String hash) {
+		try {
+			connection.rollback();
+			SqlScriptFingerprints.release(connection, hash);
+			DatabaseMetaDataCache.invalidate(connection);
+		}
+		catch (SQLException ex) {
+			log.warn("Failed to release SQL script fingerprint {}: {}", hash, ex.getMessage());
+		}
+	}
 }
@@ -24,18 +24,17 @@
 
 package com.github.mjeanroy.dbunit.core.runner;
 
-import static com.github.mjeanroy.dbunit.commons.reflection.Annotations.findAnnotation;
-
 import java.lang.reflect.Method;
 
 import com.github.mjeanroy.dbunit.core.annotations.DbUnitTearDown;
+import com.github.mjeanroy.dbunit.core.jdbc.JdbcConnectionFactory;
 import com.github.mjeanroy.dbunit.loggers.Logger;
 import com.github.mjeanroy.dbunit.loggers.Loggers;
 import org.dbunit.IDatabaseTester;
 
 /**
  * Apply tear down operations to the test database.
- * This class is stateless and thread-safe.
+ * This class is immutable and thread-safe.
  */
 class TearDownDbOperation implements DbOperation {
 
@@ -47,7 +46,7 @@ class TearDownDbOperation implements DbOperation {
 	/**
 	 * Singleton Instance.
 	 */
-	private static final TearDownDbOperation INSTANCE = new TearDownDbOperation();
+	private static final TearDownDbOperation INSTANCE = new TearDownDbOperation(null);
 
 	/**
 	 * Get singleton instance.
@@ -58,16 +57,28 @@ class TearDownDbOperation implements DbOperation {
 		return INSTANCE;
 	}
 
-	// Ensure non instantiation.
-	private TearDownDbOperation() {
+	/**
+	 * Connection factory of the runner, used by operations cleaning tables with several
+	 * connections (see {@link com.github.mjeanroy.dbunit.core.operation.DbUnitOperation#FAST_CLEAN}),
+	 * may be {@code null}.
+	 */
+	private final JdbcConnectionFactory factory;
+
+	/**
+	 * Create operation.
+	 *
+	 * @param factory Connection factory of the runner, may be {@code null}.
+	 */
+	TearDownDbOperation(JdbcConnectionFactory factory) {
+		this.factory = factory;
 	}
 
 	@Override
-	public void apply(Class<?> testClass, Method method, IDatabaseTester dbTester) throws Exception {
-		DbUnitTearDown op = findAnnotation(testClass, method, DbUnitTearDown.class);
+	public void apply(TestClassMetadata metadata, Method method, IDatabaseTester dbTester) throws Exception {
+		DbUnitTearDown op = metadata.getTearDown(method);
 		if (op != null) {
 			log.trace(" 3- Initialize tear down operation");
-			dbTester.setTearDownOperation(op.value().getOperation());
+			dbTester.setTearDownOperation(op.value().getOperation(factory));
 		}
 		else {
 			log.trace(" 3- No tear down operation defined, use default");
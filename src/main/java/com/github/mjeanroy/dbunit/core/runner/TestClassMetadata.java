@@ -0,0 +1,440 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.runner;
+
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
+import static com.github.mjeanroy.dbunit.commons.reflection.Annotations.findAnnotation;
+import static com.github.mjeanroy.dbunit.commons.reflection.Annotations.findStaticFieldAnnotatedWith;
+import static com.github.mjeanroy.dbunit.commons.reflection.Annotations.findStaticMethodAnnotatedWith;
+import static java.util.Collections.unmodifiableList;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.mjeanroy.dbunit.cache.Cache;
+import com.github.mjeanroy.dbunit.cache.CacheFactory;
+import com.github.mjeanroy.dbunit.cache.CacheLoader;
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitConfig;
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitDataSet;
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitIncremental;
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitInit;
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitLiquibase;
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitReInit;
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitReplacement;
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitRollback;
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitSetup;
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitSnapshot;
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitTearDown;
+import com.github.mjeanroy.dbunit.exception.DbUnitException;
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+
+/**
+ * Immutable descriptor of a test class: DbUnit annotations (on class and on each
+ * method) and replacement members are resolved once, when descriptor is created.
+ *
+ * <br>
+ *
+ * Descriptors are cached: use {@link #of(Class)} to get descriptor of a test class.
+ */
+final class TestClassMetadata {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(TestClassMetadata.class);
+
+	/**
+	 * Cache of descriptors.
+	 */
+	private static final Cache<Class<?>, TestClassMetadata> CACHE = CacheFactory.newCache(TestClassMetadataLoader.INSTANCE);
+
+	/**
+	 * Get descriptor of given test class.
+	 *
+	 * @param testClass Test class.
+	 * @return Descriptor.
+	 * @throws NullPointerException If {@code testClass} is {@code null}.
+	 * @throws DbUnitException If test class uses both {@link DbUnitRollback} and {@link DbUnitSnapshot}.
+	 */
+	static TestClassMetadata of(Class<?> testClass) {
+		return CACHE.load(notNull(testClass, "Test Class must not be null"));
+	}
+
+	/**
+	 * Test class.
+	 */
+	private final Class<?> testClass;
+
+	/**
+	 * Annotations defined on test class (or its package).
+	 */
+	private final MethodAnnotations classAnnotations;
+
+	/**
+	 * Effective annotations of test class methods, indexed by method.
+	 */
+	private final Map<Method, MethodAnnotations> methodAnnotations;
+
+	/**
+	 * SQL initialization annotation, may be {@code null}.
+	 */
+	private final DbUnitInit init;
+
+	/**
+	 * Liquibase annotation, may be {@code null}.
+	 */
+	private final DbUnitLiquibase liquibase;
+
+	/**
+	 * Snapshot annotation, may be {@code null}.
+	 */
+	private final DbUnitSnapshot snapshot;
+
+	/**
+	 * Rollback annotation, may be {@code null}.
+	 */
+	private final DbUnitRollback rollback;
+
+	/**
+	 * Incremental annotation, may be {@code null}.
+	 */
+	private final DbUnitIncremental incremental;
+
+	/**
+	 * Re-initialization annotation, may be {@code null}.
+	 */
+	private final DbUnitReInit reInit;
+
+	/**
+	 * DbUnit configuration annotation, may be {@code null}.
+	 */
+	private final DbUnitConfig config;
+
+	/**
+	 * Replacements accessors.
+	 */
+	private final List<ReplacementsAccessor> replacements;
+
+	/**
+	 * Create descriptor.
+	 *
+	 * @param testClass Test class.
+	 * @throws DbUnitException If test class uses both {@link DbUnitRollback} and {@link DbUnitSnapshot}.
+	 */
+	private TestClassMetadata(Class<?> testClass) {
+		this.testClass = testClass;
+		this.classAnnotations = new MethodAnnotations(
+			findAnnotation(testClass, null, DbUnitDataSet.class),
+			findAnnotation(testClass, null, DbUnitSetup.class),
+			findAnnotation(testClass, null, DbUnitTearDown.class)
+		);
+
+		this.methodAnnotations = readMethodAnnotations(testClass, classAnnotations);
+		this.init = findAnnotation(testClass, null, DbUnitInit.class);
+		this.liquibase = findAnnotation(testClass, null, DbUnitLiquibase.class);
+		this.snapshot = findAnnotation(testClass, null, DbUnitSnapshot.class);
+		this.rollback = findAnnotation(testClass, null, DbUnitRollback.class);
+		this.incremental = findAnnotation(testClass, null, DbUnitIncremental.class);
+		this.reInit = findAnnotation(testClass, null, DbUnitReInit.class);
+		this.config = findAnnotation(testClass, null, DbUnitConfig.class);
+		this.replacements = readReplacements(testClass);
+
+		if (rollback != null && snapshot != null) {
+			throw new DbUnitException("Test class " + testClass.getName() + " cannot use both @DbUnitRollback and @DbUnitSnapshot: restoring a snapshot would commit the transaction");
+		}
+	}
+
+	/**
+	 * Get {@link #testClass}
+	 *
+	 * @return {@link #testClass}
+	 */
+	Class<?> getTestClass() {
+		return testClass;
+	}
+
+	/**
+	 * Get data set annotation defined on test class (or its package).
+	 *
+	 * @return Annotation, {@code null} if it is not defined.
+	 */
+	DbUnitDataSet getDataSet() {
+		return classAnnotations.dataSet;
+	}
+
+	/**
+	 * Get data set annotation to use for given method: annotation defined on method, or
+	 * annotation defined on test class.
+	 *
+	 * @param method Test method.
+	 * @return Annotation, {@code null} if it is not defined.
+	 */
+	DbUnitDataSet getDataSet(Method method) {
+		return getAnnotations(method).dataSet;
+	}
+
+	/**
+	 * Get setup annotation to use for given method: annotation defined on method, or
+	 * annotation defined on test class.
+	 *
+	 * @param method Test method.
+	 * @return Annotation, {@code null} if it is not defined.
+	 */
+	DbUnitSetup getSetup(Method method) {
+		return getAnnotations(method).setup;
+	}
+
+	/**
+	 * Get tear down annotation to use for given method: annotation defined on method, or
+	 * annotation defined on test class.
+	 *
+	 * @param method Test method.
+	 * @return Annotation, {@code null} if it is not defined.
+	 */
+	DbUnitTearDown getTearDown(Method method) {
+		return getAnnotations(method).tearDown;
+	}
+
+	/**
+	 * Get {@link #init}
+	 *
+	 * @return {@link #init}
+	 */
+	DbUnitInit getInit() {
+		return init;
+	}
+
+	/**
+	 * Get {@link #liquibase}
+	 *
+	 * @return {@link #liquibase}
+	 */
+	DbUnitLiquibase getLiquibase() {
+		return liquibase;
+	}
+
+	/**
+	 * Get {@link #snapshot}
+	 *
+	 * @return {@link #snapshot}
+	 */
+	DbUnitSnapshot getSnapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * Get {@link #rollback}
+	 *
+	 * @return {@link #rollback}
+	 */
+	DbUnitRollback getRollback() {
+		return rollback;
+	}
+
+	/**
+	 * Get {@link #incremental}
+	 *
+	 * @return {@link #incremental}
+	 */
+	DbUnitIncremental getIncremental() {
+		return incremental;
+	}
+
+	/**
+	 * Get {@link #reInit}
+	 *
+	 * @return {@link #reInit}
+	 */
+	DbUnitReInit getReInit() {
+		return reInit;
+	}
+
+	/**
+	 * Get {@link #config}
+	 *
+	 * @return {@link #config}
+	 */
+	DbUnitConfig getConfig() {
+		return config;
+	}
+
+	/**
+	 * Get {@link #replacements}
+	 *
+	 * @return {@link #replacements}
+	 */
+	List<ReplacementsAccessor> getReplacements() {
+		return replacements;
+	}
+
+	/**
+	 * Get annotations to use for given method.
+	 *
+	 * @param method Test method, may be {@code null}.
+	 * @return Annotations.
+	 */
+	private MethodAnnotations getAnnotations(Method method) {
+		if (method == null) {
+			return classAnnotations;
+		}
+
+		MethodAnnotations annotations = methodAnnotations.get(method);
+		if (annotations == null) {
+			// Should not happen, unless method does not belong to test class.
+			annotations = MethodAnnotations.of(method, classAnnotations);
+		}
+
+		return annotations;
+	}
+
+	/**
+	 * Read effective annotations of all methods declared (or inherited) by given class.
+	 *
+	 * @param testClass Test class.
+	 * @param classAnnotations Annotations defined on test class.
+	 * @return Annotations, indexed by method.
+	 */
+	private static Map<Method, MethodAnnotations> readMethodAnnotations(Class<?> testClass, MethodAnnotations classAnnotations) {
+		Map<Method, MethodAnnotations> annotations = new HashMap<Method, MethodAnnotations>();
+
+		for (Method method : testClass.getMethods()) {
+			annotations.put(method, MethodAnnotations.of(method, classAnnotations));
+		}
+
+		Class<?> current = testClass;
+		while (current != null && current != Object.class) {
+			for (Method method : current.getDeclaredMethods()) {
+				if (!annotations.containsKey(method)) {
+					annotations.put(method, MethodAnnotations.of(method, classAnnotations));
+				}
+			}
+
+			current = current.getSuperclass();
+		}
+
+		return annotations;
+	}
+
+	/**
+	 * Read replacements members of given class.
+	 *
+	 * @param testClass Test class.
+	 * @return Replacements accessors.
+	 */
+	private static List<ReplacementsAccessor> readReplacements(Class<?> testClass) {
+		List<Field> fields = findStaticFieldAnnotatedWith(testClass, DbUnitReplacement.class);
+		List<Method> methods = findStaticMethodAnnotatedWith(testClass, DbUnitReplacement.class);
+		List<ReplacementsAccessor> accessors = new ArrayList<ReplacementsAccessor>(fields.size() + methods.size());
+
+		for (Field field : fields) {
+			accessors.add(ReplacementsAccessor.of(field));
+		}
+
+		for (Method method : methods) {
+			accessors.add(ReplacementsAccessor.of(method));
+		}
+
+		return unmodifiableList(accessors);
+	}
+
+	/**
+	 * Effective DbUnit annotations of a test method.
+	 */
+	private static class MethodAnnotations {
+
+		/**
+		 * Create effective annotations of given method: annotations defined on method
+		 * take precedence over annotations defined on class.
+		 *
+		 * @param method Test method.
+		 * @param classAnnotations Annotations defined on class.
+		 * @return Effective annotations.
+		 */
+		private static MethodAnnotations of(Method method, MethodAnnotations classAnnotations) {
+			DbUnitDataSet dataSet = method.getAnnotation(DbUnitDataSet.class);
+			DbUnitSetup setup = method.getAnnotation(DbUnitSetup.class);
+			DbUnitTearDown tearDown = method.getAnnotation(DbUnitTearDown.class);
+			if (dataSet == null && setup == null && tearDown == null) {
+				return classAnnotations;
+			}
+
+			return new MethodAnnotations(
+				dataSet == null ? classAnnotations.dataSet : dataSet,
+				setup == null ? classAnnotations.setup : setup,
+				tearDown == null ? classAnnotations.tearDown : tearDown
+			);
+		}
+
+		/**
+		 * Data set annotation.
+		 */
+		private final DbUnitDataSet dataSet;
+
+		/**
+		 * Setup annotation.
+		 */
+		private final DbUnitSetup setup;
+
+		/**
+		 * Tear down annotation.
+		 */
+		private final DbUnitTearDown tearDown;
+
+		/**
+		 * Create annotations.
+		 *
+		 * @param dataSet Data set annotation.
+		 * @param setup Setup annotation.
+		 * @param tearDown Tear down annotation.
+		 */
+		private MethodAnnotations(DbUnitDataSet dataSet, DbUnitSetup setup, DbUnitTearDown tearDown) {
+			this.dataSet = dataSet;
+			this.setup = setup;
+			this.tearDown = tearDown;
+		}
+	}
+
+	/**
+	 * Loader creating descriptor of given test class.
+	 */
+	private static class TestClassMetadataLoader implements CacheLoader<Class<?>, TestClassMetadata> {
+
+		/**
+		 * Singleton Instance.
+		 */
+		private static final TestClassMetadataLoader INSTANCE = new TestClassMetadataLoader();
+
+		@Override
+		public TestClassMetadata load(Class<?> testClass) {
+			log.debug("Read metadata of test class: {}", testClass);
+			return new TestClassMetadata(testClass);
+		}
+	}
+}
@@ -0,0 +1,167 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.snapshot;
+
+import static com.github.mjeanroy.dbunit.commons.io.Files.copy;
+import static com.github.mjeanroy.dbunit.commons.io.Files.delete;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+
+/**
+ * File copy snapshot strategy, for file-based databases (such as H2 or HSQLDB file databases).
+ *
+ * <br>
+ *
+ * Database is shut down (using {@code SHUTDOWN} statement), so that database files are consistent, then
+ * files are copied to a temporary directory. Restoring the snapshot shuts down the database, then copies
+ * files back: database is opened again with next connection. Copies are deleted when snapshot is released.
+ *
+ * <br>
+ *
+ * <strong>Important:</strong> all connections to the database are closed when the database is shut down, so
+ * this strategy should not be used with a connection pool.
+ */
+final class FileCopySnapshotStrategy implements SnapshotStrategy {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(FileCopySnapshotStrategy.class);
+
+	/**
+	 * Database files (or directories).
+	 */
+	private final File[] files;
+
+	/**
+	 * Create strategy.
+	 *
+	 * @param paths Database files (or directories).
+	 */
+	FileCopySnapshotStrategy(String[] paths) {
+		this.files = new File[paths.length];
+		for (int i = 0; i < paths.length; i++) {
+			this.files[i] = new File(paths[i]);
+		}
+	}
+
+	@Override
+	public Snapshot take(Connection connection) throws SQLException, IOException {
+		shutdown(connection);
+
+		File directory = File.createTempFile("dbunit-snapshot-", "");
+		delete(directory);
+		if (!directory.mkdirs()) {
+			throw new IOException("Cannot create snapshot directory: " + directory);
+		}
+
+		File[] copies = new File[files.length];
+		for (int i = 0; i < files.length; i++) {
+			copies[i] = new File(directory, i + "-" + files[i].getName());
+			log.debug("Copy database file {} to {}", files[i], copies[i]);
+			copy(files[i], copies[i]);
+		}
+
+		return new FileCopySnapshot(files, directory, copies);
+	}
+
+	/**
+	 * Shut down database.
+	 *
+	 * @param connection SQL Connection.
+	 * @throws SQLException If an SQL error occurred.
+	 */
+	private static void shutdown(Connection connection) throws SQLException {
+		Statement statement = connection.createStatement();
+		try {
+			statement.execute("SHUTDOWN");
+		}
+		finally {
+			statement.close();
+		}
+	}
+
+	/**
+	 * Snapshot, stored as a copy of database files.
+	 */
+	private static class FileCopySnapshot implements Snapshot {
+
+		/**
+		 * Database files.
+		 */
+		private final File[] files;
+
+		/**
+		 * Snapshot directory, containing snapshot copies.
+		 */
+		private final File directory;
+
+		/**
+		 * Snapshot copies, the i-th copy being associated to the i-th database file.
+		 */
+		private final File[] copies;
+
+		/**
+		 * Create snapshot.
+		 *
+		 * @param files Database files.
+		 * @param directory Snapshot directory.
+		 * @param copies Snapshot copies.
+		 */
+		private FileCopySnapshot(File[] files, File directory, File[] copies) {
+			this.files = files;
+			this.directory = directory;
+			this.copies = copies;
+		}
+
+		@Override
+		public void restore(Connection connection) throws SQLException, IOException {
+			shutdown(connection);
+
+			for (int i = 0; i < files.length; i++) {
+				log.debug("Restore database file {} from {}", files[i], copies[i]);
+				if (copies[i].exists()) {
+					copy(copies[i], files[i]);
+				}
+				else {
+					delete(files[i]);
+				}
+			}
+		}
+
+		@Override
+		public void release(Connection connection) throws IOException {
+			log.debug("Delete snapshot directory: {}", directory);
+			delete(directory);
+		}
+	}
+}
@@ -0,0 +1,138 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.snapshot;
+
+import static com.github.mjeanroy.dbunit.commons.io.Files.delete;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+
+/**
+ * H2 snapshot strategy: database is exported to a temporary script file using {@code SCRIPT TO}, and
+ * restored using {@code DROP ALL OBJECTS} and {@code RUNSCRIPT FROM}. Script file is deleted when
+ * snapshot is released.
+ */
+final class H2SnapshotStrategy implements SnapshotStrategy {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(H2SnapshotStrategy.class);
+
+	/**
+	 * Singleton Instance.
+	 */
+	private static final H2SnapshotStrategy INSTANCE = new H2SnapshotStrategy();
+
+	/**
+	 * Get singleton instance.
+	 *
+	 * @return Instance.
+	 */
+	static H2SnapshotStrategy getInstance() {
+		return INSTANCE;
+	}
+
+	// Ensure non instantiation.
+	private H2SnapshotStrategy() {
+	}
+
+	@Override
+	public Snapshot take(Connection connection) throws SQLException, IOException {
+		File file = File.createTempFile("dbunit-snapshot-", ".sql");
+		file.deleteOnExit();
+
+		log.debug("Export H2 database to: {}", file);
+		execute(connection, "SCRIPT TO " + quote(file));
+		return new H2Snapshot(file);
+	}
+
+	/**
+	 * Execute given queries.
+	 *
+	 * @param connection SQL Connection.
+	 * @param queries SQL queries.
+	 * @throws SQLException If a query failed.
+	 */
+	private static void execute(Connection connection, String... queries) throws SQLException {
+		Statement statement = connection.createStatement();
+		try {
+			for (String query : queries) {
+				statement.execute(query);
+			}
+		}
+		finally {
+			statement.close();
+		}
+	}
+
+	/**
+	 * Get path of given file as an SQL string literal.
+	 *
+	 * @param file File.
+	 * @return SQL string literal.
+	 */
+	private static String quote(File file) {
+		return "'" + file.getAbsolutePath().replace("'", "''") + "'";
+	}
+
+	/**
+	 * H2 snapshot, stored in a script file.
+	 */
+	private static class H2Snapshot implements Snapshot {
+
+		/**
+		 * Script file.
+		 */
+		private final File file;
+
+		/**
+		 * Create snapshot.
+		 *
+		 * @param file Script file.
+		 */
+		private H2Snapshot(File file) {
+			this.file = file;
+		}
+
+		@Override
+		public void restore(Connection connection) throws SQLException {
+			log.debug("Restore H2 database from: {}", file);
+			execute(connection, "DROP ALL OBJECTS", "RUNSCRIPT FROM " + quote(file));
+		}
+
+		@Override
+		public void release(Connection connection) throws IOException {
+			log.debug("Delete H2 snapshot: {}", file);
+			delete(file);
+		}
+	}
+}
@@ -0,0 +1,267 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.snapshot;
+
+import static java.util.Collections.singletonList;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
+
+/**
+ * HSQLDB snapshot strategy.
+ *
+ * <br>
+ *
+ * Database DDL is read using {@code SCRIPT} statement, to get the list of tables and the current
+ * value of identity columns and sequences. Content of each table is then copied into a dedicated
+ * snapshot schema: copy is made by the database itself, so any data type (including LOB) is supported.
+ *
+ * <br>
+ *
+ * Restoring the snapshot deletes content of each table (with referential integrity disabled), copies
+ * back content from the snapshot schema, then restarts identity columns and sequences. Snapshot schema is
+ * dropped when snapshot is released.
+ */
+final class HsqldbSnapshotStrategy implements SnapshotStrategy {
+
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(HsqldbSnapshotStrategy.class);
+
+	/**
+	 * Prefix of snapshot schemas.
+	 */
+	static final String SCHEMA_PREFIX = "DBUNIT_SNAPSHOT_";
+
+	/**
+	 * Pattern matching table creation in HSQLDB script.
+	 */
+	private static final Pattern CREATE_TABLE = Pattern.compile("^CREATE (?:MEMORY |CACHED |TEXT )?TABLE ([^(]+)\\(.*$");
+
+	/**
+	 * Pattern matching identity column or sequence restart in HSQLDB script.
+	 */
+	private static final Pattern RESTART = Pattern.compile("^ALTER (?:TABLE|SEQUENCE) ([^ ]+) .*RESTART WITH .*$");
+
+	/**
+	 * HSQLDB system schemas, ignored.
+	 */
+	private static final String[] SYSTEM_SCHEMAS = {
+		"SYSTEM_LOBS.",
+		"INFORMATION_SCHEMA."
+	};
+
+	/**
+	 * Singleton Instance.
+	 */
+	private static final HsqldbSnapshotStrategy INSTANCE = new HsqldbSnapshotStrategy();
+
+	/**
+	 * Get singleton instance.
+	 *
+	 * @return Instance.
+	 */
+	static HsqldbSnapshotStrategy getInstance() {
+		return INSTANCE;
+	}
+
+	// Ensure non instantiation.
+	private HsqldbSnapshotStrategy() {
+	}
+
+	@Override
+	public Snapshot take(Connection connection) throws SQLException {
+		List<String> tables = new ArrayList<String>();
+		List<String> restarts = new ArrayList<String>();
+		readScript(connection, tables, restarts);
+
+		String schema = SCHEMA_PREFIX + UUID.randomUUID().toString().replace("-", "").toUpperCase();
+		log.debug("Copy HSQLDB tables {} to schema: {}", tables, schema);
+
+		List<String> queries = new ArrayList<String>(tables.size() + 1);
+		queries.add("CREATE SCHEMA " + schema);
+		for (int i = 0; i < tables.size(); i++) {
+			queries.add("CREATE TABLE " + schema + ".T" + i + " AS (SELECT * FROM " + tables.get(i) + ") WITH DATA");
+		}
+
+		execute(connection, queries);
+		return new HsqldbSnapshot(schema, tables, restarts);
+	}
+
+	/**
+	 * Read HSQLDB DDL script and extract user tables and restart statements.
+	 *
+	 * @param connection SQL Connection.
+	 * @param tables Output list of (qualified) table names.
+	 * @param restarts Output list of restart statements.
+	 * @throws SQLException If an SQL error occurred.
+	 */
+	private static void readScript(Connection connection, List<String> tables, List<String> restarts) throws SQLException {
+		Statement statement = connection.createStatement();
+		try {
+			ResultSet rs = statement.executeQuery("SCRIPT");
+			while (rs.next()) {
+				String line = rs.getString(1);
+
+				Matcher createTable = CREATE_TABLE.matcher(line);
+				if (createTable.matches() && isUserObject(createTable.group(1))) {
+					tables.add(createTable.group(1));
+					continue;
+				}
+
+				Matcher restart = RESTART.matcher(line);
+				if (restart.matches() && isUserObject(restart.group(1))) {
+					restarts.add(line);
+				}
+			}
+		}
+		finally {
+			statement.close();
+		}
+	}
+
+	/**
+	 * Check if given (qualified) object name belongs to a user schema, i.e not a system
+	 * schema and not a snapshot schema.
+	 *
+	 * @param name Object name.
+	 * @return {@code true} if object is a user object, {@code false} otherwise.
+	 */
+	private static boolean isUserObject(String name) {
+		if (name.startsWith(SCHEMA_PREFIX)) {
+			return false;
+		}
+
+		for (String systemSchema : SYSTEM_SCHEMAS) {
+			if (name.startsWith(systemSchema)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Execute given queries.
+	 *
+	 * @param connection SQL Connection.
+	 * @param queries SQL queries.
+	 * @throws SQLException If a query failed.
+	 */
+	private static void execute(Connection connection, List<String> queries) throws SQLException {
+		Statement statement = connection.createStatement();
+		try {
+			for (String query : queries) {
+				statement.execute(query);
+			}
+		}
+		finally {
+			statement.close();
+		}
+	}
+
+	/**
+	 * HSQLDB snapshot, stored in a dedicated schema.
+	 */
+	private static class HsqldbSnapshot implements Snapshot {
+
+		/**
+		 * Snapshot schema.
+		 */
+		private final String schema;
+
+		/**
+		 * Tables, the i-th table being copied to table {@code T<i>} in snapshot schema.
+		 */
+		private final List<String> tables;
+
+		/**
+		 * Restart statements of identity columns and sequences.
+		 */
+		private final List<String> restarts;
+
+		/**
+		 * Create snapshot.
+		 *
+		 * @param schema Snapshot schema.
+		 * @param tables Tables.
+		 * @param restarts Restart statements.
+		 */
+		private HsqldbSnapshot(String schema, List<String> tables, List<String> restarts) {
+			this.schema = schema;
+			this.tables = tables;
+			this.restarts = restarts;
+		}
+
+		@Override
+		public void restore(Connection connection) throws SQLException {
+			log.debug("Restore HSQLDB tables from schema: {}", schema);
+
+			List<String> queries = new ArrayList<String>(tables.size() * 2 + restarts.size());
+			for (String table : tables) {
+				queries.add("DELETE FROM " + table);
+			}
+
+			for (int i = 0; i < tables.size(); i++) {
+				queries.add("INSERT INTO " + tables.get(i) + " SELECT * FROM " + schema + ".T" + i);
+			}
+
+			queries.addAll(restarts);
+
+			Statement statement = connection.createStatement();
+			try {
+				statement.execute("SET DATABASE REFERENTIAL INTEGRITY FALSE");
+				for (String query : queries) {
+					statement.execute(query);
+				}
+			}
+			finally {
+				try {
+					statement.execute("SET DATABASE REFERENTIAL INTEGRITY TRUE");
+				}
+				finally {
+					statement.close();
+				}
+			}
+		}
+
+		@Override
+		public void release(Connection connection) throws SQLException {
+			log.debug("Drop HSQLDB snapshot schema: {}", schema);
+			execute(connection, singletonList("DROP SCHEMA " + schema + " CASCADE"));
+		}
+	}
+}
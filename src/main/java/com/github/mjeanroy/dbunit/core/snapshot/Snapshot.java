@@ -0,0 +1,54 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.snapshot;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Snapshot of a database, created by a {@link SnapshotStrategy}.
+ */
+public interface Snapshot {
+
+	/**
+	 * Restore database to the state it had when snapshot has been taken.
+	 *
+	 * @param connection SQL Connection.
+	 * @throws SQLException If an SQL error occurred.
+	 * @throws IOException If snapshot files cannot be read.
+	 */
+	void restore(Connection connection) throws SQLException, IOException;
+
+	/**
+	 * Release resources (snapshot schema, snapshot files) associated to this snapshot: snapshot
+	 * cannot be restored anymore.
+	 *
+	 * @param connection SQL Connection.
+	 * @throws SQLException If an SQL error occurred.
+	 * @throws IOException If snapshot files cannot be deleted.
+	 */
+	void release(Connection connection) throws SQLException, IOException;
+}
@@ -0,0 +1,80 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.snapshot;
+
+import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
+
+/**
+ * Set of available snapshot strategies.
+ */
+public enum SnapshotMode {
+
+	/**
+	 * H2 snapshot: database is exported with {@code SCRIPT TO} and restored
+	 * with {@code DROP ALL OBJECTS} and {@code RUNSCRIPT FROM}.
+	 */
+	H2 {
+		@Override
+		public SnapshotStrategy getStrategy(String[] files) {
+			return H2SnapshotStrategy.getInstance();
+		}
+	},
+
+	/**
+	 * HSQLDB snapshot: tables are listed with {@code SCRIPT} and copied into a dedicated
+	 * snapshot schema; tables are restored from this schema, and identity columns and
+	 * sequences are reset.
+	 */
+	HSQLDB {
+		@Override
+		public SnapshotStrategy getStrategy(String[] files) {
+			return HsqldbSnapshotStrategy.getInstance();
+		}
+	},
+
+	/**
+	 * File copy snapshot, for file-based databases: database is shut down (using
+	 * {@code SHUTDOWN} statement) and database files are copied.
+	 */
+	FILE_COPY {
+		@Override
+		public SnapshotStrategy getStrategy(String[] files) {
+			notNull(files, "Database files must not be null");
+			if (files.length == 0) {
+				throw new IllegalArgumentException("Database files must be defined with FILE_COPY snapshot mode");
+			}
+
+			return new FileCopySnapshotStrategy(files);
+		}
+	};
+
+	/**
+	 * Get strategy associated to this mode.
+	 *
+	 * @param files Database files (used with {@link #FILE_COPY} mode only).
+	 * @return Snapshot strategy.
+	 */
+	public abstract SnapshotStrategy getStrategy(String[] files);
+}
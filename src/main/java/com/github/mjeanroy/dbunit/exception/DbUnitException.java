@@ -49,6 +49,16 @@ public class DbUnitException extends AbstractDbUnitException {
 		super(message);
 	}
 
+	/**
+	 * Create exception.
+	 *
+	 * @param message Error message.
+	 * @param ex Original Exception.
+	 */
+	public DbUnitException(String message, Exception ex) {
+		super(message, ex);
+	}
+
 	/**
 	 * Wrap {@link DataSetException}.
 	 *
@@ -30,12 +30,20 @@ import static com.github.mjeanroy.dbunit.core.jdbc.JdbcConfiguration.newJdbcConf
 import java.util.List;
 
 import com.github.mjeanroy.dbunit.core.annotations.DbUnitConfiguration;
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitRollback;
+import com.github.mjeanroy.dbunit.core.jdbc.DatabaseConfiguration;
+import com.github.mjeanroy.dbunit.core.jdbc.JdbcConfiguration;
 import com.github.mjeanroy.dbunit.core.jdbc.JdbcConnectionFactory;
 import com.github.mjeanroy.dbunit.core.jdbc.JdbcDefaultConnectionFactory;
+import com.github.mjeanroy.dbunit.core.jdbc.JdbcIsolatedConnectionFactory;
+import com.github.mjeanroy.dbunit.core.jdbc.JdbcPoolRegistry;
+import com.github.mjeanroy.dbunit.core.runner.DbUnitRunnerRegistry;
 import com.github.mjeanroy.dbunit.exception.DbUnitException;
 import org.junit.rules.TestRule;
+import org.junit.runner.notification.RunNotifier;
 import org.junit.runners.BlockJUnit4ClassRunner;
 import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.Statement;
 
 /**
  * Implementation of JUnit {@link org.junit.runner.Runner} to fill and clear
@@ -76,12 +84,24 @@ public class DbUnitJunitRunner extends BlockJUnit4ClassRunner {
 	 *
 	 * @param klass Running class.
 	 * @throws InitializationError If an error occurred while creating Jdbc connection factory.
+	 * @throws DbUnitException If test class is annotated with {@link DbUnitRollback}.
 	 */
 	public DbUnitJunitRunner(Class<?> klass) throws InitializationError {
 		super(klass);
+		checkRollback();
 		this.factory = findConnectionFactory();
 	}
 
+	/**
+	 * Ensure that test class does not use rollback mode: tests cannot get the connection
+	 * of the running transaction, only {@link DbUnitRule} gives it.
+	 */
+	private void checkRollback() {
+		if (findAnnotation(getTestClass().getJavaClass(), null, DbUnitRollback.class) != null) {
+			throw new DbUnitException("@DbUnitRollback is not supported with DbUnitJunitRunner, please use DbUnitRule to get transactional connection");
+		}
+	}
+
 	/**
 	 * Find JDBC configuration and return associate connection factory.
 	 *
@@ -93,13 +113,39 @@ public class DbUnitJunitRunner extends BlockJUnit4ClassRunner {
 			throw new DbUnitException("Cannot find database configuration, please annotate your class with @DbUnitConfiguration");
 		}
 
-		return new JdbcDefaultConnectionFactory(newJdbcConfiguration(annotation.url(), annotation.user(), annotation.password()));
+		JdbcConfiguration configuration = newJdbcConfiguration(annotation.url(), annotation.user(), annotation.password(), annotation.poolSize());
+
+		if (annotation.isolated()) {
+			return new JdbcIsolatedConnectionFactory(configuration);
+		}
+
+		return configuration.isPooled() ?
+			JdbcPoolRegistry.getPool(configuration) :
+			new JdbcDefaultConnectionFactory(configuration);
+	}
+
+	@Override
+	protected Statement classBlock(RunNotifier notifier) {
+		final Statement statement = super.classBlock(notifier);
+		final Class<?> testClass = getTestClass().getJavaClass();
+		return new Statement() {
+			@Override
+			public void evaluate() throws Throwable {
+				try {
+					statement.evaluate();
+				}
+				finally {
+					// All tests have been executed, release SQL connections and evict runner.
+					DbUnitRunnerRegistry.remove(testClass, factory);
+				}
+			}
+		};
 	}
 
 	@Override
 	protected List<TestRule> getTestRules(Object target) {
 		List<TestRule> testRules = super.getTestRules(target);
-		testRules.add(new DbUnitRule(factory));
+		testRules.add(new DbUnitRule(factory, DatabaseConfiguration.defaultConfiguration(), true));
 		return testRules;
 	}
 }
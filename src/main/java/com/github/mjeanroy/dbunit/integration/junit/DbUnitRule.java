@@ -27,16 +27,34 @@ package com.github.mjeanroy.dbunit.integration.junit;
 import java.lang.reflect.Method;
 import java.sql.Connection;
 
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitConfig;
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitIncremental;
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitRollback;
+import com.github.mjeanroy.dbunit.core.jdbc.DatabaseConfiguration;
 import com.github.mjeanroy.dbunit.core.jdbc.JdbcConfiguration;
 import com.github.mjeanroy.dbunit.core.jdbc.JdbcConnectionFactory;
 import com.github.mjeanroy.dbunit.core.jdbc.JdbcDefaultConnectionFactory;
+import com.github.mjeanroy.dbunit.core.jdbc.JdbcPoolRegistry;
 import com.github.mjeanroy.dbunit.core.runner.DbUnitRunner;
+import com.github.mjeanroy.dbunit.core.runner.DbUnitRunnerRegistry;
 import org.junit.rules.TestRule;
 import org.junit.runner.Description;
 import org.junit.runners.model.Statement;
 
 /**
  * JUnit Rule to setup DbUnit database for each tests.
+ *
+ * <br>
+ *
+ * Runners are shared by all test methods of a given test class (see {@link DbUnitRunnerRegistry}), so
+ * initialization (SQL scripts, liquibase change logs and class data set parsing) is executed only
+ * once: use a shared connection factory (or a factory implementing {@code equals}) to benefit from it.
+ *
+ * <br>
+ *
+ * When used as a {@link org.junit.ClassRule}, SQL connections are pinned (see {@link DbUnitRunner#open()}) until
+ * all tests of the test class have been executed. Otherwise, a new SQL connection is used for each setup and
+ * tear down operation, since rule is not notified once all tests of the test class have been executed.
  */
 public class DbUnitRule implements TestRule {
 
@@ -46,12 +64,48 @@ public class DbUnitRule implements TestRule {
 	private final JdbcConnectionFactory connectionFactory;
 
 	/**
-	 * Create rule using {@link JdbcConfiguration} instance.
+	 * DbUnit configuration of SQL connections (unless test class is annotated with {@link DbUnitConfig}).
+	 */
+	private final DatabaseConfiguration configuration;
+
+	/**
+	 * Pinning flag: if enabled, SQL connections are pinned by the runner (see {@link DbUnitRunner#open()}), the
+	 * caller being responsible for closing the runner once all tests of the test class have been executed.
+	 */
+	private final boolean pin;
+
+	/**
+	 * Connection of running test, in rollback mode (see {@link DbUnitRollback}).
+	 */
+	private volatile Connection currentConnection;
+
+	/**
+	 * Runner of running test.
+	 */
+	private volatile DbUnitRunner currentRunner;
+
+	/**
+	 * Create rule using {@link JdbcConfiguration} instance: if configuration defines
+	 * a pool size, SQL connections are pooled, using the pool shared by all users of this
+	 * configuration (see {@link JdbcPoolRegistry}).
 	 *
 	 * @param configuration JDBC Configuration.
 	 */
 	public DbUnitRule(JdbcConfiguration configuration) {
-		this(new JdbcDefaultConnectionFactory(configuration));
+		this(configuration, DatabaseConfiguration.defaultConfiguration());
+	}
+
+	/**
+	 * Create rule using {@link JdbcConfiguration} instance, and given DbUnit configuration
+	 * (see {@link #DbUnitRule(JdbcConnectionFactory, DatabaseConfiguration)}).
+	 *
+	 * @param configuration JDBC Configuration.
+	 * @param dbUnitConfiguration DbUnit configuration.
+	 */
+	public DbUnitRule(JdbcConfiguration configuration, DatabaseConfiguration dbUnitConfiguration) {
+		this(configuration.isPooled() ?
+			JdbcPoolRegistry.getPool(configuration) :
+			new JdbcDefaultConnectionFactory(configuration), dbUnitConfiguration);
 	}
 
 	/**
@@ -60,7 +114,33 @@ public class DbUnitRule implements TestRule {
 	 * @param factory JDBC Configuration.
 	 */
 	public DbUnitRule(JdbcConnectionFactory factory) {
+		this(factory, DatabaseConfiguration.defaultConfiguration());
+	}
+
+	/**
+	 * Create rule using {@link JdbcConnectionFactory} to create SQL Connection, and given DbUnit
+	 * configuration: configuration is applied to connections used to setup and tear down the
+	 * database, unless test class is annotated with {@link DbUnitConfig}.
+	 *
+	 * @param factory JDBC Configuration.
+	 * @param configuration DbUnit configuration.
+	 */
+	public DbUnitRule(JdbcConnectionFactory factory, DatabaseConfiguration configuration) {
+		this(factory, configuration, false);
+	}
+
+	/**
+	 * Create rule using {@link JdbcConnectionFactory} to create SQL Connection, and given DbUnit
+	 * configuration (see {@link #DbUnitRule(JdbcConnectionFactory, DatabaseConfiguration)}).
+	 *
+	 * @param factory JDBC Configuration.
+	 * @param configuration DbUnit configuration.
+	 * @param pin Pinning flag: if enabled, caller must close runner once all tests have been executed.
+	 */
+	DbUnitRule(JdbcConnectionFactory factory, DatabaseConfiguration configuration, boolean pin) {
 		this.connectionFactory = factory;
+		this.configuration = configuration;
+		this.pin = pin;
 	}
 
 	@Override
@@ -71,26 +151,60 @@ public class DbUnitRule implements TestRule {
 				final Class<?> testClass = description.getTestClass();
 				final String methodName = description.getMethodName();
 				final Method method = methodName == null ? null : testClass.getMethod(methodName);
-				final DbUnitRunner runner = new DbUnitRunner(testClass, connectionFactory);
+				final DbUnitRunner runner = DbUnitRunnerRegistry.getRunner(testClass, connectionFactory, configuration);
 
-				runner.beforeTest(method);
+				// Used as a class rule: connections can be pinned, and released once all tests have been executed.
+				final boolean classRule = method == null;
+				if (pin || classRule) {
+					runner.open();
+				}
 
 				try {
-					statement.evaluate();
+					runner.beforeTest(method);
+					currentConnection = runner.getCurrentConnection();
+					currentRunner = runner;
+
+					try {
+						statement.evaluate();
+					}
+					finally {
+						currentConnection = null;
+						currentRunner = null;
+						runner.afterTest(method);
+					}
 				}
 				finally {
-					runner.afterTest(method);
+					if (classRule) {
+						// All tests have been executed: remove runner from registry and close it (runner may not be
+						// registered, see @DbUnitReInit).
+						DbUnitRunnerRegistry.remove(testClass, connectionFactory, configuration);
+						runner.close();
+					}
 				}
 			}
 		};
 	}
 
 	/**
-	 * Get new SQL connection.
+	 * Get SQL connection.
+	 *
+	 * <br>
+	 *
+	 * If test class is annotated with {@link DbUnitRollback}, the connection of the running test is
+	 * returned: it is rolled back (and closed) after test execution. Otherwise, a new connection is
+	 * returned: if test class is annotated with {@link DbUnitIncremental}, tables modified with this
+	 * connection are tracked.
 	 *
 	 * @return SQL Connection.
 	 */
 	public Connection getConnection() {
-		return connectionFactory.getConnection();
+		Connection connection = currentConnection;
+		if (connection != null) {
+			return connection;
+		}
+
+		DbUnitRunner runner = currentRunner;
+		connection = connectionFactory.getConnection();
+		return runner == null ? connection : runner.track(connection);
 	}
 }
@@ -31,7 +31,9 @@ import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
 
 import java.io.File;
 import java.sql.Connection;
+import java.sql.SQLException;
 
+import com.github.mjeanroy.dbunit.core.jdbc.DatabaseMetaDataCache;
 import com.github.mjeanroy.dbunit.core.jdbc.JdbcConnectionFactory;
 import com.github.mjeanroy.dbunit.core.resources.Resource;
 import com.github.mjeanroy.dbunit.core.resources.ResourceLoader;
@@ -88,7 +90,8 @@ public class LiquibaseUpdater {
 	}
 
 	/**
-	 * Run liquibase update with {@code dbunit} and {@code test} contexts.
+	 * Run liquibase update with {@code dbunit} and {@code test} contexts, then invalidate metadata cache
+	 * of the database (see {@link DatabaseMetaDataCache}).
 	 * If an error occurred, an instance of {@link DbUnitException} will be thrown.
 	 *
 	 * @throws DbUnitException If an error occurred while running update.
@@ -106,11 +109,18 @@ public class LiquibaseUpdater {
 			Liquibase liquibase = new Liquibase(changeLogFullPath, resourceAccessor, db);
 			liquibase.setIgnoreClasspathPrefix(true);
 			liquibase.update(new Contexts("dbunit", "test"));
+
+			// Change sets may have modified database schema.
+			DatabaseMetaDataCache.invalidate(connection);
 		}
 		catch (LiquibaseException ex) {
 			log.error(ex.getMessage(), ex);
 			throw new DbUnitException(ex);
 		}
+		catch (SQLException ex) {
+			log.error(ex.getMessage(), ex);
+			throw new DbUnitException(ex);
+		}
 		finally {
 			log.trace("Close SQL connection");
 			closeQuietly(connection);
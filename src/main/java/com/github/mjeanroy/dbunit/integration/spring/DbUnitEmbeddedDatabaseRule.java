@@ -24,7 +24,9 @@
 
 package com.github.mjeanroy.dbunit.integration.spring;
 
+import com.github.mjeanroy.dbunit.core.jdbc.JdbcConnectionFactory;
 import com.github.mjeanroy.dbunit.core.jdbc.JdbcDataSourceConnectionFactory;
+import com.github.mjeanroy.dbunit.core.runner.DbUnitRunnerRegistry;
 import com.github.mjeanroy.dbunit.integration.junit.DbUnitRule;
 import org.junit.rules.TestRule;
 import org.junit.runner.Description;
@@ -52,6 +54,11 @@ public class DbUnitEmbeddedDatabaseRule implements TestRule {
 	 */
 	private final DbUnitRule dbUnitRule;
 
+	/**
+	 * Factory used by {@link #dbUnitRule}.
+	 */
+	private final JdbcConnectionFactory factory;
+
 	/**
 	 * Create rule with default database.
 	 */
@@ -66,7 +73,8 @@ public class DbUnitEmbeddedDatabaseRule implements TestRule {
 	 */
 	public DbUnitEmbeddedDatabaseRule(EmbeddedDatabase db) {
 		dbRule = new EmbeddedDatabaseRule(db);
-		dbUnitRule = new DbUnitRule(new JdbcDataSourceConnectionFactory(db));
+		factory = new JdbcDataSourceConnectionFactory(db);
+		dbUnitRule = new DbUnitRule(factory);
 	}
 
 	@Override
@@ -80,6 +88,9 @@ public class DbUnitEmbeddedDatabaseRule implements TestRule {
 				}
 				finally {
 					dbRule.after();
+
+					// Database has been shutdown, runner cannot be re-used.
+					DbUnitRunnerRegistry.remove(description.getTestClass(), factory);
 				}
 			}
 		};
@@ -24,9 +24,14 @@
 
 package com.github.mjeanroy.dbunit.integration.spring;
 
+import static com.github.mjeanroy.dbunit.commons.reflection.Annotations.findAnnotation;
+
 import javax.sql.DataSource;
 
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitRollback;
 import com.github.mjeanroy.dbunit.core.runner.DbUnitRunner;
+import com.github.mjeanroy.dbunit.core.runner.DbUnitRunnerRegistry;
+import com.github.mjeanroy.dbunit.exception.DbUnitException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.test.context.TestContext;
 import org.springframework.test.context.support.AbstractTestExecutionListener;
@@ -39,20 +44,32 @@ import org.springframework.test.context.support.AbstractTestExecutionListener;
  *   <li>Run setup operation before test method execution.</li>
  *   <li>Run tear down operation after test method method execution..</li>
  * </ol>
+ *
+ * Rollback mode (see {@link DbUnitRollback}) is not supported: tests cannot get the connection of the running transaction.
  */
 public class DbUnitTestExecutionListener extends AbstractTestExecutionListener {
 
 	private static final String DBUNIT_RUNNER = "DBUNIT_RUNNER";
 
+	private static final String DBUNIT_DATASOURCE = "DBUNIT_DATASOURCE";
+
 	@Override
 	public void prepareTestInstance(TestContext ctx) throws Exception {
 		super.prepareTestInstance(ctx);
 
+		if (findAnnotation(ctx.getTestClass(), null, DbUnitRollback.class) != null) {
+			throw new DbUnitException("@DbUnitRollback is not supported with DbUnitTestExecutionListener, please use DbUnitRule to get transactional connection");
+		}
+
 		// Initialize runner
 		ApplicationContext appContext = ctx.getApplicationContext();
 		DataSource dataSource = appContext.getBean(DataSource.class);
-		DbUnitRunner runner = new DbUnitRunner(ctx.getTestClass(), dataSource);
+		DbUnitRunner runner = DbUnitRunnerRegistry.getRunner(ctx.getTestClass(), dataSource);
 		ctx.setAttribute(DBUNIT_RUNNER, runner);
+		ctx.setAttribute(DBUNIT_DATASOURCE, dataSource);
+
+		// SQL connections are released once all tests have been executed (see afterTestClass).
+		runner.open();
 	}
 
 	@Override
@@ -68,4 +85,21 @@ public class DbUnitTestExecutionListener extends AbstractTestExecutionListener {
 		DbUnitRunner runner = (DbUnitRunner) ctx.getAttribute(DBUNIT_RUNNER);
 		runner.afterTest(ctx.getTestMethod());
 	}
+
+	@Override
+	public void afterTestClass(TestContext ctx) throws Exception {
+		super.afterTestClass(ctx);
+
+		// All tests have been executed, remove runner and release SQL connections.
+		DbUnitRunner runner = (DbUnitRunner) ctx.getAttribute(DBUNIT_RUNNER);
+		DataSource dataSource = (DataSource) ctx.getAttribute(DBUNIT_DATASOURCE);
+		if (dataSource != null) {
+			DbUnitRunnerRegistry.remove(ctx.getTestClass(), dataSource);
+		}
+
+		// Runner may not be registered (see @DbUnitReInit).
+		if (runner != null) {
+			runner.close();
+		}
+	}
 }
@@ -24,17 +24,34 @@
 
 package com.github.mjeanroy.dbunit.integration.spring;
 
+import static com.github.mjeanroy.dbunit.commons.io.Io.closeQuietly;
 import static com.github.mjeanroy.dbunit.commons.lang.PreConditions.notNull;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import com.github.mjeanroy.dbunit.core.jdbc.DatabaseMetaDataCache;
+import com.github.mjeanroy.dbunit.loggers.Logger;
+import com.github.mjeanroy.dbunit.loggers.Loggers;
 import org.junit.rules.ExternalResource;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
 
 /**
  * Rule used to start/stop embedded database.
+ *
+ * <br>
+ *
+ * When database is shut down, its JVM-wide metadata cache (see {@link DatabaseMetaDataCache}) is invalidated: a
+ * database re-created with the same name must not use metadata of the previous one.
  */
 public class EmbeddedDatabaseRule extends ExternalResource {
 
+	/**
+	 * Class Logger.
+	 */
+	private static final Logger log = Loggers.getLogger(EmbeddedDatabaseRule.class);
+
 	/**
 	 * Instance of {@link EmbeddedDatabase}.
 	 */
@@ -64,9 +81,31 @@ public class EmbeddedDatabaseRule extends ExternalResource {
 	@Override
 	protected void after() {
 		super.after();
+		invalidateMetaData();
 		this.db.shutdown();
 	}
 
+	/**
+	 * Invalidate JVM-wide metadata cache of the database, errors are logged.
+	 */
+	private void invalidateMetaData() {
+		Connection connection = null;
+		try {
+			connection = db.getConnection();
+			if (connection != null) {
+				DatabaseMetaDataCache.invalidate(connection);
+			}
+		}
+		catch (SQLException ex) {
+			log.warn("Cannot invalidate database metadata cache: {}", ex.getMessage());
+		}
+		finally {
+			if (connection != null) {
+				closeQuietly(connection);
+			}
+		}
+	}
+
 	/**
 	 * Gets currently created database instance.
 	 *
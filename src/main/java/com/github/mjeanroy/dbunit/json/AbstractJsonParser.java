@@ -27,6 +27,7 @@ package com.github.mjeanroy.dbunit.json;
 import static com.github.mjeanroy.dbunit.commons.io.Io.closeSafely;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
@@ -40,12 +41,12 @@ import com.github.mjeanroy.dbunit.loggers.Loggers;
 
 /**
  * Abstract implementation of {@link JsonParser} that create {@link Reader} from
- * given {@link Resource} and execute {@link #doParse(Reader)}.
+ * given {@link Resource} and execute {@link #doParse(Reader)} (or {@link #doStream(Reader, JsonStreamHandler)}).
  *
- * Note that exceptions thrown from {@link #doParse(Reader)} method will automatically
- * be wrapped into {@link JsonException}.
+ * Note that exceptions thrown from {@link #doParse(Reader)} and {@link #doStream(Reader, JsonStreamHandler)} methods
+ * will automatically be wrapped into {@link JsonException}.
  */
-public abstract class AbstractJsonParser implements JsonParser {
+public abstract class AbstractJsonParser implements JsonParser, JsonStreamParser {
 
 	/**
 	 * Class logger.
@@ -73,6 +74,59 @@ public abstract class AbstractJsonParser implements JsonParser {
 		}
 	}
 
+	@Override
+	public void stream(Resource resource, JsonStreamHandler handler) {
+		InputStream stream = null;
+		InputStreamReader reader = null;
+		BufferedReader buf = null;
+
+		try {
+			stream = resource.openStream();
+			reader = new InputStreamReader(stream);
+			buf = new BufferedReader(reader);
+			doStream(buf, handler);
+		} catch (Exception ex) {
+			log.error(ex.getMessage(), ex);
+			throw new JsonException(ex);
+		} finally {
+			closeSafely(stream);
+			closeSafely(reader);
+			closeSafely(buf);
+		}
+	}
+
+	/**
+	 * Parse given {@link Reader}, and notify handler for each table and each row.
+	 *
+	 * Default implementation parses the whole document (see {@link #doParse(Reader)}): implementations
+	 * should override this method to read the document using a streaming API.
+	 *
+	 * @param reader The reader.
+	 * @param handler The handler.
+	 * @throws Exception If an error occurred during JSON parsing, or if handler failed.
+	 */
+	protected void doStream(Reader reader, JsonStreamHandler handler) throws Exception {
+		Map<String, List<Map<String, Object>>> tables = doParse(reader);
+		for (Map.Entry<String, List<Map<String, Object>>> table : tables.entrySet()) {
+			handler.startTable(table.getKey());
+			for (Map<String, Object> row : table.getValue()) {
+				handler.row(row);
+			}
+
+			handler.endTable();
+		}
+	}
+
+	/**
+	 * Create exception thrown when JSON document is not a valid data set.
+	 *
+	 * @param message Error message.
+	 * @return The exception.
+	 */
+	protected static IOException invalidDataSet(String message) {
+		return new IOException("Invalid JSON data set: " + message);
+	}
+
 	/**
 	 * Parse given {@link Reader}:
 	 * <ul>
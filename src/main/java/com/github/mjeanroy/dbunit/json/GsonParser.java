@@ -31,11 +31,14 @@ import java.util.List;
 import java.util.Map;
 
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 /**
  * Json Parser using Google {@link Gson} as internal implementation.
+ * Streaming uses Gson {@link JsonReader}: rows are read one by one.
  */
-public class GsonParser extends AbstractJsonParser implements JsonParser {
+public class GsonParser extends AbstractJsonParser implements JsonParser, JsonStreamParser {
 
 	/**
 	 * Internal parser.
@@ -64,4 +67,37 @@ public class GsonParser extends AbstractJsonParser implements JsonParser {
 	protected Map<String, List<Map<String, Object>>> doParse(Reader reader) throws Exception {
 		return (Map<String, List<Map<String, Object>>>) gson.fromJson(reader, Map.class);
 	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	protected void doStream(Reader reader, JsonStreamHandler handler) throws Exception {
+		JsonReader json = new JsonReader(reader);
+		try {
+			if (json.peek() != JsonToken.BEGIN_OBJECT) {
+				throw invalidDataSet("root element must be an object");
+			}
+
+			json.beginObject();
+			while (json.hasNext()) {
+				String tableName = json.nextName();
+				if (json.peek() != JsonToken.BEGIN_ARRAY) {
+					throw invalidDataSet("table '" + tableName + "' must be an array");
+				}
+
+				json.beginArray();
+				handler.startTable(tableName);
+				while (json.hasNext()) {
+					handler.row((Map<String, Object>) gson.fromJson(json, Map.class));
+				}
+
+				handler.endTable();
+				json.endArray();
+			}
+
+			json.endObject();
+		}
+		finally {
+			json.close();
+		}
+	}
 }
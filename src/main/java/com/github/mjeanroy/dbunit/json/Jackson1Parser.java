@@ -30,12 +30,14 @@ import java.io.Reader;
 import java.util.List;
 import java.util.Map;
 
+import org.codehaus.jackson.JsonToken;
 import org.codehaus.jackson.map.ObjectMapper;
 
 /**
  * Json Parser using Jackson (V2) {@link com.fasterxml.jackson.databind.ObjectMapper} as internal implementation.
+ * Streaming uses Jackson (V1) token API: rows are read one by one.
  */
-public class Jackson1Parser extends AbstractJsonParser implements JsonParser {
+public class Jackson1Parser extends AbstractJsonParser implements JsonParser, JsonStreamParser {
 
 	/**
 	 * Internal Jackson 1 Mapper.
@@ -64,4 +66,32 @@ public class Jackson1Parser extends AbstractJsonParser implements JsonParser {
 	protected Map<String, List<Map<String, Object>>> doParse(Reader reader) throws Exception {
 		return (Map<String, List<Map<String, Object>>>) mapper.readValue(reader, Map.class);
 	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	protected void doStream(Reader reader, JsonStreamHandler handler) throws Exception {
+		org.codehaus.jackson.JsonParser parser = mapper.getJsonFactory().createJsonParser(reader);
+		try {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw invalidDataSet("root element must be an object");
+			}
+
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String tableName = parser.getCurrentName();
+				if (parser.nextToken() != JsonToken.START_ARRAY) {
+					throw invalidDataSet("table '" + tableName + "' must be an array");
+				}
+
+				handler.startTable(tableName);
+				while (parser.nextToken() == JsonToken.START_OBJECT) {
+					handler.row((Map<String, Object>) mapper.readValue(parser, Map.class));
+				}
+
+				handler.endTable();
+			}
+		}
+		finally {
+			parser.close();
+		}
+	}
 }
@@ -63,6 +63,25 @@ public final class JsonParserFactory {
 	 * @return The created parser.
 	 */
 	public static JsonParser createDefault() {
+		return create();
+	}
+
+	/**
+	 * Create default streaming parser.
+	 * Implementation will be selected using classpath detection (see {@link #createDefault()}).
+	 *
+	 * @return The created parser.
+	 */
+	public static JsonStreamParser createDefaultStreamParser() {
+		return create();
+	}
+
+	/**
+	 * Create parser using classpath detection.
+	 *
+	 * @return The created parser.
+	 */
+	private static AbstractJsonParser create() {
 		if (JACKSON2_AVAILABLE) {
 			return new Jackson2Parser();
 		}
@@ -0,0 +1,56 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.json;
+
+import java.util.Map;
+
+/**
+ * Handler notified by {@link JsonStreamParser} while JSON file is read.
+ */
+public interface JsonStreamHandler {
+
+	/**
+	 * Start new table.
+	 *
+	 * @param tableName Table name.
+	 * @throws Exception If an error occurred.
+	 */
+	void startTable(String tableName) throws Exception;
+
+	/**
+	 * Read row of current table.
+	 *
+	 * @param row Row, column names associated to their values.
+	 * @throws Exception If an error occurred.
+	 */
+	void row(Map<String, Object> row) throws Exception;
+
+	/**
+	 * End current table.
+	 *
+	 * @throws Exception If an error occurred.
+	 */
+	void endTable() throws Exception;
+}
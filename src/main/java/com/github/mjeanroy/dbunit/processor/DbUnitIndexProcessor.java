@@ -0,0 +1,351 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.processor;
+
+import static com.github.mjeanroy.dbunit.commons.io.Files.sha1;
+import static com.github.mjeanroy.dbunit.commons.io.Io.closeQuietly;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitDataSet;
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitInit;
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitLiquibase;
+import com.github.mjeanroy.dbunit.core.dataset.DataSetFactory;
+import com.github.mjeanroy.dbunit.core.resources.ResourceIndex;
+import com.github.mjeanroy.dbunit.core.resources.ResourceLoader;
+import org.dbunit.dataset.DataSetException;
+
+/**
+ * Annotation processor generating the classpath index of data sets and scripts (see {@link ResourceIndex}).
+ *
+ * <br>
+ *
+ * Values of {@link DbUnitDataSet}, {@link DbUnitInit} and {@link DbUnitLiquibase} are resolved when tests
+ * are compiled: each file is indexed with its type, its size, its content hash and (for data set files)
+ * its table names; directories are indexed recursively. Only classpath resources are indexed (i.e paths starting
+ * with {@code /} or {@code classpath:/}).
+ *
+ * <br>
+ *
+ * Resources are looked up in the class output directory (i.e resources must be copied before classes are compiled,
+ * which is the default with maven), and in the directories given with the {@link #OPTION_RESOURCES} option.
+ *
+ * <br>
+ *
+ * This processor is not registered automatically, it must be enabled explicitly, for example with maven:
+ *
+ * <pre><code>
+ *   &lt;annotationProcessors&gt;
+ *     &lt;annotationProcessor&gt;com.github.mjeanroy.dbunit.processor.DbUnitIndexProcessor&lt;/annotationProcessor&gt;
+ *   &lt;/annotationProcessors&gt;
+ * </code></pre>
+ */
+public class DbUnitIndexProcessor extends AbstractProcessor {
+
+	/**
+	 * Option defining additional resource directories (separated by {@link File#pathSeparator}).
+	 */
+	public static final String OPTION_RESOURCES = "dbunit.resources";
+
+	/**
+	 * Prefix of classpath resources.
+	 */
+	private static final String CLASSPATH_PREFIX = "classpath:";
+
+	/**
+	 * Indexed files, identified by their path.
+	 */
+	private final Map<String, ResourceIndex.Entry> entries;
+
+	/**
+	 * Create processor.
+	 */
+	public DbUnitIndexProcessor() {
+		this.entries = new TreeMap<String, ResourceIndex.Entry>();
+	}
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return new HashSet<String>(Arrays.asList(
+			DbUnitDataSet.class.getName(),
+			DbUnitInit.class.getName(),
+			DbUnitLiquibase.class.getName()
+		));
+	}
+
+	@Override
+	public Set<String> getSupportedOptions() {
+		return Collections.singleton(OPTION_RESOURCES);
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (TypeElement annotation : annotations) {
+			String name = annotation.getQualifiedName().toString();
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (DbUnitDataSet.class.getName().equals(name)) {
+					index(element, name, "value", ResourceIndex.Entry.DATASET);
+				}
+				else if (DbUnitInit.class.getName().equals(name)) {
+					index(element, name, "sql", ResourceIndex.Entry.SQL);
+				}
+				else if (DbUnitLiquibase.class.getName().equals(name)) {
+					index(element, name, "value", ResourceIndex.Entry.LIQUIBASE);
+				}
+			}
+		}
+
+		if (roundEnv.processingOver() && !entries.isEmpty()) {
+			write();
+		}
+
+		return false;
+	}
+
+	/**
+	 * Index paths defined on given element.
+	 *
+	 * @param element Annotated element.
+	 * @param annotationName Annotation name.
+	 * @param member Annotation member defining paths.
+	 * @param type Type of indexed files.
+	 */
+	private void index(Element element, String annotationName, String member, String type) {
+		for (String value : readValues(element, annotationName, member)) {
+			String path = toClasspathPath(value);
+			if (path == null) {
+				note("Skip non classpath resource: " + value);
+				continue;
+			}
+
+			File file = lookup(path);
+			if (file == null) {
+				note("Cannot find resource: " + value);
+				continue;
+			}
+
+			index(file, path, type);
+		}
+	}
+
+	/**
+	 * Index file, and (recursively) directory content.
+	 *
+	 * @param file File.
+	 * @param path Classpath path.
+	 * @param type Type of file.
+	 */
+	private void index(File file, String path, String type) {
+		if (entries.containsKey(path)) {
+			return;
+		}
+
+		if (file.isDirectory()) {
+			entries.put(path, new ResourceIndex.Entry(ResourceIndex.Entry.DIRECTORY, -1, null, path, null));
+
+			File[] children = file.listFiles();
+			if (children != null) {
+				for (File child : children) {
+					index(child, path + "/" + child.getName(), type);
+				}
+			}
+
+			return;
+		}
+
+		try {
+			String[] tableNames = ResourceIndex.Entry.DATASET.equals(type) ? scanTableNames(file) : null;
+			entries.put(path, new ResourceIndex.Entry(type, file.length(), sha1(file), path, tableNames));
+		}
+		catch (IOException ex) {
+			note("Cannot index resource " + path + ": " + ex.getMessage());
+		}
+	}
+
+	/**
+	 * Write index file.
+	 */
+	private void write() {
+		Writer writer = null;
+		try {
+			FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ResourceIndex.LOCATION);
+			writer = new OutputStreamWriter(index.openOutputStream(), "UTF-8");
+			for (ResourceIndex.Entry entry : entries.values()) {
+				writer.write(entry.toLine());
+				writer.write('\n');
+			}
+		}
+		catch (IOException ex) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Cannot write DbUnit index: " + ex.getMessage());
+		}
+		finally {
+			closeQuietly(writer);
+		}
+	}
+
+	/**
+	 * Read values of annotation member.
+	 *
+	 * @param element Annotated element.
+	 * @param annotationName Annotation name.
+	 * @param member Annotation member.
+	 * @return Values.
+	 */
+	private static List<String> readValues(Element element, String annotationName, String member) {
+		List<String> values = new ArrayList<String>();
+		for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+			TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+			if (!annotationType.getQualifiedName().contentEquals(annotationName)) {
+				continue;
+			}
+
+			for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+				if (entry.getKey().getSimpleName().contentEquals(member)) {
+					Object value = entry.getValue().getValue();
+					if (value instanceof List) {
+						for (Object item : (List<?>) value) {
+							values.add(String.valueOf(((AnnotationValue) item).getValue()));
+						}
+					}
+					else {
+						values.add(String.valueOf(value));
+					}
+				}
+			}
+		}
+
+		return values;
+	}
+
+	/**
+	 * Get classpath path of given annotation value.
+	 *
+	 * @param value Annotation value.
+	 * @return Classpath path (without trailing separator), {@code null} if value is not an absolute classpath path.
+	 */
+	private static String toClasspathPath(String value) {
+		String path = value.startsWith(CLASSPATH_PREFIX) ? value.substring(CLASSPATH_PREFIX.length()) : value;
+		if (!path.startsWith("/") || path.contains(":")) {
+			return null;
+		}
+
+		while (path.length() > 1 && path.endsWith("/")) {
+			path = path.substring(0, path.length() - 1);
+		}
+
+		return path;
+	}
+
+	/**
+	 * Find file of given classpath path.
+	 *
+	 * @param path Classpath path.
+	 * @return File, {@code null} if file cannot be found.
+	 */
+	private File lookup(String path) {
+		String relativePath = path.substring(1);
+
+		try {
+			FileObject resource = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", relativePath);
+			URI uri = resource.toUri();
+			if ("file".equals(uri.getScheme())) {
+				File file = new File(uri);
+				if (file.exists()) {
+					return file;
+				}
+			}
+		}
+		catch (IOException ex) {
+			// Not found in class output, try other directories.
+		}
+		catch (IllegalArgumentException ex) {
+			// Not found in class output, try other directories.
+		}
+
+		String directories = processingEnv.getOptions().get(OPTION_RESOURCES);
+		if (directories != null) {
+			for (String directory : directories.split(File.pathSeparator)) {
+				File file = new File(directory.trim(), relativePath);
+				if (!directory.trim().isEmpty() && file.exists()) {
+					return file;
+				}
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Get table names of data set file.
+	 *
+	 * @param file Data set file.
+	 * @return Table names, {@code null} if they cannot be extracted.
+	 */
+	private static String[] scanTableNames(File file) {
+		try {
+			return DataSetFactory.scanTableNames(ResourceLoader.FILE_SYSTEM.load("file:" + file.getAbsolutePath()));
+		}
+		catch (DataSetException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Print note.
+	 *
+	 * @param message Message.
+	 */
+	private void note(String message) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, message);
+	}
+}
@@ -25,6 +25,7 @@
 package com.github.mjeanroy.dbunit.cache;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -75,5 +76,92 @@ public abstract class AbstractCacheTest {
 		assertThat(cache.size()).isZero();
 	}
 
+	@Test
+	public void it_should_remove_entry_from_cache() throws Exception {
+		String key = "foo";
+		String value = "bar";
+
+		CacheLoader<String, String> loader = new CacheLoaderMockBuilder<String, String>()
+				.add(key, value)
+				.build();
+
+		Cache<String, String> cache = createCache(loader);
+		cache.load(key);
+		assertThat(cache.size()).isEqualTo(1);
+
+		cache.remove(key);
+		assertThat(cache.size()).isZero();
+
+		cache.load(key);
+		assertThat(cache.size()).isEqualTo(1);
+		verify(loader, times(2)).load(key);
+	}
+
+	@Test
+	public void it_should_get_entry_without_loading_it() throws Exception {
+		String key = "foo";
+		String value = "bar";
+
+		CacheLoader<String, String> loader = new CacheLoaderMockBuilder<String, String>()
+				.add(key, value)
+				.build();
+
+		Cache<String, String> cache = createCache(loader);
+		assertThat(cache.get(key)).isNull();
+		assertThat(cache.size()).isZero();
+
+		cache.load(key);
+		assertThat(cache.get(key)).isEqualTo(value);
+		verify(loader, times(1)).load(key);
+	}
+
+	@Test
+	public void it_should_remove_entry_and_get_removed_value() throws Exception {
+		String key = "foo";
+		String value = "bar";
+
+		CacheLoader<String, String> loader = new CacheLoaderMockBuilder<String, String>()
+				.add(key, value)
+				.build();
+
+		Cache<String, String> cache = createCache(loader);
+		assertThat(cache.remove(key)).isNull();
+
+		cache.load(key);
+		assertThat(cache.remove(key)).isEqualTo(value);
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	public void it_should_not_keep_failures_in_cache() throws Exception {
+		FailingLoader loader = new FailingLoader();
+		Cache<String, String> cache = createCache(loader);
+
+		for (int i = 0; i < 2; i++) {
+			try {
+				cache.load("foo");
+				fail("Loader failure should have been thrown");
+			}
+			catch (IllegalStateException ex) {
+				// Expected.
+			}
+		}
+
+		assertThat(loader.calls).isEqualTo(2);
+		assertThat(cache.get("foo")).isNull();
+		assertThat(cache.remove("foo")).isNull();
+		assertThat(cache.size()).isZero();
+	}
+
 	abstract Cache<String, String> createCache(CacheLoader<String, String> loader);
+
+	private static class FailingLoader implements CacheLoader<String, String> {
+		private int calls;
+
+		@Override
+		public String load(String key) {
+			calls++;
+			throw new IllegalStateException("Cannot load " + key);
+		}
+	}
 }
@@ -30,10 +30,20 @@ import static com.github.mjeanroy.dbunit.commons.io.Files.extractPaths;
 import static com.github.mjeanroy.dbunit.commons.io.Files.isRootPath;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Scanner;
+
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class FilesTest {
 
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
 	@Test
 	public void it_should_extract_filename_from_path() {
 		String path = "/dataset/foo.json";
@@ -112,4 +122,72 @@ public class FilesTest {
 		assertThat(extractPaths("")).isEmpty();
 		assertThat(extractPaths(null)).isEmpty();
 	}
+
+	@Test
+	public void it_should_copy_file() throws Exception {
+		File source = write(tmp.newFile("source.txt"), "foo");
+		File target = write(tmp.newFile("target.txt"), "bar");
+
+		Files.copy(source, target);
+
+		assertThat(read(target)).isEqualTo("foo");
+		assertThat(read(source)).isEqualTo("foo");
+	}
+
+	@Test
+	public void it_should_copy_directory() throws Exception {
+		File source = tmp.newFolder("source");
+		write(new File(source, "foo.txt"), "foo");
+		File subDirectory = new File(source, "sub");
+		assertThat(subDirectory.mkdir()).isTrue();
+		write(new File(subDirectory, "bar.txt"), "bar");
+
+		File target = tmp.newFolder("target");
+		write(new File(target, "old.txt"), "old");
+
+		Files.copy(source, target);
+
+		assertThat(new File(target, "old.txt")).doesNotExist();
+		assertThat(read(new File(target, "foo.txt"))).isEqualTo("foo");
+		assertThat(read(new File(new File(target, "sub"), "bar.txt"))).isEqualTo("bar");
+	}
+
+	@Test
+	public void it_should_delete_directory() throws Exception {
+		File directory = tmp.newFolder("directory");
+		write(new File(directory, "foo.txt"), "foo");
+
+		Files.delete(directory);
+
+		assertThat(directory).doesNotExist();
+	}
+
+	@Test
+	public void it_should_not_fail_to_delete_missing_file() throws Exception {
+		File file = new File(tmp.getRoot(), "missing.txt");
+		Files.delete(file);
+		assertThat(file).doesNotExist();
+	}
+
+	private static File write(File file, String content) throws IOException {
+		FileWriter writer = new FileWriter(file);
+		try {
+			writer.write(content);
+		}
+		finally {
+			writer.close();
+		}
+
+		return file;
+	}
+
+	private static String read(File file) throws IOException {
+		Scanner scanner = new Scanner(file);
+		try {
+			return scanner.useDelimiter("\\A").next();
+		}
+		finally {
+			scanner.close();
+		}
+	}
 }
@@ -0,0 +1,123 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.dataset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+import com.github.mjeanroy.dbunit.core.resources.Resource;
+import com.github.mjeanroy.dbunit.core.resources.ResourceLoader;
+import com.github.mjeanroy.dbunit.tests.builders.ResourceMockBuilder;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.DefaultDataSet;
+import org.dbunit.dataset.DefaultTable;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.datatype.DataType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BinaryDataSetTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void it_should_convert_data_set() throws Exception {
+		File file = tmp.newFile("foo.dbub");
+		BinaryDataSetWriter.convert("/dataset/json/foo.json", file);
+
+		Resource resource = ResourceLoader.FILE_SYSTEM.load("file:" + file.getAbsolutePath());
+		IDataSet dataSet = DataSetFactory.createDataSet(resource);
+
+		assertThat(dataSet).isExactlyInstanceOf(BinaryDataSet.class);
+		assertThat(dataSet.getTableNames()).containsExactly("foo");
+
+		ITable table = dataSet.getTable("foo");
+		assertThat(table.getRowCount()).isEqualTo(2);
+		assertThat(table.getValue(0, "id")).isEqualTo(1);
+		assertThat(table.getValue(0, "name")).isEqualTo("John Doe");
+		assertThat(table.getValue(1, "id")).isEqualTo(2);
+		assertThat(table.getValue(1, "name")).isEqualTo("Jane Doe");
+
+		assertThat(BinaryDataSet.readTableNames(resource)).containsExactly("foo");
+	}
+
+	@Test
+	public void it_should_write_and_read_all_value_types() throws Exception {
+		Timestamp timestamp = new Timestamp(1000L);
+		timestamp.setNanos(123456789);
+
+		DefaultTable table = new DefaultTable("bar", new Column[]{
+			new Column("id", DataType.INTEGER),
+			new Column("value", DataType.UNKNOWN)
+		});
+
+		Object[] values = new Object[]{
+			null, ITable.NO_VALUE, "test", 1, 2L, 3.5D, true, false, new BigDecimal("1.25"),
+			1.5F, (short) 2, (byte) 3, new java.sql.Date(1000L), new java.util.Date(2000L), timestamp
+		};
+
+		for (int i = 0; i < values.length; i++) {
+			table.addRow(new Object[]{i, values[i]});
+		}
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		BinaryDataSetWriter.write(new DefaultDataSet(table), output);
+
+		Resource resource = new ResourceMockBuilder()
+			.withReader(new ByteArrayInputStream(output.toByteArray()))
+			.setFilename("bar.dbub")
+			.build();
+
+		BinaryDataSet dataSet = new BinaryDataSet(resource, false);
+		ITable result = dataSet.getTable("BAR");
+
+		assertThat(result.getRowCount()).isEqualTo(values.length);
+		assertThat(result.getTableMetaData().getColumns()[0].getDataType()).isEqualTo(DataType.INTEGER);
+		assertThat(result.getTableMetaData().getColumns()[1].getDataType()).isEqualTo(DataType.UNKNOWN);
+		for (int i = 0; i < values.length; i++) {
+			assertThat(result.getValue(i, "id")).isEqualTo(i);
+			assertThat(result.getValue(i, "value")).isEqualTo(values[i]);
+		}
+	}
+
+	@Test(expected = DataSetException.class)
+	public void it_should_fail_with_invalid_file() throws Exception {
+		Resource resource = new ResourceMockBuilder()
+			.withReader(new ByteArrayInputStream("{}".getBytes("UTF-8")))
+			.setFilename("foo.dbub")
+			.build();
+
+		new BinaryDataSet(resource, false);
+	}
+}
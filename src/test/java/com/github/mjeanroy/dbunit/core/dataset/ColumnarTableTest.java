@@ -0,0 +1,137 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.dataset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DefaultTable;
+import org.dbunit.dataset.DefaultTableMetaData;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.NoSuchColumnException;
+import org.dbunit.dataset.RowOutOfBoundsException;
+import org.dbunit.dataset.datatype.DataType;
+import org.junit.Test;
+
+public class ColumnarTableTest {
+
+	@Test
+	public void it_should_store_typed_columns() throws Exception {
+		ColumnarTable table = new ColumnarTable.Builder(metaData("id", "total", "price", "enabled", "status", "name", "misc"))
+			.addRow(new Object[]{1, 10L, 1.5D, true, "OPEN", "John Doe", 1})
+			.addRow(new Object[]{2, null, 2.5D, false, "CLOSED", "Jane Doe", "misc"})
+			.addRow(new Object[]{null, 30L, null, null, "OPEN", null, ITable.NO_VALUE})
+			.build();
+
+		assertThat(table.getRowCount()).isEqualTo(3);
+		assertThat(table.getTableMetaData().getTableName()).isEqualTo("foo");
+
+		assertThat(table.getValue(0, "id")).isEqualTo(1);
+		assertThat(table.getValue(1, "id")).isEqualTo(2);
+		assertThat(table.getValue(2, "id")).isNull();
+
+		assertThat(table.getValue(0, "total")).isEqualTo(10L);
+		assertThat(table.getValue(1, "total")).isNull();
+		assertThat(table.getValue(2, "total")).isEqualTo(30L);
+
+		assertThat(table.getValue(0, "price")).isEqualTo(1.5D);
+		assertThat(table.getValue(2, "price")).isNull();
+
+		assertThat(table.getValue(0, "enabled")).isEqualTo(true);
+		assertThat(table.getValue(1, "enabled")).isEqualTo(false);
+		assertThat(table.getValue(2, "enabled")).isNull();
+
+		assertThat(table.getValue(0, "status")).isEqualTo("OPEN");
+		assertThat(table.getValue(1, "status")).isEqualTo("CLOSED");
+		assertThat(table.getValue(2, "status")).isEqualTo("OPEN");
+
+		assertThat(table.getValue(0, "name")).isEqualTo("John Doe");
+		assertThat(table.getValue(2, "name")).isNull();
+
+		assertThat(table.getValue(0, "misc")).isEqualTo(1);
+		assertThat(table.getValue(1, "misc")).isEqualTo("misc");
+		assertThat(table.getValue(2, "misc")).isSameAs(ITable.NO_VALUE);
+
+		assertThat(table.getValue(1, 4)).isEqualTo("CLOSED");
+	}
+
+	@Test
+	public void it_should_encode_large_dictionaries() throws Exception {
+		ColumnarTable.Builder builder = new ColumnarTable.Builder(metaData("status"));
+		for (int i = 0; i < 1000; i++) {
+			builder.addRow(new Object[]{"status_" + (i % 500)});
+		}
+
+		ColumnarTable table = builder.build();
+
+		assertThat(table.getValue(0, "status")).isEqualTo("status_0");
+		assertThat(table.getValue(499, "status")).isEqualTo("status_499");
+		assertThat(table.getValue(999, "status")).isEqualTo("status_499");
+	}
+
+	@Test
+	public void it_should_copy_table() throws Exception {
+		DefaultTable original = new DefaultTable(metaData("id", "name"));
+		original.addRow(new Object[]{1, "John Doe"});
+		original.addRow(new Object[]{2, "Jane Doe"});
+
+		ColumnarTable table = ColumnarTable.copyOf(original);
+
+		assertThat(table.getRowCount()).isEqualTo(2);
+		assertThat(table.getValue(0, "ID")).isEqualTo(1);
+		assertThat(table.getValue(1, "name")).isEqualTo("Jane Doe");
+		assertThat(ColumnarTable.copyOf(table)).isSameAs(table);
+	}
+
+	@Test(expected = RowOutOfBoundsException.class)
+	public void it_should_fail_with_unknown_row() throws Exception {
+		ColumnarTable table = new ColumnarTable.Builder(metaData("id"))
+			.addRow(new Object[]{1})
+			.build();
+
+		table.getValue(1, "id");
+	}
+
+	@Test(expected = NoSuchColumnException.class)
+	public void it_should_fail_with_unknown_column() throws Exception {
+		ColumnarTable table = new ColumnarTable.Builder(metaData("id"))
+			.addRow(new Object[]{1})
+			.build();
+
+		table.getValue(0, "name");
+	}
+
+	private static DefaultTableMetaData metaData(String... columnNames) {
+		List<Column> columns = new ArrayList<Column>();
+		for (String columnName : columnNames) {
+			columns.add(new Column(columnName, DataType.UNKNOWN));
+		}
+
+		return new DefaultTableMetaData("foo", columns.toArray(new Column[columns.size()]));
+	}
+}
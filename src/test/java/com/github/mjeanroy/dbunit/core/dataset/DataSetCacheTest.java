@@ -0,0 +1,127 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.dataset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.dbunit.dataset.CompositeDataSet;
+import org.dbunit.dataset.IDataSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DataSetCacheTest {
+
+	@Before
+	public void setUp() {
+		DataSetCache.clear();
+	}
+
+	@After
+	public void tearDown() {
+		DataSetCache.clear();
+	}
+
+	@Test
+	public void it_should_load_immutable_data_set() throws Exception {
+		IDataSet dataSet = DataSetCache.load("/dataset/xml/foo.xml");
+
+		assertThat(dataSet)
+			.isNotNull()
+			.isExactlyInstanceOf(ImmutableDataSet.class);
+
+		assertThat(dataSet.getTableNames())
+			.isNotNull()
+			.hasSize(1)
+			.containsOnly("foo");
+
+		assertThat(dataSet.getTable("foo").getRowCount()).isEqualTo(2);
+		assertThat(dataSet.isCaseSensitiveTableNames()).isFalse();
+	}
+
+	@Test
+	public void it_should_load_data_set_once() throws Exception {
+		IDataSet d1 = DataSetCache.load("/dataset/xml/foo.xml");
+		IDataSet d2 = DataSetCache.load("/dataset/xml/foo.xml");
+		assertThat(d1).isSameAs(d2);
+	}
+
+	@Test
+	public void it_should_share_data_set_with_equivalent_classpath_paths() throws Exception {
+		IDataSet d1 = DataSetCache.load("classpath:/dataset/xml/foo.xml");
+		IDataSet d2 = DataSetCache.load("/dataset/xml/foo.xml");
+		IDataSet d3 = DataSetCache.load("dataset/xml/foo.xml");
+		IDataSet d4 = DataSetCache.load("CLASSPATH:dataset/xml/foo.xml");
+
+		assertThat(d1).isSameAs(d2);
+		assertThat(d1).isSameAs(d3);
+		assertThat(d1).isSameAs(d4);
+	}
+
+	@Test
+	public void it_should_not_share_data_set_with_different_case_sensitivity() throws Exception {
+		IDataSet d1 = DataSetCache.load("/dataset/xml/foo.xml", false);
+		IDataSet d2 = DataSetCache.load("/dataset/xml/foo.xml", true);
+
+		assertThat(d1).isNotSameAs(d2);
+		assertThat(d1.isCaseSensitiveTableNames()).isFalse();
+		assertThat(d2.isCaseSensitiveTableNames()).isTrue();
+	}
+
+	@Test
+	public void it_should_reload_data_set_after_clear() throws Exception {
+		IDataSet d1 = DataSetCache.load("/dataset/xml/foo.xml");
+		DataSetCache.clear();
+		IDataSet d2 = DataSetCache.load("/dataset/xml/foo.xml");
+
+		assertThat(d1).isNotSameAs(d2);
+	}
+
+	@Test
+	public void it_should_load_composite_data_set() throws Exception {
+		IDataSet dataSet = DataSetCache.load(new String[] {
+			"/dataset/xml/foo.xml",
+			"/dataset/xml/bar.xml"
+		});
+
+		assertThat(dataSet)
+			.isNotNull()
+			.isExactlyInstanceOf(CompositeDataSet.class);
+
+		assertThat(dataSet.getTableNames())
+			.isNotNull()
+			.hasSize(2)
+			.containsExactly("foo", "bar");
+	}
+
+	@Test
+	public void it_should_normalize_path() {
+		assertThat(DataSetCache.normalize("/dataset/xml")).isEqualTo("classpath:/dataset/xml");
+		assertThat(DataSetCache.normalize("dataset/xml")).isEqualTo("classpath:/dataset/xml");
+		assertThat(DataSetCache.normalize("classpath:dataset/xml")).isEqualTo("classpath:/dataset/xml");
+		assertThat(DataSetCache.normalize("classpath:/dataset/xml")).isEqualTo("classpath:/dataset/xml");
+		assertThat(DataSetCache.normalize("file:/tmp/dataset")).isEqualTo("file:/tmp/dataset");
+	}
+}
@@ -0,0 +1,123 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.dataset;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.mjeanroy.dbunit.core.resources.Resource;
+import com.github.mjeanroy.dbunit.tests.builders.ResourceMockBuilder;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.IDataSet;
+import org.junit.Test;
+
+public class DataSetParserTest {
+
+	@Test
+	public void it_should_parse_resources_in_order() throws Exception {
+		List<Resource> resources = new ArrayList<Resource>();
+		for (int i = 0; i < 20; i++) {
+			String name = i % 2 == 0 ? "foo" : "bar";
+			resources.add(new ResourceMockBuilder()
+				.fromClasspath("/dataset/xml/" + name + ".xml")
+				.setFilename(name + ".xml")
+				.build());
+		}
+
+		IDataSet[] dataSets = DataSetParser.parse(resources);
+
+		assertThat(dataSets).hasSize(20);
+		for (int i = 0; i < 20; i++) {
+			assertThat(dataSets[i].getTableNames()).containsExactly(i % 2 == 0 ? "foo" : "bar");
+		}
+	}
+
+	@Test
+	public void it_should_parse_nested_directories() throws Exception {
+		Resource foo = new ResourceMockBuilder()
+			.fromClasspath("/dataset/xml/foo.xml")
+			.setFilename("foo.xml")
+			.build();
+
+		Resource bar = new ResourceMockBuilder()
+			.fromClasspath("/dataset/json/bar.json")
+			.setFilename("bar.json")
+			.build();
+
+		Resource directory = new ResourceMockBuilder()
+			.fromClasspath("/dataset/xml")
+			.setFilename("xml")
+			.setDirectory()
+			.addSubResources(foo, bar)
+			.build();
+
+		IDataSet[] dataSets = DataSetParser.parse(asList(directory, bar, directory));
+
+		assertThat(dataSets).hasSize(3);
+		assertThat(dataSets[0].getTableNames()).containsOnly("foo", "bar");
+		assertThat(dataSets[1].getTableNames()).containsExactly("bar");
+		assertThat(dataSets[2].getTableNames()).containsOnly("foo", "bar");
+	}
+
+	@Test(expected = DataSetException.class)
+	public void it_should_fail_if_a_resource_cannot_be_parsed() throws Exception {
+		Resource foo = new ResourceMockBuilder()
+			.fromClasspath("/dataset/xml/foo.xml")
+			.setFilename("foo.xml")
+			.build();
+
+		Resource unknown = new ResourceMockBuilder()
+			.fromClasspath("/dataset/xml/foo.xml")
+			.setFilename("foo.txt")
+			.build();
+
+		DataSetParser.parse(asList(foo, unknown));
+	}
+
+	@Test
+	public void it_should_load_paths_from_cache_in_order() throws Exception {
+		DataSetCache.clear();
+
+		try {
+			IDataSet[] dataSets = DataSetParser.load(new String[] {
+				"/dataset/xml/foo.xml",
+				"/dataset/xml/bar.xml",
+				"classpath:dataset/xml/foo.xml"
+			}, false);
+
+			assertThat(dataSets).hasSize(3);
+			assertThat(dataSets[0].getTableNames()).containsExactly("foo");
+			assertThat(dataSets[1].getTableNames()).containsExactly("bar");
+			assertThat(dataSets[0]).isSameAs(dataSets[2]).isSameAs(DataSetCache.load("/dataset/xml/foo.xml"));
+			assertThat(dataSets[1]).isSameAs(DataSetCache.load("/dataset/xml/bar.xml"));
+		}
+		finally {
+			DataSetCache.clear();
+		}
+	}
+}
@@ -25,6 +25,8 @@
 package com.github.mjeanroy.dbunit.core.dataset;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -111,6 +113,68 @@ public class DirectoryDataSetTest {
 		assertThat(t2.getRowCount()).isEqualTo(3);
 	}
 
+	@Test
+	public void it_should_parse_files_lazily() throws Exception {
+		Resource r1 = new ResourceMockBuilder()
+				.fromClasspath("/dataset/xml/foo.xml")
+				.setFile()
+				.setFilename("foo.xml")
+				.build();
+
+		Resource r2 = new ResourceMockBuilder()
+				.fromClasspath("/dataset/json/bar.json")
+				.setFile()
+				.setFilename("bar.json")
+				.build();
+
+		Resource resource = new ResourceMockBuilder()
+				.fromClasspath("/dataset/xml")
+				.setDirectory()
+				.addSubResources(r1, r2)
+				.build();
+
+		DirectoryDataSet dataSet = new DirectoryDataSet(resource, false, new ResourceComparator());
+
+		assertThat(dataSet.getTableNames()).containsExactly("bar", "foo");
+		verify(r1, times(1)).openStream();
+		verify(r2, times(1)).openStream();
+
+		ITable t1 = dataSet.getTable("FOO");
+		ITable t2 = dataSet.getTable("foo");
+
+		assertThat(t1.getRowCount()).isEqualTo(2);
+		assertThat(t2).isSameAs(t1);
+		verify(r1, times(2)).openStream();
+		verify(r2, times(1)).openStream();
+	}
+
+	@Test
+	public void it_should_combine_tables_defined_in_several_files() throws Exception {
+		Resource r1 = new ResourceMockBuilder()
+				.fromClasspath("/dataset/xml/foo.xml")
+				.setFile()
+				.setFilename("foo.xml")
+				.build();
+
+		Resource r2 = new ResourceMockBuilder()
+				.fromClasspath("/dataset/json/foo.json")
+				.setFile()
+				.setFilename("foo.json")
+				.build();
+
+		Resource resource = new ResourceMockBuilder()
+				.fromClasspath("/dataset/xml")
+				.setDirectory()
+				.addSubResources(r1, r2)
+				.build();
+
+		DirectoryDataSet dataSet = new DirectoryDataSet(resource, false, new ResourceComparator());
+
+		assertThat(dataSet.getTableNames()).containsExactly("foo");
+		assertThat(dataSet.getTable("foo").getRowCount()).isEqualTo(4);
+		assertThat(dataSet.getTables()).hasSize(1);
+	}
+
 	@Test
 	public void it_should_get_table_metadata() throws Exception {
 		Resource r1 = new ResourceMockBuilder()
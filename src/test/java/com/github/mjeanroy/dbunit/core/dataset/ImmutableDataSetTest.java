@@ -0,0 +1,172 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.dataset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.ITableIterator;
+import org.dbunit.dataset.NoSuchTableException;
+import org.junit.Test;
+
+public class ImmutableDataSetTest {
+
+	@Test
+	public void it_should_copy_data_set() throws Exception {
+		IDataSet original = DataSetFactory.createDataSet(new String[] {
+			"/dataset/xml/foo.xml",
+			"/dataset/xml/bar.xml"
+		});
+
+		ImmutableDataSet dataSet = new ImmutableDataSet(original, false);
+
+		assertThat(dataSet.getTableNames())
+			.isNotNull()
+			.containsExactly("foo", "bar");
+
+		ITable foo = dataSet.getTable("foo");
+		assertThat(foo.getRowCount()).isEqualTo(2);
+		assertThat(foo.getValue(0, "id")).isEqualTo(original.getTable("foo").getValue(0, "id"));
+		assertThat(foo.getValue(1, "name")).isEqualTo(original.getTable("foo").getValue(1, "name"));
+		assertThat(dataSet.getTableMetaData("bar").getTableName()).isEqualTo("bar");
+	}
+
+	@Test
+	public void it_should_get_table_with_case_insensitive_name() throws Exception {
+		ImmutableDataSet dataSet = new ImmutableDataSet(DataSetFactory.createDataSet("/dataset/xml/foo.xml"), false);
+		assertThat(dataSet.getTable("FOO")).isSameAs(dataSet.getTable("foo"));
+	}
+
+	@Test(expected = NoSuchTableException.class)
+	public void it_should_not_get_table_with_case_sensitive_name() throws Exception {
+		ImmutableDataSet dataSet = new ImmutableDataSet(DataSetFactory.createDataSet("/dataset/xml/foo.xml"), true);
+		dataSet.getTable("FOO");
+	}
+
+	@Test
+	public void it_should_iterate_over_tables() throws Exception {
+		ImmutableDataSet dataSet = new ImmutableDataSet(DataSetFactory.createDataSet(new String[] {
+			"/dataset/xml/foo.xml",
+			"/dataset/xml/bar.xml"
+		}), false);
+
+		ITableIterator it = dataSet.iterator();
+		assertThat(it.next()).isTrue();
+		assertThat(it.getTableMetaData().getTableName()).isEqualTo("foo");
+		assertThat(it.next()).isTrue();
+		assertThat(it.getTableMetaData().getTableName()).isEqualTo("bar");
+		assertThat(it.next()).isFalse();
+
+		ITableIterator reverseIt = dataSet.reverseIterator();
+		assertThat(reverseIt.next()).isTrue();
+		assertThat(reverseIt.getTableMetaData().getTableName()).isEqualTo("bar");
+		assertThat(reverseIt.next()).isTrue();
+		assertThat(reverseIt.getTableMetaData().getTableName()).isEqualTo("foo");
+		assertThat(reverseIt.next()).isFalse();
+	}
+
+	@Test
+	public void it_should_read_data_set_from_several_threads() throws Exception {
+		final ImmutableDataSet dataSet = new ImmutableDataSet(DataSetFactory.createDataSet("/dataset/xml"), false);
+		final int nbThreads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(nbThreads);
+
+		try {
+			List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+			for (int i = 0; i < nbThreads; i++) {
+				futures.add(executor.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() throws Exception {
+						int count = 0;
+						ITableIterator it = dataSet.iterator();
+						while (it.next()) {
+							ITable table = it.getTable();
+							for (int row = 0; row < table.getRowCount(); row++) {
+								table.getValue(row, "id");
+								count++;
+							}
+						}
+
+						return count;
+					}
+				}));
+			}
+
+			for (Future<Integer> future : futures) {
+				assertThat(future.get()).isEqualTo(5);
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void it_should_copy_tables_lazily_and_once() throws Exception {
+		IDataSet parsed = DataSetFactory.createDataSet(new String[] {
+			"/dataset/xml/foo.xml",
+			"/dataset/xml/bar.xml"
+		});
+
+		IDataSet original = mock(IDataSet.class);
+		when(original.getTableNames()).thenReturn(new String[] {"foo", "bar"});
+		when(original.getTable("foo")).thenReturn(parsed.getTable("foo"));
+		when(original.getTable("bar")).thenReturn(parsed.getTable("bar"));
+
+		ImmutableDataSet dataSet = new ImmutableDataSet(original, false);
+		assertThat(dataSet.getTableNames()).containsExactly("foo", "bar");
+		verify(original, never()).getTable("foo");
+		verify(original, never()).getTable("bar");
+
+		ITable foo = dataSet.getTable("foo");
+		assertThat(foo.getRowCount()).isEqualTo(2);
+		assertThat(dataSet.getTable("FOO")).isSameAs(foo);
+		verify(original, times(1)).getTable("foo");
+		verify(original, never()).getTable("bar");
+
+		ITableIterator it = dataSet.iterator();
+		assertThat(it.next()).isTrue();
+		assertThat(it.getTable()).isSameAs(foo);
+		assertThat(it.next()).isTrue();
+		assertThat(it.getTable().getRowCount()).isEqualTo(3);
+		assertThat(it.next()).isFalse();
+
+		verify(original, times(1)).getTable("foo");
+		verify(original, times(1)).getTable("bar");
+	}
+}
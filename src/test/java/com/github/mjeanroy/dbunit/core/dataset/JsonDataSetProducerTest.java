@@ -0,0 +1,107 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.dataset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+
+import com.github.mjeanroy.dbunit.core.resources.Resource;
+import com.github.mjeanroy.dbunit.core.resources.ResourceLoader;
+import com.github.mjeanroy.dbunit.json.GsonParser;
+import com.github.mjeanroy.dbunit.tests.builders.ResourceMockBuilder;
+import com.google.gson.Gson;
+import org.dbunit.dataset.CachedDataSet;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.ITableIterator;
+import org.dbunit.dataset.stream.StreamingDataSet;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JsonDataSetProducerTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void it_should_produce_tables() throws Exception {
+		Resource resource = new ResourceMockBuilder()
+			.fromClasspath("/dataset/json/foo.json")
+			.setFilename("foo.json")
+			.build();
+
+		IDataSet dataSet = new CachedDataSet(new JsonDataSetProducer(resource));
+
+		assertThat(dataSet.getTableNames()).containsExactly("foo");
+
+		ITable table = dataSet.getTable("foo");
+		assertThat(table.getRowCount()).isEqualTo(2);
+		assertThat(table.getValue(0, "id")).isEqualTo(1);
+		assertThat(table.getValue(0, "name")).isEqualTo("John Doe");
+		assertThat(table.getValue(1, "id")).isEqualTo(2);
+		assertThat(table.getValue(1, "name")).isEqualTo("Jane Doe");
+	}
+
+	@Test
+	public void it_should_merge_columns_of_all_rows() throws Exception {
+		String json = "{\"foo\": [{\"id\": 1}, {\"id\": 2, \"name\": \"Jane Doe\"}], \"bar\": []}";
+		File file = tmp.newFile("foo.json");
+		FileOutputStream output = new FileOutputStream(file);
+		output.write(json.getBytes("UTF-8"));
+		output.close();
+
+		Resource resource = ResourceLoader.FILE_SYSTEM.load("file:" + file.getAbsolutePath());
+
+		IDataSet dataSet = new StreamingDataSet(new JsonDataSetProducer(resource, new GsonParser(new Gson())));
+		ITableIterator it = dataSet.iterator();
+
+		assertThat(it.next()).isTrue();
+		ITable foo = it.getTable();
+		assertThat(foo.getTableMetaData().getTableName()).isEqualTo("foo");
+		assertThat(foo.getTableMetaData().getColumns()).extracting("columnName").containsExactly("id", "name");
+
+		assertThat(it.next()).isTrue();
+		ITable bar = it.getTable();
+		assertThat(bar.getTableMetaData().getTableName()).isEqualTo("bar");
+		assertThat(bar.getTableMetaData().getColumns()).isEmpty();
+
+		assertThat(it.next()).isFalse();
+	}
+
+	@Test(expected = DataSetException.class)
+	public void it_should_fail_with_invalid_data_set() throws Exception {
+		Resource resource = new ResourceMockBuilder()
+			.withReader(new ByteArrayInputStream("{\"foo\": 1}".getBytes("UTF-8")))
+			.setFilename("foo.json")
+			.build();
+
+		new CachedDataSet(new JsonDataSetProducer(resource));
+	}
+}
@@ -0,0 +1,98 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.dataset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+
+import com.github.mjeanroy.dbunit.core.resources.Resource;
+import com.github.mjeanroy.dbunit.tests.builders.ResourceMockBuilder;
+import org.junit.Test;
+
+public class TableNamesScannerTest {
+
+	@Test
+	public void it_should_scan_json_table_names() {
+		Resource resource = new ResourceMockBuilder()
+			.fromClasspath("/dataset/json/foo.json")
+			.setFilename("foo.json")
+			.build();
+
+		assertThat(TableNamesScanner.scanJson(resource)).containsExactly("foo");
+	}
+
+	@Test
+	public void it_should_skip_json_values() {
+		String json = "{ \"t\\u0031\": [{\"id\": 1, \"name\": \"a \\\" ] } b\", \"ok\": true}], \"t2\": [], \"t3\": [{}] }";
+		Resource resource = new ResourceMockBuilder()
+			.withReader(new ByteArrayInputStream(json.getBytes()))
+			.setFilename("foo.json")
+			.build();
+
+		assertThat(TableNamesScanner.scanJson(resource)).containsExactly("t1", "t2", "t3");
+	}
+
+	@Test
+	public void it_should_not_scan_invalid_json() {
+		Resource resource = new ResourceMockBuilder()
+			.withReader(new ByteArrayInputStream("[{\"foo\": 1}]".getBytes()))
+			.setFilename("foo.json")
+			.build();
+
+		assertThat(TableNamesScanner.scanJson(resource)).isNull();
+	}
+
+	@Test
+	public void it_should_not_scan_json_with_invalid_table() {
+		Resource resource = new ResourceMockBuilder()
+			.withReader(new ByteArrayInputStream("{\"foo\": null}".getBytes()))
+			.setFilename("foo.json")
+			.build();
+
+		assertThat(TableNamesScanner.scanJson(resource)).isNull();
+	}
+
+	@Test
+	public void it_should_scan_xml_table_names() {
+		String xml = "<dataset><foo id=\"1\" /><bar id=\"1\" /><foo id=\"2\" /></dataset>";
+		Resource resource = new ResourceMockBuilder()
+			.withReader(new ByteArrayInputStream(xml.getBytes()))
+			.setFilename("foo.xml")
+			.build();
+
+		assertThat(TableNamesScanner.scanXml(resource)).containsExactly("foo", "bar");
+	}
+
+	@Test
+	public void it_should_not_scan_invalid_xml() {
+		Resource resource = new ResourceMockBuilder()
+			.withReader(new ByteArrayInputStream("<dataset><foo>".getBytes()))
+			.setFilename("foo.xml")
+			.build();
+
+		assertThat(TableNamesScanner.scanXml(resource)).isNull();
+	}
+}
@@ -0,0 +1,202 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+import com.github.mjeanroy.dbunit.core.operation.BatchInsertOperation;
+import com.github.mjeanroy.dbunit.tests.db.EmbeddedDatabaseRule;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DefaultDataSet;
+import org.dbunit.dataset.DefaultTable;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITableMetaData;
+import org.dbunit.dataset.datatype.DataType;
+import org.dbunit.operation.DatabaseOperation;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class CachedDatabaseConnectionTest {
+
+	@ClassRule
+	public static EmbeddedDatabaseRule dbRule = new EmbeddedDatabaseRule();
+
+	@Test
+	public void it_should_share_table_metadata() throws Exception {
+		Connection c1 = dbRule.getConnection();
+		Connection c2 = dbRule.getConnection();
+		DatabaseMetaDataCache.invalidate(c1);
+
+		ITableMetaData m1 = new CachedDatabaseConnection(c1, true).createDataSet().getTableMetaData("foo");
+		c1.close();
+
+		ITableMetaData m2 = new CachedDatabaseConnection(c2, true).createDataSet().getTableMetaData("FOO");
+
+		assertThat(m1).isSameAs(m2);
+		assertThat(m2.getTableName()).isEqualTo("FOO");
+		assertThat(m2.getColumns()).hasSize(2);
+		assertThat(m2.getColumns()[0].getColumnName()).isEqualTo("ID");
+		assertThat(m2.getColumns()[1].getColumnName()).isEqualTo("NAME");
+	}
+
+	@Test
+	public void it_should_not_share_table_metadata_by_default() throws Exception {
+		Connection c1 = dbRule.getConnection();
+		Connection c2 = dbRule.getConnection();
+
+		CachedDatabaseConnection db1 = new CachedDatabaseConnection(c1);
+		CachedDatabaseConnection db2 = new CachedDatabaseConnection(c2);
+		ITableMetaData m1 = db1.createDataSet().getTableMetaData("foo");
+		ITableMetaData m2 = db2.createDataSet().getTableMetaData("foo");
+
+		assertThat(m1).isNotSameAs(m2);
+		assertThat(db1.getMetaDataCache()).isNotSameAs(db2.getMetaDataCache()).isNotSameAs(DatabaseMetaDataCache.getInstance(c1));
+		assertThat(db1.getForeignKeyGraph()).isNotSameAs(db2.getForeignKeyGraph());
+
+		c1.close();
+		c2.close();
+	}
+
+	@Test
+	public void it_should_read_table_metadata_after_invalidation() throws Exception {
+		Connection connection = dbRule.getConnection();
+		IDatabaseConnection dbConnection = new CachedDatabaseConnection(connection, true);
+
+		ITableMetaData m1 = dbConnection.createDataSet().getTableMetaData("bar");
+		DatabaseMetaDataCache.invalidate(connection);
+		ITableMetaData m2 = dbConnection.createDataSet().getTableMetaData("bar");
+
+		assertThat(m1).isNotSameAs(m2);
+		assertThat(m2.getTableName()).isEqualTo(m1.getTableName());
+	}
+
+	@Test
+	public void it_should_execute_operations() throws Exception {
+		IDatabaseConnection dbConnection = new CachedDatabaseConnection(dbRule.getConnection());
+
+		DatabaseOperation.DELETE_ALL.execute(dbConnection, dbConnection.createDataSet(new String[]{"foo"}));
+
+		assertThat(dbConnection.getRowCount("foo")).isZero();
+	}
+
+	@Test
+	public void it_should_reuse_prepared_statements() throws Exception {
+		CachedDatabaseConnection dbConnection = new CachedDatabaseConnection(dbRule.getConnection());
+
+		PreparedStatement s1 = dbConnection.prepareStatement("SELECT * FROM foo");
+		PreparedStatement s2 = dbConnection.prepareStatement("SELECT * FROM foo");
+		PreparedStatement s3 = dbConnection.prepareStatement("SELECT * FROM bar");
+
+		assertThat(s1).isSameAs(s2);
+		assertThat(s3).isNotSameAs(s1);
+		assertThat(dbConnection.getStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void it_should_prepare_statements_after_invalidation() throws Exception {
+		Connection connection = dbRule.getConnection();
+		CachedDatabaseConnection dbConnection = new CachedDatabaseConnection(connection, true);
+
+		PreparedStatement s1 = dbConnection.prepareStatement("SELECT * FROM foo");
+		DatabaseMetaDataCache.invalidate(connection);
+		PreparedStatement s2 = dbConnection.prepareStatement("SELECT * FROM foo");
+
+		assertThat(s1.isClosed()).isTrue();
+		assertThat(s2).isNotSameAs(s1);
+		assertThat(s2.isClosed()).isFalse();
+	}
+
+	@Test
+	public void it_should_close_least_recently_used_statements() throws Exception {
+		CachedDatabaseConnection dbConnection = new CachedDatabaseConnection(dbRule.getConnection());
+
+		PreparedStatement first = dbConnection.prepareStatement("SELECT 0 FROM foo");
+		for (int i = 1; i <= CachedDatabaseConnection.MAX_STATEMENTS; i++) {
+			dbConnection.prepareStatement("SELECT " + i + " FROM foo");
+		}
+
+		assertThat(first.isClosed()).isTrue();
+		assertThat(dbConnection.getStatementCount()).isEqualTo(CachedDatabaseConnection.MAX_STATEMENTS);
+	}
+
+	@Test
+	public void it_should_close_statements_with_connection() throws Exception {
+		Connection connection = dbRule.getConnection();
+		CachedDatabaseConnection dbConnection = new CachedDatabaseConnection(connection);
+		PreparedStatement statement = dbConnection.prepareStatement("SELECT * FROM foo");
+
+		dbConnection.close();
+
+		assertThat(statement.isClosed()).isTrue();
+		assertThat(connection.isClosed()).isTrue();
+		assertThat(dbConnection.getStatementCount()).isZero();
+	}
+
+	@Test
+	public void it_should_reuse_statements_of_dbunit_operations() throws Exception {
+		CachedDatabaseConnection dbConnection = new CachedDatabaseConnection(dbRule.getConnection());
+		IDataSet dataSet = createDataSet();
+
+		DatabaseOperation.CLEAN_INSERT.execute(dbConnection, dataSet);
+		int count = dbConnection.getStatementCount();
+		DatabaseOperation.CLEAN_INSERT.execute(dbConnection, dataSet);
+
+		assertThat(count).isEqualTo(1);
+		assertThat(dbConnection.getStatementCount()).isEqualTo(count);
+		assertThat(dbConnection.getRowCount("foo")).isEqualTo(2);
+	}
+
+	@Test
+	public void it_should_reuse_statements_of_batch_inserts() throws Exception {
+		CachedDatabaseConnection dbConnection = new CachedDatabaseConnection(dbRule.getConnection());
+		IDataSet dataSet = createDataSet();
+		DatabaseOperation batchInsert = new BatchInsertOperation();
+
+		DatabaseOperation.DELETE_ALL.execute(dbConnection, dataSet);
+		batchInsert.execute(dbConnection, dataSet);
+		int count = dbConnection.getStatementCount();
+		DatabaseOperation.DELETE_ALL.execute(dbConnection, dataSet);
+		batchInsert.execute(dbConnection, dataSet);
+
+		assertThat(count).isEqualTo(1);
+		assertThat(dbConnection.getStatementCount()).isEqualTo(count);
+		assertThat(dbConnection.getRowCount("foo")).isEqualTo(2);
+	}
+
+	private static IDataSet createDataSet() throws Exception {
+		DefaultTable table = new DefaultTable("FOO", new Column[]{
+			new Column("ID", DataType.INTEGER),
+			new Column("NAME", DataType.VARCHAR)
+		});
+
+		table.addRow(new Object[]{1, "John Doe"});
+		table.addRow(new Object[]{2, "Jane Doe"});
+		return new DefaultDataSet(table);
+	}
+}
@@ -0,0 +1,148 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.mjeanroy.dbunit.core.annotations.DbUnitConfig;
+import com.github.mjeanroy.dbunit.tests.fixtures.TestClassWithConfig;
+import org.dbunit.database.DatabaseConfig;
+import org.dbunit.database.DefaultMetadataHandler;
+import org.dbunit.database.statement.PreparedStatementFactory;
+import org.dbunit.dataset.datatype.DefaultDataTypeFactory;
+import org.dbunit.ext.hsqldb.HsqldbDataTypeFactory;
+import org.junit.Test;
+
+public class DatabaseConfigurationTest {
+
+	@Test
+	public void it_should_create_default_configuration() {
+		DatabaseConfiguration configuration = DatabaseConfiguration.defaultConfiguration();
+		assertThat(configuration.getProperties()).isEmpty();
+	}
+
+	@Test
+	public void it_should_create_configuration_with_builder() {
+		HsqldbDataTypeFactory datatypeFactory = new HsqldbDataTypeFactory();
+		DatabaseConfiguration configuration = DatabaseConfiguration.builder()
+			.setBatchedStatements(true)
+			.setBatchSize(500)
+			.setFetchSize(1000)
+			.setDatatypeFactory(datatypeFactory)
+			.setEscapePattern("\"?\"")
+			.build();
+
+		assertThat(configuration.getProperties())
+			.hasSize(5)
+			.containsEntry(DatabaseConfig.FEATURE_BATCHED_STATEMENTS, true)
+			.containsEntry(DatabaseConfig.PROPERTY_BATCH_SIZE, 500)
+			.containsEntry(DatabaseConfig.PROPERTY_FETCH_SIZE, 1000)
+			.containsEntry(DatabaseConfig.PROPERTY_DATATYPE_FACTORY, datatypeFactory)
+			.containsEntry(DatabaseConfig.PROPERTY_ESCAPE_PATTERN, "\"?\"");
+	}
+
+	@Test
+	public void it_should_create_configuration_from_annotation() {
+		DbUnitConfig annotation = TestClassWithConfig.class.getAnnotation(DbUnitConfig.class);
+		DatabaseConfiguration configuration = DatabaseConfiguration.of(annotation);
+
+		assertThat(configuration.getProperties())
+			.containsEntry(DatabaseConfig.FEATURE_BATCHED_STATEMENTS, true)
+			.containsEntry(DatabaseConfig.PROPERTY_BATCH_SIZE, 50)
+			.containsEntry(DatabaseConfig.PROPERTY_FETCH_SIZE, 200)
+			.containsEntry(DatabaseConfig.FEATURE_DATATYPE_WARNING, true)
+			.doesNotContainKey(DatabaseConfig.PROPERTY_ESCAPE_PATTERN)
+			.doesNotContainKey(DatabaseConfig.PROPERTY_STATEMENT_FACTORY);
+
+		assertThat(configuration.getProperties().get(DatabaseConfig.PROPERTY_DATATYPE_FACTORY)).isExactlyInstanceOf(HsqldbDataTypeFactory.class);
+		assertThat(configuration.getProperties().get(DatabaseConfig.PROPERTY_METADATA_HANDLER)).isExactlyInstanceOf(DefaultMetadataHandler.class);
+	}
+
+	@Test
+	public void it_should_apply_configuration() {
+		PreparedStatementFactory statementFactory = new PreparedStatementFactory();
+		DatabaseConfiguration configuration = DatabaseConfiguration.builder()
+			.setBatchedStatements(true)
+			.setStatementFactory(statementFactory)
+			.build();
+
+		DatabaseConfig config = new DatabaseConfig();
+		configuration.apply(config);
+
+		assertThat(config.getProperty(DatabaseConfig.FEATURE_BATCHED_STATEMENTS)).isEqualTo(true);
+		assertThat(config.getProperty(DatabaseConfig.PROPERTY_STATEMENT_FACTORY)).isSameAs(statementFactory);
+		assertThat(config.getProperty(DatabaseConfig.PROPERTY_BATCH_SIZE)).isEqualTo(100);
+		assertThat(config.getProperty(DatabaseConfig.PROPERTY_DATATYPE_FACTORY)).isInstanceOf(DefaultDataTypeFactory.class);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_fail_with_invalid_property_value() {
+		DatabaseConfiguration.builder().setProperty(DatabaseConfig.PROPERTY_BATCH_SIZE, "foo");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_fail_with_invalid_batch_size() {
+		DatabaseConfiguration.builder().setBatchSize(0);
+	}
+
+	@Test
+	public void it_should_implement_equals_hash_code() {
+		DatabaseConfiguration c1 = DatabaseConfiguration.builder().setBatchSize(10).build();
+		DatabaseConfiguration c2 = DatabaseConfiguration.builder().setBatchSize(10).build();
+		DatabaseConfiguration c3 = DatabaseConfiguration.builder().setBatchSize(20).build();
+
+		assertThat(c1).isEqualTo(c2);
+		assertThat(c1.hashCode()).isEqualTo(c2.hashCode());
+		assertThat(c1).isNotEqualTo(c3);
+	}
+
+	@Test
+	public void it_should_compare_factories_by_class() {
+		DatabaseConfiguration c1 = DatabaseConfiguration.builder().setDatatypeFactory(new HsqldbDataTypeFactory()).setStatementFactory(new PreparedStatementFactory()).build();
+		DatabaseConfiguration c2 = DatabaseConfiguration.builder().setDatatypeFactory(new HsqldbDataTypeFactory()).setStatementFactory(new PreparedStatementFactory()).build();
+		DatabaseConfiguration c3 = DatabaseConfiguration.builder().setDatatypeFactory(new DefaultDataTypeFactory()).setStatementFactory(new PreparedStatementFactory()).build();
+
+		assertThat(c1).isEqualTo(c2);
+		assertThat(c1.hashCode()).isEqualTo(c2.hashCode());
+		assertThat(c1).isNotEqualTo(c3);
+	}
+
+	@Test
+	public void it_should_create_equal_configurations_from_annotation() {
+		DbUnitConfig annotation = TestClassWithConfig.class.getAnnotation(DbUnitConfig.class);
+		assertThat(DatabaseConfiguration.of(annotation)).isEqualTo(DatabaseConfiguration.of(annotation));
+	}
+
+	@Test
+	public void it_should_not_share_metadata_by_default() {
+		DatabaseConfiguration c1 = DatabaseConfiguration.defaultConfiguration();
+		DatabaseConfiguration c2 = DatabaseConfiguration.builder().setSharedMetaData(true).build();
+
+		assertThat(c1.isSharedMetaData()).isFalse();
+		assertThat(c2.isSharedMetaData()).isTrue();
+		assertThat(c2.getProperties()).isEmpty();
+		assertThat(c1).isNotEqualTo(c2);
+	}
+}
@@ -0,0 +1,85 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.jdbc;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.sql.Connection;
+
+import com.github.mjeanroy.dbunit.tests.db.EmbeddedDatabaseRule;
+import org.dbunit.dataset.ITableMetaData;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class DatabaseMetaDataCacheTest {
+
+	@ClassRule
+	public static EmbeddedDatabaseRule dbRule = new EmbeddedDatabaseRule();
+
+	@Test
+	public void it_should_share_cache_of_same_database() throws Exception {
+		Connection c1 = dbRule.getConnection();
+		Connection c2 = dbRule.getConnection();
+
+		assertThat(DatabaseMetaDataCache.getInstance(c1)).isSameAs(DatabaseMetaDataCache.getInstance(c2));
+	}
+
+	@Test
+	public void it_should_store_table_metadata() {
+		DatabaseMetaDataCache cache = new DatabaseMetaDataCache();
+		ITableMetaData metaData = mock(ITableMetaData.class);
+
+		cache.putTableMetaData("foo", metaData);
+
+		assertThat(cache.getTableMetaData("foo")).isSameAs(metaData);
+		assertThat(cache.getTableMetaData("bar")).isNull();
+	}
+
+	@Test
+	public void it_should_get_foreign_key_graph_of_schema() {
+		DatabaseMetaDataCache cache = new DatabaseMetaDataCache();
+
+		ForeignKeyGraph g1 = cache.getForeignKeyGraph(null);
+		ForeignKeyGraph g2 = cache.getForeignKeyGraph(null);
+		ForeignKeyGraph g3 = cache.getForeignKeyGraph("PUBLIC");
+
+		assertThat(g1).isSameAs(g2).isNotSameAs(g3);
+	}
+
+	@Test
+	public void it_should_invalidate_cache() throws Exception {
+		DatabaseMetaDataCache cache = new DatabaseMetaDataCache();
+		cache.putTableMetaData("foo", mock(ITableMetaData.class));
+		ForeignKeyGraph graph = cache.getForeignKeyGraph(null);
+		graph.sort(dbRule.getConnection(), asList("foo", "bar"));
+
+		cache.invalidate();
+
+		assertThat(cache.getTableMetaData("foo")).isNull();
+		assertThat(cache.getForeignKeyGraph(null)).isSameAs(graph);
+	}
+}
@@ -0,0 +1,183 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class DirtyTablesTrackerTest {
+
+	private DirtyTablesTracker tracker;
+
+	@Before
+	public void setUp() {
+		tracker = new DirtyTablesTracker();
+		tracker.seeded("seed");
+	}
+
+	@Test
+	public void it_should_be_dirty_until_seeded() {
+		DirtyTablesTracker tracker = new DirtyTablesTracker();
+		assertThat(tracker.isAllDirty()).isTrue();
+		assertThat(tracker.isSeeded("seed")).isFalse();
+
+		tracker.seeded("seed");
+
+		assertThat(tracker.isAllDirty()).isFalse();
+		assertThat(tracker.isSeeded("seed")).isTrue();
+		assertThat(tracker.isSeeded("other")).isFalse();
+		assertThat(tracker.getDirtyTables()).isEmpty();
+	}
+
+	@Test
+	public void it_should_track_modified_tables() {
+		tracker.track("INSERT INTO foo VALUES (1, 'John Doe')");
+		tracker.track("  update PUBLIC.\"bar\" SET title = 'Star Wars'");
+		tracker.track("DELETE FROM quix WHERE id = 1;");
+		tracker.track("-- comment\n/* Another comment */ MERGE INTO foobar KEY (id) VALUES (1)");
+		tracker.track("TRUNCATE TABLE baz");
+
+		assertThat(tracker.getDirtyTables()).containsOnly("FOO", "BAR", "QUIX", "FOOBAR", "BAZ");
+		assertThat(tracker.isDirty("public.foo")).isTrue();
+		assertThat(tracker.isDirty("other")).isFalse();
+		assertThat(tracker.isAllDirty()).isFalse();
+	}
+
+	@Test
+	public void it_should_ignore_read_only_queries() {
+		tracker.track("SELECT * FROM foo");
+		tracker.track("-- comment\n  values (1)");
+		tracker.track("COMMIT");
+		tracker.track("");
+		tracker.track(null);
+
+		assertThat(tracker.getDirtyTables()).isEmpty();
+		assertThat(tracker.isAllDirty()).isFalse();
+	}
+
+	@Test
+	public void it_should_mark_database_as_dirty_with_ddl() {
+		tracker.track("CREATE TABLE foo (id INT)");
+		assertThat(tracker.isAllDirty()).isTrue();
+		assertThat(tracker.isDirty("bar")).isTrue();
+	}
+
+	@Test
+	public void it_should_mark_database_as_dirty_with_multiple_statements() {
+		tracker.track("INSERT INTO foo VALUES (1); DELETE FROM bar");
+		assertThat(tracker.isAllDirty()).isTrue();
+	}
+
+	@Test
+	public void it_should_mark_database_as_dirty_with_unknown_statements() {
+		tracker.track("CALL my_procedure()");
+		assertThat(tracker.isAllDirty()).isTrue();
+	}
+
+	@Test
+	public void it_should_clear_state_when_seeded() {
+		tracker.track("INSERT INTO foo VALUES (1, 'John Doe')");
+		tracker.markAllDirty();
+
+		tracker.seeded("seed");
+
+		assertThat(tracker.getDirtyTables()).isEmpty();
+		assertThat(tracker.isAllDirty()).isFalse();
+	}
+
+	@Test
+	public void it_should_normalize_table_names() {
+		assertThat(DirtyTablesTracker.normalize("foo")).isEqualTo("FOO");
+		assertThat(DirtyTablesTracker.normalize("public.foo")).isEqualTo("FOO");
+		assertThat(DirtyTablesTracker.normalize("\"public\".\"foo\"")).isEqualTo("FOO");
+		assertThat(DirtyTablesTracker.normalize("[dbo].[foo]")).isEqualTo("FOO");
+		assertThat(DirtyTablesTracker.normalize("`foo`")).isEqualTo("FOO");
+	}
+
+	@Test
+	public void it_should_track_statements_of_wrapped_connection() throws Exception {
+		Connection connection = mock(Connection.class);
+		Statement statement = mock(Statement.class);
+		when(connection.createStatement()).thenReturn(statement);
+
+		Connection proxy = tracker.wrap(connection);
+		Statement stmt = proxy.createStatement();
+		stmt.executeQuery("SELECT * FROM bar");
+		stmt.executeUpdate("INSERT INTO foo VALUES (1, 'John Doe')");
+		stmt.addBatch("DELETE FROM quix");
+
+		assertThat(stmt.getConnection()).isSameAs(proxy);
+		assertThat(tracker.getDirtyTables()).containsOnly("FOO", "QUIX");
+		verify(statement).executeUpdate("INSERT INTO foo VALUES (1, 'John Doe')");
+	}
+
+	@Test
+	public void it_should_track_prepared_statements_of_wrapped_connection() throws Exception {
+		Connection connection = mock(Connection.class);
+		PreparedStatement statement = mock(PreparedStatement.class);
+		String sql = "UPDATE foo SET name = ?";
+		when(connection.prepareStatement(sql)).thenReturn(statement);
+
+		Connection proxy = tracker.wrap(connection);
+		PreparedStatement stmt = proxy.prepareStatement(sql);
+		stmt.setString(1, "John Doe");
+		stmt.executeUpdate();
+
+		assertThat(tracker.getDirtyTables()).containsOnly("FOO");
+		verify(statement).setString(1, "John Doe");
+		verify(statement).executeUpdate();
+	}
+
+	@Test
+	public void it_should_mark_database_as_dirty_with_updatable_result_sets() throws Exception {
+		Connection connection = mock(Connection.class);
+		when(connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_UPDATABLE)).thenReturn(mock(Statement.class));
+
+		tracker.wrap(connection).createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_UPDATABLE);
+
+		assertThat(tracker.isAllDirty()).isTrue();
+	}
+
+	@Test
+	public void it_should_not_mark_database_as_dirty_with_generated_keys() throws Exception {
+		Connection connection = mock(Connection.class);
+		String sql = "SELECT * FROM foo";
+		when(connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)).thenReturn(mock(PreparedStatement.class));
+
+		tracker.wrap(connection).prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+
+		assertThat(tracker.isAllDirty()).isFalse();
+	}
+}
@@ -0,0 +1,172 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.jdbc;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+
+import com.github.mjeanroy.dbunit.tests.db.EmbeddedDatabaseRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class ForeignKeyGraphTest {
+
+	@Rule
+	public EmbeddedDatabaseRule dbRule = new EmbeddedDatabaseRule(false);
+
+	private Connection connection;
+
+	@Before
+	public void setUp() throws Exception {
+		connection = dbRule.getConnection();
+
+		execute("CREATE TABLE author (id INT PRIMARY KEY, name VARCHAR(100))");
+		execute("CREATE TABLE book (id INT PRIMARY KEY, author_id INT REFERENCES author(id), parent_id INT REFERENCES book(id))");
+		execute("CREATE TABLE review (id INT PRIMARY KEY, book_id INT REFERENCES book(id))");
+		execute("CREATE TABLE tag (id INT PRIMARY KEY)");
+	}
+
+	@Test
+	public void it_should_sort_tables() throws Exception {
+		ForeignKeyGraph graph = new ForeignKeyGraph(null);
+
+		List<String> tables = graph.sort(connection, asList("review", "tag", "book", "author"));
+
+		assertThat(tables).containsExactly("tag", "author", "book", "review");
+	}
+
+	@Test
+	public void it_should_keep_order_of_sorted_tables() throws Exception {
+		ForeignKeyGraph graph = new ForeignKeyGraph(null);
+
+		List<String> tables = graph.sort(connection, asList("author", "book", "tag", "review"));
+
+		assertThat(tables).containsExactly("author", "book", "tag", "review");
+	}
+
+	@Test
+	public void it_should_sort_tables_with_qualified_names() throws Exception {
+		ForeignKeyGraph graph = new ForeignKeyGraph(null);
+
+		List<String> tables = graph.sort(connection, asList("PUBLIC.BOOK", "\"AUTHOR\""));
+
+		assertThat(tables).containsExactly("\"AUTHOR\"", "PUBLIC.BOOK");
+	}
+
+	@Test
+	public void it_should_group_tables_by_level() throws Exception {
+		ForeignKeyGraph graph = new ForeignKeyGraph(null);
+
+		List<List<String>> groups = graph.group(connection, asList("review", "tag", "book", "author"));
+
+		assertThat(groups).hasSize(3);
+		assertThat(groups.get(0)).containsExactly("tag", "author");
+		assertThat(groups.get(1)).containsExactly("book");
+		assertThat(groups.get(2)).containsExactly("review");
+	}
+
+	@Test
+	public void it_should_check_if_table_references_itself() throws Exception {
+		ForeignKeyGraph graph = new ForeignKeyGraph(null);
+		graph.sort(connection, asList("book", "author"));
+
+		assertThat(graph.isSelfReferencing("book")).isTrue();
+		assertThat(graph.isSelfReferencing("author")).isFalse();
+		assertThat(graph.isSelfReferencing("unknown")).isTrue();
+	}
+
+	@Test
+	public void it_should_check_if_table_is_referenced() throws Exception {
+		ForeignKeyGraph graph = new ForeignKeyGraph(null);
+
+		assertThat(graph.isReferenced(connection, "author")).isTrue();
+		assertThat(graph.isReferenced(connection, "book")).isTrue();
+		assertThat(graph.isReferenced(connection, "review")).isFalse();
+		assertThat(graph.isReferenced(connection, "tag")).isFalse();
+	}
+
+	@Test
+	public void it_should_keep_order_of_tables_in_cycle() throws Exception {
+		execute("CREATE TABLE husband (id INT PRIMARY KEY, wife_id INT)");
+		execute("CREATE TABLE wife (id INT PRIMARY KEY, husband_id INT REFERENCES husband(id))");
+		execute("ALTER TABLE husband ADD FOREIGN KEY (wife_id) REFERENCES wife(id)");
+
+		ForeignKeyGraph graph = new ForeignKeyGraph(null);
+
+		List<String> tables = graph.sort(connection, asList("wife", "husband", "author"));
+
+		assertThat(tables).containsExactly("author", "wife", "husband");
+	}
+
+	@Test
+	public void it_should_reload_graph_with_unknown_tables() throws Exception {
+		ForeignKeyGraph graph = new ForeignKeyGraph(null);
+		graph.sort(connection, asList("book", "author"));
+
+		execute("CREATE TABLE chapter (id INT PRIMARY KEY, book_id INT REFERENCES book(id))");
+
+		List<String> tables = graph.sort(connection, asList("chapter", "book"));
+
+		assertThat(tables).containsExactly("book", "chapter");
+	}
+
+	@Test
+	public void it_should_reload_invalidated_graph() throws Exception {
+		execute("CREATE TABLE chapter (id INT PRIMARY KEY, book_id INT)");
+
+		ForeignKeyGraph graph = new ForeignKeyGraph(null);
+		assertThat(graph.sort(connection, asList("chapter", "book"))).containsExactly("chapter", "book");
+
+		execute("ALTER TABLE chapter ADD FOREIGN KEY (book_id) REFERENCES book(id)");
+		assertThat(graph.sort(connection, asList("chapter", "book"))).containsExactly("chapter", "book");
+
+		graph.invalidate();
+		assertThat(graph.sort(connection, asList("chapter", "book"))).containsExactly("book", "chapter");
+	}
+
+	@Test
+	public void it_should_share_graph_of_same_database() throws Exception {
+		ForeignKeyGraph g1 = ForeignKeyGraph.getInstance(connection, null);
+		ForeignKeyGraph g2 = ForeignKeyGraph.getInstance(dbRule.getConnection(), null);
+		ForeignKeyGraph g3 = ForeignKeyGraph.getInstance(connection, "PUBLIC");
+
+		assertThat(g1).isSameAs(g2).isNotSameAs(g3);
+	}
+
+	private void execute(String sql) throws Exception {
+		Statement statement = connection.createStatement();
+		try {
+			statement.execute(sql);
+		}
+		finally {
+			statement.close();
+		}
+	}
+}
@@ -86,4 +86,21 @@ public class JdbcConfigurationTest {
 		JdbcConfiguration c2 = newJdbcConfiguration("jdbc:hsqldb:mem:database/testdb", "SA", "");
 		assertThat(c1.hashCode()).isEqualTo(c2.hashCode());
 	}
+
+	@Test
+	public void it_should_create_pooled_configuration() {
+		JdbcConfiguration c1 = newJdbcConfiguration("jdbc:hsqldb:mem:database/testdb", "SA", "");
+		JdbcConfiguration c2 = newJdbcConfiguration("jdbc:hsqldb:mem:database/testdb", "SA", "", 4);
+
+		assertThat(c1.getPoolSize()).isZero();
+		assertThat(c1.isPooled()).isFalse();
+		assertThat(c2.getPoolSize()).isEqualTo(4);
+		assertThat(c2.isPooled()).isTrue();
+		assertThat(c1).isNotEqualTo(c2);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_not_create_configuration_with_negative_pool_size() {
+		newJdbcConfiguration("jdbc:hsqldb:mem:database/testdb", "SA", "", -1);
+	}
 }
@@ -61,6 +61,20 @@ public class JdbcDataSourceConnectionFactoryTest {
 		verify(dataSource).getConnection();
 	}
 
+	@Test
+	public void it_should_implement_equals_hashCode() {
+		DataSource ds1 = mock(DataSource.class);
+		DataSource ds2 = mock(DataSource.class);
+
+		JdbcDataSourceConnectionFactory f1 = new JdbcDataSourceConnectionFactory(ds1);
+		JdbcDataSourceConnectionFactory f2 = new JdbcDataSourceConnectionFactory(ds1);
+		JdbcDataSourceConnectionFactory f3 = new JdbcDataSourceConnectionFactory(ds2);
+
+		assertThat(f1).isEqualTo(f2);
+		assertThat(f1.hashCode()).isEqualTo(f2.hashCode());
+		assertThat(f1).isNotEqualTo(f3);
+	}
+
 	@Test
 	public void it_should_fail_if_connection_cannot_be_loaded() throws Exception {
 		DataSource dataSource = mock(DataSource.class);
@@ -59,6 +59,21 @@ public class JdbcDefaultConnectionFactoryTest {
 		assertThat(connection.getMetaData().getDriverName()).containsIgnoringCase("hsql");
 	}
 
+	@Test
+	public void it_should_implement_equals_hashCode() {
+		JdbcConfiguration c1 = JdbcConfiguration.newJdbcConfiguration("jdbc:hsqldb:mem:testdb", "SA", "");
+		JdbcConfiguration c2 = JdbcConfiguration.newJdbcConfiguration("jdbc:hsqldb:mem:testdb", "SA", "");
+		JdbcConfiguration c3 = JdbcConfiguration.newJdbcConfiguration("jdbc:hsqldb:mem:otherdb", "SA", "");
+
+		JdbcDefaultConnectionFactory f1 = new JdbcDefaultConnectionFactory(c1);
+		JdbcDefaultConnectionFactory f2 = new JdbcDefaultConnectionFactory(c2);
+		JdbcDefaultConnectionFactory f3 = new JdbcDefaultConnectionFactory(c3);
+
+		assertThat(f1).isEqualTo(f2);
+		assertThat(f1.hashCode()).isEqualTo(f2.hashCode());
+		assertThat(f1).isNotEqualTo(f3);
+	}
+
 	@Test
 	public void it_should_fail_if_connection_cannot_be_loaded() {
 		String url = "jdbc:custom:file:database/testdb";
@@ -0,0 +1,128 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.jdbc;
+
+import static com.github.mjeanroy.dbunit.core.jdbc.JdbcConfiguration.newJdbcConfiguration;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+public class JdbcIsolatedConnectionFactoryTest {
+
+	@Test
+	public void it_should_compute_isolated_url() {
+		assertThat(JdbcIsolatedConnectionFactory.isolatedUrl("jdbc:hsqldb:mem:testdb", 0)).isEqualTo("jdbc:hsqldb:mem:testdb");
+		assertThat(JdbcIsolatedConnectionFactory.isolatedUrl("jdbc:hsqldb:mem:testdb", 1)).isEqualTo("jdbc:hsqldb:mem:testdb_1");
+		assertThat(JdbcIsolatedConnectionFactory.isolatedUrl("jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1", 2)).isEqualTo("jdbc:h2:mem:testdb_2;DB_CLOSE_DELAY=-1");
+		assertThat(JdbcIsolatedConnectionFactory.isolatedUrl("jdbc:derby:memory:testdb?create=true", 3)).isEqualTo("jdbc:derby:memory:testdb_3?create=true");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_not_create_factory_with_non_in_memory_database() {
+		new JdbcIsolatedConnectionFactory(newJdbcConfiguration("jdbc:postgresql://localhost/testdb?ssl=true", "SA", ""));
+	}
+
+	@Test
+	public void it_should_reuse_index_of_terminated_threads() throws Exception {
+		final AtomicReference<Integer> first = new AtomicReference<Integer>();
+		Thread t1 = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				first.set(JdbcIsolatedConnectionFactory.acquireIndex(Thread.currentThread()));
+			}
+		});
+
+		t1.start();
+		t1.join();
+
+		final AtomicReference<Integer> second = new AtomicReference<Integer>();
+		Thread t2 = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				second.set(JdbcIsolatedConnectionFactory.acquireIndex(Thread.currentThread()));
+			}
+		});
+
+		t2.start();
+		t2.join();
+
+		assertThat(second.get()).isEqualTo(first.get());
+	}
+
+	@Test
+	public void it_should_use_one_database_per_thread() throws Exception {
+		final JdbcIsolatedConnectionFactory factory = new JdbcIsolatedConnectionFactory(newJdbcConfiguration("jdbc:hsqldb:mem:isolatedfactorydb", "SA", ""));
+		final String url = factory.getCurrentConfiguration().getUrl();
+
+		assertThat(factory.getCurrentConfiguration().getUrl()).isEqualTo(url);
+		assertThat(new JdbcIsolatedConnectionFactory(newJdbcConfiguration("jdbc:hsqldb:mem:isolatedfactorydb", "SA", "")).getCurrentConfiguration().getUrl()).isEqualTo(url);
+
+		Connection connection = factory.getConnection();
+		connection.prepareStatement("CREATE TABLE foo (id INT)").execute();
+		connection.close();
+
+		final AtomicReference<String> otherUrl = new AtomicReference<String>();
+		final AtomicReference<Boolean> hasTable = new AtomicReference<Boolean>();
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					otherUrl.set(factory.getCurrentConfiguration().getUrl());
+					Connection connection = factory.getConnection();
+					hasTable.set(connection.getMetaData().getTables(null, null, "FOO", null).next());
+					connection.close();
+				}
+				catch (Exception ex) {
+					throw new RuntimeException(ex);
+				}
+			}
+		});
+
+		thread.start();
+		thread.join();
+
+		assertThat(otherUrl.get()).isNotEqualTo(url).startsWith("jdbc:hsqldb:mem:isolatedfactorydb");
+		assertThat(hasTable.get()).isFalse();
+	}
+
+	@Test
+	public void it_should_implement_equals_hashCode() {
+		JdbcConfiguration c1 = newJdbcConfiguration("jdbc:hsqldb:mem:testdb", "SA", "");
+		JdbcConfiguration c2 = newJdbcConfiguration("jdbc:hsqldb:mem:testdb", "SA", "");
+		JdbcConfiguration c3 = newJdbcConfiguration("jdbc:hsqldb:mem:otherdb", "SA", "");
+
+		JdbcIsolatedConnectionFactory f1 = new JdbcIsolatedConnectionFactory(c1);
+		JdbcIsolatedConnectionFactory f2 = new JdbcIsolatedConnectionFactory(c2);
+		JdbcIsolatedConnectionFactory f3 = new JdbcIsolatedConnectionFactory(c3);
+
+		assertThat(f1).isEqualTo(f2);
+		assertThat(f1.hashCode()).isEqualTo(f2.hashCode());
+		assertThat(f1).isNotEqualTo(f3);
+		assertThat(f1).isNotEqualTo(new JdbcDefaultConnectionFactory(c1));
+	}
+}
@@ -0,0 +1,98 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.jdbc;
+
+import static com.github.mjeanroy.dbunit.core.jdbc.JdbcConfiguration.newJdbcConfiguration;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class JdbcPoolRegistryTest {
+
+	private static final JdbcConfiguration CONFIGURATION = newJdbcConfiguration("jdbc:hsqldb:mem:registrydb", "SA", "", 2);
+	private static final JdbcConfiguration OTHER_CONFIGURATION = newJdbcConfiguration("jdbc:hsqldb:mem:otherregistrydb", "SA", "", 2);
+
+	@After
+	public void tearDown() {
+		JdbcPoolRegistry.closeAll();
+	}
+
+	@Test
+	public void it_should_share_pool_of_equal_configurations() {
+		JdbcPoolingConnectionFactory p1 = JdbcPoolRegistry.getPool(CONFIGURATION);
+		JdbcPoolingConnectionFactory p2 = JdbcPoolRegistry.getPool(newJdbcConfiguration("jdbc:hsqldb:mem:registrydb", "SA", "", 2));
+		JdbcPoolingConnectionFactory p3 = JdbcPoolRegistry.getPool(OTHER_CONFIGURATION);
+
+		assertThat(p1).isSameAs(p2);
+		assertThat(p1).isNotSameAs(p3);
+	}
+
+	@Test
+	public void it_should_close_physical_connections_of_pool() throws Exception {
+		JdbcPoolingConnectionFactory pool = JdbcPoolRegistry.getPool(CONFIGURATION);
+		Connection connection = pool.getConnection();
+		Connection physical = connection.getMetaData().getConnection();
+		connection.close();
+
+		assertThat(physical.isClosed()).isFalse();
+		assertThat(pool.getIdleCount()).isEqualTo(1);
+
+		JdbcPoolRegistry.close(CONFIGURATION);
+
+		assertThat(physical.isClosed()).isTrue();
+		assertThat(pool.getIdleCount()).isZero();
+		assertThat(JdbcPoolRegistry.getPool(CONFIGURATION)).isNotSameAs(pool);
+	}
+
+	@Test
+	public void it_should_close_physical_connections_of_all_pools() throws Exception {
+		Connection c1 = JdbcPoolRegistry.getPool(CONFIGURATION).getConnection();
+		Connection c2 = JdbcPoolRegistry.getPool(OTHER_CONFIGURATION).getConnection();
+		Connection p1 = c1.getMetaData().getConnection();
+		Connection p2 = c2.getMetaData().getConnection();
+		c1.close();
+		c2.close();
+
+		JdbcPoolRegistry.closeAll();
+
+		assertThat(p1.isClosed()).isTrue();
+		assertThat(p2.isClosed()).isTrue();
+	}
+
+	@Test
+	public void it_should_close_connection_in_use_once_given_back() throws Exception {
+		Connection connection = JdbcPoolRegistry.getPool(CONFIGURATION).getConnection();
+		Connection physical = connection.getMetaData().getConnection();
+
+		JdbcPoolRegistry.close(CONFIGURATION);
+		assertThat(physical.isClosed()).isFalse();
+
+		connection.close();
+		assertThat(physical.isClosed()).isTrue();
+	}
+}
@@ -0,0 +1,185 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.jdbc;
+
+import static com.github.mjeanroy.dbunit.core.jdbc.JdbcConfiguration.newJdbcConfiguration;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import com.github.mjeanroy.dbunit.exception.JdbcException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JdbcPoolingConnectionFactoryTest {
+
+	private JdbcPoolingConnectionFactory factory;
+
+	@Before
+	public void setUp() throws Exception {
+		factory = new JdbcPoolingConnectionFactory(newJdbcConfiguration("jdbc:hsqldb:mem:pooldb", "SA", "", 2));
+
+		Connection connection = factory.getConnection();
+		connection.prepareStatement("CREATE TABLE foo (id INT)").execute();
+		connection.close();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		Connection connection = factory.getConnection();
+		connection.prepareStatement("DROP TABLE foo").execute();
+		connection.close();
+		factory.close();
+	}
+
+	@Test
+	public void it_should_reuse_physical_connection() throws Exception {
+		Connection c1 = factory.getConnection();
+		Connection physical = c1.getMetaData().getConnection();
+		c1.close();
+
+		assertThat(c1.isClosed()).isTrue();
+		assertThat(physical.isClosed()).isFalse();
+		assertThat(factory.getIdleCount()).isEqualTo(1);
+
+		Connection c2 = factory.getConnection();
+		assertThat(c2).isNotSameAs(c1);
+		assertThat(c2.getMetaData().getConnection()).isSameAs(physical);
+		assertThat(factory.getIdleCount()).isZero();
+		c2.close();
+	}
+
+	@Test
+	public void it_should_reset_connection_state() throws Exception {
+		Connection c1 = factory.getConnection();
+		int isolation = c1.getTransactionIsolation();
+
+		c1.setAutoCommit(false);
+		c1.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+		c1.prepareStatement("INSERT INTO foo VALUES (1)").execute();
+		c1.setReadOnly(true);
+		c1.close();
+
+		Connection c2 = factory.getConnection();
+		assertThat(c2.getAutoCommit()).isTrue();
+		assertThat(c2.isReadOnly()).isFalse();
+		assertThat(c2.getTransactionIsolation()).isEqualTo(isolation);
+
+		ResultSet rs = c2.prepareStatement("SELECT COUNT(*) FROM foo").executeQuery();
+		rs.next();
+		assertThat(rs.getInt(1)).isZero();
+		c2.close();
+	}
+
+	@Test
+	public void it_should_fail_when_using_closed_connection() throws Exception {
+		Connection connection = factory.getConnection();
+		connection.close();
+
+		// Should not fail.
+		connection.close();
+
+		try {
+			connection.createStatement();
+			throw new AssertionError("Closed connection should not be used");
+		}
+		catch (SQLException ex) {
+			assertThat(ex.getMessage()).isEqualTo("Connection has been closed");
+		}
+	}
+
+	@Test
+	public void it_should_close_connection_when_pool_is_full() throws Exception {
+		Connection c1 = factory.getConnection();
+		Connection c2 = factory.getConnection();
+		Connection c3 = factory.getConnection();
+		Connection physical = c3.getMetaData().getConnection();
+
+		c1.close();
+		c2.close();
+		c3.close();
+
+		assertThat(factory.getIdleCount()).isEqualTo(2);
+		assertThat(physical.isClosed()).isTrue();
+	}
+
+	@Test
+	public void it_should_not_reuse_invalid_connection() throws Exception {
+		Connection c1 = factory.getConnection();
+		Connection physical = c1.getMetaData().getConnection();
+		c1.close();
+		physical.close();
+
+		Connection c2 = factory.getConnection();
+		assertThat(c2.getMetaData().getConnection()).isNotSameAs(physical);
+		assertThat(c2.isClosed()).isFalse();
+		c2.close();
+	}
+
+	@Test
+	public void it_should_prewarm_pool() {
+		factory.close();
+		assertThat(factory.getIdleCount()).isZero();
+
+		factory.prewarm(5);
+		assertThat(factory.getIdleCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void it_should_close_idle_connections() throws Exception {
+		Connection connection = factory.getConnection();
+		Connection physical = connection.getMetaData().getConnection();
+		connection.close();
+
+		factory.close();
+
+		assertThat(factory.getIdleCount()).isZero();
+		assertThat(physical.isClosed()).isTrue();
+	}
+
+	@Test(expected = JdbcException.class)
+	public void it_should_fail_if_driver_cannot_be_loaded() {
+		new JdbcPoolingConnectionFactory(newJdbcConfiguration("jdbc:custom:mem:testdb", "SA", "", 1)).getConnection();
+	}
+
+	@Test
+	public void it_should_implement_equals_hashCode() {
+		JdbcConfiguration c1 = newJdbcConfiguration("jdbc:hsqldb:mem:testdb", "SA", "", 2);
+		JdbcConfiguration c2 = newJdbcConfiguration("jdbc:hsqldb:mem:testdb", "SA", "", 2);
+		JdbcConfiguration c3 = newJdbcConfiguration("jdbc:hsqldb:mem:otherdb", "SA", "", 2);
+
+		JdbcPoolingConnectionFactory f1 = new JdbcPoolingConnectionFactory(c1);
+		JdbcPoolingConnectionFactory f2 = new JdbcPoolingConnectionFactory(c2);
+		JdbcPoolingConnectionFactory f3 = new JdbcPoolingConnectionFactory(c3);
+
+		assertThat(f1).isEqualTo(f2);
+		assertThat(f1.hashCode()).isEqualTo(f2.hashCode());
+		assertThat(f1).isNotEqualTo(f3);
+		assertThat(f1).isNotEqualTo(new JdbcDefaultConnectionFactory(c1));
+	}
+}
@@ -0,0 +1,83 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.junit.Test;
+
+public class UncloseableConnectionTest {
+
+	@Test
+	public void it_should_not_close_connection() throws Exception {
+		Connection connection = mock(Connection.class);
+		Connection proxy = UncloseableConnection.wrap(connection);
+
+		proxy.close();
+
+		verify(connection, never()).close();
+	}
+
+	@Test
+	public void it_should_delegate_calls() throws Exception {
+		Connection connection = mock(Connection.class);
+		PreparedStatement statement = mock(PreparedStatement.class);
+		when(connection.prepareStatement("SELECT 1")).thenReturn(statement);
+
+		Connection proxy = UncloseableConnection.wrap(connection);
+
+		assertThat(proxy.prepareStatement("SELECT 1")).isSameAs(statement);
+		proxy.rollback();
+		verify(connection).rollback();
+	}
+
+	@Test(expected = SQLException.class)
+	public void it_should_rethrow_original_exception() throws Exception {
+		Connection connection = mock(Connection.class);
+		when(connection.prepareStatement("SELECT 1")).thenThrow(new SQLException("Fail"));
+
+		Connection proxy = UncloseableConnection.wrap(connection);
+		proxy.prepareStatement("SELECT 1");
+	}
+
+	@Test
+	public void it_should_implement_equals_and_hash_code() {
+		Connection connection = mock(Connection.class);
+		Connection p1 = UncloseableConnection.wrap(connection);
+		Connection p2 = UncloseableConnection.wrap(connection);
+
+		assertThat(p1.equals(p1)).isTrue();
+		assertThat(p1.equals(p2)).isFalse();
+		assertThat(p1.hashCode()).isEqualTo(p1.hashCode());
+	}
+}
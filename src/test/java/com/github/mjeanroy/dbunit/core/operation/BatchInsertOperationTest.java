@@ -0,0 +1,230 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.operation;
+
+import static com.github.mjeanroy.dbunit.tests.db.JdbcQueries.countFrom;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import com.github.mjeanroy.dbunit.core.dataset.DataSetFactory;
+import com.github.mjeanroy.dbunit.tests.db.EmbeddedDatabaseRule;
+import org.dbunit.database.DatabaseConfig;
+import org.dbunit.database.DatabaseConnection;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DefaultDataSet;
+import org.dbunit.dataset.DefaultTable;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.datatype.DataType;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class BatchInsertOperationTest {
+
+	@Rule
+	public EmbeddedDatabaseRule dbRule = new EmbeddedDatabaseRule();
+
+	private Connection jdbcConnection;
+	private IDatabaseConnection connection;
+
+	@Before
+	public void setUp() throws Exception {
+		jdbcConnection = dbRule.getConnection();
+		connection = new DatabaseConnection(jdbcConnection);
+	}
+
+	@Test
+	public void it_should_insert_data_set() throws Exception {
+		IDataSet dataSet = DataSetFactory.createDataSet("/dataset/xml");
+
+		new BatchInsertOperation(2).execute(connection, dataSet);
+
+		assertThat(countFrom(jdbcConnection, "foo")).isEqualTo(2);
+		assertThat(countFrom(jdbcConnection, "bar")).isEqualTo(3);
+		assertThat(jdbcConnection.getAutoCommit()).isTrue();
+	}
+
+	@Test
+	public void it_should_insert_data_set_row_by_row() throws Exception {
+		IDataSet dataSet = DataSetFactory.createDataSet("/dataset/xml");
+
+		new BatchInsertOperation(1).execute(connection, dataSet);
+
+		assertThat(countFrom(jdbcConnection, "foo")).isEqualTo(2);
+		assertThat(countFrom(jdbcConnection, "bar")).isEqualTo(3);
+	}
+
+	@Test
+	public void it_should_use_batch_size_of_connection_configuration() throws Exception {
+		connection.getConfig().setProperty(DatabaseConfig.PROPERTY_BATCH_SIZE, 2);
+		IDataSet dataSet = DataSetFactory.createDataSet("/dataset/xml");
+
+		new BatchInsertOperation().execute(connection, dataSet);
+
+		assertThat(countFrom(jdbcConnection, "foo")).isEqualTo(2);
+		assertThat(countFrom(jdbcConnection, "bar")).isEqualTo(3);
+	}
+
+	@Test
+	public void it_should_insert_rows_sorted_by_primary_key_and_skip_missing_values() throws Exception {
+		execute("CREATE TABLE movie (id INT PRIMARY KEY, title VARCHAR(100) DEFAULT 'none')");
+
+		Column[] columns = new Column[]{
+				new Column("id", DataType.UNKNOWN),
+				new Column("title", DataType.UNKNOWN)
+		};
+
+		DefaultTable table = new DefaultTable("movie", columns);
+		table.addRow(new Object[]{"10", "Back To The Future"});
+		table.addRow(new Object[]{"9", ITable.NO_VALUE});
+		table.addRow(new Object[]{"2", "Star Wars"});
+
+		new BatchInsertOperation(10).execute(connection, new DefaultDataSet(table));
+
+		Statement statement = jdbcConnection.createStatement();
+		ResultSet rs = statement.executeQuery("SELECT id, title FROM movie ORDER BY id");
+		try {
+			assertThat(rs.next()).isTrue();
+			assertThat(rs.getInt(1)).isEqualTo(2);
+			assertThat(rs.getString(2)).isEqualTo("Star Wars");
+
+			assertThat(rs.next()).isTrue();
+			assertThat(rs.getInt(1)).isEqualTo(9);
+			assertThat(rs.getString(2)).isEqualTo("none");
+
+			assertThat(rs.next()).isTrue();
+			assertThat(rs.getInt(1)).isEqualTo(10);
+			assertThat(rs.getString(2)).isEqualTo("Back To The Future");
+
+			assertThat(rs.next()).isFalse();
+		}
+		finally {
+			rs.close();
+			statement.close();
+		}
+	}
+
+	@Test
+	public void it_should_insert_null_values() throws Exception {
+		verifyNullValues(10);
+	}
+
+	@Test
+	public void it_should_insert_null_values_row_by_row() throws Exception {
+		verifyNullValues(1);
+	}
+
+	private void verifyNullValues(int batchSize) throws Exception {
+		execute("CREATE TABLE movie (id INT PRIMARY KEY, year INT, title VARCHAR(100), release_date DATE, rating DECIMAL(3, 1))");
+
+		DefaultTable table = new DefaultTable("movie", new Column[]{
+				new Column("id", DataType.UNKNOWN),
+				new Column("year", DataType.UNKNOWN),
+				new Column("title", DataType.UNKNOWN),
+				new Column("release_date", DataType.UNKNOWN),
+				new Column("rating", DataType.UNKNOWN)
+		});
+
+		table.addRow(new Object[]{"1", null, null, null, null});
+		table.addRow(new Object[]{"2", "1985", "Back to the Future", "1985-07-03", "8.5"});
+
+		new BatchInsertOperation(batchSize).execute(connection, new DefaultDataSet(table));
+
+		Statement statement = jdbcConnection.createStatement();
+		ResultSet rs = statement.executeQuery("SELECT year, title, release_date, rating FROM movie ORDER BY id");
+		try {
+			assertThat(rs.next()).isTrue();
+			assertThat(rs.getObject(1)).isNull();
+			assertThat(rs.getObject(2)).isNull();
+			assertThat(rs.getObject(3)).isNull();
+			assertThat(rs.getObject(4)).isNull();
+
+			assertThat(rs.next()).isTrue();
+			assertThat(rs.getInt(1)).isEqualTo(1985);
+			assertThat(rs.getString(2)).isEqualTo("Back to the Future");
+			assertThat(rs.getDate(3).toString()).isEqualTo("1985-07-03");
+			assertThat(rs.getBigDecimal(4).toString()).isEqualTo("8.5");
+		}
+		finally {
+			rs.close();
+			statement.close();
+		}
+	}
+
+	@Test
+	public void it_should_clean_insert_data_set() throws Exception {
+		IDataSet dataSet = DataSetFactory.createDataSet("/dataset/xml");
+
+		DbUnitOperation.BATCH_INSERT.getOperation().execute(connection, dataSet);
+		DbUnitOperation.BATCH_CLEAN_INSERT.getOperation().execute(connection, dataSet);
+
+		assertThat(countFrom(jdbcConnection, "foo")).isEqualTo(2);
+		assertThat(countFrom(jdbcConnection, "bar")).isEqualTo(3);
+	}
+
+	@Test
+	public void it_should_rollback_table_if_insert_failed() throws Exception {
+		execute("CREATE TABLE movie (id INT PRIMARY KEY, title VARCHAR(100))");
+
+		DefaultTable table = new DefaultTable("movie", new Column[]{
+				new Column("id", DataType.UNKNOWN),
+				new Column("title", DataType.UNKNOWN)
+		});
+
+		table.addRow(new Object[]{"1", "Star Wars"});
+		table.addRow(new Object[]{"1", "Back To The Future"});
+
+		try {
+			new BatchInsertOperation(1).execute(connection, new DefaultDataSet(table));
+		}
+		catch (SQLException ex) {
+			// Expected.
+		}
+
+		assertThat(countFrom(jdbcConnection, "movie")).isZero();
+		assertThat(jdbcConnection.getAutoCommit()).isTrue();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_not_create_operation_with_invalid_batch_size() {
+		new BatchInsertOperation(0);
+	}
+
+	private void execute(String sql) throws Exception {
+		Statement statement = jdbcConnection.createStatement();
+		try {
+			statement.execute(sql);
+		}
+		finally {
+			statement.close();
+		}
+	}
+}
@@ -0,0 +1,265 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.operation;
+
+import static com.github.mjeanroy.dbunit.tests.db.JdbcQueries.countFrom;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+
+import com.github.mjeanroy.dbunit.core.dataset.DataSetFactory;
+import com.github.mjeanroy.dbunit.tests.db.EmbeddedDatabaseRule;
+import org.dbunit.database.DatabaseConnection;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DefaultDataSet;
+import org.dbunit.dataset.DefaultTable;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.datatype.DataType;
+import org.dbunit.operation.DatabaseOperation;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BulkInsertOperationTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Rule
+	public EmbeddedDatabaseRule dbRule = new EmbeddedDatabaseRule();
+
+	private File directory;
+	private Connection jdbcConnection;
+	private IDatabaseConnection connection;
+
+	@Before
+	public void setUp() throws Exception {
+		directory = tmp.newFolder("db");
+		jdbcConnection = DriverManager.getConnection("jdbc:hsqldb:file:" + new File(directory, "testdb").getAbsolutePath(), "SA", "");
+		connection = new DatabaseConnection(jdbcConnection);
+
+		execute(jdbcConnection, "CREATE TABLE foo (id INT PRIMARY KEY, name VARCHAR(100))");
+		execute(jdbcConnection, "CREATE TABLE bar (id INT PRIMARY KEY, title VARCHAR(100))");
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		execute(jdbcConnection, "SHUTDOWN");
+		jdbcConnection.close();
+	}
+
+	@Test
+	public void it_should_bulk_load_data_set() throws Exception {
+		DatabaseOperation fallback = mock(DatabaseOperation.class);
+		IDataSet dataSet = DataSetFactory.createDataSet("/dataset/xml");
+
+		new BulkInsertOperation(fallback).execute(connection, dataSet);
+
+		assertThat(countFrom(jdbcConnection, "foo")).isEqualTo(2);
+		assertThat(countFrom(jdbcConnection, "bar")).isEqualTo(3);
+		for (String name : directory.list()) {
+			assertThat(name.startsWith("dbunit_bulk_")).isFalse();
+		}
+
+		verifyZeroInteractions(fallback);
+	}
+
+	@Test
+	public void it_should_bulk_load_special_values() throws Exception {
+		DefaultTable table = new DefaultTable("foo", columns());
+		table.addRow(new Object[]{"1", "Doe, \"John\""});
+		table.addRow(new Object[]{"2", null});
+		table.addRow(new Object[]{"3", ""});
+
+		new BulkInsertOperation().execute(connection, new DefaultDataSet(table));
+
+		Statement statement = jdbcConnection.createStatement();
+		ResultSet rs = statement.executeQuery("SELECT name FROM foo ORDER BY id");
+		try {
+			assertThat(rs.next()).isTrue();
+			assertThat(rs.getString(1)).isEqualTo("Doe, \"John\"");
+			assertThat(rs.next()).isTrue();
+			assertThat(rs.getString(1)).isNull();
+			assertThat(rs.next()).isTrue();
+			assertThat(rs.getString(1)).isEmpty();
+		}
+		finally {
+			rs.close();
+			statement.close();
+		}
+	}
+
+	@Test
+	public void it_should_bulk_load_data_set_with_h2() throws Exception {
+		Connection h2Connection = DriverManager.getConnection("jdbc:h2:mem:bulk_data_set", "sa", "");
+		try {
+			execute(h2Connection, "CREATE TABLE foo (id INT PRIMARY KEY, name VARCHAR(100))");
+			execute(h2Connection, "CREATE TABLE bar (id INT PRIMARY KEY, title VARCHAR(100))");
+
+			DatabaseOperation fallback = mock(DatabaseOperation.class);
+			IDataSet dataSet = DataSetFactory.createDataSet("/dataset/xml");
+
+			assertThat(BulkLoader.find(h2Connection)).isSameAs(BulkLoader.H2);
+			new BulkInsertOperation(fallback).execute(new DatabaseConnection(h2Connection), dataSet);
+
+			assertThat(countFrom(h2Connection, "foo")).isEqualTo(2);
+			assertThat(countFrom(h2Connection, "bar")).isEqualTo(3);
+			verifyZeroInteractions(fallback);
+		}
+		finally {
+			h2Connection.close();
+		}
+	}
+
+	@Test
+	public void it_should_bulk_load_special_values_with_h2() throws Exception {
+		Connection h2Connection = DriverManager.getConnection("jdbc:h2:mem:bulk_special_values", "sa", "");
+		try {
+			execute(h2Connection, "CREATE TABLE movie (id INT PRIMARY KEY, title VARCHAR(100), rating DECIMAL(4, 2), released_at TIMESTAMP)");
+
+			DefaultTable table = new DefaultTable("movie", new Column[]{
+					new Column("id", DataType.UNKNOWN),
+					new Column("title", DataType.UNKNOWN),
+					new Column("rating", DataType.UNKNOWN),
+					new Column("released_at", DataType.UNKNOWN)
+			});
+
+			table.addRow(new Object[]{"1", "Doe, \"John\"", "12.50", "1985-07-03 10:15:30.5"});
+			table.addRow(new Object[]{"2", null, null, null});
+			table.addRow(new Object[]{"3", "", "0.1", "2000-01-01 00:00:00"});
+			table.addRow(new Object[]{"4", "NULL", "-1E+1", "1970-01-01 00:00:00.123"});
+
+			DatabaseOperation fallback = mock(DatabaseOperation.class);
+			new BulkInsertOperation(fallback).execute(new DatabaseConnection(h2Connection), new DefaultDataSet(table));
+			verifyZeroInteractions(fallback);
+
+			Statement statement = h2Connection.createStatement();
+			ResultSet rs = statement.executeQuery("SELECT title, rating, released_at FROM movie ORDER BY id");
+			try {
+				assertThat(rs.next()).isTrue();
+				assertThat(rs.getString(1)).isEqualTo("Doe, \"John\"");
+				assertThat(rs.getBigDecimal(2)).isEqualTo(new BigDecimal("12.50"));
+				assertThat(rs.getTimestamp(3)).isEqualTo(Timestamp.valueOf("1985-07-03 10:15:30.5"));
+
+				assertThat(rs.next()).isTrue();
+				assertThat(rs.getString(1)).isNull();
+				assertThat(rs.getBigDecimal(2)).isNull();
+				assertThat(rs.getTimestamp(3)).isNull();
+
+				assertThat(rs.next()).isTrue();
+				assertThat(rs.getString(1)).isEmpty();
+				assertThat(rs.getBigDecimal(2)).isEqualTo(new BigDecimal("0.10"));
+				assertThat(rs.getTimestamp(3)).isEqualTo(Timestamp.valueOf("2000-01-01 00:00:00"));
+
+				assertThat(rs.next()).isTrue();
+				assertThat(rs.getString(1)).isEqualTo("NULL");
+				assertThat(rs.getBigDecimal(2)).isEqualTo(new BigDecimal("-10.00"));
+				assertThat(rs.getTimestamp(3)).isEqualTo(Timestamp.valueOf("1970-01-01 00:00:00.123"));
+			}
+			finally {
+				rs.close();
+				statement.close();
+			}
+		}
+		finally {
+			h2Connection.close();
+		}
+	}
+
+	@Test
+	public void it_should_use_fallback_for_tables_that_cannot_be_written_to_csv() throws Exception {
+		DatabaseOperation fallback = mock(DatabaseOperation.class);
+
+		DefaultTable foo = new DefaultTable("foo", columns());
+		foo.addRow(new Object[]{"1", ITable.NO_VALUE});
+
+		DefaultTable bar = new DefaultTable("bar", new Column[]{
+				new Column("id", DataType.UNKNOWN),
+				new Column("title", DataType.UNKNOWN)
+		});
+
+		bar.addRow(new Object[]{"1", "Star Wars"});
+
+		new BulkInsertOperation(fallback).execute(connection, new DefaultDataSet(new ITable[]{foo, bar}));
+
+		verify(fallback).execute(same(connection), any(IDataSet.class));
+		assertThat(countFrom(jdbcConnection, "foo")).isZero();
+		assertThat(countFrom(jdbcConnection, "bar")).isEqualTo(1);
+	}
+
+	@Test
+	public void it_should_use_fallback_with_unsupported_database() throws Exception {
+		DatabaseOperation fallback = mock(DatabaseOperation.class);
+		IDatabaseConnection memConnection = new DatabaseConnection(dbRule.getConnection());
+		IDataSet dataSet = DataSetFactory.createDataSet("/dataset/xml");
+
+		new BulkInsertOperation(fallback).execute(memConnection, dataSet);
+
+		verify(fallback).execute(memConnection, dataSet);
+	}
+
+	@Test
+	public void it_should_insert_with_batch_operation_with_unsupported_database() throws Exception {
+		Connection memJdbcConnection = dbRule.getConnection();
+		IDataSet dataSet = DataSetFactory.createDataSet("/dataset/xml");
+
+		DbUnitOperation.BULK_CLEAN_INSERT.getOperation().execute(new DatabaseConnection(memJdbcConnection), dataSet);
+
+		assertThat(countFrom(memJdbcConnection, "foo")).isEqualTo(2);
+		assertThat(countFrom(memJdbcConnection, "bar")).isEqualTo(3);
+	}
+
+	private static Column[] columns() {
+		return new Column[]{
+				new Column("id", DataType.UNKNOWN),
+				new Column("name", DataType.UNKNOWN)
+		};
+	}
+
+	private static void execute(Connection connection, String sql) throws Exception {
+		Statement statement = connection.createStatement();
+		try {
+			statement.execute(sql);
+		}
+		finally {
+			statement.close();
+		}
+	}
+}
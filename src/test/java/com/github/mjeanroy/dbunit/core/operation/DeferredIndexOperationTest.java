@@ -0,0 +1,259 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.operation;
+
+import static com.github.mjeanroy.dbunit.tests.db.JdbcQueries.countFrom;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.github.mjeanroy.dbunit.core.jdbc.CachedDatabaseConnection;
+import com.github.mjeanroy.dbunit.tests.db.EmbeddedDatabaseRule;
+import org.dbunit.DatabaseUnitException;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DefaultDataSet;
+import org.dbunit.dataset.DefaultTable;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.datatype.DataType;
+import org.dbunit.operation.DatabaseOperation;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class DeferredIndexOperationTest {
+
+	@Rule
+	public EmbeddedDatabaseRule dbRule = new EmbeddedDatabaseRule(false);
+
+	private Connection jdbcConnection;
+	private IDatabaseConnection connection;
+	private IDataSet dataSet;
+
+	@Before
+	public void setUp() throws Exception {
+		jdbcConnection = dbRule.getConnection();
+		connection = new CachedDatabaseConnection(jdbcConnection);
+
+		execute("CREATE TABLE author (id INT PRIMARY KEY, name VARCHAR(100))");
+		execute("CREATE TABLE book (id INT PRIMARY KEY, author_id INT REFERENCES author(id), title VARCHAR(100))");
+		execute("CREATE INDEX idx_author_name ON author (name)");
+		execute("CREATE INDEX idx_book_title ON book (title DESC, id)");
+
+		DefaultTable author = new DefaultTable("author", new Column[]{
+				new Column("id", DataType.INTEGER),
+				new Column("name", DataType.VARCHAR)
+		});
+
+		DefaultTable book = new DefaultTable("book", new Column[]{
+				new Column("id", DataType.INTEGER),
+				new Column("author_id", DataType.INTEGER),
+				new Column("title", DataType.VARCHAR)
+		});
+
+		for (int i = 1; i <= 100; i++) {
+			author.addRow(new Object[]{i, "Author " + i});
+			book.addRow(new Object[]{i, i, "Book " + i});
+		}
+
+		dataSet = new DefaultDataSet(new ITable[]{author, book});
+	}
+
+	@Test
+	public void it_should_drop_indexes_during_load() throws Exception {
+		IndexRecorder recorder = new IndexRecorder(new BatchInsertOperation());
+
+		new DeferredIndexOperation(recorder).execute(connection, dataSet);
+
+		assertThat(recorder.indexes).doesNotContain("IDX_AUTHOR_NAME", "IDX_BOOK_TITLE");
+		assertThat(indexes()).contains("IDX_AUTHOR_NAME", "IDX_BOOK_TITLE");
+		assertThat(countFrom(jdbcConnection, "author")).isEqualTo(100);
+		assertThat(countFrom(jdbcConnection, "book")).isEqualTo(100);
+		verifyReferentialIntegrity();
+	}
+
+	@Test
+	public void it_should_recreate_indexes_if_load_failed() throws Exception {
+		DatabaseOperation failure = new DatabaseOperation() {
+			@Override
+			public void execute(IDatabaseConnection connection, IDataSet dataSet) throws DatabaseUnitException, SQLException {
+				throw new SQLException("Load failed");
+			}
+		};
+
+		try {
+			new DeferredIndexOperation(failure, false).execute(connection, dataSet);
+			fail("Load failure should have been thrown");
+		}
+		catch (SQLException ex) {
+			assertThat(ex.getMessage()).isEqualTo("Load failed");
+		}
+
+		assertThat(indexes()).contains("IDX_AUTHOR_NAME", "IDX_BOOK_TITLE");
+	}
+
+	@Test
+	public void it_should_recreate_all_indexes_and_keep_load_failure() throws Exception {
+		DatabaseOperation failure = new DatabaseOperation() {
+			@Override
+			public void execute(IDatabaseConnection connection, IDataSet dataSet) throws DatabaseUnitException, SQLException {
+				createConflictingIndex(connection);
+				throw new SQLException("Load failed");
+			}
+		};
+
+		try {
+			new DeferredIndexOperation(failure, false).execute(connection, dataSet);
+			fail("Load failure should have been thrown");
+		}
+		catch (SQLException ex) {
+			assertThat(ex.getMessage()).isEqualTo("Load failed");
+		}
+
+		assertThat(indexes()).contains("IDX_AUTHOR_NAME", "IDX_BOOK_TITLE");
+	}
+
+	@Test
+	public void it_should_recreate_all_indexes_and_fail_if_an_index_cannot_be_recreated() throws Exception {
+		DatabaseOperation conflict = new DatabaseOperation() {
+			@Override
+			public void execute(IDatabaseConnection connection, IDataSet dataSet) throws DatabaseUnitException, SQLException {
+				createConflictingIndex(connection);
+			}
+		};
+
+		try {
+			new DeferredIndexOperation(conflict, false).execute(connection, dataSet);
+			fail("Index failure should have been thrown");
+		}
+		catch (SQLException ex) {
+			// Expected.
+		}
+
+		assertThat(indexes()).contains("IDX_AUTHOR_NAME", "IDX_BOOK_TITLE");
+	}
+
+	@Test
+	public void it_should_not_defer_indexes_in_transaction() throws Exception {
+		IndexRecorder recorder = new IndexRecorder(new BatchInsertOperation());
+
+		jdbcConnection.setAutoCommit(false);
+		new DeferredIndexOperation(recorder).execute(connection, dataSet);
+		jdbcConnection.commit();
+		jdbcConnection.setAutoCommit(true);
+
+		assertThat(recorder.indexes).contains("IDX_AUTHOR_NAME", "IDX_BOOK_TITLE");
+		assertThat(countFrom(jdbcConnection, "book")).isEqualTo(100);
+	}
+
+	@Test
+	public void it_should_load_large_data_set() throws Exception {
+		DbUnitOperation.LARGE_CLEAN_INSERT.getOperation().execute(connection, dataSet);
+		DbUnitOperation.LARGE_CLEAN_INSERT.getOperation().execute(connection, dataSet);
+
+		assertThat(countFrom(jdbcConnection, "author")).isEqualTo(100);
+		assertThat(countFrom(jdbcConnection, "book")).isEqualTo(100);
+		assertThat(indexes()).contains("IDX_AUTHOR_NAME", "IDX_BOOK_TITLE");
+		verifyReferentialIntegrity();
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void it_should_not_create_operation_without_load_operation() {
+		new DeferredIndexOperation(null);
+	}
+
+	private Set<String> indexes() throws SQLException {
+		return readIndexes(jdbcConnection);
+	}
+
+	private static Set<String> readIndexes(Connection connection) throws SQLException {
+		Set<String> indexes = new HashSet<String>();
+		for (String table : new String[]{"AUTHOR", "BOOK"}) {
+			ResultSet rs = connection.getMetaData().getIndexInfo(null, null, table, false, false);
+			try {
+				while (rs.next()) {
+					indexes.add(rs.getString("INDEX_NAME"));
+				}
+			}
+			finally {
+				rs.close();
+			}
+		}
+
+		return indexes;
+	}
+
+	private static void createConflictingIndex(IDatabaseConnection connection) throws SQLException {
+		Statement statement = connection.getConnection().createStatement();
+		try {
+			statement.execute("CREATE INDEX idx_author_name ON author (id)");
+		}
+		finally {
+			statement.close();
+		}
+	}
+
+	private void verifyReferentialIntegrity() throws Exception {
+		try {
+			execute("INSERT INTO book VALUES (1000, 1000, 'Unknown')");
+			fail("Foreign key should have been kept");
+		}
+		catch (SQLException ex) {
+			// Expected.
+		}
+	}
+
+	private void execute(String sql) throws Exception {
+		Statement statement = jdbcConnection.createStatement();
+		try {
+			statement.execute(sql);
+		}
+		finally {
+			statement.close();
+		}
+	}
+
+	private static class IndexRecorder extends DatabaseOperation {
+		private final DatabaseOperation operation;
+		private Set<String> indexes;
+
+		private IndexRecorder(DatabaseOperation operation) {
+			this.operation = operation;
+		}
+
+		@Override
+		public void execute(IDatabaseConnection connection, IDataSet dataSet) throws DatabaseUnitException, SQLException {
+			indexes = readIndexes(connection.getConnection());
+			operation.execute(connection, dataSet);
+		}
+	}
+}
@@ -0,0 +1,225 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.operation;
+
+import static com.github.mjeanroy.dbunit.tests.db.JdbcQueries.countFrom;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.mjeanroy.dbunit.core.jdbc.JdbcConnectionFactory;
+import com.github.mjeanroy.dbunit.tests.db.EmbeddedDatabaseConnectionFactory;
+import com.github.mjeanroy.dbunit.tests.db.EmbeddedDatabaseRule;
+import org.dbunit.database.DatabaseConnection;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DefaultDataSet;
+import org.dbunit.dataset.DefaultTable;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.datatype.DataType;
+import org.dbunit.operation.CompositeOperation;
+import org.dbunit.operation.DatabaseOperation;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class FastCleanOperationTest {
+
+	@Rule
+	public EmbeddedDatabaseRule dbRule = new EmbeddedDatabaseRule(false);
+
+	private Connection jdbcConnection;
+	private IDatabaseConnection connection;
+	private IDataSet dataSet;
+
+	@Before
+	public void setUp() throws Exception {
+		jdbcConnection = dbRule.getConnection();
+		connection = new DatabaseConnection(jdbcConnection);
+
+		execute("CREATE TABLE author (id INT PRIMARY KEY, name VARCHAR(100))");
+		execute("CREATE TABLE book (id INT PRIMARY KEY, author_id INT REFERENCES author(id))");
+		execute("CREATE TABLE review (id INT PRIMARY KEY, book_id INT REFERENCES book(id))");
+		execute("CREATE TABLE tag (id INT PRIMARY KEY)");
+
+		execute("INSERT INTO author VALUES (1, 'J.R.R. Tolkien')");
+		execute("INSERT INTO book VALUES (1, 1)");
+		execute("INSERT INTO review VALUES (1, 1)");
+		execute("INSERT INTO tag VALUES (1)");
+
+		// Tables in insertion order.
+		dataSet = new DefaultDataSet(new ITable[]{
+				table("author"),
+				table("book"),
+				table("review"),
+				table("tag")
+		});
+	}
+
+	@Test
+	public void it_should_clean_tables() throws Exception {
+		new FastCleanOperation().execute(connection, dataSet);
+
+		assertThat(countFrom(jdbcConnection, "author")).isZero();
+		assertThat(countFrom(jdbcConnection, "book")).isZero();
+		assertThat(countFrom(jdbcConnection, "review")).isZero();
+		assertThat(countFrom(jdbcConnection, "tag")).isZero();
+		verifyReferentialIntegrity();
+	}
+
+	@Test
+	public void it_should_clean_tables_in_any_order() throws Exception {
+		IDataSet reversed = new DefaultDataSet(new ITable[]{
+				table("tag"),
+				table("review"),
+				table("book"),
+				table("author")
+		});
+
+		DbUnitOperation.FAST_CLEAN.getOperation().execute(connection, reversed);
+
+		assertThat(countFrom(jdbcConnection, "author")).isZero();
+		assertThat(countFrom(jdbcConnection, "book")).isZero();
+		assertThat(countFrom(jdbcConnection, "review")).isZero();
+		verifyReferentialIntegrity();
+	}
+
+	@Test
+	public void it_should_clean_tables_in_parallel() throws Exception {
+		JdbcConnectionFactory factory = new EmbeddedDatabaseConnectionFactory(dbRule.getDb());
+
+		new FastCleanOperation(factory, 3).execute(connection, dataSet);
+
+		assertThat(countFrom(jdbcConnection, "author")).isZero();
+		assertThat(countFrom(jdbcConnection, "book")).isZero();
+		assertThat(countFrom(jdbcConnection, "review")).isZero();
+		assertThat(countFrom(jdbcConnection, "tag")).isZero();
+		verifyReferentialIntegrity();
+	}
+
+	@Test
+	public void it_should_open_connections_on_calling_thread() throws Exception {
+		final JdbcConnectionFactory delegate = new EmbeddedDatabaseConnectionFactory(dbRule.getDb());
+		final List<Thread> threads = new ArrayList<Thread>();
+		JdbcConnectionFactory factory = new JdbcConnectionFactory() {
+			@Override
+			public Connection getConnection() {
+				threads.add(Thread.currentThread());
+				return delegate.getConnection();
+			}
+		};
+
+		new FastCleanOperation(factory, 3).execute(connection, dataSet);
+
+		assertThat(threads).hasSize(3).containsOnly(Thread.currentThread());
+		assertThat(countFrom(jdbcConnection, "author")).isZero();
+		assertThat(countFrom(jdbcConnection, "tag")).isZero();
+		verifyReferentialIntegrity();
+	}
+
+	@Test
+	public void it_should_clean_tables_in_transaction() throws Exception {
+		jdbcConnection.setAutoCommit(false);
+		try {
+			new FastCleanOperation().execute(connection, dataSet);
+
+			assertThat(countFrom(jdbcConnection, "author")).isZero();
+			assertThat(countFrom(jdbcConnection, "book")).isZero();
+			assertThat(countFrom(jdbcConnection, "review")).isZero();
+			assertThat(countFrom(jdbcConnection, "tag")).isZero();
+		}
+		finally {
+			jdbcConnection.rollback();
+			jdbcConnection.setAutoCommit(true);
+		}
+
+		assertThat(countFrom(jdbcConnection, "author")).isEqualTo(1);
+		assertThat(countFrom(jdbcConnection, "book")).isEqualTo(1);
+		assertThat(countFrom(jdbcConnection, "review")).isEqualTo(1);
+		assertThat(countFrom(jdbcConnection, "tag")).isEqualTo(1);
+	}
+
+	@Test
+	public void it_should_get_parallel_operation_with_factory() throws Exception {
+		JdbcConnectionFactory factory = new EmbeddedDatabaseConnectionFactory(dbRule.getDb());
+
+		DatabaseOperation clean = DbUnitOperation.FAST_CLEAN.getOperation(factory);
+		DatabaseOperation cleanInsert = DbUnitOperation.FAST_CLEAN_INSERT.getOperation(factory);
+		DatabaseOperation largeCleanInsert = DbUnitOperation.LARGE_CLEAN_INSERT.getOperation(factory);
+
+		assertThat(clean).isExactlyInstanceOf(FastCleanOperation.class);
+		assertThat(clean.toString()).contains("parallelism=" + FastCleanOperation.DEFAULT_PARALLELISM);
+		assertThat(cleanInsert).isExactlyInstanceOf(CompositeOperation.class);
+		assertThat(largeCleanInsert).isExactlyInstanceOf(DeferredIndexOperation.class);
+		assertThat(DbUnitOperation.FAST_CLEAN.getOperation(null)).isSameAs(DbUnitOperation.FAST_CLEAN.getOperation());
+
+		clean.execute(connection, dataSet);
+		assertThat(countFrom(jdbcConnection, "author")).isZero();
+		assertThat(countFrom(jdbcConnection, "tag")).isZero();
+		verifyReferentialIntegrity();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_not_create_operation_with_invalid_parallelism() {
+		new FastCleanOperation(new EmbeddedDatabaseConnectionFactory(dbRule.getDb()), 0);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void it_should_not_create_operation_without_factory() {
+		new FastCleanOperation(null, 2);
+	}
+
+	private void verifyReferentialIntegrity() throws Exception {
+		try {
+			execute("INSERT INTO book VALUES (2, 42)");
+			fail("Referential integrity should have been restored");
+		}
+		catch (SQLException ex) {
+			// Expected.
+		}
+	}
+
+	private void execute(String sql) throws Exception {
+		Statement statement = jdbcConnection.createStatement();
+		try {
+			statement.execute(sql);
+		}
+		finally {
+			statement.close();
+		}
+	}
+
+	private static ITable table(String name) {
+		return new DefaultTable(name, new Column[]{
+				new Column("id", DataType.UNKNOWN)
+		});
+	}
+}
@@ -0,0 +1,231 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.operation;
+
+import static com.github.mjeanroy.dbunit.tests.db.JdbcQueries.countFrom;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import com.github.mjeanroy.dbunit.core.jdbc.JdbcConnectionFactory;
+import com.github.mjeanroy.dbunit.tests.db.EmbeddedDatabaseConnectionFactory;
+import com.github.mjeanroy.dbunit.tests.db.EmbeddedDatabaseRule;
+import org.dbunit.database.DatabaseConnection;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.Column;
+import org.dbunit.dataset.DefaultDataSet;
+import org.dbunit.dataset.DefaultTable;
+import org.dbunit.dataset.ITable;
+import org.dbunit.dataset.datatype.DataType;
+import org.dbunit.operation.CompositeOperation;
+import org.dbunit.operation.DatabaseOperation;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class ParallelInsertOperationTest {
+
+	@Rule
+	public EmbeddedDatabaseRule dbRule = new EmbeddedDatabaseRule(false);
+
+	private Connection jdbcConnection;
+	private IDatabaseConnection connection;
+	private JdbcConnectionFactory factory;
+
+	@Before
+	public void setUp() throws Exception {
+		jdbcConnection = dbRule.getConnection();
+		connection = new DatabaseConnection(jdbcConnection);
+		factory = new EmbeddedDatabaseConnectionFactory(dbRule.getDb());
+
+		execute("CREATE TABLE author (id INT PRIMARY KEY)");
+		execute("CREATE TABLE book (id INT PRIMARY KEY, author_id INT REFERENCES author(id), parent_id INT REFERENCES book(id))");
+		execute("CREATE TABLE review (id INT PRIMARY KEY, book_id INT REFERENCES book(id))");
+		execute("CREATE TABLE tag (id INT PRIMARY KEY)");
+	}
+
+	@Test
+	public void it_should_insert_tables_concurrently() throws Exception {
+		// Tables are not ordered for insertion.
+		DefaultDataSet dataSet = new DefaultDataSet(new ITable[]{
+				table("review", 10, "book_id"),
+				table("tag", 10),
+				table("book", 10, "author_id"),
+				table("author", 10)
+		});
+
+		new ParallelInsertOperation(factory, 3).execute(connection, dataSet);
+
+		assertThat(countFrom(jdbcConnection, "author")).isEqualTo(10);
+		assertThat(countFrom(jdbcConnection, "book")).isEqualTo(10);
+		assertThat(countFrom(jdbcConnection, "review")).isEqualTo(10);
+		assertThat(countFrom(jdbcConnection, "tag")).isEqualTo(10);
+	}
+
+	@Test
+	public void it_should_split_large_tables() throws Exception {
+		DefaultDataSet dataSet = new DefaultDataSet(new ITable[]{
+				table("author", 250),
+				table("tag", 250),
+				table("book", 50, "author_id")
+		});
+
+		new ParallelInsertOperation(factory, 3, 100).execute(connection, dataSet);
+
+		assertThat(countFrom(jdbcConnection, "author")).isEqualTo(250);
+		assertThat(countFrom(jdbcConnection, "tag")).isEqualTo(250);
+		assertThat(countFrom(jdbcConnection, "book")).isEqualTo(50);
+	}
+
+	@Test
+	public void it_should_not_split_self_referencing_tables() throws Exception {
+		DefaultTable book = new DefaultTable("book", new Column[]{
+				new Column("id", DataType.INTEGER),
+				new Column("parent_id", DataType.INTEGER)
+		});
+
+		book.addRow(new Object[]{1, null});
+		for (int i = 2; i <= 50; i++) {
+			book.addRow(new Object[]{i, i - 1});
+		}
+
+		DefaultDataSet dataSet = new DefaultDataSet(new ITable[]{
+				book,
+				table("tag", 50)
+		});
+
+		new ParallelInsertOperation(factory, 2, 10).execute(connection, dataSet);
+
+		assertThat(countFrom(jdbcConnection, "book")).isEqualTo(50);
+		assertThat(countFrom(jdbcConnection, "tag")).isEqualTo(50);
+	}
+
+	@Test
+	public void it_should_rollback_group_if_insert_failed() throws Exception {
+		// Books do not exist: all tables are in the same group.
+		DefaultDataSet dataSet = new DefaultDataSet(new ITable[]{
+				table("author", 10),
+				table("tag", 10),
+				table("review", 10, "book_id")
+		});
+
+		try {
+			new ParallelInsertOperation(factory, 3).execute(connection, dataSet);
+			fail("Insert should have failed");
+		}
+		catch (SQLException ex) {
+			// Expected.
+		}
+
+		assertThat(countFrom(jdbcConnection, "author")).isZero();
+		assertThat(countFrom(jdbcConnection, "tag")).isZero();
+		assertThat(countFrom(jdbcConnection, "review")).isZero();
+	}
+
+	@Test
+	public void it_should_insert_tables_with_operation_connection_in_transaction() throws Exception {
+		DefaultDataSet dataSet = new DefaultDataSet(new ITable[]{
+				table("author", 10),
+				table("tag", 10)
+		});
+
+		jdbcConnection.setAutoCommit(false);
+		try {
+			new ParallelInsertOperation(factory, 3).execute(connection, dataSet);
+			assertThat(countFrom(jdbcConnection, "author")).isEqualTo(10);
+		}
+		finally {
+			jdbcConnection.rollback();
+			jdbcConnection.setAutoCommit(true);
+		}
+
+		assertThat(countFrom(jdbcConnection, "author")).isZero();
+		assertThat(countFrom(jdbcConnection, "tag")).isZero();
+	}
+
+	@Test
+	public void it_should_get_parallel_operation_with_factory() {
+		DatabaseOperation insert = DbUnitOperation.PARALLEL_INSERT.getOperation(factory);
+		DatabaseOperation cleanInsert = DbUnitOperation.PARALLEL_CLEAN_INSERT.getOperation(factory);
+
+		assertThat(insert).isExactlyInstanceOf(ParallelInsertOperation.class);
+		assertThat(cleanInsert).isExactlyInstanceOf(CompositeOperation.class);
+		assertThat(DbUnitOperation.PARALLEL_INSERT.getOperation(null)).isSameAs(DbUnitOperation.PARALLEL_INSERT.getOperation());
+		assertThat(DbUnitOperation.INSERT.getOperation(factory)).isSameAs(DatabaseOperation.INSERT);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_not_create_operation_with_invalid_parallelism() {
+		new ParallelInsertOperation(factory, 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_not_create_operation_with_invalid_split_size() {
+		new ParallelInsertOperation(factory, 2, -1);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void it_should_not_create_operation_without_factory() {
+		new ParallelInsertOperation(null, 2);
+	}
+
+	private void execute(String sql) throws Exception {
+		Statement statement = jdbcConnection.createStatement();
+		try {
+			statement.execute(sql);
+		}
+		finally {
+			statement.close();
+		}
+	}
+
+	private static ITable table(String name, int rows) throws Exception {
+		DefaultTable table = new DefaultTable(name, new Column[]{
+				new Column("id", DataType.INTEGER)
+		});
+
+		for (int i = 1; i <= rows; i++) {
+			table.addRow(new Object[]{i});
+		}
+
+		return table;
+	}
+
+	private static ITable table(String name, int rows, String foreignKey) throws Exception {
+		DefaultTable table = new DefaultTable(name, new Column[]{
+				new Column("id", DataType.INTEGER),
+				new Column(foreignKey, DataType.INTEGER)
+		});
+
+		for (int i = 1; i <= rows; i++) {
+			table.addRow(new Object[]{i, i});
+		}
+
+		return table;
+	}
+}
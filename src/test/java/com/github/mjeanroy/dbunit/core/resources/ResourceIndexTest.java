@@ -0,0 +1,170 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.resources;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import com.github.mjeanroy.dbunit.commons.io.Files;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ResourceIndexTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void it_should_read_index() throws Exception {
+		String index = "" +
+				"# Generated index\n" +
+				"DIRECTORY\t-1\t-\t/dataset/xml\n" +
+				"DATASET\t10\tabcdef\t/dataset/xml/foo.xml\tfoo\n" +
+				"DATASET\t20\t123456\t/dataset/xml/bar.xml\tbar,baz\n" +
+				"SQL\t30\t654321\t/sql/init.sql\n" +
+				"INVALID LINE\n";
+
+		List<ResourceIndex.Entry> entries = ResourceIndex.read(new ByteArrayInputStream(index.getBytes("UTF-8")));
+
+		assertThat(entries).hasSize(4);
+
+		ResourceIndex.Entry directory = entries.get(0);
+		assertThat(directory.isDirectory()).isTrue();
+		assertThat(directory.getSize()).isEqualTo(-1L);
+		assertThat(directory.getHash()).isNull();
+		assertThat(directory.getPath()).isEqualTo("/dataset/xml");
+		assertThat(directory.getTableNames()).isNull();
+
+		ResourceIndex.Entry bar = entries.get(2);
+		assertThat(bar.isDirectory()).isFalse();
+		assertThat(bar.getType()).isEqualTo(ResourceIndex.Entry.DATASET);
+		assertThat(bar.getSize()).isEqualTo(20L);
+		assertThat(bar.getHash()).isEqualTo("123456");
+		assertThat(bar.getPath()).isEqualTo("/dataset/xml/bar.xml");
+		assertThat(bar.getTableNames()).containsExactly("bar", "baz");
+
+		ResourceIndex.Entry sql = entries.get(3);
+		assertThat(sql.getType()).isEqualTo(ResourceIndex.Entry.SQL);
+		assertThat(sql.getTableNames()).isNull();
+	}
+
+	@Test
+	public void it_should_serialize_entry() {
+		ResourceIndex.Entry entry = new ResourceIndex.Entry(ResourceIndex.Entry.DATASET, 10, "abcdef", "dataset/foo.xml", new String[]{"foo", "bar"});
+		ResourceIndex.Entry directory = new ResourceIndex.Entry(ResourceIndex.Entry.DIRECTORY, -1, null, "/dataset", null);
+
+		assertThat(entry.toLine()).isEqualTo("DATASET\t10\tabcdef\t/dataset/foo.xml\tfoo,bar");
+		assertThat(directory.toLine()).isEqualTo("DIRECTORY\t-1\t-\t/dataset");
+		assertThat(ResourceIndex.Entry.parse(entry.toLine()).getTableNames()).containsExactly("foo", "bar");
+	}
+
+	@Test
+	public void it_should_list_and_get_entries() {
+		ResourceIndex index = new ResourceIndex(asList(
+				new ResourceIndex.Entry(ResourceIndex.Entry.DIRECTORY, -1, null, "/dataset", null),
+				new ResourceIndex.Entry(ResourceIndex.Entry.DIRECTORY, -1, null, "/dataset/xml", null),
+				new ResourceIndex.Entry(ResourceIndex.Entry.DATASET, 10, "abcdef", "/dataset/xml/foo.xml", null),
+				new ResourceIndex.Entry(ResourceIndex.Entry.DATASET, 10, "abcdef", "/dataset/xml/bar.xml", null)
+		));
+
+		assertThat(index.isEmpty()).isFalse();
+		assertThat(index.get("dataset/xml/foo.xml").getHash()).isEqualTo("abcdef");
+		assertThat(index.get("/dataset/xml/unknown.xml")).isNull();
+		assertThat(index.list("/dataset")).extracting("path").containsExactly("/dataset/xml");
+		assertThat(index.list("/dataset/xml/")).extracting("path").containsExactly("/dataset/xml/foo.xml", "/dataset/xml/bar.xml");
+		assertThat(index.list("/sql")).isNull();
+	}
+
+	@Test
+	public void it_should_find_resource_and_ignore_stale_entries() throws Exception {
+		File directory = tmp.newFolder("dataset");
+		File file = new File(directory, "foo.xml");
+		FileOutputStream stream = new FileOutputStream(file);
+		stream.write("<dataset/>".getBytes("UTF-8"));
+		stream.close();
+
+		Resource resource = ResourceLoader.FILE_SYSTEM.load("file:" + file.getAbsolutePath());
+
+		String hash = Files.sha1(file);
+
+		ResourceIndex index = new ResourceIndex(asList(
+				new ResourceIndex.Entry(ResourceIndex.Entry.DATASET, file.length(), hash, "/dataset/foo.xml", new String[]{"foo"})
+		));
+
+		ResourceIndex staleIndex = new ResourceIndex(asList(
+				new ResourceIndex.Entry(ResourceIndex.Entry.DATASET, file.length() + 1, hash, "/dataset/foo.xml", new String[]{"foo"})
+		));
+
+		assertThat(index.find(resource)).isNotNull();
+		assertThat(index.find(resource).getTableNames()).containsExactly("foo");
+		assertThat(staleIndex.find(resource)).isNull();
+	}
+
+	@Test
+	public void it_should_ignore_stale_entries_of_files_with_same_size() throws Exception {
+		File directory = tmp.newFolder("dataset");
+		File file = new File(directory, "foo.xml");
+		write(file, "<dataset><foo/></dataset>");
+		String hash = Files.sha1(file);
+
+		ResourceIndex index = new ResourceIndex(asList(
+				new ResourceIndex.Entry(ResourceIndex.Entry.DATASET, file.length(), hash, "/dataset/foo.xml", new String[]{"foo"})
+		));
+
+		Resource resource = ResourceLoader.FILE_SYSTEM.load("file:" + file.getAbsolutePath());
+		assertThat(index.find(resource)).isNotNull();
+
+		write(file, "<dataset><bar/></dataset>");
+		assertThat(file.setLastModified(file.lastModified() + 2000)).isTrue();
+		assertThat(index.find(resource)).isNull();
+	}
+
+	private static void write(File file, String content) throws Exception {
+		FileOutputStream stream = new FileOutputStream(file);
+		try {
+			stream.write(content.getBytes("UTF-8"));
+		}
+		finally {
+			stream.close();
+		}
+	}
+
+	@Test
+	public void it_should_load_empty_index_without_index_files() {
+		ResourceIndex index = ResourceIndex.load(getClass().getClassLoader());
+		assertThat(index.isEmpty()).isTrue();
+		assertThat(ResourceIndex.getInstance().list("/dataset/xml")).isNull();
+	}
+
+	private static List<ResourceIndex.Entry> asList(ResourceIndex.Entry... entries) {
+		return Arrays.asList(entries);
+	}
+}
@@ -0,0 +1,186 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.runner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import javax.sql.DataSource;
+
+import com.github.mjeanroy.dbunit.core.jdbc.DatabaseConfiguration;
+import com.github.mjeanroy.dbunit.core.jdbc.JdbcConnectionFactory;
+import com.github.mjeanroy.dbunit.core.jdbc.JdbcDataSourceConnectionFactory;
+import com.github.mjeanroy.dbunit.tests.fixtures.TestClassWithDataSet;
+import com.github.mjeanroy.dbunit.tests.fixtures.TestClassWithDataSetAndSqlInit;
+import com.github.mjeanroy.dbunit.tests.fixtures.TestClassWithReInit;
+import com.github.mjeanroy.dbunit.tests.fixtures.TestClassWithoutDataSet;
+import org.junit.After;
+import org.junit.Test;
+
+public class DbUnitRunnerRegistryTest {
+
+	@After
+	public void tearDown() {
+		DbUnitRunnerRegistry.clear();
+	}
+
+	@Test
+	public void it_should_create_runner_once() {
+		JdbcConnectionFactory factory = mock(JdbcConnectionFactory.class);
+
+		DbUnitRunner r1 = DbUnitRunnerRegistry.getRunner(TestClassWithDataSet.class, factory);
+		DbUnitRunner r2 = DbUnitRunnerRegistry.getRunner(TestClassWithDataSet.class, factory);
+
+		assertThat(r1).isNotNull();
+		assertThat(r2).isSameAs(r1);
+	}
+
+	@Test
+	public void it_should_create_runner_per_test_class_and_factory() {
+		JdbcConnectionFactory f1 = mock(JdbcConnectionFactory.class);
+		JdbcConnectionFactory f2 = mock(JdbcConnectionFactory.class);
+
+		DbUnitRunner r1 = DbUnitRunnerRegistry.getRunner(TestClassWithDataSet.class, f1);
+		DbUnitRunner r2 = DbUnitRunnerRegistry.getRunner(TestClassWithDataSet.class, f2);
+		DbUnitRunner r3 = DbUnitRunnerRegistry.getRunner(TestClassWithoutDataSet.class, f1);
+
+		assertThat(r1).isNotSameAs(r2);
+		assertThat(r1).isNotSameAs(r3);
+		assertThat(r2).isNotSameAs(r3);
+	}
+
+	@Test
+	public void it_should_create_runner_per_configuration() {
+		JdbcConnectionFactory factory = mock(JdbcConnectionFactory.class);
+		DatabaseConfiguration configuration = DatabaseConfiguration.builder().setBatchSize(10).build();
+
+		DbUnitRunner r1 = DbUnitRunnerRegistry.getRunner(TestClassWithDataSet.class, factory);
+		DbUnitRunner r2 = DbUnitRunnerRegistry.getRunner(TestClassWithDataSet.class, factory, configuration);
+		DbUnitRunner r3 = DbUnitRunnerRegistry.getRunner(TestClassWithDataSet.class, factory, DatabaseConfiguration.builder().setBatchSize(10).build());
+
+		assertThat(r1).isNotSameAs(r2);
+		assertThat(r3).isSameAs(r2);
+	}
+
+	@Test
+	public void it_should_share_runner_with_equivalent_data_source_factory() {
+		DataSource dataSource = mock(DataSource.class);
+
+		DbUnitRunner r1 = DbUnitRunnerRegistry.getRunner(TestClassWithDataSet.class, dataSource);
+		DbUnitRunner r2 = DbUnitRunnerRegistry.getRunner(TestClassWithDataSet.class, new JdbcDataSourceConnectionFactory(dataSource));
+
+		assertThat(r1).isSameAs(r2);
+	}
+
+	@Test
+	public void it_should_create_new_runner_with_re_init_annotation() {
+		JdbcConnectionFactory factory = mock(JdbcConnectionFactory.class);
+
+		DbUnitRunner r1 = DbUnitRunnerRegistry.getRunner(TestClassWithReInit.class, factory);
+		DbUnitRunner r2 = DbUnitRunnerRegistry.getRunner(TestClassWithReInit.class, factory);
+
+		assertThat(r1).isNotNull();
+		assertThat(r2).isNotNull().isNotSameAs(r1);
+	}
+
+	@Test
+	public void it_should_remove_runner() {
+		JdbcConnectionFactory factory = mock(JdbcConnectionFactory.class);
+
+		DbUnitRunner r1 = DbUnitRunnerRegistry.getRunner(TestClassWithDataSet.class, factory);
+		DbUnitRunnerRegistry.remove(TestClassWithDataSet.class, factory);
+		DbUnitRunner r2 = DbUnitRunnerRegistry.getRunner(TestClassWithDataSet.class, factory);
+
+		assertThat(r2).isNotSameAs(r1);
+	}
+
+	@Test
+	public void it_should_remove_runner_with_data_source() {
+		DataSource dataSource = mock(DataSource.class);
+
+		DbUnitRunner r1 = DbUnitRunnerRegistry.getRunner(TestClassWithDataSet.class, dataSource);
+		DbUnitRunnerRegistry.remove(TestClassWithDataSet.class, dataSource);
+		DbUnitRunner r2 = DbUnitRunnerRegistry.getRunner(TestClassWithDataSet.class, dataSource);
+
+		assertThat(r2).isNotSameAs(r1);
+	}
+
+	@Test
+	public void it_should_remove_least_recently_used_runners() {
+		JdbcConnectionFactory factory = mock(JdbcConnectionFactory.class);
+		DbUnitRunner r1 = DbUnitRunnerRegistry.getRunner(TestClassWithDataSet.class, factory);
+		DbUnitRunner r2 = DbUnitRunnerRegistry.getRunner(TestClassWithoutDataSet.class, factory);
+
+		for (int i = 0; i < DbUnitRunnerRegistry.MAX_RUNNERS - 1; i++) {
+			DbUnitRunnerRegistry.getRunner(TestClassWithDataSet.class, mock(JdbcConnectionFactory.class));
+
+			// Keep first runner as the most recently used one.
+			DbUnitRunnerRegistry.getRunner(TestClassWithDataSet.class, factory);
+		}
+
+		assertThat(DbUnitRunnerRegistry.getRunner(TestClassWithDataSet.class, factory)).isSameAs(r1);
+		assertThat(DbUnitRunnerRegistry.getRunner(TestClassWithoutDataSet.class, factory)).isNotSameAs(r2);
+	}
+
+	@Test
+	public void it_should_not_keep_runner_that_failed_to_initialize() {
+		JdbcConnectionFactory factory = mock(JdbcConnectionFactory.class);
+		when(factory.getConnection()).thenThrow(new IllegalStateException("Database is down"));
+
+		for (int i = 0; i < 2; i++) {
+			try {
+				DbUnitRunnerRegistry.getRunner(TestClassWithDataSetAndSqlInit.class, factory);
+				fail("Runner initialization should have failed");
+			}
+			catch (RuntimeException ex) {
+				// Expected.
+			}
+		}
+
+		verify(factory, times(2)).getConnection();
+
+		// Should not fail.
+		DbUnitRunnerRegistry.remove(TestClassWithDataSetAndSqlInit.class, factory);
+		DbUnitRunnerRegistry.close(TestClassWithDataSetAndSqlInit.class, factory);
+	}
+
+	@Test
+	public void it_should_close_runner() {
+		JdbcConnectionFactory factory = mock(JdbcConnectionFactory.class);
+
+		// Should not fail, nor create runner.
+		DbUnitRunnerRegistry.close(TestClassWithDataSet.class, factory);
+
+		DbUnitRunner r1 = DbUnitRunnerRegistry.getRunner(TestClassWithDataSet.class, factory);
+		DbUnitRunnerRegistry.close(TestClassWithDataSet.class, factory);
+		DbUnitRunner r2 = DbUnitRunnerRegistry.getRunner(TestClassWithDataSet.class, factory);
+
+		assertThat(r2).isSameAs(r1);
+	}
+}
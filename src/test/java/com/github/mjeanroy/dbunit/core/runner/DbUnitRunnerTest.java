@@ -32,11 +32,14 @@ import static org.mockito.Mockito.mock;
 import javax.sql.DataSource;
 import java.lang.reflect.Method;
 
+import com.github.mjeanroy.dbunit.core.jdbc.DatabaseConfiguration;
 import com.github.mjeanroy.dbunit.core.jdbc.JdbcConnectionFactory;
 import com.github.mjeanroy.dbunit.core.jdbc.JdbcDataSourceConnectionFactory;
 import com.github.mjeanroy.dbunit.tests.db.EmbeddedDatabaseRule;
+import com.github.mjeanroy.dbunit.tests.fixtures.TestClassWithConfig;
 import com.github.mjeanroy.dbunit.tests.fixtures.TestClassWithDataSet;
 import com.github.mjeanroy.dbunit.tests.fixtures.TestClassWithoutDataSet;
+import org.dbunit.database.DatabaseConfig;
 import org.dbunit.dataset.IDataSet;
 import org.junit.ClassRule;
 import org.junit.Test;
@@ -172,4 +175,49 @@ public class DbUnitRunnerTest {
 		assertThat(countFrom(dbRule.getConnection(), "foo")).isZero();
 		assertThat(countFrom(dbRule.getConnection(), "bar")).isZero();
 	}
+
+	@Test
+	public void it_should_create_runner_with_configuration() throws Exception {
+		JdbcConnectionFactory factory = mock(JdbcConnectionFactory.class);
+		DatabaseConfiguration configuration = DatabaseConfiguration.builder().setBatchSize(10).build();
+
+		DbUnitRunner runner = new DbUnitRunner(TestClassWithDataSet.class, factory, configuration);
+
+		assertThat(readPrivate(runner, "configuration", DatabaseConfiguration.class)).isSameAs(configuration);
+	}
+
+	@Test
+	public void it_should_create_runner_with_configuration_annotation() throws Exception {
+		JdbcConnectionFactory factory = mock(JdbcConnectionFactory.class);
+		DatabaseConfiguration configuration = DatabaseConfiguration.builder().setBatchSize(10).build();
+
+		DbUnitRunner runner = new DbUnitRunner(TestClassWithConfig.class, factory, configuration);
+
+		DatabaseConfiguration runnerConfiguration = readPrivate(runner, "configuration", DatabaseConfiguration.class);
+		assertThat(runnerConfiguration.getProperties())
+			.containsEntry(DatabaseConfig.FEATURE_BATCHED_STATEMENTS, true)
+			.containsEntry(DatabaseConfig.PROPERTY_BATCH_SIZE, 50);
+	}
+
+	@Test
+	public void it_should_load_data_set_with_configuration_annotation() throws Exception {
+		Class<TestClassWithConfig> klass = TestClassWithConfig.class;
+		DbUnitRunner runner = new DbUnitRunner(klass, dbRule.getDb());
+		Method testMethod = klass.getMethod("method1");
+
+		try {
+			runner.beforeTest(testMethod);
+
+			assertThat(countFrom(dbRule.getConnection(), "foo")).isEqualTo(2);
+			assertThat(countFrom(dbRule.getConnection(), "bar")).isEqualTo(3);
+
+			runner.afterTest(testMethod);
+
+			assertThat(countFrom(dbRule.getConnection(), "foo")).isZero();
+			assertThat(countFrom(dbRule.getConnection(), "bar")).isZero();
+		}
+		finally {
+			runner.close();
+		}
+	}
 }
@@ -0,0 +1,119 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.runner;
+
+import static com.github.mjeanroy.dbunit.tests.db.JdbcQueries.countFrom;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+
+import com.github.mjeanroy.dbunit.tests.db.EmbeddedDatabaseRule;
+import com.github.mjeanroy.dbunit.tests.fixtures.TestClassWithDataSet;
+import com.github.mjeanroy.dbunit.tests.fixtures.TestClassWithIncremental;
+import org.junit.After;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class DbUnitRunnerWithIncrementalTest {
+
+	@ClassRule
+	public static EmbeddedDatabaseRule dbRule = new EmbeddedDatabaseRule();
+
+	@After
+	public void tearDown() throws Exception {
+		Connection connection = dbRule.getConnection();
+		connection.prepareStatement("DELETE FROM foo").execute();
+		connection.prepareStatement("DELETE FROM bar").execute();
+		connection.close();
+	}
+
+	@Test
+	public void it_should_reseed_modified_tables_only() throws Exception {
+		Class<TestClassWithIncremental> klass = TestClassWithIncremental.class;
+		DbUnitRunner runner = new DbUnitRunner(klass, dbRule.getDb());
+		Method method = klass.getMethod("method1");
+
+		runner.beforeTest(method);
+		assertThat(countFrom(dbRule.getConnection(), "foo")).isEqualTo(2);
+		assertThat(countFrom(dbRule.getConnection(), "bar")).isEqualTo(3);
+
+		// Write with a tracked connection: table is re-seeded.
+		Connection connection = runner.track(dbRule.getConnection());
+		connection.prepareStatement("INSERT INTO foo VALUES (3, 'Foo')").execute();
+		connection.close();
+		runner.afterTest(method);
+
+		runner.beforeTest(method);
+		assertThat(countFrom(dbRule.getConnection(), "foo")).isEqualTo(2);
+		assertThat(countFrom(dbRule.getConnection(), "bar")).isEqualTo(3);
+
+		// Nothing written with a tracked connection: setup is skipped.
+		dbRule.getConnection().prepareStatement("INSERT INTO bar VALUES (4, 'Bar')").execute();
+		runner.afterTest(method);
+
+		runner.beforeTest(method);
+		assertThat(countFrom(dbRule.getConnection(), "foo")).isEqualTo(2);
+		assertThat(countFrom(dbRule.getConnection(), "bar")).isEqualTo(4);
+
+		// DDL: the whole data set is re-seeded.
+		connection = runner.track(dbRule.getConnection());
+		connection.createStatement().execute("CREATE TABLE quix (id INT)");
+		connection.createStatement().execute("DROP TABLE quix");
+		connection.close();
+		runner.afterTest(method);
+
+		runner.beforeTest(method);
+		assertThat(countFrom(dbRule.getConnection(), "foo")).isEqualTo(2);
+		assertThat(countFrom(dbRule.getConnection(), "bar")).isEqualTo(3);
+		runner.afterTest(method);
+	}
+
+	@Test
+	public void it_should_execute_setup_when_operation_is_not_clean_insert() throws Exception {
+		Class<TestClassWithIncremental> klass = TestClassWithIncremental.class;
+		DbUnitRunner runner = new DbUnitRunner(klass, dbRule.getDb());
+
+		runner.beforeTest(klass.getMethod("method1"));
+		runner.afterTest(klass.getMethod("method1"));
+
+		Connection connection = dbRule.getConnection();
+		connection.prepareStatement("DELETE FROM foo").execute();
+		connection.prepareStatement("DELETE FROM bar").execute();
+
+		Method method = klass.getMethod("method2");
+		runner.beforeTest(method);
+		assertThat(countFrom(dbRule.getConnection(), "foo")).isEqualTo(2);
+		assertThat(countFrom(dbRule.getConnection(), "bar")).isEqualTo(3);
+		runner.afterTest(method);
+	}
+
+	@Test
+	public void it_should_not_track_connection_without_incremental_mode() throws Exception {
+		DbUnitRunner runner = new DbUnitRunner(TestClassWithDataSet.class, dbRule.getDb());
+		Connection connection = dbRule.getConnection();
+		assertThat(runner.track(connection)).isSameAs(connection);
+	}
+}
@@ -0,0 +1,82 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.runner;
+
+import static com.github.mjeanroy.dbunit.core.jdbc.JdbcConfiguration.newJdbcConfiguration;
+import static com.github.mjeanroy.dbunit.tests.db.JdbcQueries.countFrom;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.mjeanroy.dbunit.core.jdbc.JdbcIsolatedConnectionFactory;
+import com.github.mjeanroy.dbunit.tests.fixtures.TestClassWithDataSetAndSqlInit;
+import org.junit.Test;
+
+public class DbUnitRunnerWithIsolationTest {
+
+	@Test
+	public void it_should_initialize_and_load_data_set_in_database_of_each_thread() throws Exception {
+		final JdbcIsolatedConnectionFactory factory = new JdbcIsolatedConnectionFactory(newJdbcConfiguration("jdbc:hsqldb:mem:isolatedrunnerdb", "SA", ""));
+		final Class<TestClassWithDataSetAndSqlInit> klass = TestClassWithDataSetAndSqlInit.class;
+		final DbUnitRunner runner = new DbUnitRunner(klass, factory);
+		final Method method = klass.getMethod("method1");
+
+		runner.beforeTest(method);
+
+		final AtomicInteger count = new AtomicInteger(-1);
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				runner.beforeTest(method);
+
+				try {
+					Connection connection = factory.getConnection();
+					connection.prepareStatement("INSERT INTO foo VALUES (3, 'Foo')").execute();
+					count.set(countFrom(connection, "foo"));
+					connection.close();
+				}
+				catch (Exception ex) {
+					throw new RuntimeException(ex);
+				}
+				finally {
+					runner.afterTest(method);
+				}
+			}
+		});
+
+		thread.start();
+		thread.join();
+
+		assertThat(count.get()).isEqualTo(3);
+		assertThat(countFrom(factory.getConnection(), "foo")).isEqualTo(2);
+		assertThat(countFrom(factory.getConnection(), "bar")).isEqualTo(3);
+
+		runner.afterTest(method);
+
+		assertThat(countFrom(factory.getConnection(), "foo")).isZero();
+	}
+}
@@ -0,0 +1,156 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.runner;
+
+import static com.github.mjeanroy.dbunit.tests.db.JdbcQueries.countFrom;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.mjeanroy.dbunit.core.jdbc.JdbcConnectionFactory;
+import com.github.mjeanroy.dbunit.tests.db.EmbeddedDatabaseConnectionFactory;
+import com.github.mjeanroy.dbunit.tests.db.EmbeddedDatabaseRule;
+import com.github.mjeanroy.dbunit.tests.fixtures.TestClassWithDataSet;
+import com.github.mjeanroy.dbunit.tests.fixtures.TestClassWithReInit;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class DbUnitRunnerWithPinnedConnectionTest {
+
+	@ClassRule
+	public static EmbeddedDatabaseRule dbRule = new EmbeddedDatabaseRule();
+
+	@Test
+	public void it_should_reuse_connection_until_runner_is_closed() throws Exception {
+		RecordingConnectionFactory factory = new RecordingConnectionFactory();
+		Class<TestClassWithDataSet> klass = TestClassWithDataSet.class;
+		Method method = klass.getMethod("method1");
+		DbUnitRunner runner = new DbUnitRunner(klass, factory);
+		runner.open();
+
+		runner.beforeTest(method);
+		assertThat(countFrom(dbRule.getConnection(), "foo")).isEqualTo(2);
+		runner.afterTest(method);
+		runner.beforeTest(method);
+		runner.afterTest(method);
+
+		assertThat(factory.connections).hasSize(1);
+		assertThat(factory.connections.get(0).isClosed()).isFalse();
+		assertThat(countFrom(dbRule.getConnection(), "foo")).isZero();
+
+		runner.close();
+		assertThat(factory.connections.get(0).isClosed()).isTrue();
+
+		// Runner can still be used.
+		runner.open();
+		runner.beforeTest(method);
+		runner.afterTest(method);
+		assertThat(factory.connections).hasSize(2);
+
+		runner.close();
+	}
+
+	@Test
+	public void it_should_open_new_connection_if_pinned_connection_is_not_valid() throws Exception {
+		RecordingConnectionFactory factory = new RecordingConnectionFactory();
+		Class<TestClassWithDataSet> klass = TestClassWithDataSet.class;
+		Method method = klass.getMethod("method1");
+		DbUnitRunner runner = new DbUnitRunner(klass, factory);
+		runner.open();
+
+		runner.beforeTest(method);
+		factory.connections.get(0).close();
+		runner.afterTest(method);
+
+		assertThat(factory.connections).hasSize(2);
+		assertThat(countFrom(dbRule.getConnection(), "foo")).isZero();
+
+		runner.close();
+		assertThat(factory.connections.get(1).isClosed()).isTrue();
+	}
+
+	@Test
+	public void it_should_not_pin_connection_with_re_init_runner() throws Exception {
+		RecordingConnectionFactory factory = new RecordingConnectionFactory();
+		Class<TestClassWithReInit> klass = TestClassWithReInit.class;
+		Method method = klass.getMethod("method1");
+		DbUnitRunner runner = new DbUnitRunner(klass, factory);
+		runner.open();
+
+		runner.beforeTest(method);
+		runner.afterTest(method);
+
+		assertThat(factory.connections).hasSize(2);
+		assertThat(factory.connections.get(0).isClosed()).isTrue();
+		assertThat(factory.connections.get(1).isClosed()).isTrue();
+	}
+
+	@Test
+	public void it_should_not_pin_connection_until_runner_is_opened() throws Exception {
+		RecordingConnectionFactory factory = new RecordingConnectionFactory();
+		Class<TestClassWithDataSet> klass = TestClassWithDataSet.class;
+		Method method = klass.getMethod("method1");
+		DbUnitRunner runner = new DbUnitRunner(klass, factory);
+
+		runner.beforeTest(method);
+		runner.afterTest(method);
+
+		assertThat(factory.connections).hasSize(2);
+		assertThat(factory.connections.get(0).isClosed()).isTrue();
+		assertThat(factory.connections.get(1).isClosed()).isTrue();
+	}
+
+	@Test
+	public void it_should_not_pin_connection_once_runner_is_closed() throws Exception {
+		RecordingConnectionFactory factory = new RecordingConnectionFactory();
+		Class<TestClassWithDataSet> klass = TestClassWithDataSet.class;
+		Method method = klass.getMethod("method1");
+		DbUnitRunner runner = new DbUnitRunner(klass, factory);
+
+		runner.open();
+		runner.close();
+		runner.beforeTest(method);
+		runner.afterTest(method);
+
+		assertThat(factory.connections).hasSize(2);
+		assertThat(factory.connections.get(0).isClosed()).isTrue();
+		assertThat(factory.connections.get(1).isClosed()).isTrue();
+	}
+
+	private static class RecordingConnectionFactory implements JdbcConnectionFactory {
+		private final JdbcConnectionFactory factory = new EmbeddedDatabaseConnectionFactory(dbRule.getDb());
+		private final List<Connection> connections = new ArrayList<Connection>();
+
+		@Override
+		public Connection getConnection() {
+			Connection connection = factory.getConnection();
+			connections.add(connection);
+			return connection;
+		}
+	}
+}
@@ -0,0 +1,69 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.runner;
+
+import static com.github.mjeanroy.dbunit.tests.db.JdbcQueries.countFrom;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+
+import com.github.mjeanroy.dbunit.tests.db.EmbeddedDatabaseRule;
+import com.github.mjeanroy.dbunit.tests.fixtures.TestClassWithSnapshot;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class DbUnitRunnerWithSnapshotTest {
+
+	@Rule
+	public EmbeddedDatabaseRule dbRule = new EmbeddedDatabaseRule();
+
+	@Test
+	public void it_should_restore_snapshot_before_each_test() throws Exception {
+		Class<TestClassWithSnapshot> klass = TestClassWithSnapshot.class;
+		DbUnitRunner runner = new DbUnitRunner(klass, dbRule.getDb());
+		Method method1 = klass.getMethod("method1");
+		Method method2 = klass.getMethod("method2");
+		Connection connection = dbRule.getConnection();
+
+		runner.beforeTest(method1);
+		assertThat(countFrom(connection, "foo")).isEqualTo(2);
+		assertThat(countFrom(connection, "bar")).isEqualTo(3);
+
+		connection.prepareStatement("DELETE FROM bar").execute();
+		connection.prepareStatement("INSERT INTO foo VALUES (3, 'Foo')").execute();
+		runner.afterTest(method1);
+
+		runner.beforeTest(method1);
+		assertThat(countFrom(connection, "foo")).isEqualTo(2);
+		assertThat(countFrom(connection, "bar")).isEqualTo(3);
+		runner.afterTest(method1);
+
+		runner.beforeTest(method2);
+		assertThat(countFrom(connection, "foo")).isEqualTo(2);
+		assertThat(countFrom(connection, "bar")).isEqualTo(3);
+		runner.afterTest(method2);
+	}
+}
@@ -24,32 +24,44 @@
 
 package com.github.mjeanroy.dbunit.core.runner;
 
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.verify;
-
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
+import static org.assertj.core.api.Assertions.assertThat;
 
 import com.github.mjeanroy.dbunit.core.replacement.Replacements;
-import org.dbunit.dataset.ReplacementDataSet;
 import org.junit.Test;
 
-public class MemberReplacementFunctionTest {
+public class ReplacementsAccessorTest {
 
 	@Test
-	public void it_should_add_replacement_from_field() throws Exception {
-		ReplacementDataSet dataSet = mock(ReplacementDataSet.class);
-		MemberReplacementFunction<Field> function = new MemberReplacementFunction<Field>(dataSet);
-		function.apply(TestClass.class.getField("replacements"));
-		verify(dataSet).addReplacementObject("foo", "bar");
+	public void it_should_read_replacements_from_field() throws Exception {
+		ReplacementsAccessor accessor = ReplacementsAccessor.of(TestClass.class.getField("replacements"));
+		Replacements replacements = accessor.read();
+		assertThat(replacements.getReplacements())
+			.hasSize(1)
+			.containsEntry("foo", "bar");
 	}
 
 	@Test
-	public void it_should_add_replacement_from_method() throws Exception {
-		ReplacementDataSet dataSet = mock(ReplacementDataSet.class);
-		MemberReplacementFunction<Method> function = new MemberReplacementFunction<Method>(dataSet);
-		function.apply(TestClass.class.getMethod("replacementsFunction"));
-		verify(dataSet).addReplacementObject("bar", "foo");
+	public void it_should_read_replacements_from_method() throws Exception {
+		ReplacementsAccessor accessor = ReplacementsAccessor.of(TestClass.class.getMethod("replacementsFunction"));
+		Replacements replacements = accessor.read();
+		assertThat(replacements.getReplacements())
+			.hasSize(1)
+			.containsEntry("bar", "foo");
+	}
+
+	@Test
+	public void it_should_read_replacements_from_private_field() throws Exception {
+		ReplacementsAccessor accessor = ReplacementsAccessor.of(TestClass.class.getDeclaredField("privateReplacements"));
+		Replacements replacements = accessor.read();
+		assertThat(replacements.getReplacements())
+			.hasSize(1)
+			.containsEntry("foo", "foo");
+	}
+
+	@Test
+	public void it_should_read_replacements_each_time() throws Exception {
+		ReplacementsAccessor accessor = ReplacementsAccessor.of(TestClass.class.getMethod("replacementsFunction"));
+		assertThat(accessor.read()).isNotSameAs(accessor.read());
 	}
 
 	@SuppressWarnings("unused")
@@ -58,6 +70,10 @@ public class MemberReplacementFunctionTest {
 			.addReplacement("foo", "bar")
 			.build();
 
+		private static Replacements privateReplacements = Replacements.builder()
+			.addReplacement("foo", "foo")
+			.build();
+
 		public static Replacements replacementsFunction() {
 			return Replacements.builder()
 				.addReplacement("bar", "foo")
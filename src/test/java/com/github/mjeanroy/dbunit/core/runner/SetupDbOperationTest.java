@@ -48,7 +48,7 @@ public class SetupDbOperationTest {
 		Method method = testClass.getMethod("method1");
 		IDatabaseTester dbTester = mock(IDatabaseTester.class);
 
-		op.apply(testClass, method, dbTester);
+		op.apply(TestClassMetadata.of(testClass), method, dbTester);
 
 		verify(dbTester).setSetUpOperation(DatabaseOperation.CLEAN_INSERT);
 		verify(dbTester).onSetup();
@@ -63,7 +63,7 @@ public class SetupDbOperationTest {
 		Method method = testClass.getMethod("method1");
 		IDatabaseTester dbTester = mock(IDatabaseTester.class);
 
-		op.apply(testClass, method, dbTester);
+		op.apply(TestClassMetadata.of(testClass), method, dbTester);
 
 		verify(dbTester, never()).setSetUpOperation(any(DatabaseOperation.class));
 		verify(dbTester).onSetup();
@@ -0,0 +1,140 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.runner;
+
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import com.github.mjeanroy.dbunit.core.snapshot.Snapshot;
+import com.github.mjeanroy.dbunit.core.snapshot.SnapshotStrategy;
+import com.github.mjeanroy.dbunit.tests.fixtures.TestClassWithDataSet;
+import org.dbunit.IDatabaseTester;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.operation.DatabaseOperation;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SnapshotDbOperationTest {
+
+	private Connection connection;
+	private IDatabaseTester dbTester;
+	private SnapshotStrategy strategy;
+	private Snapshot snapshot;
+
+	@Before
+	public void setUp() throws Exception {
+		connection = mock(Connection.class);
+		IDatabaseConnection dbConnection = mock(IDatabaseConnection.class);
+		when(dbConnection.getConnection()).thenReturn(connection);
+
+		dbTester = mock(IDatabaseTester.class);
+		when(dbTester.getConnection()).thenReturn(dbConnection);
+
+		snapshot = mock(Snapshot.class);
+		strategy = mock(SnapshotStrategy.class);
+		when(strategy.take(connection)).thenReturn(snapshot);
+	}
+
+	@Test
+	public void it_should_setup_and_take_snapshot_then_restore_snapshot() throws Exception {
+		Class<TestClassWithDataSet> testClass = TestClassWithDataSet.class;
+		TestClassMetadata metadata = TestClassMetadata.of(testClass);
+		Method method = testClass.getMethod("method1");
+		SnapshotDbOperation op = new SnapshotDbOperation(strategy, null);
+
+		op.apply(metadata, method, dbTester);
+
+		verify(dbTester).setSetUpOperation(DatabaseOperation.CLEAN_INSERT);
+		verify(dbTester).onSetup();
+		verify(strategy).take(connection);
+		verify(snapshot, never()).restore(connection);
+
+		op.apply(metadata, method, dbTester);
+
+		verify(dbTester).onSetup();
+		verify(strategy).take(connection);
+		verify(snapshot).restore(connection);
+	}
+
+	@Test
+	public void it_should_take_snapshot_per_data_set() throws Exception {
+		Class<TestClassWithDataSet> testClass = TestClassWithDataSet.class;
+		TestClassMetadata metadata = TestClassMetadata.of(testClass);
+		Method method1 = testClass.getMethod("method1");
+		Method method2 = testClass.getMethod("method2");
+		SnapshotDbOperation op = new SnapshotDbOperation(strategy, null);
+
+		op.apply(metadata, method1, dbTester);
+		op.apply(metadata, method2, dbTester);
+
+		verify(dbTester, times(2)).onSetup();
+		verify(strategy, times(2)).take(connection);
+		verify(snapshot, never()).restore(connection);
+	}
+
+	@Test
+	public void it_should_release_snapshots_and_take_new_snapshot() throws Exception {
+		Class<TestClassWithDataSet> testClass = TestClassWithDataSet.class;
+		TestClassMetadata metadata = TestClassMetadata.of(testClass);
+		Method method = testClass.getMethod("method1");
+		SnapshotDbOperation op = new SnapshotDbOperation(strategy, null);
+
+		op.apply(metadata, method, dbTester);
+		op.release(connection);
+
+		verify(snapshot).release(connection);
+
+		op.apply(metadata, method, dbTester);
+
+		verify(dbTester, times(2)).onSetup();
+		verify(strategy, times(2)).take(connection);
+		verify(snapshot, never()).restore(connection);
+	}
+
+	@Test
+	public void it_should_release_snapshots_even_if_a_snapshot_cannot_be_released() throws Exception {
+		Class<TestClassWithDataSet> testClass = TestClassWithDataSet.class;
+		TestClassMetadata metadata = TestClassMetadata.of(testClass);
+		Snapshot other = mock(Snapshot.class);
+		when(strategy.take(connection)).thenReturn(snapshot, other);
+		doThrow(new SQLException("fail")).when(snapshot).release(connection);
+
+		SnapshotDbOperation op = new SnapshotDbOperation(strategy, null);
+		op.apply(metadata, testClass.getMethod("method1"), dbTester);
+		op.apply(metadata, testClass.getMethod("method2"), dbTester);
+		op.release(connection);
+
+		verify(snapshot).release(connection);
+		verify(other).release(connection);
+	}
+}
@@ -0,0 +1,163 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.runner;
+
+import static com.github.mjeanroy.dbunit.tests.db.JdbcQueries.countFrom;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+
+import com.github.mjeanroy.dbunit.core.jdbc.CachedDatabaseConnection;
+import com.github.mjeanroy.dbunit.core.jdbc.ForeignKeyGraph;
+import com.github.mjeanroy.dbunit.core.sql.SqlScriptParserConfiguration;
+import com.github.mjeanroy.dbunit.tests.db.EmbeddedDatabaseRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class SqlScriptFingerprintsTest {
+
+	@Rule
+	public EmbeddedDatabaseRule dbRule = new EmbeddedDatabaseRule(false);
+
+	@Test
+	public void it_should_read_script() {
+		byte[] content = SqlScriptFingerprints.read("/sql/data.sql");
+		assertThat(content).isNotEmpty();
+		assertThat(SqlScriptFingerprints.read("classpath:/sql/data.sql")).isEqualTo(content);
+	}
+
+	@Test
+	public void it_should_compute_fingerprint() {
+		byte[] content = SqlScriptFingerprints.read("/sql/data.sql");
+		SqlScriptParserConfiguration configuration = SqlScriptParserConfiguration.defaultConfiguration();
+
+		String fingerprint = SqlScriptFingerprints.fingerprint("/sql/data.sql", content, configuration);
+
+		assertThat(fingerprint).hasSize(32).matches("[0-9a-f]+");
+		assertThat(SqlScriptFingerprints.fingerprint("/sql/data.sql", content, configuration)).isEqualTo(fingerprint);
+	}
+
+	@Test
+	public void it_should_compute_different_fingerprint_with_different_configuration() {
+		byte[] content = SqlScriptFingerprints.read("/sql/data.sql");
+		SqlScriptParserConfiguration c1 = SqlScriptParserConfiguration.defaultConfiguration();
+		SqlScriptParserConfiguration c2 = SqlScriptParserConfiguration.builder().setDelimiter('$').build();
+
+		assertThat(SqlScriptFingerprints.fingerprint("/sql/data.sql", content, c1)).isNotEqualTo(SqlScriptFingerprints.fingerprint("/sql/data.sql", content, c2));
+	}
+
+	@Test
+	public void it_should_compute_different_fingerprint_with_different_content() {
+		SqlScriptParserConfiguration configuration = SqlScriptParserConfiguration.defaultConfiguration();
+		String f1 = SqlScriptFingerprints.fingerprint("/sql/data.sql", SqlScriptFingerprints.read("/sql/data.sql"), configuration);
+		String f2 = SqlScriptFingerprints.fingerprint("/sql/init.sql", SqlScriptFingerprints.read("/sql/init.sql"), configuration);
+		assertThat(f1).isNotEqualTo(f2);
+	}
+
+	@Test
+	public void it_should_compute_different_fingerprint_with_different_path() {
+		byte[] content = SqlScriptFingerprints.read("/sql/data.sql");
+		SqlScriptParserConfiguration configuration = SqlScriptParserConfiguration.defaultConfiguration();
+
+		String f1 = SqlScriptFingerprints.fingerprint("/sql/data.sql", content, configuration);
+		String f2 = SqlScriptFingerprints.fingerprint("/sql/copy/data.sql", content, configuration);
+
+		assertThat(f1).isNotEqualTo(f2);
+	}
+
+	@Test
+	public void it_should_not_commit_claimed_fingerprint() throws Exception {
+		Connection connection = dbRule.getConnection();
+		String fingerprint = "0123456789abcdef0123456789abcdef";
+
+		SqlScriptFingerprints.isApplied(connection, fingerprint);
+		connection.setAutoCommit(false);
+		try {
+			assertThat(SqlScriptFingerprints.claim(connection, fingerprint, "/sql/data.sql")).isTrue();
+			connection.rollback();
+		}
+		finally {
+			connection.setAutoCommit(true);
+		}
+
+		assertThat(SqlScriptFingerprints.isApplied(connection, fingerprint)).isFalse();
+	}
+
+	@Test
+	public void it_should_not_claim_fingerprint_twice() throws Exception {
+		Connection connection = dbRule.getConnection();
+		String fingerprint = "0123456789abcdef0123456789abcdef";
+
+		SqlScriptFingerprints.isApplied(connection, fingerprint);
+
+		assertThat(SqlScriptFingerprints.claim(connection, fingerprint, "/sql/data.sql")).isTrue();
+		assertThat(SqlScriptFingerprints.claim(connection, fingerprint, "/sql/data.sql")).isFalse();
+		assertThat(countFrom(connection, SqlScriptFingerprints.TABLE_NAME)).isEqualTo(1);
+	}
+
+	@Test
+	public void it_should_release_fingerprint() throws Exception {
+		Connection connection = dbRule.getConnection();
+		String fingerprint = "0123456789abcdef0123456789abcdef";
+
+		SqlScriptFingerprints.isApplied(connection, fingerprint);
+		SqlScriptFingerprints.claim(connection, fingerprint, "/sql/data.sql");
+		SqlScriptFingerprints.release(connection, fingerprint);
+
+		assertThat(SqlScriptFingerprints.isApplied(connection, fingerprint)).isFalse();
+		assertThat(SqlScriptFingerprints.claim(connection, fingerprint, "/sql/data.sql")).isTrue();
+	}
+
+	@Test
+	public void it_should_exclude_marker_table_from_database_tables() throws Exception {
+		Connection connection = dbRule.getConnection();
+		SqlScriptFingerprints.isApplied(connection, "0123456789abcdef0123456789abcdef");
+
+		String[] tableNames = new CachedDatabaseConnection(connection).createDataSet().getTableNames();
+
+		assertThat(tableNames).doesNotContain(SqlScriptFingerprints.TABLE_NAME);
+
+		// Unknown tables are considered as self referencing.
+		ForeignKeyGraph graph = ForeignKeyGraph.getInstance(connection, null);
+		graph.sort(connection, singletonList(SqlScriptFingerprints.TABLE_NAME));
+		assertThat(graph.isSelfReferencing(SqlScriptFingerprints.TABLE_NAME)).isTrue();
+	}
+
+	@Test
+	public void it_should_create_marker_table_and_mark_script_as_applied() throws Exception {
+		Connection connection = dbRule.getConnection();
+		String fingerprint = "0123456789abcdef0123456789abcdef";
+
+		assertThat(SqlScriptFingerprints.isApplied(connection, fingerprint)).isFalse();
+		assertThat(countFrom(connection, SqlScriptFingerprints.TABLE_NAME)).isZero();
+
+		SqlScriptFingerprints.claim(connection, fingerprint, "/sql/data.sql");
+
+		assertThat(SqlScriptFingerprints.isApplied(connection, fingerprint)).isTrue();
+		assertThat(SqlScriptFingerprints.isApplied(connection, "fedcba9876543210fedcba9876543210")).isFalse();
+		assertThat(countFrom(connection, SqlScriptFingerprints.TABLE_NAME)).isEqualTo(1);
+	}
+}
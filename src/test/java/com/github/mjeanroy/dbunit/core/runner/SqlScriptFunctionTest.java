@@ -91,6 +91,49 @@ public class SqlScriptFunctionTest {
 		verify(factory).getConnection();
 	}
 
+	@Test
+	public void it_should_load_script_once_with_fingerprint_mode() throws Exception {
+		when(factory.getConnection()).thenAnswer(new Answer<Connection>() {
+			@Override
+			public Connection answer(InvocationOnMock invocationOnMock) throws Throwable {
+				return dbRule.getConnection();
+			}
+		});
+
+		int foo = countFrom(dbRule.getConnection(), "foo");
+		int bar = countFrom(dbRule.getConnection(), "bar");
+
+		SqlScriptFunction func = new SqlScriptFunction(factory, configuration, true);
+		func.apply("/sql/data.sql");
+		func.apply("/sql/data.sql");
+
+		assertThat(countFrom(dbRule.getConnection(), "foo")).isEqualTo(foo + 2);
+		assertThat(countFrom(dbRule.getConnection(), "bar")).isEqualTo(bar + 3);
+		assertThat(countFrom(dbRule.getConnection(), SqlScriptFingerprints.TABLE_NAME)).isEqualTo(1);
+	}
+
+	@Test
+	public void it_should_skip_script_with_claimed_fingerprint() throws Exception {
+		when(factory.getConnection()).thenAnswer(new Answer<Connection>() {
+			@Override
+			public Connection answer(InvocationOnMock invocationOnMock) throws Throwable {
+				return dbRule.getConnection();
+			}
+		});
+
+		Connection connection = dbRule.getConnection();
+		String script = "/sql/data.sql";
+		String fingerprint = SqlScriptFingerprints.fingerprint(script, SqlScriptFingerprints.read(script), configuration);
+		SqlScriptFingerprints.isApplied(connection, fingerprint);
+		SqlScriptFingerprints.claim(connection, fingerprint, script);
+
+		int foo = countFrom(connection, "foo");
+		new SqlScriptFunction(factory, configuration, true).apply(script);
+
+		assertThat(countFrom(dbRule.getConnection(), "foo")).isEqualTo(foo);
+		assertThat(countFrom(dbRule.getConnection(), SqlScriptFingerprints.TABLE_NAME)).isEqualTo(1);
+	}
+
 	@Test
 	public void it_should_wrap_sql_exception() throws Exception {
 		Connection connection = mock(Connection.class);
@@ -48,7 +48,7 @@ public class TearDownDbOperationTest {
 		Method method = testClass.getMethod("method1");
 		IDatabaseTester dbTester = mock(IDatabaseTester.class);
 
-		op.apply(testClass, method, dbTester);
+		op.apply(TestClassMetadata.of(testClass), method, dbTester);
 
 		verify(dbTester).setTearDownOperation(DatabaseOperation.TRUNCATE_TABLE);
 		verify(dbTester).onTearDown();
@@ -63,7 +63,7 @@ public class TearDownDbOperationTest {
 		Method method = testClass.getMethod("method1");
 		IDatabaseTester dbTester = mock(IDatabaseTester.class);
 
-		op.apply(testClass, method, dbTester);
+		op.apply(TestClassMetadata.of(testClass), method, dbTester);
 
 		verify(dbTester, never()).setTearDownOperation(any(DatabaseOperation.class));
 		verify(dbTester).onTearDown();
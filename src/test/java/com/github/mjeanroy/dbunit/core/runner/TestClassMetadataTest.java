@@ -0,0 +1,109 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.runner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+
+import com.github.mjeanroy.dbunit.core.operation.DbUnitOperation;
+import com.github.mjeanroy.dbunit.exception.DbUnitException;
+import com.github.mjeanroy.dbunit.tests.fixtures.TestClassWithDataSet;
+import com.github.mjeanroy.dbunit.tests.fixtures.TestClassWithReplacementsDataSet;
+import com.github.mjeanroy.dbunit.tests.fixtures.TestClassWithRollbackAndSnapshot;
+import com.github.mjeanroy.dbunit.tests.fixtures.TestClassWithoutDataSet;
+import org.junit.Test;
+
+public class TestClassMetadataTest {
+
+	@Test
+	public void it_should_cache_metadata() {
+		TestClassMetadata m1 = TestClassMetadata.of(TestClassWithDataSet.class);
+		TestClassMetadata m2 = TestClassMetadata.of(TestClassWithDataSet.class);
+
+		assertThat(m1).isSameAs(m2);
+		assertThat(m1.getTestClass()).isEqualTo(TestClassWithDataSet.class);
+	}
+
+	@Test
+	public void it_should_read_class_annotations() throws Exception {
+		TestClassMetadata metadata = TestClassMetadata.of(TestClassWithDataSet.class);
+		Method method = TestClassWithDataSet.class.getMethod("method1");
+
+		assertThat(metadata.getDataSet().value()).containsExactly("/dataset/xml");
+		assertThat(metadata.getDataSet(method)).isSameAs(metadata.getDataSet());
+		assertThat(metadata.getSetup(method).value()).isEqualTo(DbUnitOperation.CLEAN_INSERT);
+		assertThat(metadata.getTearDown(method).value()).isEqualTo(DbUnitOperation.TRUNCATE_TABLE);
+		assertThat(metadata.getInit()).isNull();
+		assertThat(metadata.getLiquibase()).isNull();
+		assertThat(metadata.getReplacements()).isEmpty();
+	}
+
+	@Test
+	public void it_should_read_method_annotations() throws Exception {
+		TestClassMetadata metadata = TestClassMetadata.of(TestClassWithDataSet.class);
+		Method method2 = TestClassWithDataSet.class.getMethod("method2");
+		Method method3 = TestClassWithDataSet.class.getMethod("method3");
+
+		assertThat(metadata.getDataSet(method2).value()).containsExactly("/dataset/xml/foo.xml");
+		assertThat(metadata.getSetup(method2).value()).isEqualTo(DbUnitOperation.CLEAN_INSERT);
+		assertThat(metadata.getTearDown(method2).value()).isEqualTo(DbUnitOperation.TRUNCATE_TABLE);
+
+		assertThat(metadata.getDataSet(method3).value()).containsExactly("/dataset/xml");
+		assertThat(metadata.getSetup(method3).value()).isEqualTo(DbUnitOperation.NONE);
+		assertThat(metadata.getTearDown(method3).value()).isEqualTo(DbUnitOperation.NONE);
+	}
+
+	@Test
+	public void it_should_read_class_annotations_with_null_method() {
+		TestClassMetadata metadata = TestClassMetadata.of(TestClassWithDataSet.class);
+
+		assertThat(metadata.getDataSet(null)).isSameAs(metadata.getDataSet());
+		assertThat(metadata.getSetup(null).value()).isEqualTo(DbUnitOperation.CLEAN_INSERT);
+		assertThat(metadata.getTearDown(null).value()).isEqualTo(DbUnitOperation.TRUNCATE_TABLE);
+	}
+
+	@Test
+	public void it_should_read_metadata_of_class_without_annotations() throws Exception {
+		TestClassMetadata metadata = TestClassMetadata.of(TestClassWithoutDataSet.class);
+		Method method = TestClassWithoutDataSet.class.getMethod("method1");
+
+		assertThat(metadata.getDataSet()).isNull();
+		assertThat(metadata.getDataSet(method)).isNull();
+		assertThat(metadata.getSetup(method)).isNull();
+		assertThat(metadata.getTearDown(method)).isNull();
+	}
+
+	@Test
+	public void it_should_read_replacements() {
+		TestClassMetadata metadata = TestClassMetadata.of(TestClassWithReplacementsDataSet.class);
+		assertThat(metadata.getReplacements()).hasSize(2);
+	}
+
+	@Test(expected = DbUnitException.class)
+	public void it_should_reject_rollback_with_snapshot() {
+		TestClassMetadata.of(TestClassWithRollbackAndSnapshot.class);
+	}
+}
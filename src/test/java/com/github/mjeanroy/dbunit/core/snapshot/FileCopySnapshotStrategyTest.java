@@ -0,0 +1,101 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.snapshot;
+
+import static com.github.mjeanroy.dbunit.tests.db.JdbcQueries.countFrom;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileCopySnapshotStrategyTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	private File directory;
+
+	@Before
+	public void setUp() throws Exception {
+		directory = tmp.newFolder("db");
+	}
+
+	@Test
+	public void it_should_take_and_restore_snapshot() throws Exception {
+		Connection c1 = getConnection();
+		execute(c1,
+			"CREATE TABLE foo (id INT PRIMARY KEY, name VARCHAR(100))",
+			"INSERT INTO foo VALUES (1, 'John Doe')"
+		);
+
+		FileCopySnapshotStrategy strategy = new FileCopySnapshotStrategy(new String[]{
+			directory.getAbsolutePath()
+		});
+
+		Snapshot snapshot = strategy.take(c1);
+
+		Connection c2 = getConnection();
+		execute(c2, "INSERT INTO foo VALUES (2, 'Jane Doe')");
+		assertThat(countFrom(c2, "foo")).isEqualTo(2);
+
+		snapshot.restore(c2);
+
+		Connection c3 = getConnection();
+		try {
+			assertThat(countFrom(c3, "foo")).isEqualTo(1);
+		}
+		finally {
+			execute(c3, "SHUTDOWN");
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void it_should_fail_without_database_files() {
+		SnapshotMode.FILE_COPY.getStrategy(new String[0]);
+	}
+
+	private Connection getConnection() throws Exception {
+		return DriverManager.getConnection("jdbc:hsqldb:file:" + new File(directory, "testdb").getAbsolutePath(), "SA", "");
+	}
+
+	private static void execute(Connection connection, String... queries) throws Exception {
+		Statement statement = connection.createStatement();
+		try {
+			for (String query : queries) {
+				statement.execute(query);
+			}
+		}
+		finally {
+			statement.close();
+		}
+	}
+}
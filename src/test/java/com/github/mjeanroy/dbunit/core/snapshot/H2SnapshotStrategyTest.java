@@ -0,0 +1,149 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.snapshot;
+
+import static com.github.mjeanroy.dbunit.tests.db.JdbcQueries.countFrom;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+public class H2SnapshotStrategyTest {
+
+	@Test
+	public void it_should_take_and_restore_snapshot() throws Exception {
+		Statement statement = mock(Statement.class);
+		Connection connection = mock(Connection.class);
+		when(connection.createStatement()).thenReturn(statement);
+
+		Snapshot snapshot = H2SnapshotStrategy.getInstance().take(connection);
+
+		ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+		verify(statement).execute(captor.capture());
+		verify(statement).close();
+
+		String script = captor.getValue();
+		assertThat(script).startsWith("SCRIPT TO '").endsWith(".sql'");
+		String path = script.substring("SCRIPT TO ".length());
+
+		snapshot.restore(connection);
+
+		InOrder inOrder = inOrder(statement);
+		inOrder.verify(statement).execute("DROP ALL OBJECTS");
+		inOrder.verify(statement).execute("RUNSCRIPT FROM " + path);
+		inOrder.verify(statement).close();
+	}
+
+	@Test
+	public void it_should_take_and_restore_snapshot_of_h2_database() throws Exception {
+		Connection connection = DriverManager.getConnection("jdbc:h2:mem:snapshot;DB_CLOSE_DELAY=-1", "sa", "");
+		try {
+			execute(connection,
+				"CREATE TABLE foo (id INT PRIMARY KEY, name VARCHAR(100))",
+				"CREATE TABLE bar (id INT AUTO_INCREMENT PRIMARY KEY, foo_id INT REFERENCES foo(id), title VARCHAR(100))",
+				"INSERT INTO foo VALUES (1, 'John Doe')",
+				"INSERT INTO foo VALUES (2, 'Jane Doe')",
+				"INSERT INTO bar (foo_id, title) VALUES (1, 'Star Wars')"
+			);
+
+			Snapshot snapshot = H2SnapshotStrategy.getInstance().take(connection);
+
+			execute(connection,
+				"DELETE FROM bar",
+				"DELETE FROM foo WHERE id = 1",
+				"INSERT INTO bar (foo_id, title) VALUES (2, 'Back To The Future')",
+				"CREATE TABLE baz (id INT)"
+			);
+
+			snapshot.restore(connection);
+
+			assertThat(countFrom(connection, "foo")).isEqualTo(2);
+			assertThat(countFrom(connection, "bar")).isEqualTo(1);
+			assertThat(queryString(connection, "SELECT title FROM bar WHERE foo_id = 1")).isEqualTo("Star Wars");
+			assertThat(queryString(connection, "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'BAZ'")).isEqualTo("0");
+
+			// Auto increment column should have been restored.
+			execute(connection, "INSERT INTO bar (foo_id, title) VALUES (2, 'Lord Of The Rings')");
+			assertThat(queryString(connection, "SELECT MAX(id) FROM bar")).isEqualTo("2");
+
+			snapshot.release(connection);
+		}
+		finally {
+			execute(connection, "DROP ALL OBJECTS");
+			connection.close();
+		}
+	}
+
+	@Test(expected = SQLException.class)
+	public void it_should_not_restore_released_snapshot() throws Exception {
+		Connection connection = DriverManager.getConnection("jdbc:h2:mem:released;DB_CLOSE_DELAY=-1", "sa", "");
+		try {
+			execute(connection, "CREATE TABLE foo (id INT PRIMARY KEY)");
+
+			Snapshot snapshot = H2SnapshotStrategy.getInstance().take(connection);
+			snapshot.release(connection);
+			snapshot.restore(connection);
+		}
+		finally {
+			execute(connection, "DROP ALL OBJECTS");
+			connection.close();
+		}
+	}
+
+	private static void execute(Connection connection, String... queries) throws Exception {
+		Statement statement = connection.createStatement();
+		try {
+			for (String query : queries) {
+				statement.execute(query);
+			}
+		}
+		finally {
+			statement.close();
+		}
+	}
+
+	private static String queryString(Connection connection, String query) throws Exception {
+		Statement statement = connection.createStatement();
+		try {
+			ResultSet rs = statement.executeQuery(query);
+			assertThat(rs.next()).isTrue();
+			return rs.getString(1);
+		}
+		finally {
+			statement.close();
+		}
+	}
+}
@@ -0,0 +1,145 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.snapshot;
+
+import static com.github.mjeanroy.dbunit.tests.db.JdbcQueries.countFrom;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import com.github.mjeanroy.dbunit.tests.db.EmbeddedDatabaseRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class HsqldbSnapshotStrategyTest {
+
+	@Rule
+	public EmbeddedDatabaseRule dbRule = new EmbeddedDatabaseRule(false);
+
+	@Test
+	public void it_should_take_and_restore_snapshot() throws Exception {
+		Connection connection = dbRule.getConnection();
+		execute(connection,
+			"CREATE TABLE foo (id INT PRIMARY KEY, name VARCHAR(100), content CLOB)",
+			"CREATE TABLE bar (id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, foo_id INT REFERENCES foo(id), title VARCHAR(100))",
+			"INSERT INTO foo VALUES (1, 'John Doe', 'Lorem Ipsum')",
+			"INSERT INTO foo VALUES (2, 'Jane Doe', NULL)",
+			"INSERT INTO bar (foo_id, title) VALUES (1, 'Star Wars')"
+		);
+
+		Snapshot snapshot = HsqldbSnapshotStrategy.getInstance().take(connection);
+
+		execute(connection,
+			"DELETE FROM bar WHERE foo_id = 1",
+			"DELETE FROM foo WHERE id = 1",
+			"INSERT INTO foo VALUES (3, 'Foo', NULL)",
+			"INSERT INTO bar (foo_id, title) VALUES (3, 'Back To The Future')",
+			"INSERT INTO bar (foo_id, title) VALUES (3, 'Lord Of The Rings')"
+		);
+
+		snapshot.restore(connection);
+
+		assertThat(countFrom(connection, "foo")).isEqualTo(2);
+		assertThat(countFrom(connection, "bar")).isEqualTo(1);
+		assertThat(queryString(connection, "SELECT name FROM foo WHERE id = 1")).isEqualTo("John Doe");
+		assertThat(queryString(connection, "SELECT content FROM foo WHERE id = 1")).isEqualTo("Lorem Ipsum");
+		assertThat(queryString(connection, "SELECT title FROM bar WHERE foo_id = 1")).isEqualTo("Star Wars");
+
+		// Identity column should have been restarted.
+		execute(connection, "INSERT INTO bar (foo_id, title) VALUES (2, 'Lord Of The Rings')");
+		assertThat(queryString(connection, "SELECT MAX(id) FROM bar")).isEqualTo("1");
+	}
+
+	@Test
+	public void it_should_restore_snapshot_several_times() throws Exception {
+		Connection connection = dbRule.getConnection();
+		execute(connection,
+			"CREATE TABLE foo (id INT PRIMARY KEY, name VARCHAR(100))",
+			"INSERT INTO foo VALUES (1, 'John Doe')"
+		);
+
+		HsqldbSnapshotStrategy strategy = HsqldbSnapshotStrategy.getInstance();
+		Snapshot s1 = strategy.take(connection);
+
+		execute(connection, "INSERT INTO foo VALUES (2, 'Jane Doe')");
+		Snapshot s2 = strategy.take(connection);
+
+		s1.restore(connection);
+		assertThat(countFrom(connection, "foo")).isEqualTo(1);
+
+		s2.restore(connection);
+		assertThat(countFrom(connection, "foo")).isEqualTo(2);
+
+		s1.restore(connection);
+		assertThat(countFrom(connection, "foo")).isEqualTo(1);
+	}
+
+	@Test
+	public void it_should_drop_snapshot_schema_when_snapshot_is_released() throws Exception {
+		Connection connection = dbRule.getConnection();
+		execute(connection, "CREATE TABLE foo (id INT PRIMARY KEY)");
+
+		HsqldbSnapshotStrategy strategy = HsqldbSnapshotStrategy.getInstance();
+		Snapshot s1 = strategy.take(connection);
+		Snapshot s2 = strategy.take(connection);
+		assertThat(countSnapshotSchemas(connection)).isEqualTo("2");
+
+		s1.release(connection);
+		assertThat(countSnapshotSchemas(connection)).isEqualTo("1");
+
+		s2.release(connection);
+		assertThat(countSnapshotSchemas(connection)).isEqualTo("0");
+	}
+
+	private static String countSnapshotSchemas(Connection connection) throws Exception {
+		return queryString(connection, "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SCHEMATA WHERE SCHEMA_NAME LIKE 'DBUNIT\\_SNAPSHOT\\_%' ESCAPE '\\'");
+	}
+
+	private static void execute(Connection connection, String... queries) throws Exception {
+		Statement statement = connection.createStatement();
+		try {
+			for (String query : queries) {
+				statement.execute(query);
+			}
+		}
+		finally {
+			statement.close();
+		}
+	}
+
+	private static String queryString(Connection connection, String query) throws Exception {
+		Statement statement = connection.createStatement();
+		try {
+			ResultSet rs = statement.executeQuery(query);
+			assertThat(rs.next()).isTrue();
+			return rs.getString(1);
+		}
+		finally {
+			statement.close();
+		}
+	}
+}
@@ -0,0 +1,47 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.core.snapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class SnapshotModeTest {
+
+	@Test
+	public void it_should_get_h2_strategy() {
+		assertThat(SnapshotMode.H2.getStrategy(new String[0])).isSameAs(H2SnapshotStrategy.getInstance());
+	}
+
+	@Test
+	public void it_should_get_hsqldb_strategy() {
+		assertThat(SnapshotMode.HSQLDB.getStrategy(new String[0])).isSameAs(HsqldbSnapshotStrategy.getInstance());
+	}
+
+	@Test
+	public void it_should_get_file_copy_strategy() {
+		assertThat(SnapshotMode.FILE_COPY.getStrategy(new String[]{"/tmp/db"})).isExactlyInstanceOf(FileCopySnapshotStrategy.class);
+	}
+}
@@ -28,6 +28,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import com.github.mjeanroy.dbunit.exception.DbUnitException;
 import com.github.mjeanroy.dbunit.tests.fixtures.TestClassWithRunner;
+import com.github.mjeanroy.dbunit.tests.fixtures.TestClassWithRunnerAndRollback;
 import com.github.mjeanroy.dbunit.tests.fixtures.TestClassWithRunnerWithoutConfiguration;
 import org.assertj.core.api.Condition;
 import org.junit.Rule;
@@ -61,4 +62,12 @@ public class DbUnitJunitRunnerTest {
 
 		new DbUnitJunitRunner(TestClassWithRunnerWithoutConfiguration.class);
 	}
+
+	@Test
+	public void it_should_fail_if_runner_has_rollback_annotation() throws Exception {
+		thrown.expect(DbUnitException.class);
+		thrown.expectMessage("@DbUnitRollback is not supported with DbUnitJunitRunner, please use DbUnitRule to get transactional connection");
+
+		new DbUnitJunitRunner(TestClassWithRunnerAndRollback.class);
+	}
 }
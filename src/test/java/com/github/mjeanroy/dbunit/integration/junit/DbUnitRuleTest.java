@@ -36,12 +36,15 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.github.mjeanroy.dbunit.core.jdbc.JdbcConfiguration;
 import com.github.mjeanroy.dbunit.core.jdbc.JdbcConnectionFactory;
 import com.github.mjeanroy.dbunit.tests.db.EmbeddedDatabaseConnectionFactory;
 import com.github.mjeanroy.dbunit.tests.db.EmbeddedDatabaseRule;
 import com.github.mjeanroy.dbunit.tests.fixtures.TestClassWithDataSet;
+import com.github.mjeanroy.dbunit.tests.fixtures.TestClassWithRollback;
 import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Test;
@@ -116,6 +119,61 @@ public class DbUnitRuleTest {
 		verify(factory).getConnection();
 	}
 
+	@Test
+	public void it_should_get_connection_of_running_test_in_rollback_mode() throws Throwable {
+		EmbeddedDatabaseConnectionFactory factory = new EmbeddedDatabaseConnectionFactory(db.getDb());
+		final DbUnitRule rule = new DbUnitRule(factory);
+
+		Statement statement = mock(Statement.class);
+		Description description = createTestDescription(TestClassWithRollback.class, "method1");
+		Statement result = rule.apply(statement, description);
+
+		doAnswer(new Answer<Void>() {
+			@Override
+			public Void answer(InvocationOnMock invocationOnMock) throws Throwable {
+				Connection connection = rule.getConnection();
+				assertThat(connection).isSameAs(rule.getConnection());
+				assertThat(countFrom(connection, "foo")).isEqualTo(2);
+				assertThat(countFrom(connection, "bar")).isEqualTo(3);
+				return null;
+			}
+		}).when(statement).evaluate();
+
+		result.evaluate();
+
+		verify(statement).evaluate();
+		assertThat(countFrom(db.getConnection(), "foo")).isZero();
+		assertThat(countFrom(db.getConnection(), "bar")).isZero();
+	}
+
+	@Test
+	public void it_should_close_connections_once_test_has_been_executed() throws Throwable {
+		RecordingConnectionFactory factory = new RecordingConnectionFactory();
+		DbUnitRule rule = new DbUnitRule(factory);
+
+		Statement statement = mock(Statement.class);
+		rule.apply(statement, createTestDescription(TestClassWithDataSet.class, "method1")).evaluate();
+
+		assertThat(factory.connections).isNotEmpty();
+		for (Connection connection : factory.connections) {
+			assertThat(connection.isClosed()).isTrue();
+		}
+	}
+
+	@Test
+	public void it_should_close_connections_once_class_rule_has_been_executed() throws Throwable {
+		RecordingConnectionFactory factory = new RecordingConnectionFactory();
+		DbUnitRule rule = new DbUnitRule(factory);
+
+		Statement statement = mock(Statement.class);
+		rule.apply(statement, createSuiteDescription(TestClassWithDataSet.class)).evaluate();
+
+		assertThat(factory.connections).isNotEmpty();
+		for (Connection connection : factory.connections) {
+			assertThat(connection.isClosed()).isTrue();
+		}
+	}
+
 	private void applyAndVerifyRule(DbUnitRule rule, Statement statement, Description description, final int expectedFoo, final int expectedBar) throws Throwable {
 		Statement result = rule.apply(statement, description);
 
@@ -135,4 +193,16 @@ public class DbUnitRuleTest {
 
 		verify(statement).evaluate();
 	}
+
+	private static class RecordingConnectionFactory implements JdbcConnectionFactory {
+		private final JdbcConnectionFactory factory = new EmbeddedDatabaseConnectionFactory(db.getDb());
+		private final List<Connection> connections = new ArrayList<Connection>();
+
+		@Override
+		public Connection getConnection() {
+			Connection connection = factory.getConnection();
+			connections.add(connection);
+			return connection;
+		}
+	}
 }
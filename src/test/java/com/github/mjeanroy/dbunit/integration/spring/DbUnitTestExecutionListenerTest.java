@@ -37,8 +37,11 @@ import java.lang.reflect.Method;
 import com.github.mjeanroy.dbunit.core.jdbc.JdbcConnectionFactory;
 import com.github.mjeanroy.dbunit.core.jdbc.JdbcDataSourceConnectionFactory;
 import com.github.mjeanroy.dbunit.core.runner.DbUnitRunner;
+import com.github.mjeanroy.dbunit.core.runner.DbUnitRunnerRegistry;
+import com.github.mjeanroy.dbunit.exception.DbUnitException;
 import com.github.mjeanroy.dbunit.tests.db.EmbeddedDatabaseRule;
 import com.github.mjeanroy.dbunit.tests.fixtures.TestClassWithDataSet;
+import com.github.mjeanroy.dbunit.tests.fixtures.TestClassWithRollback;
 import org.junit.ClassRule;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
@@ -120,4 +123,34 @@ public class DbUnitTestExecutionListenerTest {
 		verify(ctx).getAttribute("DBUNIT_RUNNER");
 		verify(runner).afterTest(method);
 	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	@Test
+	public void it_should_remove_runner_after_test_class() throws Exception {
+		TestContext ctx = mock(TestContext.class);
+
+		Class testClass = TestClassWithDataSet.class;
+		DataSource dataSource = dbRule.getDb();
+		DbUnitRunner runner = DbUnitRunnerRegistry.getRunner(testClass, dataSource);
+		when(ctx.getTestClass()).thenReturn(testClass);
+		when(ctx.getAttribute("DBUNIT_RUNNER")).thenReturn(runner);
+		when(ctx.getAttribute("DBUNIT_DATASOURCE")).thenReturn(dataSource);
+
+		DbUnitTestExecutionListener listener = new DbUnitTestExecutionListener();
+		listener.afterTestClass(ctx);
+
+		assertThat(DbUnitRunnerRegistry.getRunner(testClass, dataSource)).isNotSameAs(runner);
+		DbUnitRunnerRegistry.remove(testClass, dataSource);
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	@Test(expected = DbUnitException.class)
+	public void it_should_fail_with_rollback_annotation() throws Exception {
+		TestContext ctx = mock(TestContext.class);
+
+		Class testClass = TestClassWithRollback.class;
+		when(ctx.getTestClass()).thenReturn(testClass);
+
+		new DbUnitTestExecutionListener().prepareTestInstance(ctx);
+	}
 }
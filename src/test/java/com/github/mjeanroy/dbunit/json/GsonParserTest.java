@@ -28,6 +28,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.data.MapEntry.entry;
 import static org.junit.rules.ExpectedException.none;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -86,4 +87,38 @@ public class GsonParserTest {
 				entry("name", "Jane Doe")
 			);
 	}
+
+	@Test
+	public void it_should_stream_file() {
+		GsonParser parser = new GsonParser(new Gson());
+
+		Resource resource = new ResourceMockBuilder()
+				.fromClasspath("/dataset/json/foo.json")
+				.build();
+
+		final List<String> events = new ArrayList<String>();
+		parser.stream(resource, new JsonStreamHandler() {
+			@Override
+			public void startTable(String tableName) {
+				events.add("start:" + tableName);
+			}
+
+			@Override
+			public void row(Map<String, Object> row) {
+				events.add("row:" + row.get("name"));
+			}
+
+			@Override
+			public void endTable() {
+				events.add("end");
+			}
+		});
+
+		assertThat(events).containsExactly(
+			"start:foo",
+			"row:John Doe",
+			"row:Jane Doe",
+			"end"
+		);
+	}
 }
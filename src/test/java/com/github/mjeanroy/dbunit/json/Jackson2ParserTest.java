@@ -33,6 +33,7 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -149,4 +150,38 @@ public class Jackson2ParserTest {
 		Jackson2Parser parser = new Jackson2Parser(mapper);
 		parser.parse(resource);
 	}
+
+	@Test
+	public void it_should_stream_file() {
+		Jackson2Parser parser = new Jackson2Parser(new ObjectMapper());
+
+		Resource resource = new ResourceMockBuilder()
+				.fromClasspath("/dataset/json/foo.json")
+				.build();
+
+		final List<String> events = new ArrayList<String>();
+		parser.stream(resource, new JsonStreamHandler() {
+			@Override
+			public void startTable(String tableName) {
+				events.add("start:" + tableName);
+			}
+
+			@Override
+			public void row(Map<String, Object> row) {
+				events.add("row:" + row.get("name"));
+			}
+
+			@Override
+			public void endTable() {
+				events.add("end");
+			}
+		});
+
+		assertThat(events).containsExactly(
+			"start:foo",
+			"row:John Doe",
+			"row:Jane Doe",
+			"end"
+		);
+	}
 }
@@ -0,0 +1,137 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2017 Mickael Jeanroy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mjeanroy.dbunit.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import com.github.mjeanroy.dbunit.core.resources.ResourceIndex;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DbUnitIndexProcessorTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void it_should_generate_index() throws Exception {
+		File sources = tmp.newFolder("src");
+		File output = tmp.newFolder("out");
+		File source = new File(sources, "FooTest.java");
+
+		Writer writer = new OutputStreamWriter(new FileOutputStream(source), "UTF-8");
+		writer.write("" +
+				"import com.github.mjeanroy.dbunit.core.annotations.DbUnitDataSet;\n" +
+				"import com.github.mjeanroy.dbunit.core.annotations.DbUnitInit;\n" +
+				"@DbUnitDataSet(\"/dataset/xml\")\n" +
+				"@DbUnitInit(sql = {\"classpath:/sql/init.sql\", \"file:/tmp/unknown.sql\"})\n" +
+				"public class FooTest {\n" +
+				"  @DbUnitDataSet(\"/dataset/json/foo.json\")\n" +
+				"  public void test() {}\n" +
+				"}\n");
+		writer.close();
+
+		File resources = new File(getClass().getResource("/dataset/xml/foo.xml").toURI()).getParentFile().getParentFile().getParentFile();
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+		Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjects(source);
+		List<String> options = Arrays.asList(
+				"-proc:only",
+				"-d", output.getAbsolutePath(),
+				"-classpath", System.getProperty("java.class.path"),
+				"-A" + DbUnitIndexProcessor.OPTION_RESOURCES + "=" + resources.getAbsolutePath()
+		);
+
+		JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null, units);
+		task.setProcessors(Arrays.asList(new DbUnitIndexProcessor()));
+		boolean result = task.call();
+		fileManager.close();
+
+		assertThat(result).isTrue();
+
+		File index = new File(output, ResourceIndex.LOCATION);
+		assertThat(index).exists();
+
+		Map<String, ResourceIndex.Entry> entries = new HashMap<String, ResourceIndex.Entry>();
+		for (ResourceIndex.Entry entry : readIndex(index)) {
+			entries.put(entry.getPath(), entry);
+		}
+
+		assertThat(entries.keySet()).containsOnly(
+				"/dataset/xml",
+				"/dataset/xml/foo.xml",
+				"/dataset/xml/bar.xml",
+				"/dataset/json/foo.json",
+				"/sql/init.sql"
+		);
+
+		ResourceIndex.Entry foo = entries.get("/dataset/xml/foo.xml");
+		assertThat(foo.getType()).isEqualTo(ResourceIndex.Entry.DATASET);
+		assertThat(foo.getSize()).isEqualTo(new File(resources, "dataset/xml/foo.xml").length());
+		assertThat(foo.getHash()).hasSize(40);
+		assertThat(foo.getTableNames()).containsExactly("foo");
+
+		assertThat(entries.get("/dataset/xml").isDirectory()).isTrue();
+		assertThat(entries.get("/sql/init.sql").getType()).isEqualTo(ResourceIndex.Entry.SQL);
+		assertThat(entries.get("/sql/init.sql").getTableNames()).isNull();
+	}
+
+	private static List<ResourceIndex.Entry> readIndex(File index) throws Exception {
+		List<ResourceIndex.Entry> entries = new ArrayList<ResourceIndex.Entry>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(index), "UTF-8"));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] fields = line.split("\t");
+				String[] tableNames = fields.length > 4 ? fields[4].split(",") : null;
+				entries.add(new ResourceIndex.Entry(fields[0], Long.parseLong(fields[1]), fields[2], fields[3], tableNames));
+			}
+		}
+		finally {
+			reader.close();
+		}
+
+		return entries;
+	}
+}
@@ -27,6 +27,7 @@ package com.github.mjeanroy.dbunit.tests.db;
 import java.sql.Connection;
 import java.sql.SQLException;
 
+import com.github.mjeanroy.dbunit.core.jdbc.DatabaseMetaDataCache;
 import org.junit.rules.ExternalResource;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
@@ -66,6 +67,16 @@ public class EmbeddedDatabaseRule extends ExternalResource {
 		}
 
 		db = builder.build();
+
+		// Database is re-created with the same name: JVM-wide metadata cached by previous tests (see
+		// DatabaseConfiguration#isSharedMetaData) are obsolete, as in production embedded database rules.
+		Connection connection = getConnection();
+		try {
+			DatabaseMetaDataCache.invalidate(connection);
+			connection.close();
+		} catch (SQLException ex) {
+			throw new AssertionError(ex);
+		}
 	}
 
 	@Override